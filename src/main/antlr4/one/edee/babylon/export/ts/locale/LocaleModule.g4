@@ -0,0 +1,101 @@
+/*
+ * Grammar of TypeScript locale modules - message files consisting only of imports, a single object literal with
+ * the messages and its default export, e.g.
+ *
+ *   import type { LangDef } from '@edeeone/juan-core/i18n/LangDef';
+ *   import type messages from './messages';
+ *
+ *   const messagesEn: LangDef<typeof messages> = {
+ *     'key': 'value',
+ *     [Keys.other]: `multiline
+ *   value`,
+ *   };
+ *   export default messagesEn;
+ *
+ * Files of any other shape are not recognized and have to be parsed by the full TypeScriptParser. Elements read
+ * by the parse listener are labeled, so that they are available even when no parse tree is built.
+ */
+grammar LocaleModule;
+
+module
+    : importStatement* declaration exportStatement? EOF
+    ;
+
+importStatement
+    : Import OpenBrace Identifier (Comma Identifier)* CloseBrace From StringLiteral SemiColon?                         # ValueImport
+    | Import Type OpenBrace names+=Identifier (Comma names+=Identifier)* CloseBrace From StringLiteral SemiColon?    # NamedTypeImport
+    | Import Type Identifier From StringLiteral SemiColon?                                                            # DefaultTypeImport
+    ;
+
+declaration
+    : Const name=Identifier typeAnnotation? Assign objectLiteral SemiColon?    # ConstDeclaration
+    | Export Default objectLiteral SemiColon?                                  # DefaultDeclaration
+    ;
+
+typeAnnotation
+    : Colon Identifier (LessThan Typeof Identifier MoreThan)?
+    ;
+
+exportStatement
+    : Export Default Identifier SemiColon?
+    ;
+
+objectLiteral
+    : OpenBrace (property (Comma property)* Comma?)? CloseBrace
+    ;
+
+property
+    : key=propertyName Colon value=(StringLiteral | TemplateLiteral)                          # PropertyAssignment
+    | OpenBracket key=computedName CloseBracket Colon value=(StringLiteral | TemplateLiteral)  # ComputedPropertyAssignment
+    ;
+
+propertyName
+    : Identifier
+    | StringLiteral
+    | NumericLiteral
+    | Import
+    | Type
+    | From
+    | Const
+    | Export
+    | Default
+    | Typeof
+    ;
+
+computedName
+    : Identifier (Dot Identifier)*
+    | TemplateLiteral
+    ;
+
+Import:                 'import';
+Type:                   'type';
+From:                   'from';
+Const:                  'const';
+Export:                 'export';
+Default:                'default';
+Typeof:                 'typeof';
+
+OpenBrace:              '{';
+CloseBrace:             '}';
+OpenBracket:            '[';
+CloseBracket:           ']';
+Comma:                  ',';
+Colon:                  ':';
+SemiColon:              ';';
+Assign:                 '=';
+Dot:                    '.';
+LessThan:               '<';
+MoreThan:               '>';
+
+NumericLiteral:         [0-9]+ ('.' [0-9]+)?;
+Identifier:             [a-zA-Z_$] [a-zA-Z0-9_$]*;
+StringLiteral:          '\'' (~['\\\r\n] | '\\' .)* '\''
+             |          '"' (~["\\\r\n] | '\\' .)* '"';
+// substitutions are limited to references without white spaces, so that the text of the literal is the same
+// as concatenated tokens of the full grammar
+TemplateLiteral:        '`' (~[`\\$] | '\\' . | '${' [a-zA-Z0-9_$.]+ '}')* '`';
+
+WhiteSpaces:            [\t\u000B\u000C\u0020\u00A0\r\n\u2028\u2029]+ -> skip;
+MultiLineComment:       '/*' .*? '*/' -> skip;
+SingleLineComment:      '//' ~[\r\n\u2028\u2029]* -> skip;
+
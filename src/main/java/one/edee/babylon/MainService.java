@@ -4,12 +4,17 @@ import one.edee.babylon.config.TranslationConfiguration;
 import one.edee.babylon.enums.Action;
 import one.edee.babylon.export.*;
 import one.edee.babylon.imp0rt.ImportProcessor;
+import one.edee.babylon.metrics.RunMetrics;
+import one.edee.babylon.report.RunReport;
 import lombok.extern.apachecommons.CommonsLog;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Main service for translation.
@@ -21,29 +26,53 @@ public class MainService {
 
     private final ImportProcessor importProcessor;
     private final Exporter exporter;
+    private final ExportWatcher exportWatcher;
+    private final RunMetrics runMetrics;
 
     @Autowired
     public MainService(Exporter exporter,
-                       ImportProcessor importProcessor) {
+                       ExportWatcher exportWatcher,
+                       ImportProcessor importProcessor,
+                       RunMetrics runMetrics) {
         this.exporter = exporter;
+        this.exportWatcher = exportWatcher;
         this.importProcessor = importProcessor;
+        this.runMetrics = runMetrics;
     }
 
     public void startTranslation(Action action, TranslationConfiguration configuration, String spreadsheetId, boolean combineSheets) throws IOException, GeneralSecurityException, InterruptedException {
         long stTime = System.currentTimeMillis();
+        RunReport report = null;
         switch (action) {
             case EXPORT:
                 log.info("Babylon starting...");
-                exporter.walkPathsAndWriteSheets(
+                report = RunReport.ofExport(exporter.walkPathsAndWriteSheets(
                         configuration,
                         spreadsheetId,
-                        combineSheets);
+                        combineSheets));
                 break;
             case IMPORT:
-                importProcessor.doImport(spreadsheetId);
+                report = RunReport.ofImport(importProcessor.doImport(spreadsheetId));
                 break;
+            case WATCH:
+                log.info("Babylon starting in watch mode...");
+                exporter.walkPathsAndWriteSheets(configuration, spreadsheetId, false);
+                exportWatcher.watch(configuration, spreadsheetId);
+                break;
+        }
+        long duration = System.currentTimeMillis() - stTime;
+        runMetrics.recordTime(RunMetrics.RUN, TimeUnit.MILLISECONDS.toNanos(duration), "action", action.name());
+        log.info("Translation done in: " + duration + "ms");
+        if (configuration.getMetricsFile() != null) {
+            runMetrics.writeTo(Paths.get(configuration.getMetricsFile()));
+        }
+        if (configuration.getReportFile() != null && report != null) {
+            report.withMetrics(runMetrics);
+            report.setSpreadsheetId(spreadsheetId);
+            report.setStartedAt(Instant.ofEpochMilli(stTime).toString());
+            report.setDurationMillis(duration);
+            report.writeTo(Paths.get(configuration.getReportFile()));
         }
-        log.info("Translation done in: " + (System.currentTimeMillis() - stTime) + "ms");
     }
 
 }
@@ -81,7 +81,7 @@ public class SpringBootConsoleApplication implements CommandLineRunner {
     }
 
     private static void printRequiredArguments() {
-        log.info("1 - expected action (import, export)");
+        log.info("1 - expected action (import, export, watch)");
         log.info("2 - path to translator-config.json file");
         log.info("3 - ID of the google sheet (e.g. 1xhnBAOpy8-9KWhl8NP0ZIy6mhlgXKnKcLJwKcIeyjPc)");
         log.info("4 - arg to specify combineSheets mode");
@@ -0,0 +1,105 @@
+package one.edee.babylon;
+
+import lombok.extern.apachecommons.CommonsLog;
+import one.edee.babylon.config.TranslationConfiguration;
+import one.edee.babylon.config.TranslationConfigurationReader;
+import one.edee.babylon.db.SnapshotManager;
+import one.edee.babylon.export.Exporter;
+import one.edee.babylon.export.TranslationCollector;
+import one.edee.babylon.export.translator.*;
+import one.edee.babylon.http.SharedHttpClient;
+import one.edee.babylon.imp0rt.ImportProcessor;
+import one.edee.babylon.metrics.RunMetrics;
+import one.edee.babylon.sheets.gsheets.LightGSheetService;
+import one.edee.babylon.snapshot.SnapshotAdapter;
+import one.edee.babylon.spring.CommonConfiguration;
+import one.edee.babylon.spring.ExporterConfiguration;
+import one.edee.babylon.spring.ImporterConfiguration;
+import one.edee.babylon.util.AntPathResourceLoader;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs Babylon without Spring Boot. {@link MainService} and its dependencies are created by calling the bean methods of
+ * {@link CommonConfiguration}, {@link ExporterConfiguration} and {@link ImporterConfiguration} directly, so the wiring
+ * is the same as in {@link SpringBootConsoleApplication}, only without component scanning and auto-configuration.
+ * Used by the maven plugin, which would otherwise start a new application context for every execution.
+ */
+@CommonsLog
+public class StandaloneApplication {
+
+    private StandaloneApplication() {
+    }
+
+    /**
+     * Runs the action and releases the created services.
+     *
+     * @param arguments arguments as by {@link SpringBootConsoleApplication#parseArguments(String...)}
+     * @throws IOException when the configuration, message files or snapshot cannot be read or written
+     */
+    public static void run(SpringBootConsoleApplication.Arguments arguments) throws IOException, GeneralSecurityException, InterruptedException {
+        run(arguments, readConfiguration(arguments));
+    }
+
+    /**
+     * Runs the action with given configuration instead of the one of the arguments and releases the created services.
+     */
+    public static void run(SpringBootConsoleApplication.Arguments arguments, TranslationConfiguration configuration) throws IOException, GeneralSecurityException, InterruptedException {
+        try (SharedHttpClient httpClient = new CommonConfiguration().sharedHttpClient(configuration)) {
+            createMainService(configuration, httpClient)
+                    .startTranslation(arguments.getAction(), configuration, arguments.getGoogleSheetId(), arguments.isCombineSheets());
+        }
+    }
+
+    /**
+     * Reads and checks configuration file of the arguments.
+     */
+    public static TranslationConfiguration readConfiguration(SpringBootConsoleApplication.Arguments arguments) throws IOException {
+        log.info("Loading config file: '" + arguments.getConfigFileName() + "'");
+        return new TranslationConfigurationReader().readAndCheckConfiguration(arguments.getConfigFileName());
+    }
+
+    /**
+     * Creates the main service with all its dependencies.
+     *
+     * @param configuration configuration of the run
+     * @param httpClient    client shared by Google Sheets and translators, closed by the caller
+     */
+    public static MainService createMainService(TranslationConfiguration configuration, SharedHttpClient httpClient) throws IOException {
+        CommonConfiguration common = new CommonConfiguration();
+        ExporterConfiguration exporting = new ExporterConfiguration();
+        ImporterConfiguration importing = new ImporterConfiguration();
+
+        RunMetrics runMetrics = common.runMetrics();
+        LightGSheetService lightGSheetService = common.lightGSheetService(
+                common.gSheetApiRequestFactory(), common.gSheetsClient(httpClient), runMetrics);
+        SnapshotManager snapshotManager = common.snapshotManager(configuration);
+        AntPathResourceLoader resourceLoader = common.antPathResourceLoader();
+
+        // one adapter serves as both read and write contract, as the single bean of the application context
+        SnapshotAdapter snapshotAdapter = exporting.snapshotAdapter(snapshotManager);
+        TranslationCollector translationCollector = exporting.translationCollector(
+                Arrays.asList(exporting.apronMessageLoader(), exporting.tsMessageLoader()),
+                exporting.messageFileProcessor(snapshotAdapter),
+                snapshotAdapter,
+                snapshotAdapter,
+                runMetrics);
+        // components scanned by ExporterConfiguration
+        List<Translator> translators = Arrays.asList(
+                new GoogleTranslator(httpClient),
+                new DeeplTranslator(httpClient),
+                new OpenAiTranslator(httpClient),
+                new LocalTranslator(httpClient));
+        Exporter exporter = exporting.exporter(translators, translationCollector, snapshotAdapter,
+                exporting.sheetContract(lightGSheetService), resourceLoader, runMetrics);
+
+        ImportProcessor importProcessor = importing.importProcessor(lightGSheetService, snapshotManager,
+                Arrays.asList(importing.propertyFileLoader(), importing.tsFileLoader()), configuration, runMetrics);
+
+        return new MainService(exporter, exporting.exportWatcher(exporter, resourceLoader), importProcessor, runMetrics);
+    }
+
+}
@@ -0,0 +1,45 @@
+package one.edee.babylon.config;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * Settings of the HTTP client shared by Google Sheets client and translators.
+ */
+@Data
+public class HttpConfiguration implements Serializable {
+
+    private static final long serialVersionUID = -2381907716419834472L;
+
+    /**
+     * Timeout of establishing a connection in seconds.
+     */
+    private int connectTimeoutSeconds = 180;
+
+    /**
+     * Timeout of reading a response in seconds, also used as timeout of writing a request.
+     */
+    private int readTimeoutSeconds = 180;
+
+    /**
+     * Maximal number of idle connections kept open for reuse.
+     */
+    private int maxIdleConnections = 16;
+
+    /**
+     * How long an idle connection is kept open, in seconds.
+     */
+    private int keepAliveSeconds = 300;
+
+    /**
+     * When false, responses are requested without compression.
+     */
+    private boolean gzip = true;
+
+    /**
+     * When false, only HTTP/1.1 is used even with servers supporting HTTP/2.
+     */
+    private boolean http2 = true;
+
+}
@@ -0,0 +1,28 @@
+package one.edee.babylon.config;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Additional spreadsheet the export is split into.
+ */
+@Data
+public class ShardConfiguration implements Serializable {
+
+    private static final long serialVersionUID = 4731503962158407427L;
+
+    /**
+     * Id of the google spreadsheet of this shard.
+     */
+    private String spreadsheetId;
+
+    /**
+     * Beginnings of message file paths (as written in {@link TranslationConfiguration#getPath()}) exported into this
+     * shard, used by {@link ShardStrategy#PATH_PREFIX}.
+     */
+    private List<String> pathPrefixes = new ArrayList<>();
+
+}
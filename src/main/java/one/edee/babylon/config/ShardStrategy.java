@@ -0,0 +1,21 @@
+package one.edee.babylon.config;
+
+/**
+ * Strategy assigning message files to spreadsheets when the export is split into several spreadsheets.
+ *
+ * @see TranslationConfiguration#getShards()
+ */
+public enum ShardStrategy {
+
+    /**
+     * Message file goes to the first shard with one of {@link ShardConfiguration#getPathPrefixes()} matching
+     * the beginning of its path, message files not matching any shard go to the main spreadsheet.
+     */
+    PATH_PREFIX,
+
+    /**
+     * Message files are distributed among the main spreadsheet and all shards so that each spreadsheet receives
+     * about the same number of cells.
+     */
+    SIZE
+}
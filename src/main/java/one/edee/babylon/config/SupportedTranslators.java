@@ -26,5 +26,10 @@ public enum SupportedTranslators {
     /**
      * @see one.edee.babylon.export.translator.OpenAiTranslator
      */
-    OPENAI
+    OPENAI,
+
+    /**
+     * @see one.edee.babylon.export.translator.LocalTranslator
+     */
+    LOCAL
 }
@@ -11,7 +11,9 @@ import java.io.Serializable;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 
 /**
@@ -37,6 +39,22 @@ public class TranslationConfiguration implements Serializable {
     @NonNull
     private String dataFileName;
 
+    /**
+     * Beginnings of message file paths (as written in {@link #path}) whose part of the snapshot is kept in a separate
+     * file, e.g. one per module. When set, {@link #dataFileName} holds a manifest of the snapshot files, only files
+     * of the shards matching {@link #path} are read and only the changed ones are written, so that runs for different
+     * modules do not rewrite the same file. Message files not matching any prefix are kept in a shard of their own.
+     */
+    private List<String> snapshotShards = new ArrayList<>();
+
+    /**
+     * When true, changes of the snapshot are appended to a journal next to the snapshot file instead of writing
+     * the whole snapshot, the journal is replayed when the snapshot is read and compacted into the snapshot file when
+     * it grows larger than the snapshot file. Only the amount of data written is reduced - each write still reads the
+     * snapshot file, replays the journal and compares both whole snapshots.
+     */
+    private boolean snapshotJournal;
+
     /**
      * List of all mutations to translate (e.g. CZ,EN,...).
      */
@@ -62,11 +80,91 @@ public class TranslationConfiguration implements Serializable {
     @Nullable
     private String translatorApiKey;
 
+    /**
+     * When true, translations missing in a message file are filled by existing translations of the same message
+     * in other message files. Filled cells are highlighted in the sheet for review.
+     */
+    private boolean reuseTranslations;
+
+    /**
+     * Retrying, throttling and circuit breaking of calls of {@link #translator}.
+     */
+    private TranslatorResilienceConfiguration translatorResilience = new TranslatorResilienceConfiguration();
+
+    /**
+     * When true, export updates existing sheets row by row instead of creating all sheets again, keeping sheets
+     * without changes untouched and translations typed into the sheets that were not imported yet.
+     */
+    private boolean syncSheets;
+
+    /**
+     * Additional spreadsheets to split the export into, when a single spreadsheet is not enough. Message files are
+     * distributed among the spreadsheet given on the command line and these shards according to {@link #shardStrategy},
+     * spreadsheets are exported and imported in parallel.
+     */
+    private List<ShardConfiguration> shards = new ArrayList<>();
+
+    /**
+     * How message files are distributed among {@link #shards}, {@link ShardStrategy#PATH_PREFIX} when not set.
+     */
+    @Nullable
+    private ShardStrategy shardStrategy;
+
+    /**
+     * Number of sheets decoded at once by import. With more than one thread the decoded sheets are merged in the order
+     * of the spreadsheets and their sheets, and sheets that cannot be imported (e.g. because of an unexpected title)
+     * do not stop import of the other sheets - all failures are reported together after the rest is saved.
+     */
+    private int importThreads = 1;
+
+    /**
+     * Connection pooling, compression and timeouts of the HTTP client used for Google Sheets and translators.
+     */
+    private HttpConfiguration http = new HttpConfiguration();
+
+    /**
+     * When true, rows of translation sheets are written into a temporary file as soon as each sheet is prepared and
+     * read back one sheet at a time when translated and uploaded, so that memory used by the export does not grow
+     * with the number of message files.
+     */
+    private boolean spillSheets;
+
+    /**
+     * Directory of the temporary file of {@link #spillSheets}, default temporary directory when not set.
+     */
+    @Nullable
+    private String spillDirectory;
+
+    /**
+     * Optional path of the file to dump run metrics (timers and counters) into. JSON is written for files
+     * with ".json" extension, Prometheus text format otherwise.
+     */
+    @Nullable
+    private String metricsFile;
+
+    /**
+     * Optional path of the JSON file to write the run report (per file statistics and phase durations) into.
+     */
+    @Nullable
+    private String reportFile;
+
     @JsonIgnore
     public Path getSnapshotPath() {
         return Paths.get(dataFileName);
     }
 
+    /**
+     * @param spreadsheetId id of the main spreadsheet given on the command line
+     * @return ids of the main spreadsheet and of all shards
+     */
+    @JsonIgnore
+    public List<String> getSpreadsheetIds(String spreadsheetId) {
+        Set<String> ids = new LinkedHashSet<>();
+        ids.add(spreadsheetId);
+        shards.forEach(shard -> ids.add(shard.getSpreadsheetId()));
+        return new ArrayList<>(ids);
+    }
+
     public void addFileToPath(String fileName) {
         path.add(fileName);
     }
@@ -0,0 +1,48 @@
+package one.edee.babylon.config;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * Retrying, throttling and circuit breaking of machine translation calls.
+ */
+@Data
+public class TranslatorResilienceConfiguration implements Serializable {
+
+    private static final long serialVersionUID = 6408193650728611046L;
+
+    /**
+     * Maximal number of attempts of one translation call, including the first one.
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * Delay before the first retry in milliseconds, doubled with every next retry.
+     */
+    private long initialBackoffMillis = 1000;
+
+    /**
+     * Maximal delay between retries in milliseconds, also caps delays requested by the service.
+     */
+    private long maxBackoffMillis = 60000;
+
+    /**
+     * Maximal number of translation calls running at once. The limit is halved whenever the service responds
+     * that it is overloaded and slowly grows back with successful calls.
+     */
+    private int maxConcurrency = 4;
+
+    /**
+     * Number of translation calls failing in a row after which the translator is not called anymore and the texts
+     * are left untranslated.
+     */
+    private int circuitBreakerThreshold = 3;
+
+    /**
+     * How long the translator is not called after {@link #circuitBreakerThreshold} failures, in seconds. One trial
+     * call is let through afterwards.
+     */
+    private int circuitBreakerOpenSeconds = 60;
+
+}
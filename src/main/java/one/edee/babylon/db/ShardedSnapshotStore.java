@@ -0,0 +1,257 @@
+package one.edee.babylon.db;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.apachecommons.CommonsLog;
+import one.edee.babylon.config.TranslationConfiguration;
+import one.edee.babylon.entity.MessageFileContent;
+import one.edee.babylon.snapshot.Snapshot;
+import one.edee.babylon.util.JsonUtils;
+import one.edee.babylon.util.AtomicFileWriter;
+import org.apache.commons.io.FileUtils;
+import org.springframework.util.ResourceUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Reads and writes snapshot split into files by {@link TranslationConfiguration#getSnapshotShards()}. Each message
+ * file belongs to the shard with the longest path prefix matching its path, {@link TranslationConfiguration#getDataFileName()}
+ * is the {@link SnapshotManifest} of the shards.
+ *
+ * Only shards that may contain message files matching {@link TranslationConfiguration#getPath()} are read, only shards
+ * whose content changed are written. Snapshot in a single file found at the place of the manifest is split into the
+ * shards by the first write.
+ */
+@CommonsLog
+class ShardedSnapshotStore {
+
+    /**
+     * Number of ids reserved for message files of one shard.
+     */
+    static final int ID_RANGE = 100_000;
+
+    private static final String WILDCARDS = "*?{[";
+
+    private final Path manifestFile;
+    private final List<String> pathPrefixes;
+    private final List<String> paths;
+    private final boolean journal;
+
+    ShardedSnapshotStore(TranslationConfiguration configuration) {
+        this.manifestFile = configuration.getSnapshotPath();
+        this.pathPrefixes = configuration.getSnapshotShards().stream().map(ShardedSnapshotStore::unify).collect(Collectors.toList());
+        this.paths = configuration.getPath();
+        this.journal = configuration.isSnapshotJournal();
+    }
+
+    /**
+     * @return message files of the shards matching the configured paths, new message files get ids of the range of
+     * their shard
+     * @throws IOException when the manifest or a shard cannot be read
+     */
+    Snapshot read() throws IOException {
+        Layout layout = readLayout();
+        Snapshot snapshot = new Snapshot();
+        if (layout.singleFile != null) {
+            putAll(layout.singleFile, snapshot);
+        } else {
+            for (SnapshotManifest.Shard shard : getShardsToLoad(layout.manifest)) {
+                Snapshot part = readShard(shard);
+                if (part != null) {
+                    putAll(part, snapshot);
+                    Path file = getShardFile(shard).toPath();
+                    snapshot.setStoredFiles(file, part.getStoredFiles(file));
+                }
+            }
+        }
+        snapshot.setFirstIdOfPath(path -> findShard(layout.manifest, path).getFirstId());
+        return snapshot;
+    }
+
+    /**
+     * Writes shards of the snapshot that changed. Shards that were not read (see {@link #read()}) are updated with
+     * the message files of the snapshot belonging to them, their other message files are kept.
+     *
+     * @throws IOException when the manifest or a shard cannot be read or written
+     */
+    void write(Snapshot snapshot) throws IOException {
+        Layout layout = readLayout();
+        Map<SnapshotManifest.Shard, Snapshot> parts = new LinkedHashMap<>();
+        Collection<SnapshotManifest.Shard> loadedShards = layout.singleFile != null
+                ? layout.manifest.getShards() : getShardsToLoad(layout.manifest);
+        for (SnapshotManifest.Shard shard : loadedShards) {
+            Snapshot part = new Snapshot();
+            Path file = getShardFile(shard).toPath();
+            part.setStoredFiles(file, snapshot.getStoredFiles(file));
+            parts.put(shard, part);
+        }
+        for (String path : snapshot.getPaths()) {
+            SnapshotManifest.Shard shard = findShard(layout.manifest, path);
+            Snapshot part = parts.get(shard);
+            if (part == null) {
+                part = Optional.ofNullable(readShard(shard)).orElseGet(Snapshot::new);
+                parts.put(shard, part);
+            }
+            part.putLoadedPropFile(path, snapshot.getPropFileByFileName(path));
+        }
+
+        int written = 0;
+        for (Map.Entry<SnapshotManifest.Shard, Snapshot> part : parts.entrySet()) {
+            File file = getShardFile(part.getKey());
+            if (part.getValue().getPaths().isEmpty() && !file.exists()) {
+                continue;
+            }
+            boolean changed = journal
+                    ? SnapshotJournal.write(part.getValue(), file.toPath())
+                    : SnapshotJournal.compact(part.getValue(), file.toPath());
+            if (changed) {
+                written++;
+            }
+            snapshot.setStoredFiles(file.toPath(), part.getValue().getStoredFiles(file.toPath()));
+        }
+        // shards first, the manifest may replace the snapshot they were split from
+        if (layout.manifestChanged) {
+            AtomicFileWriter.write(manifestFile, toJson(layout.manifest));
+        }
+        if (layout.singleFile != null) {
+            Files.deleteIfExists(SnapshotJournal.getJournalFile(manifestFile));
+        }
+        log.debug("Written " + written + " of " + parts.size() + " snapshot shards.");
+    }
+
+    /**
+     * Reads the manifest and adds shards of the configured prefixes missing in it.
+     */
+    private Layout readLayout() throws IOException {
+        Layout layout = new Layout();
+        File file = manifestFile.toFile();
+        if (file.exists() && file.length() != 0) {
+            String json = FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+            if (JsonUtils.jsonObjFromString(json, JsonNode.class).has("dataPropFiles")) {
+                layout.singleFile = SnapshotUtils.readSnapshot(file);
+            } else {
+                layout.manifest = JsonUtils.jsonObjFromString(json, SnapshotManifest.class);
+            }
+        }
+
+        List<String> prefixes = new ArrayList<>();
+        prefixes.add("");
+        prefixes.addAll(pathPrefixes);
+        for (String prefix : prefixes) {
+            List<SnapshotManifest.Shard> shards = layout.manifest.getShards();
+            if (shards.stream().anyMatch(shard -> shard.getPathPrefix().equals(prefix))) {
+                continue;
+            }
+            int firstId;
+            if (shards.isEmpty()) {
+                // ids of the snapshot being split are kept
+                int maxId = layout.singleFile == null ? -1 : layout.singleFile.getProps().values().stream()
+                        .map(MessageFileContent::getId)
+                        .filter(Objects::nonNull)
+                        .reduce(-1, Integer::max);
+                firstId = (maxId + ID_RANGE) / ID_RANGE * ID_RANGE;
+            } else {
+                firstId = shards.stream().mapToInt(SnapshotManifest.Shard::getFirstId).max().getAsInt() + ID_RANGE;
+            }
+            shards.add(new SnapshotManifest.Shard(prefix, getShardFileName(shards.size()), firstId));
+            layout.manifestChanged = true;
+        }
+        return layout;
+    }
+
+    /**
+     * Shards that may contain message files matching the configured paths - for each path the shard with the longest
+     * prefix of its non-wildcard beginning and all shards with prefixes longer than the beginning.
+     */
+    private Collection<SnapshotManifest.Shard> getShardsToLoad(SnapshotManifest manifest) {
+        Set<SnapshotManifest.Shard> result = new LinkedHashSet<>();
+        for (String path : paths) {
+            String filePath = path;
+            if (path.startsWith(ResourceUtils.FILE_URL_PREFIX)) {
+                filePath = path.substring(ResourceUtils.FILE_URL_PREFIX.length());
+            } else if (ResourceUtils.isUrl(path)) {
+                // message files of other resources are stored by paths that do not start as the pattern
+                return manifest.getShards();
+            }
+            String beginning = unify(filePath);
+            for (int i = 0; i < beginning.length(); i++) {
+                if (WILDCARDS.indexOf(beginning.charAt(i)) >= 0) {
+                    beginning = beginning.substring(0, i);
+                    break;
+                }
+            }
+            result.add(findShard(manifest, beginning));
+            for (SnapshotManifest.Shard shard : manifest.getShards()) {
+                if (shard.getPathPrefix().length() > beginning.length() && shard.getPathPrefix().startsWith(beginning)) {
+                    result.add(shard);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static SnapshotManifest.Shard findShard(SnapshotManifest manifest, String path) {
+        String unified = unify(path);
+        return manifest.getShards().stream()
+                .filter(shard -> unified.startsWith(shard.getPathPrefix()))
+                .max(Comparator.comparingInt(shard -> shard.getPathPrefix().length()))
+                .orElseThrow(() -> new IllegalStateException("Snapshot manifest has no shard for path '" + path + "'."));
+    }
+
+    private Snapshot readShard(SnapshotManifest.Shard shard) throws IOException {
+        File file = getShardFile(shard);
+        if (file.exists() && file.length() != 0) {
+            return SnapshotUtils.readSnapshot(file);
+        }
+        return null;
+    }
+
+    private File getShardFile(SnapshotManifest.Shard shard) {
+        Path directory = manifestFile.toAbsolutePath().getParent();
+        return directory.resolve(shard.getFile()).toFile();
+    }
+
+    /**
+     * Name of the manifest with the index of the shard before the extension, e.g. translation-db.1.json.
+     */
+    private String getShardFileName(int index) {
+        String name = manifestFile.getFileName().toString();
+        int extension = name.lastIndexOf('.');
+        return extension > 0
+                ? name.substring(0, extension) + "." + index + name.substring(extension)
+                : name + "." + index;
+    }
+
+    private static void putAll(Snapshot source, Snapshot target) {
+        for (String path : source.getPaths()) {
+            MessageFileContent content = source.getPropFileByFileName(path);
+            if (content.getId() == null) {
+                log.warn("Id for path \"" + path + "\" not found.");
+            }
+            target.putLoadedPropFile(path, content);
+        }
+    }
+
+    private static byte[] toJson(Object value) throws IOException {
+        return JsonUtils.objToJsonString(value, true).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String unify(String path) {
+        return path.replace(Snapshot.ORIGINAL_DELIMITER, Snapshot.LINUX_DELIMITER);
+    }
+
+    private static class Layout {
+        private SnapshotManifest manifest = new SnapshotManifest();
+        private boolean manifestChanged;
+        /**
+         * Snapshot in a single file found instead of the manifest.
+         */
+        private Snapshot singleFile;
+    }
+
+}
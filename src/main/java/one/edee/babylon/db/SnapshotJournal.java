@@ -0,0 +1,257 @@
+package one.edee.babylon.db;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.apachecommons.CommonsLog;
+import one.edee.babylon.config.TranslationConfiguration;
+import one.edee.babylon.snapshot.Snapshot;
+import one.edee.babylon.util.JsonUtils;
+import one.edee.babylon.util.AtomicFileWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps changes of a snapshot file in a journal next to it (see {@link TranslationConfiguration#isSnapshotJournal()}),
+ * so that a run writes only the changes instead of the whole snapshot. Snapshot file is the base, the journal contains
+ * one record per line, each a Json array of:
+ * <ul>
+ *     <li><code>["file", path, id]</code> - message file added to the snapshot</li>
+ *     <li><code>["removeFile", path]</code> - message file removed from the snapshot</li>
+ *     <li><code>["put", path, {key: value, ...}]</code> - messages of the message file added or changed</li>
+ *     <li><code>["remove", path, [key, ...]]</code> - messages removed from the message file</li>
+ * </ul>
+ * Records are replayed on the base when the snapshot is read. When the journal grows larger than the base, the whole
+ * snapshot is written into the base again and the journal is deleted. Message files read or written are kept in the
+ * snapshot (see {@link Snapshot#getStoredFiles(Path)}), changes are found against them without reading the files again.
+ *
+ * Writes are not coordinated, runs writing the same snapshot at the same time may lose changes of each other.
+ */
+@CommonsLog
+class SnapshotJournal {
+
+    private static final String JOURNAL_EXTENSION = ".journal";
+    private static final String FILES = "dataPropFiles";
+    private static final String ID = "id";
+    private static final String PROPERTIES = "properties";
+
+    private SnapshotJournal() {
+    }
+
+    /**
+     * @param snapshotFile base snapshot file
+     * @return journal of the snapshot file
+     */
+    static Path getJournalFile(Path snapshotFile) {
+        return Paths.get(snapshotFile.toString() + JOURNAL_EXTENSION);
+    }
+
+    /**
+     * Reads the base snapshot file and replays its journal.
+     *
+     * @param snapshotFile base snapshot file, must exist
+     * @return snapshot with changes of the journal
+     * @throws IOException when the snapshot or journal cannot be read
+     */
+    static Snapshot read(File snapshotFile) throws IOException {
+        ObjectNode root = readTree(snapshotFile.toPath());
+        Snapshot snapshot = JsonUtils.jsonObjFromTree(root, Snapshot.class);
+        snapshot.setStoredFiles(snapshotFile.toPath(), getFiles(root));
+        return snapshot;
+    }
+
+    /**
+     * Appends differences between the snapshot on disk and given snapshot to the journal, compacting the journal when
+     * it is larger than the base. The base is written as a whole when it does not exist yet. The snapshot on disk is
+     * read only when it is not kept in the given snapshot.
+     *
+     * @param snapshot     snapshot to write
+     * @param snapshotFile base snapshot file
+     * @return false when the snapshot on disk already had the content and nothing was written
+     * @throws IOException when the snapshot or journal cannot be read or written
+     */
+    static boolean write(Snapshot snapshot, Path snapshotFile) throws IOException {
+        if (!Files.exists(snapshotFile) || Files.size(snapshotFile) == 0) {
+            return compact(snapshot, snapshotFile);
+        }
+        ObjectNode current = JsonUtils.objToJsonTree(snapshot);
+        JsonNode stored = snapshot.getStoredFiles(snapshotFile);
+        List<JsonNode> records = diff(stored != null ? (ObjectNode) stored : getFiles(readTree(snapshotFile)), getFiles(current));
+        if (records.isEmpty()) {
+            snapshot.setStoredFiles(snapshotFile, getFiles(current));
+            return false;
+        }
+        Path journalFile = getJournalFile(snapshotFile);
+        StringBuilder lines = new StringBuilder();
+        if (!endsWithNewLine(journalFile)) {
+            // incomplete record of an interrupted run stays on a line of its own
+            lines.append('\n');
+        }
+        for (JsonNode record : records) {
+            lines.append(JsonUtils.objToJsonString(record, false)).append('\n');
+        }
+        Files.write(journalFile, lines.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        log.debug("Appended " + records.size() + " records to snapshot journal '" + journalFile + "'.");
+        snapshot.setStoredFiles(snapshotFile, getFiles(current));
+
+        if (Files.size(journalFile) > Files.size(snapshotFile)) {
+            compact(snapshot, snapshotFile, current);
+        }
+        return true;
+    }
+
+    /**
+     * Writes the whole snapshot into the base file and deletes the journal. Replaying the deleted journal on the new
+     * base would not change it, so the snapshot is consistent even if the journal is left behind.
+     *
+     * @return false when the snapshot on disk already had the content
+     */
+    static boolean compact(Snapshot snapshot, Path snapshotFile) throws IOException {
+        return compact(snapshot, snapshotFile, JsonUtils.objToJsonTree(snapshot));
+    }
+
+    private static boolean compact(Snapshot snapshot, Path snapshotFile, ObjectNode current) throws IOException {
+        boolean written = AtomicFileWriter.write(snapshotFile, JsonUtils.objToJsonString(snapshot, true).getBytes(StandardCharsets.UTF_8));
+        snapshot.setStoredFiles(snapshotFile, getFiles(current));
+        return Files.deleteIfExists(getJournalFile(snapshotFile)) || written;
+    }
+
+    private static boolean endsWithNewLine(Path journalFile) throws IOException {
+        if (!Files.exists(journalFile) || Files.size(journalFile) == 0) {
+            return true;
+        }
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.READ)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, channel.size() - 1);
+            return last.get(0) == '\n';
+        }
+    }
+
+    private static ObjectNode readTree(Path snapshotFile) throws IOException {
+        ObjectNode root = (ObjectNode) JsonUtils.jsonTreeFromFile(snapshotFile.toFile());
+        Path journalFile = getJournalFile(snapshotFile);
+        if (!Files.exists(journalFile)) {
+            return root;
+        }
+        ObjectNode files = getFiles(root);
+        List<String> lines = Files.readAllLines(journalFile, StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.get(i).isEmpty()) {
+                continue;
+            }
+            JsonNode record;
+            try {
+                record = JsonUtils.jsonObjFromString(lines.get(i), JsonNode.class);
+            } catch (JsonProcessingException e) {
+                // unfinished write of a run that did not complete
+                log.warn("Incomplete record " + (i + 1) + " of snapshot journal '" + journalFile + "' is ignored.");
+                continue;
+            }
+            replay(record, files);
+        }
+        return root;
+    }
+
+    private static void replay(JsonNode record, ObjectNode files) {
+        String path = record.get(1).asText();
+        switch (record.get(0).asText()) {
+            case "file":
+                ObjectNode file = JsonNodeFactory.instance.objectNode();
+                file.put(ID, record.get(2).asInt());
+                file.putObject(PROPERTIES);
+                files.remove(path);
+                files.set(path, file);
+                break;
+            case "removeFile":
+                files.remove(path);
+                break;
+            case "put":
+                getProperties(files, path).setAll((ObjectNode) record.get(2));
+                break;
+            case "remove":
+                ObjectNode properties = getProperties(files, path);
+                record.get(2).forEach(key -> properties.remove(key.asText()));
+                break;
+            default:
+                throw new IllegalStateException("Unknown snapshot journal record: " + record);
+        }
+    }
+
+    /**
+     * @return records changing message files of {@code before} to {@code after}
+     */
+    private static List<JsonNode> diff(ObjectNode before, ObjectNode after) {
+        List<JsonNode> records = new ArrayList<>();
+        before.fieldNames().forEachRemaining(path -> {
+            if (!after.has(path)) {
+                records.add(record("removeFile", path));
+            }
+        });
+        Iterator<Map.Entry<String, JsonNode>> files = after.fields();
+        while (files.hasNext()) {
+            Map.Entry<String, JsonNode> file = files.next();
+            String path = file.getKey();
+            JsonNode previous = before.get(path);
+            if (previous == null || !previous.path(ID).equals(file.getValue().path(ID))) {
+                if (previous != null) {
+                    records.add(record("removeFile", path));
+                }
+                records.add(record("file", path).add(file.getValue().path(ID).asInt()));
+                previous = JsonNodeFactory.instance.objectNode();
+            }
+            JsonNode previousProperties = previous.path(PROPERTIES);
+            JsonNode properties = file.getValue().path(PROPERTIES);
+
+            ObjectNode put = JsonNodeFactory.instance.objectNode();
+            properties.fields().forEachRemaining(property -> {
+                if (!property.getValue().equals(previousProperties.get(property.getKey()))) {
+                    put.set(property.getKey(), property.getValue());
+                }
+            });
+            if (put.size() > 0) {
+                records.add(record("put", path).add(put));
+            }
+            ArrayNode remove = JsonNodeFactory.instance.arrayNode();
+            previousProperties.fieldNames().forEachRemaining(key -> {
+                if (!properties.has(key)) {
+                    remove.add(key);
+                }
+            });
+            if (remove.size() > 0) {
+                records.add(record("remove", path).add(remove));
+            }
+        }
+        return records;
+    }
+
+    private static ArrayNode record(String type, String path) {
+        return JsonNodeFactory.instance.arrayNode().add(type).add(path);
+    }
+
+    private static ObjectNode getFiles(ObjectNode root) {
+        return root.with(FILES);
+    }
+
+    private static ObjectNode getProperties(ObjectNode files, String path) {
+        JsonNode file = files.get(path);
+        if (file == null) {
+            throw new IllegalStateException("Snapshot journal changes message file '" + path + "' that is not in the snapshot.");
+        }
+        return ((ObjectNode) file).with(PROPERTIES);
+    }
+
+}
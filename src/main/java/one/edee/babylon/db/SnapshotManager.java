@@ -19,6 +19,11 @@ public class SnapshotManager {
      */
     private Path snapshotFile;
 
+    /**
+     * Snapshot split into several files, null when the snapshot is kept in {@link #snapshotFile}.
+     */
+    private ShardedSnapshotStore shardedStore;
+
     /**
      * Working DataFile object that changing during the export process. Initial state is given from existing json DataFile.
      * If DataFile not exists then new object DataFile is created.
@@ -33,12 +38,26 @@ public class SnapshotManager {
         loadOriginalDataFile();
     }
 
+    /**
+     * Manages snapshot of {@link TranslationConfiguration#getDataFileName()}, only the shards matching
+     * {@link TranslationConfiguration#getPath()} are loaded when {@link TranslationConfiguration#getSnapshotShards()}
+     * are set.
+     */
+    public SnapshotManager(TranslationConfiguration configuration) throws IOException {
+        this.snapshotFile = configuration.getSnapshotPath();
+        if (!configuration.getSnapshotShards().isEmpty()) {
+            this.shardedStore = new ShardedSnapshotStore(configuration);
+        }
+        loadOriginalDataFile();
+    }
+
     /**
      * Should not be needed in production.
      */
     @Deprecated
     protected void forceSetSnapshotFile(Path snapshotFile) throws IOException {
         this.snapshotFile = snapshotFile;
+        this.shardedStore = null;
         loadOriginalDataFile();
         snapshot = getExistingDataFileFromDisk(snapshotFile);
     }
@@ -78,6 +97,9 @@ public class SnapshotManager {
     }
 
     private Snapshot getExistingDataFileFromDisk(Path snapshotFile) throws IOException {
+        if (shardedStore != null) {
+            return shardedStore.read();
+        }
         File file = snapshotFile.toFile();
         if (file.exists() && file.length() != 0) {
             Snapshot df = SnapshotUtils.readSnapshot(file);
@@ -0,0 +1,51 @@
+package one.edee.babylon.db;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.edee.babylon.config.TranslationConfiguration;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Content of {@link TranslationConfiguration#getDataFileName()} when the snapshot is split into shards by
+ * {@link TranslationConfiguration#getSnapshotShards()}. Shards are only appended, so that their files and ids of
+ * their message files do not change when the prefixes in the configuration are reordered.
+ */
+@Data
+public class SnapshotManifest implements Serializable {
+
+    private static final long serialVersionUID = -2183376021466290453L;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    /**
+     * File with the part of the snapshot containing message files of the path prefix.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Shard implements Serializable {
+
+        private static final long serialVersionUID = 6064137581947212357L;
+
+        /**
+         * Beginning of the message file paths, empty for message files not matching any other shard.
+         */
+        private String pathPrefix;
+
+        /**
+         * Name of the snapshot file, relative to the manifest.
+         */
+        private String file;
+
+        /**
+         * First id of new message files of the shard.
+         */
+        private int firstId;
+
+    }
+
+}
@@ -1,10 +1,12 @@
 package one.edee.babylon.db;
 
+import one.edee.babylon.config.TranslationConfiguration;
 import one.edee.babylon.snapshot.Snapshot;
 import one.edee.babylon.util.JsonUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 /**
@@ -16,16 +18,39 @@ public class SnapshotUtils {
         return readSnapshot(path.toFile());
     }
 
+    /**
+     * Reads snapshot including changes in its journal, if there is any.
+     */
     public static Snapshot readSnapshot(File file) throws IOException {
-        return JsonUtils.jsonObjFromFile(file, Snapshot.class);
+        return SnapshotJournal.read(file);
     }
 
     public static void writeSnapshot(Snapshot snapshot, Path path) throws IOException {
         writeSnapshot(snapshot, path.toFile());
     }
 
+    /**
+     * Writes the whole snapshot, its journal is deleted.
+     */
     public static void writeSnapshot(Snapshot snapshot, File file) throws IOException {
         JsonUtils.objToJsonFile(file, snapshot, true);
+        snapshot.setStoredFiles(file.toPath(), null);
+        Files.deleteIfExists(SnapshotJournal.getJournalFile(file.toPath()));
+    }
+
+    /**
+     * Writes snapshot into {@link TranslationConfiguration#getDataFileName()}, or into its shards when
+     * {@link TranslationConfiguration#getSnapshotShards()} are set. Only changes are appended to the journal when
+     * {@link TranslationConfiguration#isSnapshotJournal()} is set.
+     */
+    public static void writeSnapshot(Snapshot snapshot, TranslationConfiguration configuration) throws IOException {
+        if (!configuration.getSnapshotShards().isEmpty()) {
+            new ShardedSnapshotStore(configuration).write(snapshot);
+        } else if (configuration.isSnapshotJournal()) {
+            SnapshotJournal.write(snapshot, configuration.getSnapshotPath());
+        } else {
+            writeSnapshot(snapshot, configuration.getSnapshotPath());
+        }
     }
 
 }
@@ -14,5 +14,10 @@ public enum Action {
      * Action for import of translated data from Google sheet specified by ID, through Json DataFile into language properties files,
      * according to given Json Configuration file.
      */
-    IMPORT
+    IMPORT,
+    /**
+     * Action that performs {@link #EXPORT} and then keeps watching the message files, exporting again only those
+     * message files that changed, until terminated.
+     */
+    WATCH
 }
@@ -0,0 +1,192 @@
+package one.edee.babylon.export;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.apachecommons.CommonsLog;
+import one.edee.babylon.config.TranslationConfiguration;
+import one.edee.babylon.msgfile.TranslationFileUtils;
+import one.edee.babylon.util.AntPathResourceLoader;
+import one.edee.babylon.util.MessageFileDiscovery;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches message files of the translation configuration and exports again only those message files whose primary
+ * or translation file changed. The exporter with its snapshot and Google Sheets client stays warm between iterations,
+ * so one change costs parsing of one bundle and replacing of its sheet only.
+ *
+ * Directories of message files found when the watching starts are watched. New message files are picked up when
+ * they appear in one of these directories, message files in other new directories require restarting the watch.
+ */
+@CommonsLog
+@RequiredArgsConstructor
+public class ExportWatcher {
+    /** Changes arriving within this period after the previous one are exported together. */
+    private static final long QUIET_PERIOD_MILLIS = 300;
+
+    private final Exporter exporter;
+    private final AntPathResourceLoader resourceLoader;
+
+    /**
+     * Watches message files until the current thread is interrupted. Expects that the spreadsheet already contains
+     * result of full export of the configuration.
+     *
+     * @param configuration configuration of translation run
+     * @param spreadsheetId id of GSheets spreadsheet
+     * @throws InterruptedException when watching is interrupted
+     */
+    public void watch(TranslationConfiguration configuration, String spreadsheetId) throws IOException, InterruptedException {
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            WatchedFiles watchedFiles = new WatchedFiles(watchService, configuration.getMutations());
+            watchedFiles.update(discover(configuration));
+            log.info("Watching " + watchedFiles.getMsgFilePaths().size() + " message files in "
+                    + watchedFiles.getDirectoryCount() + " directories for changes...");
+
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<String> changedMsgFiles = awaitChangedMsgFiles(watchService, watchedFiles, configuration);
+                if (changedMsgFiles.isEmpty()) {
+                    continue;
+                }
+                log.info("Exporting changed message files " + changedMsgFiles);
+                long start = System.currentTimeMillis();
+                try {
+                    exporter.exportMessageFiles(configuration, spreadsheetId, changedMsgFiles);
+                    log.info("Changed message files exported in: " + (System.currentTimeMillis() - start) + "ms");
+                } catch (RuntimeException e) {
+                    // the file may be saved in the middle of editing, the next change will export it again
+                    log.error("Export of changed message files failed: " + e.getMessage(), e);
+                }
+            }
+            throw new InterruptedException();
+        }
+    }
+
+    /**
+     * Waits for the first change and the changes following it within {@link #QUIET_PERIOD_MILLIS}.
+     *
+     * @return paths of primary message files that should be exported again
+     */
+    private Set<String> awaitChangedMsgFiles(WatchService watchService, WatchedFiles watchedFiles,
+                                             TranslationConfiguration configuration) throws InterruptedException {
+        Set<String> changedMsgFiles = new LinkedHashSet<>();
+        boolean unknownFileChanged = false;
+        WatchKey key = watchService.take();
+        while (key != null) {
+            Path dir = (Path) key.watchable();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == OVERFLOW) {
+                    log.warn("Some changes in '" + dir + "' were lost, exporting all message files of the directory.");
+                    changedMsgFiles.addAll(watchedFiles.getMsgFilesIn(dir));
+                    continue;
+                }
+                Path file = dir.resolve((Path) event.context());
+                String msgFilePath = watchedFiles.getMsgFile(file);
+                if (msgFilePath != null) {
+                    changedMsgFiles.add(msgFilePath);
+                } else if (event.kind() == ENTRY_CREATE) {
+                    unknownFileChanged = true;
+                }
+            }
+            key.reset();
+            key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        if (unknownFileChanged) {
+            List<String> discovered = discover(configuration);
+            for (String msgFilePath : discovered) {
+                if (!watchedFiles.getMsgFilePaths().contains(msgFilePath)) {
+                    log.info("New message file '" + msgFilePath + "' found.");
+                    changedMsgFiles.add(msgFilePath);
+                }
+            }
+            watchedFiles.update(discovered);
+        }
+
+        Iterator<String> it = changedMsgFiles.iterator();
+        while (it.hasNext()) {
+            String msgFilePath = it.next();
+            if (!new File(msgFilePath).exists()) {
+                log.warn("Message file '" + msgFilePath + "' was removed, run full export to remove its sheet.");
+                it.remove();
+            }
+        }
+        return changedMsgFiles;
+    }
+
+    private List<String> discover(TranslationConfiguration configuration) {
+        try {
+            return new MessageFileDiscovery(resourceLoader).discover(configuration.getPath()).getPaths();
+        } catch (IOException e) {
+            throw new RuntimeException("Error when expanding paths '" + configuration.getPath() + "'", e);
+        }
+    }
+
+    /**
+     * Maps watched files (primary message files and their translations) to paths of primary message files.
+     */
+    private static class WatchedFiles {
+        private final WatchService watchService;
+        private final List<String> translateTo;
+        private final Set<Path> directories = new HashSet<>();
+        private final Map<Path, String> msgFileByWatchedFile = new HashMap<>();
+        private final Set<String> msgFilePaths = new LinkedHashSet<>();
+
+        WatchedFiles(WatchService watchService, List<String> translateTo) {
+            this.watchService = watchService;
+            this.translateTo = translateTo;
+        }
+
+        void update(List<String> discoveredMsgFilePaths) {
+            for (String msgFilePath : discoveredMsgFilePaths) {
+                if (!msgFilePaths.add(msgFilePath)) {
+                    continue;
+                }
+                watch(msgFilePath, msgFilePath);
+                for (String lang : translateTo) {
+                    watch(TranslationFileUtils.getFileNameForTranslation(msgFilePath, lang), msgFilePath);
+                }
+            }
+        }
+
+        private void watch(String path, String msgFilePath) {
+            Path file = Paths.get(path).toAbsolutePath().normalize();
+            msgFileByWatchedFile.put(file, msgFilePath);
+            Path dir = file.getParent();
+            if (dir != null && Files.isDirectory(dir) && directories.add(dir)) {
+                try {
+                    dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+                } catch (IOException e) {
+                    throw new RuntimeException("Unable to watch directory '" + dir + "'", e);
+                }
+            }
+        }
+
+        String getMsgFile(Path file) {
+            return msgFileByWatchedFile.get(file.toAbsolutePath().normalize());
+        }
+
+        Collection<String> getMsgFilesIn(Path dir) {
+            Set<String> result = new LinkedHashSet<>();
+            msgFileByWatchedFile.forEach((file, msgFilePath) -> {
+                if (dir.equals(file.getParent())) {
+                    result.add(msgFilePath);
+                }
+            });
+            return result;
+        }
+
+        Set<String> getMsgFilePaths() {
+            return msgFilePaths;
+        }
+
+        int getDirectoryCount() {
+            return directories.size();
+        }
+    }
+
+}
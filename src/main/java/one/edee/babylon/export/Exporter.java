@@ -5,22 +5,26 @@ import lombok.extern.apachecommons.CommonsLog;
 import one.edee.babylon.config.SupportedTranslators;
 import one.edee.babylon.config.TranslationConfiguration;
 import one.edee.babylon.db.SnapshotUtils;
+import one.edee.babylon.export.dto.ChangedCells;
 import one.edee.babylon.export.dto.ExportResult;
+import one.edee.babylon.export.dto.RowStore;
 import one.edee.babylon.export.dto.TranslationSheet;
+import one.edee.babylon.export.stats.MessageFileExportStats;
+import one.edee.babylon.export.translator.ResilientTranslator;
 import one.edee.babylon.export.translator.Translator;
+import one.edee.babylon.metrics.RunMetrics;
+import one.edee.babylon.sheets.SheetConstants;
 import one.edee.babylon.sheets.SheetsException;
 import one.edee.babylon.sheets.gsheets.model.ASheet;
 import one.edee.babylon.snapshot.TranslationSnapshotWriteContract;
 import one.edee.babylon.util.AntPathResourceLoader;
-import one.edee.babylon.util.PathUtils;
+import one.edee.babylon.util.MessageFileDiscovery;
+import one.edee.babylon.util.ParallelUtils;
 import org.jetbrains.annotations.NotNull;
-import org.springframework.context.ApplicationContext;
-import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.function.Function;
@@ -35,37 +39,56 @@ import static java.util.Optional.ofNullable;
 @RequiredArgsConstructor
 public class Exporter {
     private static final String COMBINING_SHEET_NAME = "ALL";
+    /** Maximal number of texts sent to the translator at once, DeepL accepts at most 50 texts per request. */
+    private static final int TRANSLATION_BATCH_SIZE = 50;
 
 
-    private final ApplicationContext applicationContext;
+    /** All available translators, the one of {@link TranslationConfiguration#getTranslator()} type is used. */
+    private final List<Translator> translators;
     private final TranslationCollector translationCollector;
     private final TranslationSnapshotWriteContract snapshot;
     private final SheetContract gsc;
     private final AntPathResourceLoader resourceLoader;
-    private final PathUtils pu = new PathUtils();
+    private final RunMetrics metrics;
 
 
     /**
      * Walks message file paths, gathering messages and translations, producing translation sheets in given GSheet spreadsheet.
      *
      * @param configuration     configuration of translation run
-     * @param spreadsheetId     id of GSheets spreadsheet, must be empty
+     * @param spreadsheetId     id of GSheets spreadsheet, must be empty unless sheets are synchronized; when
+     *                          {@link TranslationConfiguration#getShards()} are defined, the sheets are split
+     *                          among this spreadsheet and the shards
+     * @return statistics of all exported message files
      */
-    public void walkPathsAndWriteSheets(TranslationConfiguration configuration,
+    public List<MessageFileExportStats> walkPathsAndWriteSheets(TranslationConfiguration configuration,
                                         String spreadsheetId,
                                         boolean combineSheets) {
+        try (RowStore rowStore = createRowStore(configuration)) {
+            return walkPathsAndWriteSheets(configuration, spreadsheetId, combineSheets, rowStore);
+        }
+    }
+
+    private List<MessageFileExportStats> walkPathsAndWriteSheets(TranslationConfiguration configuration,
+                                                                 String spreadsheetId,
+                                                                 boolean combineSheets,
+                                                                 RowStore rowStore) {
         List<String> patternPaths = configuration.getPath();
         warnDuplicatePaths(patternPaths);
 
-        List<ASheet> prevSheets = listAllSheets(spreadsheetId);
+        List<String> spreadsheetIds = configuration.getSpreadsheetIds(spreadsheetId);
+        Map<String, List<ASheet>> prevSheets = metrics.recordPhase("export.list",
+                () -> ParallelUtils.mapInParallel(spreadsheetIds, this::listAllSheets));
 
-        Collection<String> allUniquePaths = expandsToUniquePaths(patternPaths);
-        boolean pathsOk = checkPathsExist(allUniquePaths);
+        MessageFileDiscovery.DiscoveryResult discovered = metrics.recordPhase("export.walk", () -> discoverPaths(patternPaths));
+        Collection<String> allUniquePaths = discovered.getPaths();
+        boolean pathsOk = checkPathsExist(discovered);
         if (!pathsOk) {
             throw new IllegalArgumentException("Please fix the message file paths in the configuration file.");
         }
 
-        ExportResult result = translationCollector.walkPathsAndCollectTranslationSheets(allUniquePaths, configuration.getMutations());
+        ExportResult result = metrics.recordPhase("export.collect",
+                () -> translationCollector.walkPathsAndCollectTranslationSheets(allUniquePaths, configuration.getMutations(), configuration.isReuseTranslations(), rowStore));
 
         if (combineSheets) {
             // only for translation debugging
@@ -73,90 +96,244 @@ public class Exporter {
             List<TranslationSheet> sheets = new ArrayList<>(original);
             original.clear();
 
-            List<List<String>> combine = new LinkedList<>();
-            for (int i = 0; i < sheets.size(); i++) {
-                TranslationSheet sheet = sheets.get(i);
-                List<List<String>> rows = sheet.getRows();
-                if (i != 0){
-                    rows.remove(0);
+            // header of the first sheet followed by data rows of all sheets, written by the upload in bounded chunks
+            if (rowStore != null) {
+                // rows are copied one sheet at a time
+                Iterator<List<String>> combinedRows = sheets.stream()
+                        .flatMap(sheet -> (sheet == sheets.get(0) ? sheet.getRows() : sheet.getDataRows()).stream())
+                        .iterator();
+                RowStore.Segment segment = rowStore.write(combinedRows);
+                original.add(new TranslationSheet(COMBINING_SHEET_NAME, rowStore, segment,
+                        sheets.isEmpty() ? 0 : sheets.get(0).getColumnCount()));
+            } else {
+                int rowCount = 1 + sheets.stream().mapToInt(TranslationSheet::getDataRowCount).sum();
+                List<List<String>> combine = new ArrayList<>(rowCount);
+                for (int i = 0; i < sheets.size(); i++) {
+                    TranslationSheet sheet = sheets.get(i);
+                    combine.addAll(i == 0 ? sheet.getRows() : sheet.getDataRows());
                 }
-                combine.addAll(rows);
-            }
 
-            original.add(new TranslationSheet(COMBINING_SHEET_NAME,combine));
+                original.add(new TranslationSheet(COMBINING_SHEET_NAME,combine));
+            }
         }
 
-        Map<String, List<String>> changed = translateTextsByExternalTool(configuration, result);
+        Map<String, ChangedCells> changed = metrics.recordPhase("export.translate", () -> translateTextsByExternalTool(configuration, result));
 
-        uploadTranslations(result, spreadsheetId, configuration.getLockedCellEditors(), changed);
+        Map<String, List<TranslationSheet>> sheetsBySpreadsheet = new SpreadsheetSharding(configuration, spreadsheetId)
+                .assign(combineSheets ? Collections.emptyList() : result.getSheets(), result.getStats(), spreadsheetBySheet(prevSheets));
+        if (combineSheets) {
+            // the combined sheet always goes to the main spreadsheet
+            sheetsBySpreadsheet.get(spreadsheetId).addAll(result.getSheets());
+        }
+        // in sync mode existing sheets are updated in place, otherwise all sheets are created again
+        boolean sync = configuration.isSyncSheets() && !combineSheets;
+        Map<String, Set<String>> uploadedSheets = metrics.recordPhase("export.upload",
+                () -> ParallelUtils.mapInParallel(spreadsheetIds, id -> uploadTranslations(
+                        sheetsBySpreadsheet.get(id), result.getStats(), id,
+                        configuration.getLockedCellEditors(), changed,
+                        sync ? sheetsByTitle(prevSheets.get(id)) : Collections.emptyMap(), Collections.emptyMap())));
+
+        metrics.recordPhase("export.snapshot", () -> {
+            updateSnapshotAndWriteToDisk(this.snapshot, result, configuration);
+            return null;
+        });
+
+        metrics.recordPhase("export.cleanup", () -> ParallelUtils.mapInParallel(spreadsheetIds, id -> {
+            Set<String> uploaded = uploadedSheets.get(id);
+            List<ASheet> oldSheets = prevSheets.get(id).stream()
+                    .filter(sheet -> !(sync && uploaded.contains(sheet.getTitle())))
+                    .collect(Collectors.toList());
+            if (uploaded.isEmpty() && !oldSheets.isEmpty()) {
+                // spreadsheet has to keep at least one sheet, an empty one replaces the old sheets so that import
+                // does not read them back
+                log.info("Nothing exported into spreadsheet '" + id + "', its previous sheets are replaced by an empty sheet.");
+                if (!oldSheets.removeIf(sheet -> SheetConstants.EMPTY_SHEET_TITLE.equals(sheet.getTitle()))) {
+                    createEmptySheet(id);
+                }
+            }
+            if (!oldSheets.isEmpty()) {
+                deleteOldSheets(oldSheets.stream().map(ASheet::getId).collect(Collectors.toList()), id);
+            }
+            return null;
+        }));
+        return result.getStats();
+    }
 
-        updateSnapshotAndWriteToDisk(this.snapshot, result, configuration.getSnapshotPath());
+    /**
+     * Exports only given message files, replacing their sheets in the spreadsheet and keeping sheets of other message
+     * files untouched. Used for re-exporting message files that changed since the last export.
+     *
+     * @param configuration configuration of translation run
+     * @param spreadsheetId id of GSheets spreadsheet
+     * @param msgFilePaths  paths of primary message files to export again
+     * @return statistics of the exported message files
+     */
+    public List<MessageFileExportStats> exportMessageFiles(TranslationConfiguration configuration,
+                                                           String spreadsheetId,
+                                                           Collection<String> msgFilePaths) {
+        try (RowStore rowStore = createRowStore(configuration)) {
+            return exportMessageFiles(configuration, spreadsheetId, msgFilePaths, rowStore);
+        }
+    }
 
-        List<Integer> prevSheetIds = prevSheets.stream().map(ASheet::getId).collect(Collectors.toList());
-        deleteOldSheets(prevSheetIds, spreadsheetId);
+    private List<MessageFileExportStats> exportMessageFiles(TranslationConfiguration configuration,
+                                                            String spreadsheetId,
+                                                            Collection<String> msgFilePaths,
+                                                            RowStore rowStore) {
+        List<String> spreadsheetIds = configuration.getSpreadsheetIds(spreadsheetId);
+        Map<String, List<ASheet>> prevSheets = metrics.recordPhase("export.list",
+                () -> ParallelUtils.mapInParallel(spreadsheetIds, this::listAllSheets));
+        Map<String, String> spreadsheetBySheet = spreadsheetBySheet(prevSheets);
+
+        ExportResult result = metrics.recordPhase("export.collect",
+                () -> translationCollector.collectTranslationSheets(msgFilePaths, configuration.getMutations(), configuration.isReuseTranslations(), rowStore));
+
+        Map<String, ChangedCells> changed = metrics.recordPhase("export.translate", () -> translateTextsByExternalTool(configuration, result));
+
+        // sheets stay in their spreadsheet, new sheets are distributed as in full export
+        Map<String, List<TranslationSheet>> sheetsBySpreadsheet = new LinkedHashMap<>();
+        spreadsheetIds.forEach(id -> sheetsBySpreadsheet.put(id, new ArrayList<>()));
+        new SpreadsheetSharding(configuration, spreadsheetId).assign(result.getSheets(), result.getStats(), spreadsheetBySheet)
+                .forEach((id, sheets) -> sheets.forEach(sheet ->
+                        sheetsBySpreadsheet.get(spreadsheetBySheet.getOrDefault(sheet.getSheetName(), id)).add(sheet)));
+
+        // existing sheets are updated in place in sync mode, otherwise replaced, sheets of message files that no
+        // longer need translation are deleted
+        Map<String, Map<String, ASheet>> sheetsToUpdate = new HashMap<>();
+        Map<String, Map<String, ASheet>> sheetsToReplace = new HashMap<>();
+        Map<String, List<Integer>> deletedSheetIds = new HashMap<>();
+        sheetsBySpreadsheet.forEach((id, sheets) -> {
+            Map<String, ASheet> existing = sheetsByTitle(prevSheets.get(id));
+            sheetsToUpdate.put(id, new HashMap<>());
+            sheetsToReplace.put(id, new HashMap<>());
+            deletedSheetIds.put(id, new ArrayList<>());
+            for (TranslationSheet sheet : sheets) {
+                ASheet prevSheet = existing.get(sheet.getSheetName());
+                if (prevSheet == null) {
+                    continue;
+                }
+                if (sheet.getDataRowCount() == 0) {
+                    deletedSheetIds.get(id).add(prevSheet.getId());
+                } else if (configuration.isSyncSheets()) {
+                    sheetsToUpdate.get(id).put(sheet.getSheetName(), prevSheet);
+                } else {
+                    sheetsToReplace.get(id).put(sheet.getSheetName(), prevSheet);
+                }
+            }
+        });
+
+        Map<String, Set<String>> uploadedSheets = metrics.recordPhase("export.upload", () -> ParallelUtils.mapInParallel(spreadsheetIds, id -> uploadTranslations(
+                sheetsBySpreadsheet.get(id), result.getStats(), id, configuration.getLockedCellEditors(), changed,
+                sheetsToUpdate.get(id), sheetsToReplace.get(id))));
+
+        // sheets are deleted after the upload, so that the new sheets are already there when a spreadsheet loses all old ones
+        metrics.recordPhase("export.cleanup", () -> ParallelUtils.mapInParallel(spreadsheetIds, id -> {
+            List<Integer> deleted = deletedSheetIds.get(id);
+            if (!deleted.isEmpty()) {
+                Set<String> existingTitles = sheetsByTitle(prevSheets.get(id)).keySet();
+                long created = uploadedSheets.get(id).stream().filter(title -> !existingTitles.contains(title)).count();
+                if (prevSheets.get(id).size() - deleted.size() + created == 0) {
+                    // spreadsheet has to keep at least one sheet
+                    createEmptySheet(id);
+                }
+                deleteOldSheets(deleted, id);
+            }
+            return null;
+        }));
+
+        metrics.recordPhase("export.snapshot", () -> {
+            updateSnapshotAndWriteToDisk(this.snapshot, result, configuration);
+            return null;
+        });
+        return result.getStats();
     }
 
     @NotNull
-    private Map<String, List<String>> translateTextsByExternalTool(TranslationConfiguration configuration, ExportResult result) {
-        Map<String, List<String>> changed = new HashMap<>();
+    private Map<String, ChangedCells> translateTextsByExternalTool(TranslationConfiguration configuration, ExportResult result) {
+        Map<String, ChangedCells> changed = new HashMap<>();
+        result.getReusedCells().forEach((sheetName, cells) -> changed.computeIfAbsent(sheetName, key -> new ChangedCells()).addAll(cells));
 
         if (configuration.getTranslatorApiKey() != null) {
             SupportedTranslators translatorType = ofNullable(configuration.getTranslator()).orElse(SupportedTranslators.GOOGLE);
 
-            Translator translator = applicationContext.getBeansOfType(Translator.class)
-                    .values()
+            Translator translatorBean = translators
                     .stream()
                     .filter(i -> i.getSupportedTranslator().equals(translatorType))
                     .findFirst()
                     .orElseThrow(() -> new IllegalArgumentException("Cannot find translator bean for type" + translatorType));
+            ResilientTranslator translator = new ResilientTranslator(translatorBean, configuration.getTranslatorResilience(), metrics);
             translator.init(configuration.getTranslatorApiKey());
 
             try {
+                // every distinct text is translated once per language, no matter how many sheets contain it
+                Map<String, Set<String>> textsByLang = new LinkedHashMap<>();
+                // spilled sheets are read one at a time
                 for (TranslationSheet sheet : result.getSheets()) {
-
                     List<List<String>> rows = sheet.getRows();
-                    if (rows.size() == 1)
-                        continue;
-
-                    log.info("Translating sheet " + sheet.getSheetName());
                     List<String> header = rows.get(0);
-                    List<String> originals = rows.stream().map(i->i.get(1)).map(i->StringUtils.hasText(i) ? i : "____DUMMY").collect(Collectors.toList());
-                    Map<String, List<String>> translations = new HashMap<>();
+                    for (List<String> cells : rows.subList(1, rows.size())) {
+                        if (cells.size() < 2)
+                            continue;
+                        String original = cells.get(1);
+                        for (int l = 2; l < cells.size(); l++) {
+                            if (StringUtils.isEmpty(cells.get(l)) && StringUtils.hasText(original)) {
+                                textsByLang.computeIfAbsent(header.get(l), lang -> new LinkedHashSet<>()).add(original);
+                            }
+                        }
+                    }
+                }
 
-                    for (String lang : header.stream().skip(2).collect(Collectors.toList())) {
-                        translations.put(lang, translator.translate(configuration.getDefaultLang(), originals, lang));
+                List<TranslationTask> tasks = new ArrayList<>();
+                textsByLang.forEach((lang, texts) -> {
+                    List<String> distinctTexts = new ArrayList<>(texts);
+                    for (int start = 0; start < distinctTexts.size(); start += TRANSLATION_BATCH_SIZE) {
+                        tasks.add(new TranslationTask(lang, distinctTexts.subList(start, Math.min(start + TRANSLATION_BATCH_SIZE, distinctTexts.size()))));
+                    }
+                });
+                log.info("Translating " + textsByLang.values().stream().mapToInt(Set::size).sum() + " distinct texts in "
+                        + tasks.size() + " batches.");
+                Map<TranslationTask, List<String>> translated = ParallelUtils.mapInParallel(tasks,
+                        configuration.getTranslatorResilience().getMaxConcurrency(),
+                        task -> translate(translator, configuration.getDefaultLang(), task.originals, task.lang));
+
+                Map<String, Map<String, String>> translationsByLang = new HashMap<>();
+                for (TranslationTask task : tasks) {
+                    List<String> translatedTexts = translated.get(task);
+                    if (translatedTexts == null) {
+                        // left untranslated
+                        continue;
                     }
+                    Map<String, String> translations = translationsByLang.computeIfAbsent(task.lang, lang -> new HashMap<>());
+                    for (int i = 0; i < task.originals.size(); i++) {
+                        translations.put(task.originals.get(i), translatedTexts.get(i));
+                    }
+                }
 
+                for (TranslationSheet sheet : result.getSheets()) {
+                    List<List<String>> rows = sheet.getRows();
+                    List<String> header = rows.get(0);
+                    boolean sheetChanged = false;
                     for (int i = 1; i < rows.size(); i++) {
-                        Map<Integer, String> toChange = new HashMap<>();
-
                         List<String> cells = rows.get(i);
+                        if (cells.size() < 2)
+                            continue;
                         String original = cells.get(1);
                         for (int l = 2; l < cells.size(); l++) {
-                            if (StringUtils.isEmpty(cells.get(l))) {
-
-                                String lang = header.get(l);
-
-                                if (StringUtils.hasText(original)) {
-                                    String transOriginal = originals.get(i);
-                                    if (!Objects.equals(original, "____DUMMY")){
-                                        Assert.isTrue(Objects.equals(transOriginal, original), "Originals does not equals!");
-                                        String translatedText = translations.get(lang).get(i);
-                                        toChange.put(l, translatedText);
-
-                                        changed
-                                                .computeIfAbsent(sheet.getSheetName(), key -> new LinkedList<>())
-                                                .add(i + "_" + l);
-                                    }
+                            if (StringUtils.isEmpty(cells.get(l)) && StringUtils.hasText(original)) {
+                                String translatedText = translationsByLang.getOrDefault(header.get(l), Collections.emptyMap()).get(original);
+                                if (translatedText != null) {
+                                    cells.set(l, translatedText);
+                                    sheetChanged = true;
+                                    changed
+                                            .computeIfAbsent(sheet.getSheetName(), key -> new ChangedCells())
+                                            .add(i, l);
                                 }
                             }
                         }
-
-                        for (Entry<Integer, String> entry : toChange.entrySet()) {
-                            cells.remove((int) entry.getKey());
-                            cells.add(entry.getKey(), entry.getValue());
-                        }
-
+                    }
+                    if (sheetChanged) {
+                        // spilled sheet returned a copy of its rows
+                        sheet.setRows(rows);
                     }
                 }
             } catch (Exception e) {
@@ -166,6 +343,25 @@ public class Exporter {
         return changed;
     }
 
+    private List<String> translate(Translator translator, String defaultLang, List<String> originals, String lang) {
+        String translatorName = translator.getSupportedTranslator().name();
+        metrics.count(RunMetrics.TRANSLATOR_TEXTS, originals.size(), "translator", translatorName);
+        metrics.count(RunMetrics.TRANSLATOR_CHARACTERS, originals.stream().mapToInt(String::length).sum(), "translator", translatorName);
+        return metrics.record(RunMetrics.TRANSLATOR_CALLS,
+                () -> translator.translate(defaultLang, originals, lang),
+                "translator", translatorName, "lang", lang);
+    }
+
+    /**
+     * @return store to spill rows of translation sheets into, null when sheets are kept in memory
+     */
+    private RowStore createRowStore(TranslationConfiguration configuration) {
+        if (!configuration.isSpillSheets()) {
+            return null;
+        }
+        return new RowStore(ofNullable(configuration.getSpillDirectory()).map(File::new).orElse(null));
+    }
+
     private void warnDuplicatePaths(List<String> patternPaths) {
         List<String> duplicatePaths = detectDuplicatePatternPaths(patternPaths);
         if (!duplicatePaths.isEmpty()) {
@@ -183,30 +379,21 @@ public class Exporter {
                 .collect(Collectors.toList());
     }
 
-    private Collection<String> expandsToUniquePaths(List<String> patternPaths) {
-        return patternPaths.stream()
-                .map(this::expandPath)
-                .flatMap(Collection::stream)
-                .collect(Collectors.toCollection(LinkedHashSet::new));
-    }
-
-    private List<String> expandPath(String patternPath) {
+    private MessageFileDiscovery.DiscoveryResult discoverPaths(List<String> patternPaths) {
         try {
-            return pu.expandPath(patternPath, resourceLoader);
+            MessageFileDiscovery.DiscoveryResult result = new MessageFileDiscovery(resourceLoader).discover(patternPaths);
+            log.info("Found " + result.getPaths().size() + " message files, " + result.getVisitedDirectoryCount() + " directories visited.");
+            return result;
         } catch (IOException e) {
-            throw new RuntimeException("Error when expanding path '" + patternPath + "'", e);
+            throw new RuntimeException("Error when expanding paths '" + patternPaths + "'", e);
         }
     }
 
-    private boolean checkPathsExist(Collection<String> paths) {
-        boolean pathsOk = true;
-        for (String path : paths) {
-            if (!new File(path).exists()) {
-                log.error("File '" + path + "' could not be found.");
-                pathsOk = false;
-            }
+    private boolean checkPathsExist(MessageFileDiscovery.DiscoveryResult discovered) {
+        for (String path : discovered.getMissingPaths()) {
+            log.error("File '" + path + "' could not be found.");
         }
-        return pathsOk;
+        return discovered.getMissingPaths().isEmpty();
     }
 
     private List<ASheet> listAllSheets(String spreadsheetId) {
@@ -218,28 +405,80 @@ public class Exporter {
         }
     }
 
-    private void uploadTranslations(ExportResult exportResult, String spreadsheetId, List<String> lockedCellEditors, Map<String, List<String>> changed) {
-        exportResult.getSheets().stream()
-                .filter(sheet -> !sheet.getDataRows().isEmpty())
+    /**
+     * @return id of the spreadsheet containing the sheet by sheet title
+     */
+    private static Map<String, String> spreadsheetBySheet(Map<String, List<ASheet>> sheetsBySpreadsheet) {
+        Map<String, String> spreadsheetBySheet = new HashMap<>();
+        sheetsBySpreadsheet.forEach((id, sheets) -> sheets.forEach(sheet -> spreadsheetBySheet.putIfAbsent(sheet.getTitle(), id)));
+        return spreadsheetBySheet;
+    }
+
+    private Map<String, ASheet> sheetsByTitle(List<ASheet> sheets) {
+        return sheets.stream().collect(Collectors.toMap(ASheet::getTitle, Function.identity(), (a, b) -> a));
+    }
+
+    /**
+     * Uploads all non-empty translation sheets into given spreadsheet.
+     *
+     * @param sheetsToUpdate  existing sheets by title that should be updated instead of creating a new sheet
+     * @param sheetsToReplace existing sheets by title that should be replaced by a new sheet
+     * @return titles of uploaded sheets
+     */
+    private Set<String> uploadTranslations(List<TranslationSheet> sheets, List<MessageFileExportStats> exportStats, String spreadsheetId,
+                                           List<String> lockedCellEditors, Map<String, ChangedCells> changed,
+                                           Map<String, ASheet> sheetsToUpdate, Map<String, ASheet> sheetsToReplace) {
+        Map<String, MessageFileExportStats> statsBySheet = exportStats.stream()
+                .collect(Collectors.toMap(MessageFileExportStats::getSheetName, Function.identity(), (a, b) -> a));
+        Set<String> uploadedSheets = new HashSet<>();
+        sheets.stream()
+                .filter(sheet -> sheet.getDataRowCount() > 0)
                 .forEach(sheet -> {
                     try {
-                        log.info("Writing " + sheet.getDataRows().size() + " rows into sheet '" + sheet.getSheetName() + "'.");
-                        gsc.createSheet(spreadsheetId, sheet.getSheetName(), sheet.getRows(), lockedCellEditors, changed);
+                        // spreadsheets are uploaded in parallel, so only calls of the current thread belong to the sheet
+                        long apiCallsBefore = metrics.getThreadApiCallCount();
+                        ASheet existingSheet = sheetsToUpdate.get(sheet.getSheetName());
+                        ASheet replacedSheet = sheetsToReplace.get(sheet.getSheetName());
+                        if (existingSheet != null) {
+                            gsc.updateSheet(spreadsheetId, existingSheet, sheet.getRows(), lockedCellEditors, changed);
+                        } else if (replacedSheet != null) {
+                            log.info("Writing " + sheet.getDataRowCount() + " rows into sheet '" + sheet.getSheetName() + "' replacing the previous one.");
+                            gsc.replaceSheet(spreadsheetId, replacedSheet, sheet.getRows(), lockedCellEditors, changed);
+                        } else {
+                            log.info("Writing " + sheet.getDataRowCount() + " rows into sheet '" + sheet.getSheetName() + "'.");
+                            gsc.createSheet(spreadsheetId, sheet.getSheetName(), sheet.getRows(), lockedCellEditors, changed);
+                        }
+                        uploadedSheets.add(sheet.getSheetName());
+                        MessageFileExportStats stats = statsBySheet.get(sheet.getSheetName());
+                        if (stats != null) {
+                            stats.setApiCalls(metrics.getThreadApiCallCount() - apiCallsBefore);
+                        }
                     } catch (SheetsException e) {
                         String errMsg = "Error when uploading data to spreadsheet '" + spreadsheetId + "'";
                         throw new RuntimeException(errMsg, e);
                     }
                 });
+        return uploadedSheets;
     }
 
-    private void updateSnapshotAndWriteToDisk(TranslationSnapshotWriteContract snapshot, ExportResult exportResult, Path snapshotFile) {
+    private void updateSnapshotAndWriteToDisk(TranslationSnapshotWriteContract snapshot, ExportResult exportResult, TranslationConfiguration configuration) {
         try {
             Iterable<String> newMsgFiles = exportResult.getPathsOfNewMsgFiles();
             newMsgFiles.forEach(snapshot::registerMsgFile);
-            File snapshotFileName = snapshotFile.toFile();
-            SnapshotUtils.writeSnapshot(snapshot.getUnderlyingSnapshot(), snapshotFileName);
+            SnapshotUtils.writeSnapshot(snapshot.getUnderlyingSnapshot(), configuration);
         } catch (IOException e) {
-            String errMsg = "Error when updating translation snapshot '" + snapshotFile + "' with new message file paths.";
+            String errMsg = "Error when updating translation snapshot '" + configuration.getSnapshotPath() + "' with new message file paths.";
+            throw new RuntimeException(errMsg, e);
+        }
+    }
+
+    private void createEmptySheet(String spreadsheetId) {
+        try {
+            gsc.createSheet(spreadsheetId, SheetConstants.EMPTY_SHEET_TITLE,
+                    Collections.singletonList(Arrays.asList(SheetConstants.COL_KEY, SheetConstants.COL_PRIMARY)),
+                    Collections.emptyList(), Collections.emptyMap());
+        } catch (SheetsException e) {
+            String errMsg = "Error when creating empty sheet in spreadsheet '" + spreadsheetId + "'";
             throw new RuntimeException(errMsg, e);
         }
     }
@@ -253,6 +492,15 @@ public class Exporter {
         }
     }
 
+    /**
+     * Batch of distinct texts translated into one language, identity is used as key of parallel processing.
+     */
+    @RequiredArgsConstructor
+    private static class TranslationTask {
+        private final String lang;
+        private final List<String> originals;
+    }
+
     /**
      * Defines sheet operations required by {@link Exporter}.
      */
@@ -283,10 +531,36 @@ public class Exporter {
          * @param sheetTitle        name to use for the new sheet
          * @param sheetRows         rows with data cells to fill the sheet with
          * @param lockedCellEditors list of email accounts that will be able to edit locked cells
-         * @param changed
+         * @param changed           cells filled by machine translation by sheet title
          * @throws SheetsException when unable to upload sheets
          */
-        void createSheet(String spreadsheetId, String sheetTitle, List<List<String>> sheetRows, List<String> lockedCellEditors, Map<String, List<String>> changed) throws SheetsException;
+        void createSheet(String spreadsheetId, String sheetTitle, List<List<String>> sheetRows, List<String> lockedCellEditors, Map<String, ChangedCells> changed) throws SheetsException;
+
+        /**
+         * Updates an existing sheet to contain provided data, writing only rows that differ from current sheet content.
+         *
+         * @param spreadsheetId     id of spreadsheet containing the sheet
+         * @param sheet             sheet to update
+         * @param sheetRows         rows with data cells the sheet should contain
+         * @param lockedCellEditors list of email accounts that will be able to edit locked cells
+         * @param changed           cells filled by machine translation by sheet title
+         * @throws SheetsException when unable to update the sheet
+         */
+        void updateSheet(String spreadsheetId, ASheet sheet, List<List<String>> sheetRows, List<String> lockedCellEditors, Map<String, ChangedCells> changed) throws SheetsException;
+
+        /**
+         * Replaces an existing sheet by a new one with the same title and provided data. The new sheet is created
+         * before the existing one is deleted, so the existing sheet is kept when the new one cannot be created and
+         * the spreadsheet never runs out of sheets.
+         *
+         * @param spreadsheetId     id of spreadsheet containing the sheet
+         * @param sheet             sheet to replace
+         * @param sheetRows         rows with data cells to fill the new sheet with
+         * @param lockedCellEditors list of email accounts that will be able to edit locked cells
+         * @param changed           cells filled by machine translation by sheet title
+         * @throws SheetsException when unable to replace the sheet
+         */
+        void replaceSheet(String spreadsheetId, ASheet sheet, List<List<String>> sheetRows, List<String> lockedCellEditors, Map<String, ChangedCells> changed) throws SheetsException;
 
     }
 
@@ -1,6 +1,8 @@
 package one.edee.babylon.export;
 
 import lombok.Data;
+import one.edee.babylon.export.dto.ChangedCells;
+import one.edee.babylon.export.dto.ColumnarRows;
 import one.edee.babylon.sheets.SheetConstants;
 import one.edee.babylon.export.stats.MessageFileExportStats;
 import one.edee.babylon.snapshot.TranslationSnapshotReadContract;
@@ -17,26 +19,40 @@ public class MessageFileProcessor {
     }
 
     public static class SheetContent {
-        private final List<String> header;
-        private final List<List<String>> dataRows;
-        private final int dataRowCount;
+        /** Header followed by data rows. */
+        private final ColumnarRows rows;
+        /** Cells filled from {@link TranslationMemory}, row indexes include the header row. */
+        private final ChangedCells reusedCells = new ChangedCells();
 
         public SheetContent(List<String> header, List<List<String>> dataRows) {
-            this.header = header;
-            this.dataRows = dataRows;
-            this.dataRowCount = dataRows.size();
+            this(ColumnarRows.of(header, dataRows));
+        }
+
+        public SheetContent(ColumnarRows rows) {
+            this.rows = rows;
         }
 
         public List<String> getHeader() {
-            return header;
+            return rows.get(0);
         }
 
         public List<List<String>> getDataRows() {
-            return dataRows;
+            return rows.subList(1, rows.size());
+        }
+
+        /**
+         * @return header followed by data rows
+         */
+        public ColumnarRows getRows() {
+            return rows;
         }
 
         public int getDataRowCount() {
-            return dataRowCount;
+            return rows.size() - 1;
+        }
+
+        public ChangedCells getReusedCells() {
+            return reusedCells;
         }
     }
 
@@ -45,6 +61,21 @@ public class MessageFileProcessor {
             Map<String, String> primaryMsgs,
             Map<String, Map<String, String>> translations,
             List<String> translationLangs) {
+        return prepareTranslationSheet(msgFile, primaryMsgs, translations, translationLangs, null);
+    }
+
+    /**
+     * Prepares translation sheet of the message file.
+     *
+     * @param translationMemory when given, translations missing in the sheet are filled by translations of the same
+     *                          text from other message files
+     */
+    public Pair<SheetContent, MessageFileExportStats> prepareTranslationSheet(
+            String msgFile,
+            Map<String, String> primaryMsgs,
+            Map<String, Map<String, String>> translations,
+            List<String> translationLangs,
+            TranslationMemory translationMemory) {
 
         Set<String> newMessageKeys = determineNewMessageKeysUsingComparisonWithTranslation(primaryMsgs, translations);
         Map<String, String> existingMessages = new HashMap<>(primaryMsgs);
@@ -68,18 +99,65 @@ public class MessageFileProcessor {
                 missingTranslations,
                 primaryMsgKeyOrdering
         );
+        if (translationMemory != null) {
+            reuseTranslations(translationSheet, translationLangs, translationMemory);
+        }
 
         MessageFileExportStats stats = new MessageFileExportStats(
                 msgFile,
+                primaryMsgs.size(),
                 newMessageKeys.size(),
                 changedKeys.size(),
                 missingTranslations.size(),
                 translationSheet.getDataRowCount()
         );
+        stats.setReusedTranslationCount(translationSheet.getReusedCells().size());
 
         return new Pair<>(translationSheet, stats);
     }
 
+    /**
+     * Adds valid translations of the message file, i.e. those whose primary message did not change since
+     * the last export, to the translation memory.
+     */
+    public void indexTranslations(String msgFile,
+                                  Map<String, String> primaryMsgs,
+                                  Map<String, Map<String, String>> translations,
+                                  TranslationMemory translationMemory) {
+        Set<String> changedKeys = determineChangedPrimaryMsgs(msgFile, primaryMsgs);
+        translations.forEach((lang, langMsgs) -> langMsgs.forEach((key, translation) -> {
+            String primaryMsg = primaryMsgs.get(key);
+            if (primaryMsg != null && !changedKeys.contains(key)) {
+                translationMemory.add(primaryMsg, lang, translation);
+            }
+        }));
+    }
+
+    private void reuseTranslations(SheetContent sheet, List<String> translationLangs, TranslationMemory translationMemory) {
+        ColumnarRows rows = sheet.getRows();
+        // header is the first row of the sheet
+        for (int i = 1; i < rows.size(); i++) {
+            List<String> row = rows.get(i);
+            if (row.size() < 2) {
+                continue;
+            }
+            for (int l = 0; l < translationLangs.size(); l++) {
+                int col = l + 2;
+                if (col < row.size() && row.get(col) != null && !row.get(col).isEmpty()) {
+                    continue;
+                }
+                String translation = translationMemory.find(row.get(1), translationLangs.get(l));
+                if (translation != null) {
+                    if (row.size() <= col) {
+                        row = rows.resizeRow(i, col + 1);
+                    }
+                    row.set(col, translation);
+                    sheet.getReusedCells().add(i, col);
+                }
+            }
+        }
+    }
+
     private Set<String> determineNewMessageKeysUsingComparisonWithTranslation(
             Map<String, String> primaryMsgs,
             Map<String, Map<String, String>> translations) {
@@ -134,52 +212,55 @@ public class MessageFileProcessor {
             Set<String> missingTransKeys,
             Map<String, Integer> msgKeyOrdering) {
 
-        List<List<String>> populatedRows = missingTransKeys.stream()
-                .map(key -> populateSheetRow(primaryMsgs, translations, translationLangs, key))
-                .collect(Collectors.toList());
-
         Set<String> noUsableTranslations = new HashSet<>(newMsgKeys);
         noUsableTranslations.addAll(changedMsgKeys);
 
-        List<List<String>> blankRows = noUsableTranslations.stream()
-                .map(key -> {
-                    String primaryMsg = primaryMsgs.get(key);
-                    List<String> emptyCols = translationLangs.stream().filter(Objects::isNull).collect(Collectors.toList());
-                    return createRow(key, primaryMsg, emptyCols);
-                })
-                .collect(Collectors.toList());
-
-        List<List<String>> allRows = new ArrayList<>();
-        allRows.addAll(blankRows);
-        allRows.addAll(populatedRows);
-
-        allRows.sort(Comparator.comparing(row -> msgKeyOrdering.get(row.get(0))));
+        Comparator<String> byOrdering = Comparator.comparing(msgKeyOrdering::get);
+        List<String> blankKeys = new ArrayList<>(noUsableTranslations);
+        blankKeys.sort(byOrdering);
+        List<String> populatedKeys = new ArrayList<>(missingTransKeys);
+        populatedKeys.sort(byOrdering);
 
+        List<Map<String, String>> langMaps = translationLangs.stream()
+                .map(translations::get)
+                .collect(Collectors.toList());
         List<String> header = createSheetHeader(translationLangs);
-        return new SheetContent(header, allRows);
+        ColumnarRows rows = ColumnarRows.withEmptyRows(header, blankKeys.size() + populatedKeys.size());
+
+        // cells are written into the columns, rows of both kinds are merged in the order of keys, blank rows first
+        int blank = 0;
+        int populated = 0;
+        for (int i = 1; i < rows.size(); i++) {
+            if (populated == populatedKeys.size()
+                    || (blank < blankKeys.size() && byOrdering.compare(blankKeys.get(blank), populatedKeys.get(populated)) <= 0)) {
+                String key = blankKeys.get(blank++);
+                List<String> row = rows.resizeRow(i, 2);
+                row.set(0, key);
+                row.set(1, primaryMsgs.get(key));
+            } else {
+                populateSheetRow(rows, i, primaryMsgs, langMaps, populatedKeys.get(populated++));
+            }
+        }
+        return new SheetContent(rows);
     }
 
-    private List<String> populateSheetRow(Map<String, String> primaryMsgs,
-                                          Map<String, Map<String, String>> translations,
-                                          List<String> translationLangs,
-                                          String messageKey) {
+    private void populateSheetRow(ColumnarRows rows,
+                                  int index,
+                                  Map<String, String> primaryMsgs,
+                                  List<Map<String, String>> langMaps,
+                                  String messageKey) {
         String primaryMsg = primaryMsgs.get(messageKey);
-        List<String> translatedMsgs = translationLangs.stream()
-                .map(lang -> {
-                    Map<String, String> langMap = translations.get(lang);
-                    return langMap != null ? langMap.get(messageKey) : null;
-                }).collect(Collectors.toList());
-
-        return primaryMsg != null ? createRow(messageKey, primaryMsg, translatedMsgs)
-                : Collections.singletonList(messageKey);
-    }
-
-    private List<String> createRow(String msgKey, String primaryMsg, List<String> translations) {
-        List<String> row = new ArrayList<>();
-        row.add(msgKey);
-        row.add(primaryMsg);
-        row.addAll(translations);
-        return row;
+        if (primaryMsg == null) {
+            rows.resizeRow(index, 1).set(0, messageKey);
+            return;
+        }
+        List<String> row = rows.resizeRow(index, 2 + langMaps.size());
+        row.set(0, messageKey);
+        row.set(1, primaryMsg);
+        for (int l = 0; l < langMaps.size(); l++) {
+            Map<String, String> langMap = langMaps.get(l);
+            row.set(2 + l, langMap != null ? langMap.get(messageKey) : null);
+        }
     }
 
     private List<String> createSheetHeader(List<String> targetLangs) {
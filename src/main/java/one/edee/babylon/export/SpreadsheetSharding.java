@@ -0,0 +1,114 @@
+package one.edee.babylon.export;
+
+import one.edee.babylon.config.ShardConfiguration;
+import one.edee.babylon.config.ShardStrategy;
+import one.edee.babylon.config.TranslationConfiguration;
+import one.edee.babylon.export.dto.TranslationSheet;
+import one.edee.babylon.export.stats.MessageFileExportStats;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Distributes translation sheets among the main spreadsheet and shards defined by {@link TranslationConfiguration#getShards()}.
+ */
+public class SpreadsheetSharding {
+
+    private final TranslationConfiguration configuration;
+    private final String spreadsheetId;
+
+    /**
+     * @param configuration configuration with shards
+     * @param spreadsheetId id of the main spreadsheet
+     */
+    public SpreadsheetSharding(TranslationConfiguration configuration, String spreadsheetId) {
+        this.configuration = configuration;
+        this.spreadsheetId = spreadsheetId;
+    }
+
+    /**
+     * @param sheets              sheets to distribute
+     * @param stats               export statistics of the sheets providing paths of their message files
+     * @param spreadsheetBySheet  id of the spreadsheet already containing the sheet by sheet title, sheets distributed
+     *                            by size stay in it
+     * @return sheets by id of the spreadsheet they belong to, contains every spreadsheet even if it receives no sheet
+     */
+    public Map<String, List<TranslationSheet>> assign(List<TranslationSheet> sheets, List<MessageFileExportStats> stats,
+                                                      Map<String, String> spreadsheetBySheet) {
+        Map<String, List<TranslationSheet>> result = new LinkedHashMap<>();
+        configuration.getSpreadsheetIds(spreadsheetId).forEach(id -> result.put(id, new ArrayList<>()));
+        if (result.size() == 1) {
+            result.get(spreadsheetId).addAll(sheets);
+            return result;
+        }
+
+        ShardStrategy strategy = ofNullable(configuration.getShardStrategy()).orElse(ShardStrategy.PATH_PREFIX);
+        switch (strategy) {
+            case PATH_PREFIX:
+                Map<String, String> msgFileBySheet = stats.stream()
+                        .collect(Collectors.toMap(MessageFileExportStats::getSheetName, MessageFileExportStats::getMessageFilePath, (a, b) -> a));
+                for (TranslationSheet sheet : sheets) {
+                    result.get(findByPrefix(msgFileBySheet.get(sheet.getSheetName()))).add(sheet);
+                }
+                break;
+            case SIZE:
+                assignBySize(sheets, spreadsheetBySheet, result);
+                break;
+        }
+        return result;
+    }
+
+    private String findByPrefix(String msgFilePath) {
+        if (msgFilePath != null) {
+            for (ShardConfiguration shard : configuration.getShards()) {
+                for (String prefix : shard.getPathPrefixes()) {
+                    if (msgFilePath.startsWith(prefix)) {
+                        return shard.getSpreadsheetId();
+                    }
+                }
+            }
+        }
+        return spreadsheetId;
+    }
+
+    /**
+     * Keeps sheets in the spreadsheet that already contains them, so that a sheet does not move between spreadsheets
+     * whenever sizes change. New sheets are assigned the largest first, each to the spreadsheet with the least cells
+     * so far.
+     */
+    private void assignBySize(List<TranslationSheet> sheets, Map<String, String> spreadsheetBySheet, Map<String, List<TranslationSheet>> result) {
+        Map<String, Long> cells = new HashMap<>();
+        result.keySet().forEach(id -> cells.put(id, 0L));
+        List<TranslationSheet> bySize = new ArrayList<>();
+        for (TranslationSheet sheet : sheets) {
+            String current = spreadsheetBySheet.get(sheet.getSheetName());
+            if (current != null && result.containsKey(current)) {
+                cells.put(current, cells.get(current) + cellCount(sheet));
+                result.get(current).add(sheet);
+            } else {
+                bySize.add(sheet);
+            }
+        }
+        bySize.sort(Comparator.comparingLong(SpreadsheetSharding::cellCount).reversed());
+        for (TranslationSheet sheet : bySize) {
+            String target = result.keySet().stream()
+                    .min(Comparator.comparingLong(cells::get))
+                    .orElse(spreadsheetId);
+            cells.put(target, cells.get(target) + cellCount(sheet));
+            result.get(target).add(sheet);
+        }
+        // keep order of the sheets within each spreadsheet
+        Map<TranslationSheet, Integer> order = new IdentityHashMap<>();
+        for (int i = 0; i < sheets.size(); i++) {
+            order.put(sheets.get(i), i);
+        }
+        result.values().forEach(assigned -> assigned.sort(Comparator.comparingInt(order::get)));
+    }
+
+    private static long cellCount(TranslationSheet sheet) {
+        return (long) (sheet.getDataRowCount() + 1) * sheet.getColumnCount();
+    }
+
+}
@@ -5,13 +5,20 @@ import lombok.extern.apachecommons.CommonsLog;
 import one.edee.babylon.export.MessageFileProcessor.SheetContent;
 import one.edee.babylon.export.dto.ExportResult;
 import one.edee.babylon.export.dto.MessageFileExportResult;
+import one.edee.babylon.export.dto.RowStore;
 import one.edee.babylon.export.dto.TranslationSheet;
 import one.edee.babylon.export.stats.MessageFileExportStats;
+import one.edee.babylon.metrics.RunMetrics;
+import one.edee.babylon.msgfile.TranslationFileUtils;
 import one.edee.babylon.sheets.SheetUtils;
 import one.edee.babylon.snapshot.TranslationSnapshotReadContract;
 import one.edee.babylon.snapshot.TranslationSnapshotWriteContract;
 import org.springframework.util.Assert;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -25,36 +32,83 @@ public class TranslationCollector {
     private final MessageFileProcessor messageFileProcessor;
     private final TranslationSnapshotReadContract snapshotReadContract;
     private final TranslationSnapshotWriteContract snapshotWriteContract;
+    private final RunMetrics metrics;
 
     /**
      * Collects message files and given a list of languages to translate to, generates a translation sheet
      * that contains messages in primary language and possibly existing translated messages, if the translated message
-     * exists for given language and unless invalidated by the change to its primary message.
+     * exists for given language and unless invalidated by the change to its primary message. Message files that are
+     * not among the paths are removed from the snapshot.
      *
-     * @param allPaths    paths to message files
-     * @param translateTo list of languages to translate to
+     * @param allPaths          paths to message files
+     * @param translateTo       list of languages to translate to
+     * @param reuseTranslations when true, missing translations are filled from {@link TranslationMemory} of all the
+     *                          message files
+     * @param rowStore          store to spill rows of each sheet into as soon as the sheet is prepared, sheets are kept
+     *                          in memory when null
      */
     public ExportResult walkPathsAndCollectTranslationSheets(Collection<String> allPaths,
-                                                             List<String> translateTo) {
-        List<String> newMsgFilesPaths = allPaths.stream()
-                .filter(msgFilePath -> !snapshotReadContract.includesMsgFile(msgFilePath))
+                                                             List<String> translateTo,
+                                                             boolean reuseTranslations,
+                                                             RowStore rowStore) {
+        ExportResult result = collectTranslationSheets(allPaths, translateTo, reuseTranslations, rowStore);
+
+        List<String> obsoleteFilePaths = snapshotReadContract.listMsgFiles().stream()
+                .filter(msgFilePath -> !allPaths.contains(msgFilePath))
                 .collect(Collectors.toList());
+        snapshotWriteContract.removeMsgFilePaths(obsoleteFilePaths);
+
+        return result;
+    }
 
-        List<MessageFileExportResult> sheetsAndStats = allPaths.stream()
-                .map(msgFilePath -> processMsgFile(msgFilePath, translateTo))
+    /**
+     * Same as {@link #walkPathsAndCollectTranslationSheets(Collection, List, boolean, RowStore)} but for a subset of
+     * message files only, message files not listed in {@code paths} are kept in the snapshot.
+     *
+     * @param paths             paths to message files to collect
+     * @param translateTo       list of languages to translate to
+     * @param reuseTranslations when true, all message files are loaded first to build {@link TranslationMemory}
+     * @param rowStore          store to spill rows of each sheet into as soon as the sheet is prepared, sheets are kept
+     *                          in memory when null
+     */
+    public ExportResult collectTranslationSheets(Collection<String> paths,
+                                                 List<String> translateTo,
+                                                 boolean reuseTranslations,
+                                                 RowStore rowStore) {
+        List<String> newMsgFilesPaths = paths.stream()
+                .filter(msgFilePath -> !snapshotReadContract.includesMsgFile(msgFilePath))
                 .collect(Collectors.toList());
 
+        List<MessageFileExportResult> sheetsAndStats;
+        if (reuseTranslations) {
+            List<LoadedMessages> loaded = paths.stream()
+                    .map(msgFilePath -> loadMessages(msgFilePath, translateTo))
+                    .collect(Collectors.toList());
+            TranslationMemory translationMemory = new TranslationMemory(translateTo);
+            loaded.forEach(messages -> messageFileProcessor.indexTranslations(
+                    messages.msgFilePath, messages.primaryMsgs, messages.translations, translationMemory));
+            log.info("Translation memory contains translations of " + translationMemory.size() + " distinct messages.");
+            sheetsAndStats = loaded.stream()
+                    .map(messages -> processMsgFile(messages, translateTo, translationMemory, rowStore))
+                    .collect(Collectors.toList());
+        } else {
+            sheetsAndStats = paths.stream()
+                    .map(msgFilePath -> processMsgFile(loadMessages(msgFilePath, translateTo), translateTo, null, rowStore))
+                    .collect(Collectors.toList());
+        }
+
         List<TranslationSheet> sheets = getSheets(sheetsAndStats);
         List<MessageFileExportStats> exportStats = getStats(sheetsAndStats);
 
         logMsgFileStats(exportStats);
 
-        List<String> obsoleteFilePaths = snapshotReadContract.listMsgFiles().stream()
-                .filter(msgFilePath -> !allPaths.contains(msgFilePath))
-                .collect(Collectors.toList());
-        snapshotWriteContract.removeMsgFilePaths(obsoleteFilePaths);
-
-        return new ExportResult(newMsgFilesPaths, sheets);
+        ExportResult result = new ExportResult(newMsgFilesPaths, sheets, exportStats);
+        for (MessageFileExportResult sheetAndStats : sheetsAndStats) {
+            if (!sheetAndStats.getReusedCells().isEmpty()) {
+                result.getReusedCells().put(sheetAndStats.getTranslationSheet().getSheetName(), sheetAndStats.getReusedCells());
+            }
+        }
+        return result;
     }
 
     /** Collects only {@link TranslationSheet}s from {@link MessageFileExportResult} - for lack of tuples and unzip function */
@@ -67,20 +121,31 @@ public class TranslationCollector {
         return sheetsAndStats.stream().map(MessageFileExportResult::getExportStats).collect(Collectors.toList());
     }
 
-    private MessageFileExportResult processMsgFile(String msgFilePath, List<String> translateTo) {
-        MessageFileProcessor.Pair<SheetContent, MessageFileExportStats> msgFileResult = computeTranslationSheetRows(msgFilePath, translateTo);
+    private MessageFileExportResult processMsgFile(LoadedMessages messages, List<String> translateTo,
+                                                   TranslationMemory translationMemory, RowStore rowStore) {
+        MessageFileProcessor.Pair<SheetContent, MessageFileExportStats> msgFileResult = messageFileProcessor.prepareTranslationSheet(
+                messages.msgFilePath, messages.primaryMsgs, messages.translations, translateTo, translationMemory);
         SheetContent sheetData = msgFileResult.getFirst();
         MessageFileExportStats msgFileStats = msgFileResult.getSecond();
+        msgFileStats.setBytesRead(messages.bytesRead);
+        msgFileStats.setParseTimeMillis(messages.parseTimeNanos / 1_000_000.0);
+
+        Integer sheetId = snapshotWriteContract.registerMsgFile(messages.msgFilePath);
+        TranslationSheet translationSheet = newTranslationSheet(sheetData, sheetId, messages.msgFilePath, translateTo);
+        msgFileStats.setSheetName(translationSheet.getSheetName());
+        if (rowStore != null) {
+            translationSheet.spillTo(rowStore);
+        }
 
-        Integer sheetId = snapshotWriteContract.registerMsgFile(msgFilePath);
-        TranslationSheet translationSheet = newTranslationSheet(sheetData, sheetId, msgFilePath, translateTo);
-
-        return new MessageFileExportResult(translationSheet, msgFileStats);
+        MessageFileExportResult result = new MessageFileExportResult(translationSheet, msgFileStats);
+        result.setReusedCells(sheetData.getReusedCells());
+        return result;
     }
 
-    private MessageFileProcessor.Pair<SheetContent, MessageFileExportStats> computeTranslationSheetRows(String msgFilePath, List<String> translateTo) {
+    private LoadedMessages loadMessages(String msgFilePath, List<String> translateTo) {
         Map<String, String> primaryMsgs = null;
         Map<String, Map<String, String>> translations = null;
+        long start = System.nanoTime();
         for (MessageLoader messageLoader : messageLoaders) {
             if (messageLoader.canBeLoaded(msgFilePath)) {
                 primaryMsgs = messageLoader.loadPrimaryMessages(msgFilePath);
@@ -89,17 +154,38 @@ public class TranslationCollector {
         }
         Assert.notNull(primaryMsgs, "There is no appropriate message loader for file path  with extension: " + msgFilePath);
         Assert.notNull(translations, "There is no appropriate message loader for file path  with extension: " + msgFilePath);
+        long parseTime = System.nanoTime() - start;
+        metrics.recordTime(RunMetrics.FILE_PARSE, parseTime);
+        return new LoadedMessages(msgFilePath, primaryMsgs, translations, parseTime, countReadFiles(msgFilePath, translateTo));
+    }
 
-        return messageFileProcessor.prepareTranslationSheet(msgFilePath, primaryMsgs, translations, translateTo);
+    /**
+     * @return total size of existing primary and translation message files
+     */
+    private long countReadFiles(String msgFilePath, List<String> translateTo) {
+        long bytesRead = 0;
+        List<String> readPaths = new ArrayList<>();
+        readPaths.add(msgFilePath);
+        translateTo.forEach(lang -> readPaths.add(TranslationFileUtils.getFileNameForTranslation(msgFilePath, lang)));
+        for (String path : readPaths) {
+            long size;
+            try {
+                size = Files.readAttributes(Paths.get(path), BasicFileAttributes.class).size();
+            } catch (IOException e) {
+                // translation file does not exist
+                continue;
+            }
+            metrics.count(RunMetrics.FILES, 1, "direction", "read");
+            metrics.count(RunMetrics.BYTES, size, "direction", "read");
+            bytesRead += size;
+        }
+        return bytesRead;
     }
 
     private TranslationSheet newTranslationSheet(SheetContent sheetContent, Integer sheetId, String msgFilePath, List<String> translateTo) {
         String sheetName = new SheetUtils().getSheetName(msgFilePath, sheetId);
 
-        List<List<String>> allRows = new ArrayList<>();
-        allRows.add(sheetContent.getHeader());
-        allRows.addAll(sheetContent.getDataRows());
-        return new TranslationSheet(sheetName, allRows);
+        return new TranslationSheet(sheetName, sheetContent.getRows());
     }
 
     private void logMsgFileStats(Iterable<MessageFileExportStats> exportStats) {
@@ -107,12 +193,30 @@ public class TranslationCollector {
     }
 
     private void logMsgFileStats(MessageFileExportStats msgFileStats) {
+        metrics.count(RunMetrics.KEYS, msgFileStats.getNewPrimaryMsgKeyCount(), "kind", "new");
+        metrics.count(RunMetrics.KEYS, msgFileStats.getChangedPrimaryMsgKeyCount(), "kind", "changed");
+        metrics.count(RunMetrics.KEYS, msgFileStats.getMissingTranslationMsgKeyCount(), "kind", "missing");
+        metrics.count(RunMetrics.KEYS, msgFileStats.getSheetDataRows(), "kind", "exported");
+        metrics.count(RunMetrics.KEYS, msgFileStats.getReusedTranslationCount(), "kind", "reused");
         String msg = msgFileStats.getMessageFilePath() + ": " + "\n\t"
                 + msgFileStats.getNewPrimaryMsgKeyCount() + " new messages, " + "\n\t"
                 + msgFileStats.getChangedPrimaryMsgKeyCount() + " messages with changed values in primary language, " + "\n\t"
                 + msgFileStats.getMissingTranslationMsgKeyCount() + " messages with some translations missing." + "\n\t"
+                + msgFileStats.getReusedTranslationCount() + " translations reused from other message files." + "\n\t"
                 + msgFileStats.getSheetDataRows() + " total rows in translation sheet.";
         log.info(msg);
     }
 
+    /**
+     * Messages of one message file and its translations.
+     */
+    @RequiredArgsConstructor
+    private static class LoadedMessages {
+        private final String msgFilePath;
+        private final Map<String, String> primaryMsgs;
+        private final Map<String, Map<String, String>> translations;
+        private final long parseTimeNanos;
+        private final long bytesRead;
+    }
+
 }
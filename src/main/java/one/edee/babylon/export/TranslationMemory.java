@@ -0,0 +1,108 @@
+package one.edee.babylon.export;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of existing translations of all exported message files, keyed by the text in primary language. Lets the
+ * export fill translations missing in one message file by translations of the same text in another message file.
+ *
+ * Texts are indexed by their 64-bit hash, the index only references texts already loaded from message files and keeps
+ * one translation per language. When the same text is translated differently in different message files, no
+ * translation is offered for it in the language, the choice is left on translators.
+ */
+public class TranslationMemory {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    /** Marker of conflicting translations, compared by identity. */
+    @SuppressWarnings("StringOperationCanBeSimplified")
+    private static final String CONFLICT = new String("");
+
+    private final List<String> langs;
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    /**
+     * @param langs languages of indexed translations
+     */
+    public TranslationMemory(List<String> langs) {
+        this.langs = langs;
+    }
+
+    /**
+     * Indexes translation of a text.
+     *
+     * @param primaryMsg  text in the primary language
+     * @param lang        language of the translation
+     * @param translation translated text, ignored when empty
+     */
+    public void add(String primaryMsg, String lang, String translation) {
+        int langIndex = langs.indexOf(lang);
+        if (langIndex < 0 || isEmpty(primaryMsg) || isEmpty(translation)) {
+            return;
+        }
+        Entry entry = entries.computeIfAbsent(hash(primaryMsg), h -> new Entry(primaryMsg, langs.size()));
+        if (!entry.primaryMsg.equals(primaryMsg)) {
+            // hash collision, the first indexed text wins
+            return;
+        }
+        String indexed = entry.translations[langIndex];
+        if (indexed == null) {
+            entry.translations[langIndex] = translation;
+        } else if (!indexed.equals(translation)) {
+            entry.translations[langIndex] = CONFLICT;
+        }
+    }
+
+    /**
+     * @return translation of the text into the language, null when it is not known or is ambiguous
+     */
+    public String find(String primaryMsg, String lang) {
+        int langIndex = langs.indexOf(lang);
+        if (langIndex < 0 || isEmpty(primaryMsg)) {
+            return null;
+        }
+        Entry entry = entries.get(hash(primaryMsg));
+        if (entry == null || !entry.primaryMsg.equals(primaryMsg)) {
+            return null;
+        }
+        String translation = entry.translations[langIndex];
+        return translation == CONFLICT ? null : translation;
+    }
+
+    /**
+     * @return number of indexed texts
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 64-bit FNV-1a hash of UTF-16 code units of the text.
+     */
+    static long hash(String text) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static boolean isEmpty(String text) {
+        return text == null || text.isEmpty();
+    }
+
+    private static class Entry {
+        private final String primaryMsg;
+        private final String[] translations;
+
+        Entry(String primaryMsg, int langCount) {
+            this.primaryMsg = primaryMsg;
+            this.translations = new String[langCount];
+        }
+    }
+
+}
@@ -1,14 +1,13 @@
 package one.edee.babylon.export;
 
 import lombok.extern.log4j.Log4j2;
+import one.edee.babylon.export.ts.LocaleModuleReader;
 import one.edee.babylon.export.ts.TypeScriptBabylonParserListener;
 import one.edee.babylon.export.ts.gen.TypeScriptLexer;
 import one.edee.babylon.export.ts.gen.TypeScriptParser;
 import one.edee.babylon.msgfile.TranslationFileUtils;
 import one.edee.babylon.util.FileUtils;
 import org.antlr.v4.runtime.*;
-import org.antlr.v4.runtime.tree.ParseTree;
-import org.antlr.v4.runtime.tree.ParseTreeWalker;
 
 import java.io.File;
 import java.io.FileReader;
@@ -59,10 +58,20 @@ public class TsMessageLoader implements MessageLoader {
         return readTsFile(reader).getPropertyDefinitions();
     }
 
+    /**
+     * Parses the file without building its parse tree, the listener collects the messages as they are parsed. Plain
+     * locale modules are read by {@link LocaleModuleReader}, the full TypeScript grammar is used for the other files.
+     */
     public static TypeScriptBabylonParserListener readTsFile(Reader reader) throws IOException {
         CharStream input = CharStreams.fromReader(reader);
+        TypeScriptBabylonParserListener localeModule = LocaleModuleReader.read(input);
+        if (localeModule != null) {
+            return localeModule;
+        }
+        input.seek(0);
 
         TypeScriptLexer lexer = new TypeScriptLexer(input);
+        // the token stream stays buffered, predicates of the grammar look at previous tokens
         CommonTokenStream tokens = new CommonTokenStream(lexer);
         TypeScriptParser parser = new TypeScriptParser(tokens);
         parser.addErrorListener(new BaseErrorListener() {
@@ -71,11 +80,10 @@ public class TsMessageLoader implements MessageLoader {
                 log.error("Cannot parse: " + s + " at line " + i + " with exception: " + e.getMessage());
             }
         });
-        ParseTree tree = parser.program();
-
-        TypeScriptBabylonParserListener listener = new TypeScriptBabylonParserListener();
-        ParseTreeWalker walker = new ParseTreeWalker();
-        walker.walk(listener, tree);
+        TypeScriptBabylonParserListener listener = new TypeScriptBabylonParserListener(tokens);
+        parser.setBuildParseTree(false);
+        parser.addParseListener(listener);
+        parser.program();
 
         return listener;
     }
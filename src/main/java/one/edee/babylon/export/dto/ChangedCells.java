@@ -0,0 +1,94 @@
+package one.edee.babylon.export.dto;
+
+import lombok.Data;
+
+import java.util.*;
+
+/**
+ * Cells of a single translation sheet filled by machine translation, kept as one bit set of row indexes per column.
+ */
+public class ChangedCells {
+
+    private final SortedMap<Integer, BitSet> rowsByColumn = new TreeMap<>();
+
+    public void add(int row, int column) {
+        rowsByColumn.computeIfAbsent(column, c -> new BitSet()).set(row);
+    }
+
+    public void remove(int row, int column) {
+        BitSet rows = rowsByColumn.get(column);
+        if (rows != null) {
+            rows.clear(row);
+        }
+    }
+
+    public void addAll(ChangedCells other) {
+        other.rowsByColumn.forEach((column, rows) -> rowsByColumn.computeIfAbsent(column, c -> new BitSet()).or(rows));
+    }
+
+    public boolean contains(int row, int column) {
+        BitSet rows = rowsByColumn.get(column);
+        return rows != null && rows.get(row);
+    }
+
+    public int size() {
+        return rowsByColumn.values().stream().mapToInt(BitSet::cardinality).sum();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Covers the cells by rectangles - consecutive rows of a column form a range that is merged with the same range
+     * of the neighbouring columns.
+     *
+     * @return ranges covering exactly the changed cells, ordered by starting column and row
+     */
+    public List<CellRange> toRanges() {
+        List<CellRange> ranges = new ArrayList<>();
+        // ranges ending in the previous column, keyed by their rows
+        Map<Long, CellRange> open = new HashMap<>();
+        int previousColumn = -2;
+        for (Map.Entry<Integer, BitSet> entry : rowsByColumn.entrySet()) {
+            int column = entry.getKey();
+            BitSet rows = entry.getValue();
+            Map<Long, CellRange> nowOpen = new HashMap<>();
+            for (int start = rows.nextSetBit(0); start >= 0; start = rows.nextSetBit(start)) {
+                int end = rows.nextClearBit(start);
+                long rowsKey = ((long) start << 32) | end;
+                CellRange range = column == previousColumn + 1 ? open.get(rowsKey) : null;
+                if (range == null) {
+                    range = new CellRange(start, end, column);
+                    ranges.add(range);
+                } else {
+                    range.endColumn = column + 1;
+                }
+                nowOpen.put(rowsKey, range);
+                start = end;
+            }
+            open = nowOpen;
+            previousColumn = column;
+        }
+        return ranges;
+    }
+
+    /**
+     * Rectangle of cells, start indexes are inclusive, end indexes exclusive.
+     */
+    @Data
+    public static class CellRange {
+        private final int startRow;
+        private final int endRow;
+        private final int startColumn;
+        private int endColumn;
+
+        CellRange(int startRow, int endRow, int startColumn) {
+            this.startRow = startRow;
+            this.endRow = endRow;
+            this.startColumn = startColumn;
+            this.endColumn = startColumn + 1;
+        }
+    }
+
+}
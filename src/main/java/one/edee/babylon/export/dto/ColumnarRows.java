@@ -0,0 +1,200 @@
+package one.edee.babylon.export.dto;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Rows of a translation sheet stored by columns - message keys, primary messages and one array per translation
+ * language - instead of a list per row. Rows are views over the columns, so neither reading nor changing a cell
+ * copies anything.
+ *
+ * Every row keeps the number of cells it was created with, rows of new messages contain only key and primary message.
+ * Rows can be changed by {@link List#set(int, Object)} only, the number of rows is fixed and the number of cells of
+ * a row changes only by {@link #resizeRow(int, int)}.
+ */
+public class ColumnarRows extends AbstractList<List<String>> implements RandomAccess {
+
+    private static final int KEY_COLUMN = 0;
+    private static final int PRIMARY_COLUMN = 1;
+    private static final int FIRST_TRANSLATION_COLUMN = 2;
+
+    private final List<String> header;
+    private final String[] keys;
+    private final String[] primaryMsgs;
+    /** Translations by language and row. */
+    private final String[][] translations;
+    /** Number of cells of each row. */
+    private final int[] widths;
+
+    private ColumnarRows(List<String> header, int rowCount) {
+        this.header = Collections.unmodifiableList(header);
+        this.keys = new String[rowCount];
+        this.primaryMsgs = new String[rowCount];
+        this.translations = new String[Math.max(0, header.size() - FIRST_TRANSLATION_COLUMN)][rowCount];
+        this.widths = new int[rowCount];
+    }
+
+    /**
+     * Creates data rows without cells, they are filled by {@link #resizeRow(int, int)} and setting cells of the rows.
+     *
+     * @param header       header row, key and primary message columns followed by translation languages
+     * @param dataRowCount number of rows without the header
+     */
+    public static ColumnarRows withEmptyRows(List<String> header, int dataRowCount) {
+        return new ColumnarRows(header, dataRowCount);
+    }
+
+    /**
+     * Moves cells of the rows into columns.
+     *
+     * @param header   header row, key and primary message columns followed by translation languages
+     * @param dataRows rows without the header, none of them may be wider than the header
+     */
+    public static ColumnarRows of(List<String> header, List<List<String>> dataRows) {
+        ColumnarRows rows = new ColumnarRows(header, dataRows.size());
+        for (int i = 0; i < dataRows.size(); i++) {
+            List<String> row = dataRows.get(i);
+            if (row.size() > header.size()) {
+                throw new IllegalArgumentException("Row " + (i + 1) + " has " + row.size() + " cells, header only " + header.size() + ".");
+            }
+            rows.widths[i] = row.size();
+            for (int col = 0; col < row.size(); col++) {
+                rows.setCell(i, col, row.get(col));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Changes the number of cells of a data row, added cells are empty and removed cells are cleared.
+     *
+     * @param index index of the row, the header is row 0
+     * @param width new number of cells, at most the number of header cells
+     * @return the row
+     */
+    public List<String> resizeRow(int index, int width) {
+        int row = checkRow(index);
+        if (index == 0 || width < 0 || width > header.size()) {
+            throw new IllegalArgumentException("Row " + index + " cannot have " + width + " cells, header has " + header.size() + ".");
+        }
+        for (int col = width; col < widths[row]; col++) {
+            setCell(row, col, null);
+        }
+        widths[row] = width;
+        return new Row(row);
+    }
+
+    /**
+     * @return view of the rows as values of the Sheets API, empty cells are returned as empty strings because
+     * the API skips null values
+     */
+    public List<List<Object>> asSheetValues() {
+        return new SheetValues();
+    }
+
+    @Override
+    public List<String> get(int index) {
+        if (index == 0) {
+            return header;
+        }
+        return new Row(checkRow(index));
+    }
+
+    @Override
+    public int size() {
+        return keys.length + 1;
+    }
+
+    private int checkRow(int index) {
+        if (index < 0 || index > keys.length) {
+            throw new IndexOutOfBoundsException("Row " + index + " of " + size() + " rows.");
+        }
+        return index - 1;
+    }
+
+    private String getCell(int row, int col) {
+        if (col < 0 || col >= widths[row]) {
+            throw new IndexOutOfBoundsException("Cell " + col + " of " + widths[row] + " cells in row " + (row + 1) + ".");
+        }
+        switch (col) {
+            case KEY_COLUMN:
+                return keys[row];
+            case PRIMARY_COLUMN:
+                return primaryMsgs[row];
+            default:
+                return translations[col - FIRST_TRANSLATION_COLUMN][row];
+        }
+    }
+
+    private void setCell(int row, int col, String value) {
+        switch (col) {
+            case KEY_COLUMN:
+                keys[row] = value;
+                break;
+            case PRIMARY_COLUMN:
+                primaryMsgs[row] = value;
+                break;
+            default:
+                translations[col - FIRST_TRANSLATION_COLUMN][row] = value;
+        }
+    }
+
+    /**
+     * Data row view.
+     */
+    private class Row extends AbstractList<String> implements RandomAccess {
+        private final int row;
+
+        Row(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public String get(int index) {
+            return getCell(row, index);
+        }
+
+        @Override
+        public String set(int index, String element) {
+            String previous = getCell(row, index);
+            setCell(row, index, element);
+            return previous;
+        }
+
+        @Override
+        public int size() {
+            return widths[row];
+        }
+    }
+
+    /**
+     * Read-only view of all rows with nulls returned as empty strings.
+     */
+    private class SheetValues extends AbstractList<List<Object>> implements RandomAccess {
+
+        @Override
+        public List<Object> get(int index) {
+            List<String> row = ColumnarRows.this.get(index);
+            return new AbstractList<Object>() {
+                @Override
+                public Object get(int col) {
+                    String value = row.get(col);
+                    return value == null ? "" : value;
+                }
+
+                @Override
+                public int size() {
+                    return row.size();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return ColumnarRows.this.size();
+        }
+    }
+
+}
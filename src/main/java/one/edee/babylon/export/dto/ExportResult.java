@@ -1,8 +1,11 @@
 package one.edee.babylon.export.dto;
 
 import lombok.Data;
+import one.edee.babylon.export.stats.MessageFileExportStats;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Data
 public class ExportResult {
@@ -11,4 +14,12 @@ public class ExportResult {
 
     private final List<TranslationSheet> sheets;
 
+    private final List<MessageFileExportStats> stats;
+
+    /**
+     * Cells filled by translations of the same messages from other message files, keyed by sheet name. These should
+     * be reviewed by translators.
+     */
+    private final Map<String, ChangedCells> reusedCells = new HashMap<>();
+
 }
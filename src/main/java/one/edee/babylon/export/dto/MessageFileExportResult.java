@@ -14,4 +14,9 @@ public class MessageFileExportResult {
 
     final MessageFileExportStats exportStats;
 
+    /**
+     * Cells of the translation sheet filled by translations of the same messages from other message files.
+     */
+    ChangedCells reusedCells = new ChangedCells();
+
 }
@@ -0,0 +1,162 @@
+package one.edee.babylon.export.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Append-only temporary file holding rows of {@link TranslationSheet}s, so that the export keeps only the sheets
+ * being currently processed in memory. Each written block of rows is identified by its {@link Segment}, a rewritten
+ * sheet is appended as a new segment and the old one is left unused in the file until the store is closed.
+ *
+ * Writes are serialized, segments can be read from several threads at once. The file is deleted when the store is
+ * closed.
+ */
+public class RowStore implements Closeable {
+
+    private static final int NULL_CELL = -1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final FileChannel channel;
+
+    /**
+     * @param directory directory to create the temporary file in, default temporary directory when null
+     */
+    public RowStore(File directory) {
+        try {
+            this.file = directory == null
+                    ? Files.createTempFile("babylon-rows", ".bin")
+                    : Files.createTempFile(directory.toPath(), "babylon-rows", ".bin");
+            this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create row store file in '" + directory + "'.", e);
+        }
+    }
+
+    /**
+     * Appends rows to the store.
+     *
+     * @return segment to read the rows back by
+     */
+    public Segment write(List<List<String>> rows) {
+        return write(rows.iterator());
+    }
+
+    /**
+     * Appends rows to the store, rows are encoded as they are iterated, so they need not be in memory all at once.
+     *
+     * @return segment to read the rows back by
+     */
+    public synchronized Segment write(Iterator<List<String>> rows) {
+        try {
+            long start = channel.size();
+            channel.position(start);
+            // the channel stream must not be closed, it would close the channel
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+            int rowCount = 0;
+            while (rows.hasNext()) {
+                writeRow(out, rows.next());
+                rowCount++;
+            }
+            out.flush();
+            return new Segment(start, channel.position() - start, rowCount);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write rows into '" + file + "'.", e);
+        }
+    }
+
+    /**
+     * @return new mutable list of rows stored in the segment
+     */
+    public List<List<String>> read(Segment segment) {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(segment.length));
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, segment.offset + buffer.position()) < 0) {
+                    throw new EOFException("Row store ends before the end of the segment.");
+                }
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.array()));
+            List<List<String>> rows = new ArrayList<>(segment.rowCount);
+            for (int i = 0; i < segment.rowCount; i++) {
+                rows.add(readRow(in));
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read rows from '" + file + "'.", e);
+        }
+    }
+
+    /**
+     * @return size of the file in bytes, including rewritten segments
+     */
+    public long getSize() {
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot get size of '" + file + "'.", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close row store '" + file + "'.", e);
+        }
+    }
+
+    private static void writeRow(DataOutputStream out, List<String> row) throws IOException {
+        out.writeInt(row.size());
+        for (String cell : row) {
+            if (cell == null) {
+                out.writeInt(NULL_CELL);
+            } else {
+                byte[] bytes = cell.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static List<String> readRow(DataInputStream in) throws IOException {
+        int cellCount = in.readInt();
+        List<String> row = new ArrayList<>(cellCount);
+        for (int i = 0; i < cellCount; i++) {
+            int length = in.readInt();
+            if (length == NULL_CELL) {
+                row.add(null);
+            } else {
+                byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                row.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Position of a block of rows in the store.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Segment {
+        private final long offset;
+        private final long length;
+        private final int rowCount;
+    }
+
+}
@@ -1,21 +1,84 @@
 package one.edee.babylon.export.dto;
 
-import lombok.Data;
+import lombok.Getter;
+import lombok.ToString;
 
 import java.util.List;
 
-@Data
+/**
+ * Rows of a translation sheet, header first. Rows are held in memory unless the sheet is spilled into a
+ * {@link RowStore}, then they are read from the store on each {@link #getRows()} call and changes have to be written
+ * back by {@link #setRows(List)}.
+ */
+@ToString(of = {"sheetName", "dataRowCount"})
 public class TranslationSheet {
 
+    @Getter
     private final String sheetName;
-    private final List<List<String>> rows;
+    private List<List<String>> rows;
+    private RowStore store;
+    private RowStore.Segment segment;
+    /** Number of rows without the header. */
+    @Getter
+    private int dataRowCount;
+    /** Number of columns of the header. */
+    @Getter
+    private int columnCount;
+
+    public TranslationSheet(String sheetName, List<List<String>> rows) {
+        this.sheetName = sheetName;
+        setRows(rows);
+    }
+
+    /**
+     * Creates sheet with rows already written in the store.
+     */
+    public TranslationSheet(String sheetName, RowStore store, RowStore.Segment segment, int columnCount) {
+        this.sheetName = sheetName;
+        this.store = store;
+        this.segment = segment;
+        this.dataRowCount = Math.max(0, segment.getRowCount() - 1);
+        this.columnCount = columnCount;
+    }
+
+    /**
+     * @return rows of the sheet, a fresh copy read from the store when the sheet is spilled
+     */
+    public List<List<String>> getRows() {
+        return store == null ? rows : store.read(segment);
+    }
 
     public List<List<String>> getDataRows() {
-        return rows.subList(1, rows.size());
+        List<List<String>> allRows = getRows();
+        return allRows.subList(1, allRows.size());
+    }
+
+    /**
+     * Replaces rows of the sheet, writes them into the store when the sheet is spilled.
+     */
+    public void setRows(List<List<String>> rows) {
+        this.dataRowCount = Math.max(0, rows.size() - 1);
+        this.columnCount = rows.isEmpty() ? 0 : rows.get(0).size();
+        if (store == null) {
+            this.rows = rows;
+        } else {
+            this.segment = store.write(rows);
+        }
+    }
+
+    /**
+     * Moves rows of the sheet into the store, releasing them from memory.
+     */
+    public void spillTo(RowStore store) {
+        if (this.store == null) {
+            this.segment = store.write(rows);
+            this.store = store;
+            this.rows = null;
+        }
     }
 
-    public int getDataRowCount() {
-        return rows.size() - 1;
+    public boolean isSpilled() {
+        return store != null;
     }
 
 }
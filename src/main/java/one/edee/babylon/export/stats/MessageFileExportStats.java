@@ -8,8 +8,9 @@ import lombok.Data;
 @Data
 public class MessageFileExportStats {
 
-    public MessageFileExportStats(String messageFilePath, int newPrimaryMsgKeyCount, int changedPrimaryMsgKeyCount, int missingTranslationMsgKeyCount, int sheetDataRows) {
+    public MessageFileExportStats(String messageFilePath, int keyCount, int newPrimaryMsgKeyCount, int changedPrimaryMsgKeyCount, int missingTranslationMsgKeyCount, int sheetDataRows) {
         this.messageFilePath = messageFilePath;
+        this.keyCount = keyCount;
         this.newPrimaryMsgKeyCount = newPrimaryMsgKeyCount;
         this.changedPrimaryMsgKeyCount = changedPrimaryMsgKeyCount;
         this.missingTranslationMsgKeyCount = missingTranslationMsgKeyCount;
@@ -21,6 +22,11 @@ public class MessageFileExportStats {
      */
     private String messageFilePath;
 
+    /**
+     * Number of messages in the primary language.
+     */
+    private int keyCount;
+
     /**
      * Number of new messages in the primary language.
      */
@@ -36,9 +42,34 @@ public class MessageFileExportStats {
      */
     private int missingTranslationMsgKeyCount;
 
+    /**
+     * Number of missing translations filled by translations of the same message from other message files.
+     */
+    private int reusedTranslationCount;
+
     /**
      * Total number of rows in the resulting translation sheet.
      */
     private int sheetDataRows;
 
+    /**
+     * Name of the translation sheet generated for the message file.
+     */
+    private String sheetName;
+
+    /**
+     * Total size of the primary message file and its existing translation files.
+     */
+    private long bytesRead;
+
+    /**
+     * Time spent loading and parsing the primary message file and its translation files.
+     */
+    private double parseTimeMillis;
+
+    /**
+     * Number of Google Sheets API calls needed to upload the translation sheet.
+     */
+    private long apiCalls;
+
 }
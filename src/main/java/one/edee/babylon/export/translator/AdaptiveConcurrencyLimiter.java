@@ -0,0 +1,46 @@
+package one.edee.babylon.export.translator;
+
+/**
+ * Limits number of calls running at once. The limit is halved when the service throttles a call and grows by one
+ * after as many successful calls as the limit is (additive increase, multiplicative decrease).
+ */
+class AdaptiveConcurrencyLimiter {
+
+    private final int maxLimit;
+    private double limit;
+    private int inFlight;
+
+    AdaptiveConcurrencyLimiter(int maxLimit) {
+        this.maxLimit = Math.max(1, maxLimit);
+        this.limit = this.maxLimit;
+    }
+
+    /**
+     * Waits until the call can start.
+     */
+    synchronized void acquire() throws InterruptedException {
+        while (inFlight >= (int) limit) {
+            wait();
+        }
+        inFlight++;
+    }
+
+    synchronized void release() {
+        inFlight--;
+        notifyAll();
+    }
+
+    synchronized void onSuccess() {
+        limit = Math.min(maxLimit, limit + 1.0 / limit);
+        notifyAll();
+    }
+
+    synchronized void onThrottled() {
+        limit = Math.max(1, limit / 2);
+    }
+
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+}
@@ -0,0 +1,61 @@
+package one.edee.babylon.export.translator;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Stops calling a failing service. After {@code threshold} calls failing in a row the circuit opens and no calls are
+ * let through for {@code openMillis}. Then a single trial call is let through, its success closes the circuit again,
+ * its failure opens it for another period.
+ */
+class CircuitBreaker {
+
+    private final int threshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+
+    private int consecutiveFailures;
+    private long openedAt = -1;
+    private boolean trialRunning;
+
+    CircuitBreaker(int threshold, long openMillis, LongSupplier clock) {
+        this.threshold = Math.max(1, threshold);
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * @return true when a new call may start
+     */
+    synchronized boolean tryAcquire() {
+        if (openedAt < 0) {
+            return true;
+        }
+        if (trialRunning || clock.getAsLong() < openedAt + openMillis) {
+            return false;
+        }
+        trialRunning = true;
+        return true;
+    }
+
+    /**
+     * @return true when calls are not let through
+     */
+    synchronized boolean isOpen() {
+        return openedAt >= 0 && !trialRunning;
+    }
+
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        openedAt = -1;
+        trialRunning = false;
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (trialRunning || consecutiveFailures >= threshold) {
+            openedAt = clock.getAsLong();
+            trialRunning = false;
+        }
+    }
+
+}
@@ -1,15 +1,23 @@
 package one.edee.babylon.export.translator;
 
+import com.deepl.api.AuthorizationException;
+import com.deepl.api.ConnectionException;
+import com.deepl.api.DeepLException;
+import com.deepl.api.QuotaExceededException;
 import com.deepl.api.TextResult;
 import com.deepl.api.TextTranslationOptions;
+import com.deepl.api.TooManyRequestsException;
 import com.deepl.api.Translator;
+import com.deepl.api.TranslatorOptions;
 import lombok.extern.log4j.Log4j2;
 import one.edee.babylon.config.SupportedTranslators;
+import one.edee.babylon.http.SharedHttpClient;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -30,11 +38,20 @@ import static java.util.Optional.ofNullable;
 @Log4j2
 public class DeeplTranslator implements one.edee.babylon.export.translator.Translator {
 
+    private final SharedHttpClient httpClient;
     Translator service = null;
 
+    public DeeplTranslator(SharedHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
     @Override
     public void init(@NotNull String apiKey) {
-        service = new Translator(apiKey);
+        // DeepL client uses its own HttpURLConnection based transport, only timeout can be shared,
+        // failures are retried by ResilientTranslator
+        service = new Translator(apiKey, new TranslatorOptions()
+                .setTimeout(Duration.ofSeconds(httpClient.getConfiguration().getReadTimeoutSeconds()))
+                .setMaxRetries(0));
 
     }
 
@@ -58,9 +75,17 @@ public class DeeplTranslator implements one.edee.babylon.export.translator.Trans
                     .stream()
                     .map(TextResult::getText)
                     .collect(Collectors.toList());
-        } catch (Exception e) {
-            log.error("Cannot translate " + original + " to lang: " + lang);
-            return null;
+        } catch (TooManyRequestsException e) {
+            throw new TranslatorException(e.getMessage(), e, true, true, null);
+        } catch (QuotaExceededException | AuthorizationException e) {
+            throw new TranslatorException(e.getMessage(), e, false, false, null);
+        } catch (ConnectionException e) {
+            throw new TranslatorException(e.getMessage(), e, e.getShouldRetry(), false, null);
+        } catch (DeepLException e) {
+            throw new TranslatorException("Cannot translate " + original.size() + " texts to lang: " + lang + ", " + e.getMessage(), e, true, false, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Translation to '" + lang + "' was interrupted.", e);
         }
     }
 
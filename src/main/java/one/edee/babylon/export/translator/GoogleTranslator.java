@@ -1,9 +1,14 @@
 package one.edee.babylon.export.translator;
 
+import com.google.cloud.ServiceOptions;
+import com.google.cloud.http.HttpTransportOptions;
 import com.google.cloud.translate.Translate;
+import com.google.cloud.translate.TranslateException;
 import com.google.cloud.translate.TranslateOptions;
 import com.google.cloud.translate.Translation;
+import one.edee.babylon.config.HttpConfiguration;
 import one.edee.babylon.config.SupportedTranslators;
+import one.edee.babylon.http.SharedHttpClient;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.springframework.stereotype.Component;
@@ -29,25 +34,46 @@ import static com.google.cloud.translate.Translate.TranslateOption.targetLanguag
 @Component
 public class GoogleTranslator implements Translator{
 
+    private final SharedHttpClient httpClient;
     Translate service = null;
 
+    public GoogleTranslator(SharedHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
     @Override
     public void init(@NotNull String apiKey) {
-        service = TranslateOptions.newBuilder().setApiKey(apiKey).build().getService();
+        HttpConfiguration configuration = httpClient.getConfiguration();
+        service = TranslateOptions.newBuilder()
+                .setApiKey(apiKey)
+                // failures are retried by ResilientTranslator
+                .setRetrySettings(ServiceOptions.getNoRetrySettings())
+                .setTransportOptions(HttpTransportOptions.newBuilder()
+                        .setHttpTransportFactory(httpClient::getTransport)
+                        .setConnectTimeout(configuration.getConnectTimeoutSeconds() * 1000)
+                        .setReadTimeout(configuration.getReadTimeoutSeconds() * 1000)
+                        .build())
+                .build()
+                .getService();
 
     }
 
     @Override
     public List<String> translate(@Nullable String defaultLang, @NotNull List<String> original, @NotNull String lang) {
         Assert.notNull(service, "Init method with api key has to be called before translation!");
-        return service.translate(
-                        original,
-                        sourceLanguage(defaultLang),
-                        targetLanguage(lang)
-                )
-                .stream()
-                .map(Translation::getTranslatedText)
-                .collect(Collectors.toList());
+        try {
+            return service.translate(
+                            original,
+                            sourceLanguage(defaultLang),
+                            targetLanguage(lang)
+                    )
+                    .stream()
+                    .map(Translation::getTranslatedText)
+                    .collect(Collectors.toList());
+        } catch (TranslateException e) {
+            boolean throttled = e.getCode() == 429;
+            throw new TranslatorException(e.getMessage(), e, e.isRetryable() || throttled || e.getCode() >= 500, throttled, null);
+        }
     }
 
     @Override
@@ -0,0 +1,225 @@
+package one.edee.babylon.export.translator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.log4j.Log4j2;
+import okhttp3.*;
+import one.edee.babylon.config.SupportedTranslators;
+import one.edee.babylon.http.SharedHttpClient;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Translator using a translation server running in the local network, so no texts leave it and there are no
+ * per-character costs. Two kinds of APIs are supported, selected by system property {@code babylon.local.api}:
+ * <ul>
+ *     <li>{@code libretranslate} (default) - {@code POST /translate} of LibreTranslate, all texts of a batch are sent
+ *     in a single request</li>
+ *     <li>{@code openai} - {@code POST /v1/chat/completions} of OpenAI compatible servers (llama.cpp, vLLM, Ollama...),
+ *     the model gets texts of a batch as JSON array and is asked to return JSON array of their translations</li>
+ * </ul>
+ *
+ * Other system properties:
+ * <ul>
+ *     <li>{@code babylon.local.url} - base URL of the server, {@code http://localhost:5000} by default</li>
+ *     <li>{@code babylon.local.model} - model name sent to OpenAI compatible server</li>
+ *     <li>{@code babylon.local.batchSize} - maximal number of texts sent in one request, 50 by default</li>
+ *     <li>{@code babylon.local.concurrency} - number of requests sent at once, 4 by default</li>
+ *     <li>{@code babylon.local.timeout} - read timeout of one request in seconds, read timeout of the shared HTTP
+ *     client by default</li>
+ * </ul>
+ *
+ * Translation runs only when the translator API key is configured, local servers usually do not need any key
+ * so any placeholder value can be used - the key is sent only when it is not {@code "-"}.
+ */
+@Component
+@Log4j2
+public class LocalTranslator implements Translator {
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    private static final String NO_API_KEY = "-";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SharedHttpClient httpClient;
+
+    private OkHttpClient client = null;
+    private ExecutorService executor = null;
+    private String apiKey;
+    private String baseUrl;
+    private boolean openAiApi;
+    private String model;
+    private int batchSize;
+
+    public LocalTranslator(SharedHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public synchronized void init(@NotNull String apiKey) {
+        close();
+        this.apiKey = StringUtils.hasText(apiKey) && !NO_API_KEY.equals(apiKey) ? apiKey : null;
+        this.baseUrl = ofNullable(System.getProperty("babylon.local.url")).orElse("http://localhost:5000").replaceAll("/+$", "");
+        String api = ofNullable(System.getProperty("babylon.local.api")).orElse("libretranslate");
+        Assert.isTrue(api.equals("libretranslate") || api.equals("openai"),
+                "Unsupported local translator API '" + api + "', use 'libretranslate' or 'openai'.");
+        this.openAiApi = api.equals("openai");
+        this.model = ofNullable(System.getProperty("babylon.local.model")).orElse("local-model");
+        this.batchSize = Integer.getInteger("babylon.local.batchSize", 50);
+        int concurrency = Integer.getInteger("babylon.local.concurrency", 4);
+        Assert.isTrue(batchSize > 0, "Batch size of local translator has to be positive!");
+        Assert.isTrue(concurrency > 0, "Concurrency of local translator has to be positive!");
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(concurrency);
+        dispatcher.setMaxRequestsPerHost(concurrency);
+        this.client = httpClient.getClient().newBuilder()
+                .dispatcher(dispatcher)
+                .readTimeout(Long.getLong("babylon.local.timeout", (long) httpClient.getConfiguration().getReadTimeoutSeconds()), TimeUnit.SECONDS)
+                .build();
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread thread = new Thread(r, "local-translator-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public List<String> translate(@Nullable String defaultLang, @NotNull List<String> originals, @NotNull String lang) {
+        Assert.notNull(client, "Init method with api key has to be called before translation!");
+        String sourceLang = ofNullable(defaultLang).orElse("auto");
+
+        List<Future<List<String>>> batches = new ArrayList<>();
+        for (int start = 0; start < originals.size(); start += batchSize) {
+            List<String> batch = originals.subList(start, Math.min(start + batchSize, originals.size()));
+            batches.add(executor.submit(() -> translateBatch(sourceLang, batch, lang)));
+        }
+
+        List<String> result = new ArrayList<>(originals.size());
+        try {
+            for (Future<List<String>> batch : batches) {
+                result.addAll(batch.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            batches.forEach(batch -> batch.cancel(true));
+            throw new IllegalStateException("Translation to '" + lang + "' was interrupted.", e);
+        } catch (ExecutionException e) {
+            batches.forEach(batch -> batch.cancel(true));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new TranslatorException("Translation to '" + lang + "' failed: " + e.getCause().getMessage(), e.getCause(), true, false, null);
+        }
+        return result;
+    }
+
+    private List<String> translateBatch(String sourceLang, List<String> batch, String lang) throws IOException {
+        List<String> translated = openAiApi ? translateByChatCompletion(sourceLang, batch, lang) : translateByLibreTranslate(sourceLang, batch, lang);
+        if (translated.size() == batch.size()) {
+            return translated;
+        }
+        if (batch.size() == 1) {
+            throw new IllegalArgumentException("Local translator returned " + translated.size() + " translations of one text!");
+        }
+        // models sometimes merge or split texts, translate them one by one then
+        log.warn("Local translator returned " + translated.size() + " translations of " + batch.size() + " texts, translating them one by one.");
+        List<String> result = new ArrayList<>(batch.size());
+        for (String text : batch) {
+            result.addAll(translateBatch(sourceLang, Collections.singletonList(text), lang));
+        }
+        return result;
+    }
+
+    private List<String> translateByLibreTranslate(String sourceLang, List<String> batch, String lang) throws IOException {
+        ObjectNode request = objectMapper.createObjectNode();
+        ArrayNode texts = request.putArray("q");
+        batch.forEach(texts::add);
+        request.put("source", sourceLang);
+        request.put("target", lang);
+        request.put("format", "text");
+        if (apiKey != null) {
+            request.put("api_key", apiKey);
+        }
+        JsonNode translatedText = post("/translate", request).path("translatedText");
+        List<String> result = new ArrayList<>(batch.size());
+        translatedText.forEach(node -> result.add(node.asText()));
+        return result;
+    }
+
+    private List<String> translateByChatCompletion(String sourceLang, List<String> batch, String lang) throws IOException {
+        String systemMessage = String.format(
+                ofNullable(System.getProperty("babylon.local.systemMessage"))
+                        .orElse("You are translator that translate eshop messages from %s to %s. You get JSON array of texts, " +
+                                "translate each of them and return only JSON array of translations in the same order. " +
+                                "If you cannot translate a text, return it unchanged."),
+                sourceLang, lang);
+        ObjectNode request = objectMapper.createObjectNode();
+        request.put("model", model);
+        request.put("temperature", 0);
+        ArrayNode messages = request.putArray("messages");
+        messages.addObject().put("role", "system").put("content", systemMessage);
+        messages.addObject().put("role", "user").put("content", objectMapper.writeValueAsString(batch));
+
+        String content = post("/v1/chat/completions", request).path("choices").path(0).path("message").path("content").asText();
+        int start = content.indexOf('[');
+        int end = content.lastIndexOf(']');
+        List<String> result = new ArrayList<>(batch.size());
+        if (start >= 0 && end > start) {
+            try {
+                objectMapper.readTree(content.substring(start, end + 1)).forEach(node -> result.add(node.asText()));
+            } catch (IOException e) {
+                log.warn("Local translator did not return JSON array: " + content);
+            }
+        }
+        return result;
+    }
+
+    private JsonNode post(String path, JsonNode body) throws IOException {
+        Request.Builder request = new Request.Builder()
+                .url(baseUrl + path)
+                .post(RequestBody.create(JSON, objectMapper.writeValueAsBytes(body)));
+        if (apiKey != null && openAiApi) {
+            request.header("Authorization", "Bearer " + apiKey);
+        }
+        try (Response response = client.newCall(request.build()).execute()) {
+            ResponseBody responseBody = response.body();
+            String content = responseBody == null ? "" : responseBody.string();
+            if (!response.isSuccessful()) {
+                throw TranslatorException.ofStatus("Local translator at " + baseUrl + path + " responded with "
+                        + response.code() + ": " + content, response.code(), response.header("Retry-After"), null);
+            }
+            return objectMapper.readTree(content);
+        }
+    }
+
+    private void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        if (client != null) {
+            // connection pool is shared, only the own dispatcher is closed
+            client.dispatcher().executorService().shutdown();
+            client = null;
+        }
+    }
+
+    @Override
+    public SupportedTranslators getSupportedTranslator() {
+        return SupportedTranslators.LOCAL;
+    }
+}
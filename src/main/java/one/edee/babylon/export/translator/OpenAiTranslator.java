@@ -1,21 +1,25 @@
 package one.edee.babylon.export.translator;
 
 import com.theokanning.openai.OpenAiHttpException;
+import com.theokanning.openai.client.OpenAiApi;
 import com.theokanning.openai.completion.chat.ChatCompletionRequest;
 import com.theokanning.openai.completion.chat.ChatCompletionResult;
 import com.theokanning.openai.completion.chat.ChatMessage;
 import com.theokanning.openai.service.OpenAiService;
-import lombok.SneakyThrows;
 import lombok.extern.log4j.Log4j2;
+import okhttp3.OkHttpClient;
 import one.edee.babylon.config.SupportedTranslators;
+import one.edee.babylon.http.SharedHttpClient;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
+import retrofit2.HttpException;
 
-import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static java.util.Optional.ofNullable;
@@ -35,14 +39,23 @@ import static java.util.Optional.ofNullable;
 @Log4j2
 public class OpenAiTranslator implements Translator {
 
+    private static final Pattern TRY_AGAIN_IN = Pattern.compile("try again in (\\d+(?:\\.\\d+)?)s");
+
+    private final SharedHttpClient httpClient;
     OpenAiService service = null;
 
+    public OpenAiTranslator(SharedHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
     @Override
     public void init(@NotNull String apiKey) {
-        service = new OpenAiService(apiKey, Duration.ofSeconds(60L));
+        OkHttpClient client = httpClient.getClient().newBuilder()
+                .addInterceptor(chain -> chain.proceed(chain.request().newBuilder().header("Authorization", "Bearer " + apiKey).build()))
+                .build();
+        service = new OpenAiService(OpenAiService.defaultRetrofit(client, OpenAiService.defaultObjectMapper()).create(OpenAiApi.class));
     }
 
-    @SneakyThrows
     @Override
     public List<String> translate(@Nullable String defaultLang, @NotNull List<String> original, @NotNull String lang) {
         Assert.notNull(service, "Init method with api key has to be called before translation!");
@@ -79,7 +92,7 @@ public class OpenAiTranslator implements Translator {
         return output;
     }
 
-    private String translateInner(List<ChatMessage> messages, @NotNull List<String> original) throws InterruptedException {
+    private String translateInner(List<ChatMessage> messages, @NotNull List<String> original) {
 
         ChatCompletionResult chatCompletion;
         try{
@@ -94,16 +107,27 @@ public class OpenAiTranslator implements Translator {
             );
 
         }catch (OpenAiHttpException e){
-            if (e.getMessage().contains("Please try again in 20s")){
-                log.info("Rate limit reached, will try again in 20 secs! Translate in progress " + original);
-                Thread.sleep(20_000);
-                return translateInner(messages, original);
-            }
-            throw e;
+            // rate limits are waited out by ResilientTranslator
+            throw TranslatorException.ofStatus(e.getMessage(), e.statusCode, getRetryAfter(e), e);
         }
         return chatCompletion.getChoices().get(0).getMessage().getContent();
     }
 
+    /**
+     * Reads delay requested by Retry-After header or by "Please try again in 20s" in the error message.
+     */
+    @Nullable
+    private static String getRetryAfter(OpenAiHttpException e) {
+        if (e.getCause() instanceof HttpException && ((HttpException) e.getCause()).response() != null) {
+            String header = ((HttpException) e.getCause()).response().headers().get("Retry-After");
+            if (header != null) {
+                return header;
+            }
+        }
+        Matcher matcher = TRY_AGAIN_IN.matcher(String.valueOf(e.getMessage()));
+        return matcher.find() ? String.valueOf((long) Math.ceil(Double.parseDouble(matcher.group(1)))) : null;
+    }
+
     @Override
     public SupportedTranslators getSupportedTranslator() {
         return SupportedTranslators.OPENAI;
@@ -0,0 +1,158 @@
+package one.edee.babylon.export.translator;
+
+import lombok.extern.log4j.Log4j2;
+import one.edee.babylon.config.SupportedTranslators;
+import one.edee.babylon.config.TranslatorResilienceConfiguration;
+import one.edee.babylon.metrics.RunMetrics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Wraps a {@link Translator} so that failing or overloaded translation service slows the export down at most
+ * by the configured delays and never aborts it:
+ * <ul>
+ *     <li>retryable failures are repeated with exponential backoff with jitter, delay requested by the service
+ *     (e.g. {@code Retry-After} header) is respected</li>
+ *     <li>number of calls running at once is limited and the limit adapts to throttling responses of the service</li>
+ *     <li>after several calls failing in a row the service is not called for a while and texts are left
+ *     untranslated meanwhile</li>
+ * </ul>
+ *
+ * Failures of the delegate should be reported by {@link TranslatorException}, other runtime exceptions except
+ * {@link IllegalArgumentException} are considered retryable.
+ */
+@Log4j2
+public class ResilientTranslator implements Translator {
+
+    private final Translator delegate;
+    private final TranslatorResilienceConfiguration configuration;
+    private final RunMetrics metrics;
+    private final Sleeper sleeper;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final CircuitBreaker circuitBreaker;
+
+    public ResilientTranslator(Translator delegate, TranslatorResilienceConfiguration configuration, RunMetrics metrics) {
+        this(delegate, configuration, metrics, Thread::sleep, System::currentTimeMillis);
+    }
+
+    ResilientTranslator(Translator delegate, TranslatorResilienceConfiguration configuration, RunMetrics metrics,
+                        Sleeper sleeper, LongSupplier clock) {
+        this.delegate = delegate;
+        this.configuration = configuration;
+        this.metrics = metrics;
+        this.sleeper = sleeper;
+        this.limiter = new AdaptiveConcurrencyLimiter(configuration.getMaxConcurrency());
+        this.circuitBreaker = new CircuitBreaker(configuration.getCircuitBreakerThreshold(),
+                configuration.getCircuitBreakerOpenSeconds() * 1000L, clock);
+    }
+
+    @Override
+    public void init(@NotNull String apiKey) {
+        delegate.init(apiKey);
+    }
+
+    /**
+     * Translates texts, safe to be called from several threads at once.
+     *
+     * @return translations in order of {@code originals} or null when the texts should be left untranslated
+     */
+    @Nullable
+    @Override
+    public List<String> translate(@Nullable String defaultLang, @NotNull List<String> originals, @NotNull String lang) {
+        String translatorName = getSupportedTranslator().name();
+        if (!circuitBreaker.tryAcquire()) {
+            return untranslated(originals, lang, "translator failed repeatedly, it is not called for a while", null);
+        }
+        for (int attempt = 1; ; attempt++) {
+            TranslatorException failure;
+            try {
+                limiter.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Translation to '" + lang + "' was interrupted.", e);
+            }
+            try {
+                List<String> result = delegate.translate(defaultLang, originals, lang);
+                if (result == null || result.size() != originals.size()) {
+                    throw new TranslatorException("Translator returned " + (result == null ? "no" : result.size())
+                            + " translations of " + originals.size() + " texts.", null, false, false, null);
+                }
+                limiter.onSuccess();
+                circuitBreaker.onSuccess();
+                return result;
+            } catch (RuntimeException e) {
+                failure = classify(e);
+                if (failure.isThrottled()) {
+                    limiter.onThrottled();
+                }
+            } finally {
+                limiter.release();
+            }
+
+            if (!failure.isRetryable() || attempt >= configuration.getMaxAttempts()) {
+                circuitBreaker.onFailure();
+                return untranslated(originals, lang, "translation failed after " + attempt + " attempts", failure);
+            }
+            if (circuitBreaker.isOpen()) {
+                return untranslated(originals, lang, "translator failed repeatedly meanwhile", failure);
+            }
+            long delay = backoffMillis(attempt, failure.getRetryAfter());
+            log.warn("Translation of " + originals.size() + " texts to '" + lang + "' failed (" + failure.getMessage()
+                    + "), attempt " + (attempt + 1) + " in " + delay + " ms, " + limiter.getLimit() + " calls allowed at once.");
+            metrics.count(RunMetrics.TRANSLATOR_RETRIES, 1, "translator", translatorName);
+            try {
+                sleeper.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Translation to '" + lang + "' was interrupted.", e);
+            }
+        }
+    }
+
+    @Override
+    public SupportedTranslators getSupportedTranslator() {
+        return delegate.getSupportedTranslator();
+    }
+
+    /**
+     * Exponential backoff with "equal jitter" - random delay between half and full of the exponential delay,
+     * at least the delay requested by the service.
+     */
+    long backoffMillis(int attempt, @Nullable Duration retryAfter) {
+        long exponential = configuration.getInitialBackoffMillis() << Math.min(attempt - 1, 30);
+        long capped = Math.min(configuration.getMaxBackoffMillis(), Math.max(0, exponential));
+        long jittered = capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+        if (retryAfter != null) {
+            jittered = Math.max(jittered, Math.min(configuration.getMaxBackoffMillis(), retryAfter.toMillis()));
+        }
+        return jittered;
+    }
+
+    private List<String> untranslated(List<String> originals, String lang, String reason, @Nullable Exception failure) {
+        log.error("Leaving " + originals.size() + " texts untranslated to '" + lang + "', " + reason
+                + (failure == null ? "." : ": " + failure.getMessage()), failure);
+        metrics.count(RunMetrics.TRANSLATOR_UNTRANSLATED, originals.size(), "translator", getSupportedTranslator().name());
+        return null;
+    }
+
+    private static TranslatorException classify(RuntimeException e) {
+        if (e instanceof TranslatorException) {
+            return (TranslatorException) e;
+        }
+        return new TranslatorException(e.getMessage(), e, !(e instanceof IllegalArgumentException), false, null);
+    }
+
+    /**
+     * Waits between attempts, replaceable in tests.
+     */
+    @FunctionalInterface
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+
+}
@@ -0,0 +1,70 @@
+package one.edee.babylon.export.translator;
+
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Failure of a translation service call, tells {@link ResilientTranslator} whether and when the call may be repeated.
+ */
+@Getter
+public class TranslatorException extends RuntimeException {
+
+    private static final long serialVersionUID = -4212532542926950731L;
+
+    /** True when repeating the same call may succeed. */
+    private final boolean retryable;
+    /** True when the service refused the call because of too many requests. */
+    private final boolean throttled;
+    /** Delay requested by the service before the next call. */
+    @Nullable
+    private final Duration retryAfter;
+
+    public TranslatorException(String message, @Nullable Throwable cause, boolean retryable, boolean throttled, @Nullable Duration retryAfter) {
+        super(message, cause);
+        this.retryable = retryable;
+        this.throttled = throttled;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Creates exception for unsuccessful HTTP response, 408, 429 and 5xx responses are retryable.
+     *
+     * @param message          error message
+     * @param status           HTTP status code
+     * @param retryAfterHeader value of {@code Retry-After} response header
+     * @param cause            exception thrown by the client library
+     */
+    public static TranslatorException ofStatus(String message, int status, @Nullable String retryAfterHeader, @Nullable Throwable cause) {
+        boolean throttled = status == 429;
+        return new TranslatorException(message, cause, throttled || status == 408 || status >= 500, throttled, parseRetryAfter(retryAfterHeader));
+    }
+
+    /**
+     * Parses value of {@code Retry-After} header - either number of seconds or HTTP date.
+     *
+     * @return requested delay or null when the header is missing or invalid
+     */
+    @Nullable
+    public static Duration parseRetryAfter(@Nullable String header) {
+        if (header == null || header.trim().isEmpty()) {
+            return null;
+        }
+        String value = header.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value)));
+        } catch (NumberFormatException e) {
+            try {
+                Duration delay = Duration.between(ZonedDateTime.now(), ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME));
+                return delay.isNegative() ? Duration.ZERO : delay;
+            } catch (DateTimeParseException ex) {
+                return null;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+package one.edee.babylon.export.ts;
+
+import one.edee.babylon.export.ts.locale.LocaleModuleBaseListener;
+import one.edee.babylon.export.ts.locale.LocaleModuleLexer;
+import one.edee.babylon.export.ts.locale.LocaleModuleParser;
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+/**
+ * Reads TypeScript message files by the grammar of locale modules (see LocaleModule.g4), which recognizes only
+ * imports, a single object literal with the messages and its default export. Its parser is a small fraction of the full
+ * TypeScriptParser and starts up quickly, so message files of the usual shape are parsed by it and only the others
+ * by the full grammar.
+ *
+ * Results are the same as those of {@link TypeScriptBabylonParserListener} attached to the full parser.
+ */
+public class LocaleModuleReader {
+
+    private static final ANTLRErrorListener BAIL_OUT = new BaseErrorListener() {
+        @Override
+        public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line, int charPositionInLine, String msg, RecognitionException e) {
+            throw new ParseCancellationException(msg, e);
+        }
+    };
+
+    private LocaleModuleReader() {
+    }
+
+    /**
+     * @param input file to read, the stream is left at an unspecified position
+     * @return definitions of the file or null when the file is not a plain locale module
+     */
+    public static TypeScriptBabylonParserListener read(CharStream input) {
+        LocaleModuleLexer lexer = new LocaleModuleLexer(input);
+        lexer.removeErrorListeners();
+        lexer.addErrorListener(BAIL_OUT);
+        CommonTokenStream tokens = new CommonTokenStream(lexer);
+        LocaleModuleParser parser = new LocaleModuleParser(tokens);
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        parser.setBuildParseTree(false);
+
+        TypeScriptBabylonParserListener definitions = new TypeScriptBabylonParserListener();
+        parser.addParseListener(new DefinitionCollector(definitions, tokens));
+        try {
+            // lexer errors are raised before any rule is entered
+            tokens.fill();
+            parser.module();
+        } catch (ParseCancellationException e) {
+            return null;
+        }
+        return definitions;
+    }
+
+    /**
+     * Fills definitions as the elements are parsed, in the same form as {@link TypeScriptBabylonParserListener}.
+     */
+    private static class DefinitionCollector extends LocaleModuleBaseListener {
+        private final TypeScriptBabylonParserListener definitions;
+        private final TokenStream tokens;
+
+        DefinitionCollector(TypeScriptBabylonParserListener definitions, TokenStream tokens) {
+            this.definitions = definitions;
+            this.tokens = tokens;
+        }
+
+        @Override
+        public void exitValueImport(LocaleModuleParser.ValueImportContext ctx) {
+            if (failed(ctx)) {
+                return;
+            }
+            Token afterImport = tokens.get(ctx.getStart().getTokenIndex() + 1);
+            definitions.getImports().add(ctx.getStart().getText() + " " + tokens.getText(afterImport, ctx.getStop()));
+        }
+
+        @Override
+        public void exitNamedTypeImport(LocaleModuleParser.NamedTypeImportContext ctx) {
+            if (failed(ctx)) {
+                return;
+            }
+            // the full grammar reads type imports as declarations of the imported names
+            for (Token name : ctx.names) {
+                definitions.getPropertyListDefName().add(name.getText());
+            }
+        }
+
+        @Override
+        public void exitConstDeclaration(LocaleModuleParser.ConstDeclarationContext ctx) {
+            if (failed(ctx)) {
+                return;
+            }
+            definitions.getPropertyListDefName().add(ctx.name.getText());
+        }
+
+        @Override
+        public void exitPropertyAssignment(LocaleModuleParser.PropertyAssignmentContext ctx) {
+            if (failed(ctx)) {
+                return;
+            }
+            definitions.putProperty(ctx.key.getStart().getText(), ctx.value.getText(), offsets(ctx, ctx.value));
+        }
+
+        @Override
+        public void exitComputedPropertyAssignment(LocaleModuleParser.ComputedPropertyAssignmentContext ctx) {
+            if (failed(ctx)) {
+                return;
+            }
+            String text = "[" + tokens.getText(ctx.key.getStart(), ctx.key.getStop()) + "]:" + ctx.value.getText();
+            String[] split = text.split(":");
+            if (split.length != 2) {
+                // rejected by the full grammar with its own message
+                throw new ParseCancellationException("Unexpected delimiter in: " + text);
+            }
+            definitions.putProperty(split[0], split[1], offsets(ctx, ctx.value));
+        }
+
+        /**
+         * Rules that failed are exited as well before the parsing is cancelled, their elements may be missing.
+         * {@link BailErrorStrategy} marks all the rules being parsed.
+         */
+        private static boolean failed(ParserRuleContext ctx) {
+            return ctx.exception != null;
+        }
+
+        private static int[] offsets(ParserRuleContext ctx, Token value) {
+            return new int[]{
+                    ctx.getStart().getStartIndex(), ctx.getStop().getStopIndex(),
+                    value.getStartIndex(), value.getStopIndex()
+            };
+        }
+    }
+
+}
@@ -1,15 +1,29 @@
 package one.edee.babylon.export.ts;
 
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 import one.edee.babylon.export.ts.gen.TypeScriptParser;
 import one.edee.babylon.export.ts.gen.TypeScriptParserBaseListener;
+import org.antlr.v4.runtime.Parser;
 import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.tree.ParseTree;
 import org.springframework.util.Assert;
 
 import java.util.*;
 
-
+/**
+ * Collects imports, declaration names and property definitions of a TypeScript message file.
+ *
+ * The listener either walks a parse tree or, when created with the token stream of the parser, is attached to the
+ * parser by {@link Parser#addParseListener} and reads names and values from the tokens of each property as soon as
+ * it is parsed - no parse tree has to be built then. Nested properties are collected in the order they are finished
+ * by the parser in that case, i.e. before the property containing them.
+ */
 @EqualsAndHashCode(callSuper = true)
 @Data
 public class TypeScriptBabylonParserListener extends TypeScriptParserBaseListener {
@@ -19,33 +33,176 @@ public class TypeScriptBabylonParserListener extends TypeScriptParserBaseListene
     private final Set<String> propertyListDefName = new HashSet<>();
     private final Map<String, String> propertyDefinitions = new LinkedHashMap<>();
     private final List<String> imports = new LinkedList<>();
+    /**
+     * Character offsets of each property definition - {property start, property stop, value start, value stop}, stops
+     * are inclusive. Offsets of keys defined more than once are null, because they do not tell which definition is used.
+     */
+    private final Map<String, int[]> propertyOffsets = new LinkedHashMap<>();
+    /** Tokens of the parsed file when the listener is attached to the parser, null when it walks a parse tree. */
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final TokenStream tokens;
+
+    /**
+     * Creates listener walking a parse tree.
+     */
+    public TypeScriptBabylonParserListener() {
+        this(null);
+    }
+
+    /**
+     * Creates listener attached to the parser reading given tokens.
+     */
+    public TypeScriptBabylonParserListener(TokenStream tokens) {
+        this.tokens = tokens;
+    }
 
     @Override
     public void enterIdentifierOrKeyWord(TypeScriptParser.IdentifierOrKeyWordContext ctx) {
-        propertyListDefName.add(ctx.getText());
+        if (tokens == null) {
+            propertyListDefName.add(ctx.getText());
+        }
+    }
+
+    @Override
+    public void exitIdentifierOrKeyWord(TypeScriptParser.IdentifierOrKeyWordContext ctx) {
+        if (tokens != null) {
+            propertyListDefName.add(ctx.getStart().getText());
+        }
     }
 
     @Override
     public void enterPropertyExpressionAssignment(TypeScriptParser.PropertyExpressionAssignmentContext ctx) {
+        if (tokens != null) {
+            return;
+        }
         int childCount = ctx.getChildCount();
         Assert.isTrue(childCount == 3, "There has to be property name, delimiter (:) and value! In: " + ctx.getText());
         String propertyName = cleanText(ctx.getChild(0).getText());
         String propertyValue = cleanText(ctx.getChild(2).getText());
         propertyDefinitions.put(propertyName, propertyValue);
+        putOffsets(propertyName, ctx, ctx.getChild(2));
+    }
+
+    @Override
+    public void exitPropertyExpressionAssignment(TypeScriptParser.PropertyExpressionAssignmentContext ctx) {
+        if (tokens == null) {
+            return;
+        }
+        // property name is a single token followed by the delimiter
+        int name = ctx.getStart().getTokenIndex();
+        int valueStart = nextVisibleToken(nextVisibleToken(name));
+        int stop = ctx.getStop().getTokenIndex();
+        Assert.isTrue(valueStart <= stop, "There has to be property name, delimiter (:) and value! In: " + getText(name, stop));
+        String propertyName = cleanText(tokens.get(name).getText());
+        String propertyValue = cleanText(getText(valueStart, stop));
+        propertyDefinitions.put(propertyName, propertyValue);
+        putOffsets(propertyName, ctx, tokens.get(valueStart));
     }
 
     @Override
     public void enterComputedPropertyExpressionAssignment(TypeScriptParser.ComputedPropertyExpressionAssignmentContext ctx) {
+        if (tokens != null) {
+            return;
+        }
         String[] split = ctx.getText().split(":");
         Assert.isTrue(split.length == 2, "There has to be property name, delimiter (:) and value! In: " + ctx.getText());
         String propertyName = cleanText(split[0]);
         String propertyValue = cleanText(split[1]);
         propertyDefinitions.put(propertyName, propertyValue);
+        putOffsets(propertyName, ctx, ctx.getChild(ctx.getChildCount() - 1));
+    }
+
+    @Override
+    public void exitComputedPropertyExpressionAssignment(TypeScriptParser.ComputedPropertyExpressionAssignmentContext ctx) {
+        if (tokens == null) {
+            return;
+        }
+        int start = ctx.getStart().getTokenIndex();
+        int stop = ctx.getStop().getTokenIndex();
+        String text = getText(start, stop);
+        String[] split = text.split(":");
+        Assert.isTrue(split.length == 2, "There has to be property name, delimiter (:) and value! In: " + text);
+        String propertyName = cleanText(split[0]);
+        String propertyValue = cleanText(split[1]);
+        propertyDefinitions.put(propertyName, propertyValue);
+        int colon = start;
+        while (tokens.get(colon).getType() != TypeScriptParser.Colon) {
+            colon++;
+        }
+        putOffsets(propertyName, ctx, tokens.get(nextVisibleToken(colon)));
     }
 
     @Override
     public void enterImportStatement(TypeScriptParser.ImportStatementContext ctx) {
-        imports.add(getNodeText(ctx));
+        if (tokens == null) {
+            imports.add(getNodeText(ctx));
+        }
+    }
+
+    @Override
+    public void exitImportStatement(TypeScriptParser.ImportStatementContext ctx) {
+        if (tokens != null) {
+            // import keyword and the rest of the statement, as by getNodeText
+            int start = ctx.getStart().getTokenIndex();
+            imports.add(ctx.getStart().getText() + " " + getText(nextVisibleToken(start), ctx.getStop().getTokenIndex()));
+        }
+    }
+
+    private void putOffsets(String propertyName, ParserRuleContext ctx, ParseTree value) {
+        int[] offsets = null;
+        if (!propertyOffsets.containsKey(propertyName) && value instanceof ParserRuleContext) {
+            ParserRuleContext valueCtx = (ParserRuleContext) value;
+            offsets = new int[]{
+                    ctx.getStart().getStartIndex(), ctx.getStop().getStopIndex(),
+                    valueCtx.getStart().getStartIndex(), valueCtx.getStop().getStopIndex()
+            };
+        }
+        propertyOffsets.put(propertyName, offsets);
+    }
+
+    private void putOffsets(String propertyName, ParserRuleContext ctx, Token valueStart) {
+        int[] offsets = null;
+        if (!propertyOffsets.containsKey(propertyName)) {
+            offsets = new int[]{
+                    ctx.getStart().getStartIndex(), ctx.getStop().getStopIndex(),
+                    valueStart.getStartIndex(), ctx.getStop().getStopIndex()
+            };
+        }
+        propertyOffsets.put(propertyName, offsets);
+    }
+
+    /**
+     * Adds property found by {@link LocaleModuleReader}, name and value are texts of their tokens.
+     */
+    void putProperty(String name, String value, int[] offsets) {
+        String propertyName = cleanText(name);
+        propertyDefinitions.put(propertyName, cleanText(value));
+        propertyOffsets.put(propertyName, propertyOffsets.containsKey(propertyName) ? null : offsets);
+    }
+
+    private int nextVisibleToken(int index) {
+        int next = index + 1;
+        while (next < tokens.size() && tokens.get(next).getChannel() != Token.DEFAULT_CHANNEL) {
+            next++;
+        }
+        return next;
+    }
+
+    /**
+     * @return text of the tokens parsed between given indexes (inclusive), as {@link ParseTree#getText()} of the rule
+     * matching them
+     */
+    private String getText(int start, int stop) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = start; i <= stop; i++) {
+            Token token = tokens.get(i);
+            if (token.getChannel() == Token.DEFAULT_CHANNEL && token.getType() != Token.EOF) {
+                builder.append(token.getText());
+            }
+        }
+        return builder.toString();
     }
 
     private String cleanText(String text) {
@@ -0,0 +1,201 @@
+package one.edee.babylon.http;
+
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.util.StreamingContent;
+import okhttp3.*;
+import okio.BufferedSink;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link HttpTransport} of Google HTTP client library sending requests by {@link OkHttpClient}, so that Google API
+ * clients use the same connection pool as the rest of the application.
+ */
+class OkHttpTransport extends HttpTransport {
+
+    private final OkHttpClient client;
+
+    OkHttpTransport(OkHttpClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public boolean supportsMethod(String method) {
+        return true;
+    }
+
+    @Override
+    protected LowLevelHttpRequest buildRequest(String method, String url) {
+        return new OkHttpRequest(method, url);
+    }
+
+    private class OkHttpRequest extends LowLevelHttpRequest {
+        private final String method;
+        private final Request.Builder request;
+        private int connectTimeout = -1;
+        private int readTimeout = -1;
+        private int writeTimeout = -1;
+
+        OkHttpRequest(String method, String url) {
+            this.method = method;
+            this.request = new Request.Builder().url(url);
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            request.addHeader(name, value);
+        }
+
+        @Override
+        public void setTimeout(int connectTimeout, int readTimeout) {
+            this.connectTimeout = connectTimeout;
+            this.readTimeout = readTimeout;
+        }
+
+        @Override
+        public void setWriteTimeout(int writeTimeout) {
+            this.writeTimeout = writeTimeout;
+        }
+
+        @Override
+        public LowLevelHttpResponse execute() throws IOException {
+            RequestBody body = null;
+            StreamingContent content = getStreamingContent();
+            if (content != null) {
+                body = new StreamingRequestBody(content, getContentType(), getContentLength());
+                if (getContentEncoding() != null) {
+                    request.header("Content-Encoding", getContentEncoding());
+                }
+            } else if (requiresRequestBody(method)) {
+                body = RequestBody.create(null, new byte[0]);
+            }
+            request.method(method, body);
+            return new OkHttpResponse(clientWithTimeouts().newCall(request.build()).execute());
+        }
+
+        /**
+         * OkHttp rejects these methods without a body.
+         */
+        private boolean requiresRequestBody(String method) {
+            return "POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method)
+                    || "PROPPATCH".equals(method) || "REPORT".equals(method);
+        }
+
+        private OkHttpClient clientWithTimeouts() {
+            if ((connectTimeout < 0 || connectTimeout == client.connectTimeoutMillis())
+                    && (readTimeout < 0 || readTimeout == client.readTimeoutMillis())
+                    && (writeTimeout < 0 || writeTimeout == client.writeTimeoutMillis())) {
+                return client;
+            }
+            // derived client shares connection pool and dispatcher of the original one
+            OkHttpClient.Builder builder = client.newBuilder();
+            if (connectTimeout >= 0) {
+                builder.connectTimeout(connectTimeout, TimeUnit.MILLISECONDS);
+            }
+            if (readTimeout >= 0) {
+                builder.readTimeout(readTimeout, TimeUnit.MILLISECONDS);
+            }
+            if (writeTimeout >= 0) {
+                builder.writeTimeout(writeTimeout, TimeUnit.MILLISECONDS);
+            }
+            return builder.build();
+        }
+    }
+
+    private static class StreamingRequestBody extends RequestBody {
+        private final StreamingContent content;
+        private final MediaType contentType;
+        private final long contentLength;
+
+        StreamingRequestBody(StreamingContent content, String contentType, long contentLength) {
+            this.content = content;
+            this.contentType = contentType == null ? null : MediaType.parse(contentType);
+            this.contentLength = contentLength;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return contentType;
+        }
+
+        @Override
+        public long contentLength() {
+            return contentLength;
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            content.writeTo(sink.outputStream());
+        }
+    }
+
+    private static class OkHttpResponse extends LowLevelHttpResponse {
+        private final Response response;
+
+        OkHttpResponse(Response response) {
+            this.response = response;
+        }
+
+        @Override
+        public InputStream getContent() {
+            ResponseBody body = response.body();
+            return body == null ? null : body.byteStream();
+        }
+
+        @Override
+        public String getContentEncoding() {
+            return response.header("Content-Encoding");
+        }
+
+        @Override
+        public long getContentLength() {
+            ResponseBody body = response.body();
+            return body == null ? -1 : body.contentLength();
+        }
+
+        @Override
+        public String getContentType() {
+            return response.header("Content-Type");
+        }
+
+        @Override
+        public String getStatusLine() {
+            return response.protocol().toString().toUpperCase() + " " + response.code() + " " + response.message();
+        }
+
+        @Override
+        public int getStatusCode() {
+            return response.code();
+        }
+
+        @Override
+        public String getReasonPhrase() {
+            return response.message();
+        }
+
+        @Override
+        public int getHeaderCount() {
+            return response.headers().size();
+        }
+
+        @Override
+        public String getHeaderName(int index) {
+            return response.headers().name(index);
+        }
+
+        @Override
+        public String getHeaderValue(int index) {
+            return response.headers().value(index);
+        }
+
+        @Override
+        public void disconnect() {
+            response.close();
+        }
+    }
+
+}
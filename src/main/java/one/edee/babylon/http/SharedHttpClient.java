@@ -0,0 +1,71 @@
+package one.edee.babylon.http;
+
+import com.google.api.client.http.HttpTransport;
+import lombok.extern.apachecommons.CommonsLog;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import one.edee.babylon.config.HttpConfiguration;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP client shared by all clients of remote services (Google Sheets, translators), so that they reuse pooled
+ * keep-alive connections instead of opening a new connection with a new TLS handshake for every client.
+ *
+ * Clients needing different settings (authorization headers, own concurrency limits) should derive their client
+ * by {@code getClient().newBuilder()}, which keeps sharing the connection pool.
+ */
+@CommonsLog
+public class SharedHttpClient implements AutoCloseable {
+
+    private final HttpConfiguration configuration;
+    private final OkHttpClient client;
+    private final OkHttpTransport transport;
+
+    public SharedHttpClient(HttpConfiguration configuration) {
+        this.configuration = configuration;
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(configuration.getMaxIdleConnections(), configuration.getKeepAliveSeconds(), TimeUnit.SECONDS))
+                .connectTimeout(configuration.getConnectTimeoutSeconds(), TimeUnit.SECONDS)
+                .readTimeout(configuration.getReadTimeoutSeconds(), TimeUnit.SECONDS)
+                .writeTimeout(configuration.getReadTimeoutSeconds(), TimeUnit.SECONDS)
+                .protocols(configuration.isHttp2()
+                        ? Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                        : Collections.singletonList(Protocol.HTTP_1_1));
+        if (!configuration.isGzip()) {
+            builder.addNetworkInterceptor(chain -> chain.proceed(
+                    chain.request().newBuilder().header("Accept-Encoding", "identity").build()));
+        }
+        this.client = builder.build();
+        this.transport = new OkHttpTransport(client);
+    }
+
+    public HttpConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * @return client for OkHttp based clients (OpenAI, local translator)
+     */
+    public OkHttpClient getClient() {
+        return client;
+    }
+
+    /**
+     * @return transport for clients based on Google HTTP client library (Google Sheets, Google Translate)
+     */
+    public HttpTransport getTransport() {
+        return transport;
+    }
+
+    @Override
+    public void close() {
+        log.debug("Closing " + client.connectionPool().connectionCount() + " pooled HTTP connections.");
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+
+}
@@ -0,0 +1,54 @@
+package one.edee.babylon.imp0rt;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link MessageWriter} that only records stored messages, so that a sheet can be decoded without touching shared
+ * state and its messages written later by {@link #replayTo(MessageWriter)}.
+ */
+public class BufferingMessageWriter implements MessageWriter {
+
+    /** Language of each stored message, null for messages in primary language. */
+    private final List<String> languages = new ArrayList<>();
+    private final List<String> keys = new ArrayList<>();
+    private final List<String> values = new ArrayList<>();
+
+    @Override
+    public void storePrimaryMessage(String msgKey, String msgValue) {
+        store(null, msgKey, msgValue);
+    }
+
+    @Override
+    public void storeTranslation(String language, String msgKey, String msgValue) {
+        store(language, msgKey, msgValue);
+    }
+
+    /**
+     * Writes recorded messages into given writer in the order they were stored.
+     */
+    public void replayTo(MessageWriter target) {
+        for (int i = 0; i < keys.size(); i++) {
+            String language = languages.get(i);
+            if (language == null) {
+                target.storePrimaryMessage(keys.get(i), values.get(i));
+            } else {
+                target.storeTranslation(language, keys.get(i), values.get(i));
+            }
+        }
+    }
+
+    /**
+     * @return number of recorded messages
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    private void store(String language, String msgKey, String msgValue) {
+        languages.add(language);
+        keys.add(msgKey);
+        values.add(msgValue);
+    }
+
+}
@@ -0,0 +1,77 @@
+package one.edee.babylon.imp0rt;
+
+import com.google.api.services.sheets.v4.model.CellData;
+import com.google.api.services.sheets.v4.model.RowData;
+
+import java.util.List;
+
+/**
+ * Decodes rows of a translation sheet grid into a {@link MessageWriter}. Languages of the columns are resolved from
+ * the header once per grid, rows are then read by indexed loops without creating any intermediate objects.
+ *
+ * The first column contains message keys, the second one messages in primary language and the following columns
+ * translations into the languages named in the header.
+ */
+class GridDecoder {
+
+    private static final int KEY_COLUMN = 0;
+    private static final int PRIMARY_COLUMN = 1;
+    /** Formatted value of cells that contained null when the sheet was written by older versions. */
+    private static final String NULL_VALUE = "null";
+
+    /** Language of each column by its index, null for key and primary message columns. */
+    private final String[] languages;
+
+    /**
+     * @param header first row of the grid
+     */
+    GridDecoder(RowData header) {
+        List<CellData> cells = header.getValues();
+        int columns = cells == null ? 0 : cells.size();
+        this.languages = new String[columns];
+        for (int col = PRIMARY_COLUMN + 1; col < columns; col++) {
+            languages[col] = cells.get(col).getFormattedValue();
+        }
+    }
+
+    /**
+     * Writes messages of all rows except the header, empty rows are skipped.
+     *
+     * @param rows          all rows of the grid, header included
+     * @param messageWriter writer to store the messages into
+     */
+    void decode(List<RowData> rows, MessageWriter messageWriter) {
+        for (int row = 1; row < rows.size(); row++) {
+            List<CellData> cells = rows.get(row).getValues();
+            if (cells != null && !isEmpty(cells)) {
+                decodeRow(cells, messageWriter);
+            }
+        }
+    }
+
+    private void decodeRow(List<CellData> cells, MessageWriter messageWriter) {
+        String msgKey = "";
+        for (int col = 0; col < cells.size(); col++) {
+            String value = cells.get(col).getFormattedValue();
+            if (col == KEY_COLUMN) {
+                msgKey = value;
+            } else if (col == PRIMARY_COLUMN) {
+                messageWriter.storePrimaryMessage(msgKey, value);
+            } else {
+                // columns beyond the header have no language
+                messageWriter.storeTranslation(col < languages.length ? languages[col] : null, msgKey, value);
+            }
+        }
+    }
+
+    private static boolean isEmpty(List<CellData> cells) {
+        for (int col = 0; col < cells.size(); col++) {
+            String value = cells.get(col).getFormattedValue();
+            if (value != null && !NULL_VALUE.equals(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -10,6 +10,7 @@ import one.edee.babylon.entity.PropertiesMap;
 import one.edee.babylon.enums.Action;
 import one.edee.babylon.git.GitAdd;
 import one.edee.babylon.git.RuntimeExecGitAdd;
+import one.edee.babylon.metrics.RunMetrics;
 import one.edee.babylon.msgfile.TranslationFileUtils;
 import one.edee.babylon.properties.*;
 import one.edee.babylon.sheets.SheetConstants;
@@ -17,19 +18,24 @@ import one.edee.babylon.sheets.gsheets.LightGSheetService;
 import one.edee.babylon.snapshot.Snapshot;
 import one.edee.babylon.statistics.ImportFileStatistic;
 import one.edee.babylon.statistics.TranslationStatisticsOfImport;
+import one.edee.babylon.util.AtomicFileWriter;
+import one.edee.babylon.util.ParallelUtils;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Processor for {@link Action#IMPORT} action.
@@ -44,6 +50,7 @@ public class ImportProcessor {
     private final LightGSheetService lightGSheetService;
 
     private final TranslationConfiguration configuration;
+    private final RunMetrics metrics;
 
     private final GitAdd gitAdd;
     private final ImportSheetProcessor importSheetProcessor;
@@ -51,36 +58,128 @@ public class ImportProcessor {
     public ImportProcessor(LightGSheetService lightGSheetService,
                            SnapshotManager snapshotManager,
                            List<FileLoader> propertyFileLoaders,
-                           TranslationConfiguration configuration) {
+                           TranslationConfiguration configuration,
+                           RunMetrics metrics) {
+        this(lightGSheetService, snapshotManager, propertyFileLoaders, configuration, metrics, new RuntimeExecGitAdd());
+    }
+
+    public ImportProcessor(LightGSheetService lightGSheetService,
+                           SnapshotManager snapshotManager,
+                           List<FileLoader> propertyFileLoaders,
+                           TranslationConfiguration configuration,
+                           RunMetrics metrics,
+                           GitAdd gitAdd) {
         this.snapshotManager = snapshotManager;
         this.propertyFileLoaders = propertyFileLoaders;
         this.lightGSheetService = lightGSheetService;
         this.configuration = configuration;
-        this.gitAdd = new RuntimeExecGitAdd();
+        this.metrics = metrics;
+        this.gitAdd = gitAdd;
         importSheetProcessor = new ImportSheetProcessor();
     }
 
-    public void doImport(String googleSheetId) throws IOException, GeneralSecurityException, InterruptedException {
+    /**
+     * Imports translations from all sheets of given spreadsheet into translation message files. When
+     * {@link TranslationConfiguration#getShards()} are defined, sheets of all shards are downloaded in parallel and
+     * imported as well.
+     *
+     * @param googleSheetId id of GSheets spreadsheet
+     * @return statistics of the import
+     */
+    public TranslationStatisticsOfImport doImport(String googleSheetId) throws IOException, GeneralSecurityException, InterruptedException {
         log.info("Started translation IMPORT with Google sheet id: '" + googleSheetId + "'");
         TranslationStatisticsOfImport statistics = new TranslationStatisticsOfImport();
         statistics.setAction(Action.IMPORT);
 
         Snapshot snapshot = snapshotManager.getOrCreateDataFile();
-        List<Sheet> sheets = lightGSheetService.listSheetsEagerly(googleSheetId);
-        if (sheets == null || sheets.isEmpty()) {
-            throw new IllegalArgumentException("Source spreadsheet " + googleSheetId + " not contains any sheets.");
-        }
-        // Using "for" loop to propagating of IOException.
-        for (Sheet sheet : sheets) {
-            importSheetProcessor.processSheet(sheet, snapshot);
+        long start = System.nanoTime();
+        List<Sheet> sheets = new ArrayList<>();
+        Map<String, List<Sheet>> sheetsBySpreadsheet = ParallelUtils.mapInParallel(configuration.getSpreadsheetIds(googleSheetId), id -> {
+            try {
+                return lightGSheetService.listSheetsEagerly(id);
+            } catch (GeneralSecurityException e) {
+                throw new IOException("Unable to access spreadsheet '" + id + "'", e);
+            }
+        });
+        sheetsBySpreadsheet.forEach((spreadsheetId, spreadsheetSheets) -> {
+            if (spreadsheetSheets == null || spreadsheetSheets.isEmpty()) {
+                throw new IllegalArgumentException("Source spreadsheet " + spreadsheetId + " not contains any sheets.");
+            }
+            spreadsheetSheets.stream()
+                    // left by the export in a spreadsheet that received no sheets
+                    .filter(sheet -> !SheetConstants.EMPTY_SHEET_TITLE.equals(sheet.getProperties().getTitle()))
+                    .forEach(sheets::add);
+        });
+        metrics.recordPhaseTime("import.download", System.nanoTime() - start);
+        start = System.nanoTime();
+        Map<String, Exception> failedSheets = new LinkedHashMap<>();
+        if (configuration.getImportThreads() > 1) {
+            failedSheets = processSheetsInParallel(sheets, snapshot, configuration.getImportThreads());
+        } else {
+            // Using "for" loop to propagating of IOException.
+            for (Sheet sheet : sheets) {
+                importSheetProcessor.processSheet(sheet, snapshot);
+            }
         }
+        metrics.recordPhaseTime("import.process", System.nanoTime() - start);
 
+        start = System.nanoTime();
         Map<String, MessageFileContent> dataPropFiles = snapshotManager.getOrCreateDataFile().getProps();
         saveTranslations(statistics, configuration.getMutations(), dataPropFiles);
+        metrics.recordPhaseTime("import.save", System.nanoTime() - start);
+        metrics.count(RunMetrics.KEYS, statistics.getTotalUpdatedCnt(), "kind", "updated");
 
-        saveDataFile(snapshot, configuration.getDataFileName());
+        start = System.nanoTime();
+        saveDataFile(snapshot);
+        metrics.recordPhaseTime("import.snapshot", System.nanoTime() - start);
 
         log.info(statistics);
+        if (!failedSheets.isEmpty()) {
+            IllegalStateException failure = new IllegalStateException("Import of " + failedSheets.size() + " of " + sheets.size()
+                    + " sheets failed, the other sheets were imported: " + failedSheets.entrySet().stream()
+                    .map(entry -> "\"" + entry.getKey() + "\": " + entry.getValue().getMessage())
+                    .collect(Collectors.joining("; ")));
+            failedSheets.values().forEach(failure::addSuppressed);
+            throw failure;
+        }
+        return statistics;
+    }
+
+    /**
+     * Decodes sheets concurrently and merges them into the snapshot in the order of {@code sheets} once all of them
+     * are decoded, so the result does not depend on thread scheduling.
+     *
+     * @return failures of sheets that could not be decoded or merged by sheet title, in the order of {@code sheets}
+     */
+    private Map<String, Exception> processSheetsInParallel(List<Sheet> sheets, Snapshot snapshot, int threads) {
+        List<Integer> indexes = IntStream.range(0, sheets.size()).boxed().collect(Collectors.toList());
+        Map<Integer, Exception> decodingFailures = new ConcurrentHashMap<>();
+        Map<Integer, ImportSheetProcessor.DecodedSheet> decodedSheets = ParallelUtils.mapInParallel(indexes, threads, index -> {
+            try {
+                return importSheetProcessor.decodeSheet(sheets.get(index));
+            } catch (IOException | RuntimeException e) {
+                decodingFailures.put(index, e);
+                return null;
+            }
+        });
+
+        Map<String, Exception> failedSheets = new LinkedHashMap<>();
+        for (int index : indexes) {
+            String sheetTitle = sheets.get(index).getProperties().getTitle();
+            Exception failure = decodingFailures.get(index);
+            if (failure == null) {
+                try {
+                    decodedSheets.get(index).mergeInto(snapshot);
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                log.error("Sheet \"" + sheetTitle + "\" cannot be imported: " + failure.getMessage(), failure);
+                failedSheets.put(sheetTitle, failure);
+            }
+        }
+        return failedSheets;
     }
 
     /**
@@ -88,12 +187,11 @@ public class ImportProcessor {
      *
      * @throws IOException some exception derived from {@link IOException}
      */
-    private void saveDataFile(Snapshot snapshot, String dbFileName) throws IOException {
+    private void saveDataFile(Snapshot snapshot) throws IOException {
         if (!snapshot.getProps().isEmpty()) {
-            File toFile = new File(dbFileName);
-            SnapshotUtils.writeSnapshot(snapshot, toFile);
+            SnapshotUtils.writeSnapshot(snapshot, configuration);
         } else {
-            throw new IllegalArgumentException("Cannot save empty DataFile object to file \"" + dbFileName + "\"");
+            throw new IllegalArgumentException("Cannot save empty DataFile object to file \"" + configuration.getDataFileName() + "\"");
         }
     }
 
@@ -141,10 +239,13 @@ public class ImportProcessor {
                 .orElseThrow(() -> new IllegalArgumentException(mutationPropFilePath + " cannot be loaded by any file loader!"));
 
         final ImportFileStatistic fileStatistic = fs;
+        long parseStart = System.nanoTime();
         // Load target properties file to get formatting and row numbers of all its properties.
         FileActiveRecord originalMutationFileProps = Optional.ofNullable(propertyFileLoader.loadPropertiesFromFile(mutationPropFilePath)).orElse(propertyFileLoader.createFileActiveRecord());
         // Load also properties of primary mutation file to get format from it.
         FileActiveRecord updatedFileProps = propertyFileLoader.loadPropertiesFromFile(primaryPropFilePath);
+        fileStatistic.setParseTimeMillis((System.nanoTime() - parseStart) / 1_000_000.0);
+        fileStatistic.setBytesRead(new File(mutationPropFilePath).length() + new File(primaryPropFilePath).length());
         // Clears all keys values in loaded primaryFileProps to create template for making of mutation properties file.
         // In this point we have clear format, this means each key and value on correct row,
         // empty rows and comments from primary mutation file is also on correct rows.
@@ -199,18 +300,42 @@ public class ImportProcessor {
                 .collect(Collectors.toList());
         propsToRemove.forEach(updatedFileProps::remove);
 
+        fileStatistic.setKeyCount((int) updatedFileProps.values().stream()
+                .filter(property -> property.isPropValue() || property.isPropValueMultiLine())
+                .count());
+
         // Save changes into target file on disk.
-        savePropertiesToFile(updatedFileProps, mutationPropFilePath, primaryPropFilePath, mutation);
+        if (savePropertiesToFile(originalMutationFileProps, updatedFileProps, mutationPropFilePath, primaryPropFilePath, mutation)) {
+            fileStatistic.setBytesWritten(new File(mutationPropFilePath).length());
+        }
     }
 
-    private void savePropertiesToFile(FileActiveRecord propertyFileActiveRecord, String pathFileName, String primaryPropFilePath, String mutation) {
-        try (OutputStreamWriter outputStreamWriter = new OutputStreamWriter(Files.newOutputStream(Paths.get(pathFileName)), StandardCharsets.UTF_8)) {
-            propertyFileActiveRecord.save(outputStreamWriter, primaryPropFilePath, mutation);
+    /**
+     * Writes the message file, files whose content does not change are not written nor added to git. Content is
+     * rendered as an edit of the loaded file when its format allows it, otherwise it is generated again.
+     *
+     * @return false when the file already had the content and was not written
+     */
+    private boolean savePropertiesToFile(FileActiveRecord originalFileActiveRecord, FileActiveRecord propertyFileActiveRecord, String pathFileName, String primaryPropFilePath, String mutation) {
+        try {
+            String content = originalFileActiveRecord.patch(propertyFileActiveRecord, primaryPropFilePath);
+            if (content == null) {
+                StringWriter writer = new StringWriter();
+                propertyFileActiveRecord.save(writer, primaryPropFilePath, mutation);
+                content = writer.toString();
+            }
+            if (!AtomicFileWriter.write(Paths.get(pathFileName), content.getBytes(StandardCharsets.UTF_8))) {
+                log.info("File \"" + pathFileName + "\" is up to date.");
+                return false;
+            }
         } catch (Exception e) {
-            throw new RuntimeException("Could not close the file " + pathFileName, e);
+            throw new RuntimeException("Could not write the file " + pathFileName, e);
         }
+        metrics.count(RunMetrics.FILES, 1, "direction", "written");
+        metrics.count(RunMetrics.BYTES, new File(pathFileName).length(), "direction", "written");
 
         gitAdd.gitAddFile(pathFileName);
+        return true;
     }
 
 }
@@ -3,17 +3,14 @@ package one.edee.babylon.imp0rt;
 import one.edee.babylon.entity.MessageFileContent;
 import one.edee.babylon.imp0rt.legacy.MessageFileContentMessageWriter;
 import one.edee.babylon.snapshot.Snapshot;
-import com.google.api.services.sheets.v4.model.CellData;
 import com.google.api.services.sheets.v4.model.GridData;
 import com.google.api.services.sheets.v4.model.RowData;
 import com.google.api.services.sheets.v4.model.Sheet;
+import lombok.Getter;
 import lombok.extern.apachecommons.CommonsLog;
 
 import java.io.IOException;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
 import java.util.regex.PatternSyntaxException;
 
 @CommonsLog
@@ -24,8 +21,26 @@ public class ImportSheetProcessor {
         log.info("Processing sheet \"" + sheetTitle + "\"...");
         Integer fileId = parseFileIdFromSheetTitle(sheetTitle);
         MessageWriter messageWriter = new MessageFileContentMessageWriter(getPropFileById(fileId, snapshot));
+        processSheetData(sheetTitle, sheet.getData(), messageWriter);
+    }
+
+    /**
+     * Reads messages of the sheet without touching the snapshot, so that several sheets can be decoded at once.
+     *
+     * @param sheet sheet with grid data
+     * @return messages of the sheet to be merged into the snapshot by {@link DecodedSheet#mergeInto(Snapshot)}
+     * @throws IllegalArgumentException when id of the message file cannot be parsed from the sheet title
+     */
+    public DecodedSheet decodeSheet(Sheet sheet) throws IOException {
+        String sheetTitle = sheet.getProperties().getTitle();
+        log.info("Processing sheet \"" + sheetTitle + "\"...");
+        Integer fileId = parseFileIdFromSheetTitle(sheetTitle);
+        DecodedSheet decodedSheet = new DecodedSheet(sheetTitle, fileId);
+        processSheetData(sheetTitle, sheet.getData(), decodedSheet.messages);
+        return decodedSheet;
+    }
 
-        List<GridData> sheetData = sheet.getData();
+    private void processSheetData(String sheetTitle, List<GridData> sheetData, MessageWriter messageWriter) throws IOException {
         if (sheetData == null || sheetData.isEmpty()) {
             log.warn("Sheet " + sheetTitle + " not contains any data in grid.");
             return;
@@ -40,7 +55,7 @@ public class ImportSheetProcessor {
      * @param fileId unique file ID
      * @return Found {@link MessageFileContent} object or null if not found.
      */
-    private MessageFileContent getPropFileById(Integer fileId, Snapshot snapshot) {
+    private static MessageFileContent getPropFileById(Integer fileId, Snapshot snapshot) {
         MessageFileContent propFile = snapshot.getPropFileById(fileId);
         if (propFile == null) {
             String msg = "No record found by id='" + fileId + "' in DB file";
@@ -56,50 +71,7 @@ public class ImportSheetProcessor {
             return;
         }
         // First row is header
-        Map<Integer,String> header = createHeader(rowsData.get(0));
-        for (RowData rowData : rowsData.subList(1, rowsData.size())) {
-            if (rowData.getValues().stream().anyMatch(i-> i.getFormattedValue() != null && !Objects.equals(i.getFormattedValue(), "null"))){
-                processRowData(header, rowData, messageWriter);
-            }
-        }
-    }
-
-    private Map<Integer,String> createHeader(RowData headerData) {
-        int col = 0;
-        Map<Integer,String> header = new LinkedHashMap<>();
-        for (CellData cellData : headerData.getValues()) {
-            String cellValue = cellData.getFormattedValue();
-            header.put(col++, cellValue);
-        }
-        return header;
-    }
-
-    /**
-     * Processes data of the one row in google sheet.
-     * @param header header values with column numbers as keys
-     * @param rowData data of the one row
-     * @throws IOException some exception derived from {@link IOException}
-     */
-    private void processRowData(Map<Integer,String> header, RowData rowData, MessageWriter messageWriter) {
-        int col = 0;
-        List<CellData> values = rowData.getValues();
-        String propKey = "";
-        for (CellData cellData : values) {
-            String colTitle = header.get(col);
-            String propValue = cellData.getFormattedValue();
-
-            if (col == 0) {
-                // First column contains properties keys.
-                propKey = propValue;
-            } else if (col == 1) {
-                // Second column contains text value of primary mutation.
-                messageWriter.storePrimaryMessage(propKey, propValue);
-            } else {
-                // Next columns contains text values of secondary mutations. Column title contains name of the mutation.
-                messageWriter.storeTranslation(colTitle, propKey, propValue);
-            }
-            col++;
-        }
+        new GridDecoder(rowsData.get(0)).decode(rowsData, messageWriter);
     }
 
     /**
@@ -119,4 +91,29 @@ public class ImportSheetProcessor {
         }
     }
 
+    /**
+     * Messages of one sheet waiting to be merged into the snapshot.
+     */
+    public static class DecodedSheet {
+        @Getter
+        private final String sheetTitle;
+        @Getter
+        private final Integer fileId;
+        private final BufferingMessageWriter messages = new BufferingMessageWriter();
+
+        DecodedSheet(String sheetTitle, Integer fileId) {
+            this.sheetTitle = sheetTitle;
+            this.fileId = fileId;
+        }
+
+        /**
+         * Writes the messages into content of the message file the sheet belongs to.
+         *
+         * @throws IllegalArgumentException when the snapshot does not contain the message file
+         */
+        public void mergeInto(Snapshot snapshot) {
+            messages.replayTo(new MessageFileContentMessageWriter(getPropFileById(fileId, snapshot)));
+        }
+    }
+
 }
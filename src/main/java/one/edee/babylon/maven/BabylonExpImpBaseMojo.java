@@ -1,12 +1,21 @@
 package one.edee.babylon.maven;
 
 import one.edee.babylon.SpringBootConsoleApplication;
+import one.edee.babylon.StandaloneApplication;
+import one.edee.babylon.config.TranslationConfiguration;
 import one.edee.babylon.enums.Action;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
- * Base class for {@link Action#EXPORT} and {@link Action#IMPORT} actions running as maven plugin.
+ * Base class for {@link Action#EXPORT}, {@link Action#IMPORT} and {@link Action#WATCH} actions running as maven plugin.
  * @author Tomas Langer (langer@fg.cz), FG Forrest a.s. (c) 2019
  */
 public abstract class BabylonExpImpBaseMojo extends AbstractMojo {
@@ -14,6 +23,8 @@ public abstract class BabylonExpImpBaseMojo extends AbstractMojo {
     public static final String CONFIG_FILE_PARAM = "config.file";
     public static final String GOOGLE_SHEET_ID_PARAM = "google.sheet.id";
     public static final String COMBINE_SHEET_PARAM = "combine.sheets";
+    public static final String SPRING_CONTEXT_PARAM = "babylon.spring";
+    public static final String AGGREGATE_PARAM = "babylon.aggregate";
 
     /**
      * File name and relative path to the Json configuration file.
@@ -33,9 +44,55 @@ public abstract class BabylonExpImpBaseMojo extends AbstractMojo {
     @Parameter(property = COMBINE_SHEET_PARAM)
     private Boolean combineSheets;
 
+    /**
+     * Runs the action in a Spring Boot application context as the command line application does. By default the
+     * services are created directly, which starts much faster.
+     */
+    @Parameter(property = SPRING_CONTEXT_PARAM, defaultValue = "false")
+    private boolean springContext;
+
+    /**
+     * Runs the action once for the whole reactor - message paths of configuration files of the same name found in
+     * the modules are added to the configuration, see {@link ReactorConfiguration}. The action runs in the project
+     * the build was started from, executions in the other modules are skipped.
+     */
+    @Parameter(property = AGGREGATE_PARAM, defaultValue = "false")
+    private boolean aggregate;
+
+    @Parameter(defaultValue = "${session}", readonly = true)
+    private MavenSession session;
+
+    @Parameter(defaultValue = "${project}", readonly = true)
+    private MavenProject project;
+
+    @Parameter(defaultValue = "${reactorProjects}", readonly = true)
+    private List<MavenProject> reactorProjects;
+
     @Override
-    public void execute() {
-        SpringBootConsoleApplication.main(getArguments());
+    public void execute() throws MojoExecutionException {
+        if (aggregate && !project.isExecutionRoot()) {
+            getLog().info("Skipping " + project.getArtifactId() + ", its messages are processed by the aggregated execution of "
+                    + session.getTopLevelProject().getArtifactId() + ".");
+            return;
+        }
+        if (springContext) {
+            if (aggregate) {
+                throw new MojoExecutionException("Aggregated execution is not supported in a Spring Boot context.");
+            }
+            SpringBootConsoleApplication.main(getArguments());
+            return;
+        }
+        try {
+            SpringBootConsoleApplication.Arguments arguments = SpringBootConsoleApplication.parseArguments(getArguments());
+            TranslationConfiguration configuration = StandaloneApplication.readConfiguration(arguments);
+            if (aggregate) {
+                List<File> moduleDirectories = reactorProjects.stream().map(MavenProject::getBasedir).collect(Collectors.toList());
+                ReactorConfiguration.merge(configuration, configFileName, moduleDirectories);
+            }
+            StandaloneApplication.run(arguments, configuration);
+        } catch (Exception e) {
+            throw new MojoExecutionException("Babylon " + getAction().name().toLowerCase() + " failed.", e);
+        }
     }
 
     private String[] getArguments() {
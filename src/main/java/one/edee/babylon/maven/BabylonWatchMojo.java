@@ -0,0 +1,18 @@
+package one.edee.babylon.maven;
+
+import one.edee.babylon.enums.Action;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+
+/**
+ * @goal watch
+ * Babylon {@link Action#WATCH} as maven plugin, runs until the build is terminated.
+ */
+@Mojo(name = "watch", defaultPhase = LifecyclePhase.NONE, inheritByDefault = false, aggregator = true)
+public class BabylonWatchMojo extends BabylonExpImpBaseMojo {
+
+    @Override
+    protected Action getAction() {
+        return Action.WATCH;
+    }
+}
@@ -0,0 +1,79 @@
+package one.edee.babylon.maven;
+
+import lombok.extern.apachecommons.CommonsLog;
+import one.edee.babylon.config.TranslationConfiguration;
+import one.edee.babylon.config.TranslationConfigurationReader;
+import org.springframework.util.ResourceUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Merges configurations of all modules of a maven reactor into a single one, so that the whole build is exported or
+ * imported by one run sharing the snapshot, the spreadsheet and the Google Sheets client.
+ *
+ * Each module may contain its own configuration file of the same name as the one of the execution. Message paths of
+ * the module configurations are resolved against the module directory and added to the main configuration, all other
+ * settings - languages, snapshot, translator... - are taken from the main configuration only.
+ */
+@CommonsLog
+public class ReactorConfiguration {
+
+    private ReactorConfiguration() {
+    }
+
+    /**
+     * @param configuration     main configuration, its message paths are extended
+     * @param configFileName    path of the main configuration file, relative path (or file name of absolute path)
+     *                          is resolved against the module directories
+     * @param moduleDirectories base directories of all modules of the reactor
+     * @return the main configuration
+     * @throws IOException when a module configuration cannot be read
+     */
+    public static TranslationConfiguration merge(TranslationConfiguration configuration,
+                                                 String configFileName,
+                                                 List<File> moduleDirectories) throws IOException {
+        File mainFile = new File(configFileName).getCanonicalFile();
+        String moduleFileName = new File(configFileName).isAbsolute() ? mainFile.getName() : configFileName;
+        TranslationConfigurationReader reader = new TranslationConfigurationReader();
+        Set<String> paths = new LinkedHashSet<>(configuration.getPath());
+        for (File moduleDirectory : moduleDirectories) {
+            File moduleFile = new File(moduleDirectory, moduleFileName).getCanonicalFile();
+            if (moduleFile.equals(mainFile) || !moduleFile.isFile()) {
+                continue;
+            }
+            TranslationConfiguration moduleConfiguration = reader.readAndCheckConfiguration(moduleFile.getPath());
+            if (!moduleConfiguration.getMutations().equals(configuration.getMutations())
+                    || !Objects.equals(moduleConfiguration.getDefaultLang(), configuration.getDefaultLang())) {
+                log.warn("Languages of '" + moduleFile + "' differ from the main configuration, languages of '" + mainFile + "' are used.");
+            }
+            int pathCount = paths.size();
+            for (String path : moduleConfiguration.getPath()) {
+                paths.add(resolve(path, moduleDirectory));
+            }
+            log.info("Added " + (paths.size() - pathCount) + " message paths of '" + moduleFile + "'.");
+        }
+        configuration.setPath(new ArrayList<>(paths));
+        return configuration;
+    }
+
+    /**
+     * Resolves relative file path or pattern against the module directory, other URLs (e.g. classpath:) are kept.
+     */
+    private static String resolve(String path, File moduleDirectory) {
+        String filePath = path;
+        if (path.startsWith(ResourceUtils.FILE_URL_PREFIX)) {
+            filePath = path.substring(ResourceUtils.FILE_URL_PREFIX.length());
+        } else if (ResourceUtils.isUrl(path)) {
+            return path;
+        }
+        File file = new File(filePath);
+        return file.isAbsolute() ? file.getPath() : new File(moduleDirectory.getAbsoluteFile(), filePath).getPath();
+    }
+
+}
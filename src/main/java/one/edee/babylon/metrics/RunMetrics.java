@@ -0,0 +1,205 @@
+package one.edee.babylon.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import lombok.extern.apachecommons.CommonsLog;
+import one.edee.babylon.util.JsonUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers and counters collected during one translation run. Backed by a Micrometer registry, that can be dumped
+ * as JSON or Prometheus text exposition format at the end of the run.
+ */
+@CommonsLog
+public class RunMetrics {
+
+    /** Duration of the whole run, tagged by {@code action}. */
+    public static final String RUN = "babylon.run";
+    /** Duration of export / import phases, tagged by {@code phase}. */
+    public static final String PHASE = "babylon.phase";
+    /** Time spent loading and parsing a single message file. */
+    public static final String FILE_PARSE = "babylon.file.parse";
+    /** Number of files read or written, tagged by {@code direction}. */
+    public static final String FILES = "babylon.files";
+    /** Number of bytes read or written, tagged by {@code direction}. */
+    public static final String BYTES = "babylon.bytes";
+    /** Number of message keys, tagged by {@code kind}. */
+    public static final String KEYS = "babylon.keys";
+    /** Google Sheets API calls, tagged by {@code operation}. */
+    public static final String SHEETS_API_CALLS = "babylon.sheets.api.calls";
+    /** Google Sheets API calls repeated because of rate limiting. */
+    public static final String SHEETS_API_RETRIES = "babylon.sheets.api.retries";
+    /** Number of cells written to Google Sheets. */
+    public static final String SHEETS_CELLS_WRITTEN = "babylon.sheets.cells.written";
+    /** Calls of machine translation, tagged by {@code translator} and {@code lang}. */
+    public static final String TRANSLATOR_CALLS = "babylon.translator.calls";
+    /** Number of texts sent to machine translation, tagged by {@code translator}. */
+    public static final String TRANSLATOR_TEXTS = "babylon.translator.texts";
+    /** Number of characters sent to machine translation, tagged by {@code translator}. */
+    public static final String TRANSLATOR_CHARACTERS = "babylon.translator.characters";
+    /** Machine translation calls repeated after a failure, tagged by {@code translator}. */
+    public static final String TRANSLATOR_RETRIES = "babylon.translator.retries";
+    /** Number of texts left untranslated because machine translation failed, tagged by {@code translator}. */
+    public static final String TRANSLATOR_UNTRANSLATED = "babylon.translator.untranslated";
+
+    private final PrometheusMeterRegistry registry;
+    /** Names of measured phases in order of their first occurrence. */
+    private final Set<String> phases = Collections.synchronizedSet(new LinkedHashSet<>());
+    /** Google Sheets API calls made by the current thread, attributes calls to sheets uploaded in parallel. */
+    private final ThreadLocal<long[]> threadApiCalls = ThreadLocal.withInitial(() -> new long[1]);
+
+    public RunMetrics() {
+        this.registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Measures duration of {@code action} by the timer {@code name}, the time is recorded even if the action fails.
+     *
+     * @param name timer name
+     * @param action measured action
+     * @param tags key value pairs of tags
+     * @return result of the action
+     * @throws E exception thrown by the action
+     */
+    public <T, E extends Exception> T record(String name, MeasuredAction<T, E> action, String... tags) throws E {
+        long start = System.nanoTime();
+        try {
+            return action.run();
+        } finally {
+            registry.timer(name, tags).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Measures duration of the export or import phase.
+     */
+    public <T, E extends Exception> T recordPhase(String phase, MeasuredAction<T, E> action) throws E {
+        phases.add(phase);
+        return record(PHASE, action, "phase", phase);
+    }
+
+    public void recordPhaseTime(String phase, long nanos) {
+        phases.add(phase);
+        recordTime(PHASE, nanos, "phase", phase);
+    }
+
+    /**
+     * Measures duration of Google Sheets API call.
+     */
+    public <T, E extends Exception> T recordApiCall(String operation, MeasuredAction<T, E> action) throws E {
+        threadApiCalls.get()[0]++;
+        return record(SHEETS_API_CALLS, action, "operation", operation);
+    }
+
+    public void recordApiCallTime(String operation, long nanos) {
+        threadApiCalls.get()[0]++;
+        recordTime(SHEETS_API_CALLS, nanos, "operation", operation);
+    }
+
+    public void recordTime(String name, long nanos, String... tags) {
+        registry.timer(name, tags).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void count(String name, double amount, String... tags) {
+        registry.counter(name, tags).increment(amount);
+    }
+
+    /**
+     * @return total duration in milliseconds of each measured phase, in order in which the phases started
+     */
+    public Map<String, Double> getPhaseDurations() {
+        Map<String, Double> durations = new LinkedHashMap<>();
+        synchronized (phases) {
+            for (String phase : phases) {
+                Timer timer = registry.find(PHASE).tag("phase", phase).timer();
+                if (timer != null) {
+                    durations.put(phase, timer.totalTime(TimeUnit.MILLISECONDS));
+                }
+            }
+        }
+        return durations;
+    }
+
+    /**
+     * @return number of Google Sheets API calls made so far, not counting retries
+     */
+    public long getApiCallCount() {
+        return registry.find(SHEETS_API_CALLS).timers().stream().mapToLong(Timer::count).sum();
+    }
+
+    /**
+     * @return number of Google Sheets API calls made so far by the current thread, not counting retries
+     */
+    public long getThreadApiCallCount() {
+        return threadApiCalls.get()[0];
+    }
+
+    /**
+     * @return number of Google Sheets API calls repeated because of rate limiting so far
+     */
+    public long getApiRetryCount() {
+        return (long) registry.find(SHEETS_API_RETRIES).counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    /**
+     * @return all meters in Prometheus text exposition format
+     */
+    public String toPrometheusText() {
+        return registry.scrape();
+    }
+
+    /**
+     * @return all meters as JSON array of objects with name, tags and measured statistics
+     */
+    public String toJson() throws IOException {
+        List<Map<String, Object>> meters = new ArrayList<>();
+        registry.getMeters().stream()
+                .sorted(Comparator.comparing((Meter m) -> m.getId().getName()).thenComparing(m -> m.getId().getTags().toString()))
+                .forEach(meter -> {
+                    Map<String, Object> json = new LinkedHashMap<>();
+                    json.put("name", meter.getId().getName());
+                    json.put("type", meter.getId().getType().name().toLowerCase());
+                    Map<String, String> tags = new LinkedHashMap<>();
+                    meter.getId().getTags().forEach(tag -> tags.put(tag.getKey(), tag.getValue()));
+                    json.put("tags", tags);
+                    Map<String, Double> measurements = new LinkedHashMap<>();
+                    meter.measure().forEach(m -> measurements.put(m.getStatistic().getTagValueRepresentation(), m.getValue()));
+                    json.put("measurements", measurements);
+                    meters.add(json);
+                });
+        return JsonUtils.objToJsonString(meters, true);
+    }
+
+    /**
+     * Writes all meters to given file, JSON is used for files with {@code .json} extension,
+     * Prometheus text format otherwise.
+     */
+    public void writeTo(Path file) throws IOException {
+        String content = file.toString().toLowerCase().endsWith(".json") ? toJson() : toPrometheusText();
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        log.info("Run metrics written to '" + file + "'.");
+    }
+
+    /**
+     * Action measured by {@link #record(String, MeasuredAction, String...)}.
+     */
+    @FunctionalInterface
+    public interface MeasuredAction<T, E extends Exception> {
+        T run() throws E;
+    }
+
+}
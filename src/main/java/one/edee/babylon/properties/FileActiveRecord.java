@@ -30,4 +30,17 @@ public abstract class FileActiveRecord extends LinkedHashMap<String, AbstractPro
      */
     public abstract void save(Writer writer, String primaryPropFilePath, String mutation) throws IOException;
 
+    /**
+     * Renders given properties as an edit of the file this record was loaded from - everything but the changed,
+     * added and removed properties is kept as it was.
+     *
+     * @param properties          properties to write
+     * @param primaryPropFilePath path of the primary message file, as for {@link #save(Writer, String, String)}
+     * @return new content of the file or null when this record cannot render edits and
+     * {@link #save(Writer, String, String)} has to be used
+     */
+    public String patch(FileActiveRecord properties, String primaryPropFilePath) {
+        return null;
+    }
+
 }
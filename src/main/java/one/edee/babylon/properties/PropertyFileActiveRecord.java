@@ -2,12 +2,15 @@ package one.edee.babylon.properties;
 
 import com.google.common.io.LineReader;
 import one.edee.babylon.enums.PropertyType;
+import org.apache.commons.io.IOUtils;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
 import java.io.Writer;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -17,6 +20,11 @@ import java.util.Map;
  */
 public class PropertyFileActiveRecord extends FileActiveRecord {
 
+    /** Content the record was loaded from, null when it was not loaded. */
+    private transient String source;
+    /** Offsets of properties in {@link #source} as {@link PropertyFileSplicer} expects them, null when a key repeats. */
+    private transient Map<String, int[]> propertyOffsets;
+
     /**
      * Loads properties from file by specified reader.
      * @param reader Some {@link Reader} implementation.
@@ -24,7 +32,9 @@ public class PropertyFileActiveRecord extends FileActiveRecord {
     */
     @Override
     public void load(Reader reader) throws IOException {
-        loadByLineReader(new LineReader(reader));
+        source = IOUtils.toString(reader);
+        loadByLineReader(new LineReader(new StringReader(source)));
+        propertyOffsets = findPropertyOffsets(source);
     }
 
     /**
@@ -39,6 +49,14 @@ public class PropertyFileActiveRecord extends FileActiveRecord {
         saveByBufferedWriter((writer instanceof BufferedWriter) ? (BufferedWriter)writer : new BufferedWriter(writer));
     }
 
+    @Override
+    public String patch(FileActiveRecord properties, String primaryPropFilePath) {
+        if (source == null || propertyOffsets == null) {
+            return null;
+        }
+        return PropertyFileSplicer.splice(source, propertyOffsets, properties);
+    }
+
     private void loadByLineReader(LineReader lr) throws IOException {
         synchronized (this) {
             int row = 1;
@@ -66,7 +84,9 @@ public class PropertyFileActiveRecord extends FileActiveRecord {
                 String key = e.getKey();
                 AbstractProperty value = e.getValue();
                 if (value.isPropValue() || value.isPropValueMultiLine()) {
-                    bw.write(key + "=" + e.getValue().getValue());
+                    bw.write(key);
+                    bw.write('=');
+                    bw.write(value.getValue());
                     // Break line on all rows except last one.
                     if (iterator.hasNext()) {
                         bw.newLine();
@@ -77,7 +97,7 @@ public class PropertyFileActiveRecord extends FileActiveRecord {
                     continue;
                 }
                 if (value.isPropComment()) {
-                    bw.write(e.getValue().getValue());
+                    bw.write(value.getValue());
                     if (iterator.hasNext()) {
                         bw.newLine();
                     }
@@ -87,6 +107,72 @@ public class PropertyFileActiveRecord extends FileActiveRecord {
         bw.flush();
     }
 
+    /**
+     * Finds offsets of keys and values the same way {@link #parseProperty(String, int, LineReader)} reads them.
+     * @param source content of the file
+     * @return offsets by key or null when some key is in the file more than once
+     */
+    private static Map<String, int[]> findPropertyOffsets(String source) {
+        Map<String, int[]> offsets = new LinkedHashMap<>();
+        int start = 0;
+        while (start < source.length()) {
+            int contentStop = lineContentStop(source, start);
+            String line = source.substring(start, contentStop);
+            int lineStop = nextLineStart(source, contentStop);
+            if (line.trim().contains("=")) {
+                int separator = start + line.indexOf('=');
+                String key = source.substring(start, separator).trim();
+                int valueStart = separator + 1;
+                while (valueStart < contentStop && source.charAt(valueStart) <= ' ') {
+                    valueStart++;
+                }
+                int valueStop = contentStop;
+                while (valueStop > valueStart && source.charAt(valueStop - 1) <= ' ') {
+                    valueStop--;
+                }
+                if (source.substring(valueStart, valueStop).endsWith(Property.MULTILINE_SEPARATOR)) {
+                    // continuation lines are kept untrimmed, the value ends on the last line that is not blank
+                    while (lineStop < source.length()) {
+                        int nextStop = lineContentStop(source, lineStop);
+                        String next = source.substring(lineStop, nextStop);
+                        lineStop = nextLineStart(source, nextStop);
+                        if (!next.trim().isEmpty()) {
+                            valueStop = nextStop;
+                        }
+                        if (!next.endsWith(Property.MULTILINE_SEPARATOR) || next.trim().isEmpty()) {
+                            break;
+                        }
+                    }
+                }
+                if (offsets.put(key, new int[]{start, lineStop, valueStart, valueStop}) != null) {
+                    return null;
+                }
+            }
+            start = lineStop;
+        }
+        return offsets;
+    }
+
+    /** @return index of the line separator ending the line at start or the length of the source */
+    private static int lineContentStop(String source, int start) {
+        int index = start;
+        while (index < source.length() && source.charAt(index) != '\n' && source.charAt(index) != '\r') {
+            index++;
+        }
+        return index;
+    }
+
+    /** @return index after the line separator at contentStop, which {@link LineReader} accepts as \n, \r\n or \r */
+    private static int nextLineStart(String source, int contentStop) {
+        if (contentStop < source.length() && source.charAt(contentStop) == '\r') {
+            contentStop++;
+        }
+        if (contentStop < source.length() && source.charAt(contentStop) == '\n') {
+            contentStop++;
+        }
+        return contentStop;
+    }
+
     /**
      * Parsing one property into correct map entry with correct subclass of {@link AbstractProperty} class for one line in properties file.
      * @param line current line from file, from given row number
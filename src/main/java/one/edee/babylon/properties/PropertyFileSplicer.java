@@ -0,0 +1,117 @@
+package one.edee.babylon.properties;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes properties of a properties message file as edits of its previous content, using offsets of the properties
+ * found when the file was loaded. Values that changed are replaced in place, lines of removed properties are deleted
+ * and added properties are inserted after the preceding property, the rest of the file - comments, empty lines,
+ * spaces around separators and line separators - is copied unchanged.
+ */
+class PropertyFileSplicer {
+
+    static final int LINE_START = 0;
+    static final int LINE_STOP = 1;
+    static final int VALUE_START = 2;
+    static final int VALUE_STOP = 3;
+
+    private PropertyFileSplicer() {
+    }
+
+    /**
+     * @param source          previous content of the file
+     * @param propertyOffsets {@link #LINE_START}, {@link #LINE_STOP} (after the line separator), {@link #VALUE_START}
+     *                        and {@link #VALUE_STOP} (exclusive) of the properties in the previous content
+     * @param properties      properties to write, only values and multi-line values are written
+     * @return new content of the file or null when the edits are not possible
+     */
+    static String splice(String source, Map<String, int[]> propertyOffsets, Map<String, AbstractProperty> properties) {
+        if (propertyOffsets.isEmpty()) {
+            return null;
+        }
+        String lineSeparator = source.contains("\r\n") ? "\r\n" : "\n";
+        List<Edit> edits = new ArrayList<>();
+
+        for (Map.Entry<String, int[]> entry : propertyOffsets.entrySet()) {
+            AbstractProperty property = properties.get(entry.getKey());
+            if (property == null || !isValue(property)) {
+                int[] offsets = entry.getValue();
+                int start = offsets[LINE_START];
+                if (!endsWithSeparator(source, offsets) && start > 0) {
+                    // the last line without a separator takes the separator of the previous line with it
+                    start -= source.startsWith("\r\n", start - 2) ? 2 : 1;
+                }
+                edits.add(new Edit(start, offsets[LINE_STOP], ""));
+            }
+        }
+
+        int[] first = propertyOffsets.values().stream().min(Comparator.comparingInt(offsets -> offsets[LINE_START])).get();
+        int[] previous = null;
+        for (Map.Entry<String, AbstractProperty> entry : properties.entrySet()) {
+            if (!isValue(entry.getValue())) {
+                continue;
+            }
+            // multi-line values are joined by windows line separators, the file keeps its own
+            String value = entry.getValue().getValue().replace("\r\n", lineSeparator);
+            int[] offsets = propertyOffsets.get(entry.getKey());
+            if (offsets != null) {
+                int length = offsets[VALUE_STOP] - offsets[VALUE_START];
+                if (length != value.length() || !source.regionMatches(offsets[VALUE_START], value, 0, length)) {
+                    edits.add(new Edit(offsets[VALUE_START], offsets[VALUE_STOP], value));
+                }
+                previous = offsets;
+            } else if (previous == null) {
+                edits.add(new Edit(first[LINE_START], first[LINE_START], entry.getKey() + '=' + value + lineSeparator));
+            } else if (endsWithSeparator(source, previous)) {
+                edits.add(new Edit(previous[LINE_STOP], previous[LINE_STOP], entry.getKey() + '=' + value + lineSeparator));
+            } else {
+                edits.add(new Edit(previous[LINE_STOP], previous[LINE_STOP], lineSeparator + entry.getKey() + '=' + value));
+            }
+        }
+
+        // stable sort keeps insertions at the same offset in the order of the properties
+        edits.sort(Comparator.comparingInt((Edit edit) -> edit.start).thenComparingInt(edit -> edit.end));
+        int extraLength = 0;
+        for (Edit edit : edits) {
+            extraLength += edit.replacement.length();
+        }
+        StringBuilder result = new StringBuilder(source.length() + extraLength);
+        int copied = 0;
+        for (Edit edit : edits) {
+            if (edit.start < copied) {
+                return null;
+            }
+            result.append(source, copied, edit.start).append(edit.replacement);
+            copied = edit.end;
+        }
+        return result.append(source, copied, source.length()).toString();
+    }
+
+    private static boolean isValue(AbstractProperty property) {
+        return property.isPropValue() || property.isPropValueMultiLine();
+    }
+
+    private static boolean endsWithSeparator(String source, int[] offsets) {
+        int stop = offsets[LINE_STOP];
+        return stop > 0 && (source.charAt(stop - 1) == '\n' || source.charAt(stop - 1) == '\r');
+    }
+
+    /**
+     * Replacement of source characters from start (inclusive) to end (exclusive).
+     */
+    private static class Edit {
+        private final int start;
+        private final int end;
+        private final String replacement;
+
+        Edit(int start, int end, String replacement) {
+            this.start = start;
+            this.end = end;
+            this.replacement = replacement;
+        }
+    }
+
+}
@@ -3,14 +3,17 @@ package one.edee.babylon.properties;
 import one.edee.babylon.enums.PropertyType;
 import one.edee.babylon.export.TsMessageLoader;
 import one.edee.babylon.export.ts.TypeScriptBabylonParserListener;
-import one.edee.babylon.util.FileUtils;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
 import org.springframework.util.Assert;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -23,6 +26,13 @@ public class TsFileActiveRecord extends FileActiveRecord {
 
     private static final String DEFAULT_LANG_DEF_IMPORT = "import type { LangDef } from '@edeeone/juan-core/i18n/LangDef';";
 
+    /** Loaded file, null for records not loaded from a file. */
+    private transient String source;
+    /** Offsets of properties in {@link #source} by {@link TypeScriptBabylonParserListener#getPropertyOffsets()}. */
+    private transient Map<String, int[]> propertyOffsets;
+    /** Imports of {@link #source} by {@link TypeScriptBabylonParserListener#getImports()}. */
+    private transient List<String> imports;
+
     /**
      * Loads properties from file by specified reader.
      * @param reader Some {@link Reader} implementation.
@@ -30,9 +40,12 @@ public class TsFileActiveRecord extends FileActiveRecord {
     */
     @Override
     public void load(Reader reader) throws IOException {
-        Map<String, String> result = TsMessageLoader.dumpTsFile(reader);
+        source = IOUtils.toString(reader);
+        TypeScriptBabylonParserListener loadedFile = TsMessageLoader.readTsFile(new StringReader(source));
+        propertyOffsets = loadedFile.getPropertyOffsets();
+        imports = loadedFile.getImports();
 
-        for (Map.Entry<String, String> entry : result.entrySet()) {
+        for (Map.Entry<String, String> entry : loadedFile.getPropertyDefinitions().entrySet()) {
             String input = entry.getValue();
             AbstractProperty property = new TsAttribute(
                     input.contains("\n") || input.contains("\r")
@@ -51,20 +64,9 @@ public class TsFileActiveRecord extends FileActiveRecord {
      */
     @Override
     public void save(Writer writer, String primaryPropFilePath, String mutation) throws IOException {
-
-
-        TypeScriptBabylonParserListener loadedFile = TsMessageLoader.loadFile(primaryPropFilePath);
-        Assert.notNull(loadedFile,"Cannot load primary file on path:" + primaryPropFilePath);
-        List<String> imports = loadedFile.getImports();
-
-        imports.add(DEFAULT_LANG_DEF_IMPORT);
-
-        String baseName = FilenameUtils.getBaseName(primaryPropFilePath);
-        baseName = baseName.contains(".") ? baseName.substring(0, baseName.indexOf(".")) : baseName;
-        Assert.isTrue(loadedFile.getPropertyListDefName().size() <= 1, "There has to be only one property list declaration name in file:" + primaryPropFilePath);
-        String propertyListDefName = loadedFile.getPropertyListDefName().stream().findFirst().orElse(baseName);
-        imports.add("import type " + propertyListDefName + " from './" + FilenameUtils.removeExtension(FileUtils.fileFromPathOrCreate(primaryPropFilePath).getName()) + "';");
-
+        TypeScriptBabylonParserListener loadedFile = loadPrimaryFile(primaryPropFilePath);
+        String propertyListDefName = getPropertyListDefName(loadedFile, primaryPropFilePath);
+        List<String> imports = getImports(loadedFile, primaryPropFilePath, propertyListDefName);
 
         BufferedWriter bufferedWriter = (writer instanceof BufferedWriter) ? (BufferedWriter) writer : new BufferedWriter(writer);
 
@@ -81,11 +83,8 @@ public class TsFileActiveRecord extends FileActiveRecord {
 
         synchronized (this) {
             for (Map.Entry<String, AbstractProperty> entry : entrySet()) {
-                String key = entry.getKey();
-                AbstractProperty value = entry.getValue();
-                String keyDelimiter = key.matches("\\[.*]") ? "" : "'";
-
-                bufferedWriter.write("  " + keyDelimiter + key + keyDelimiter +": "+ value.getQuotedValue() + ",");
+                bufferedWriter.write("  ");
+                appendProperty(bufferedWriter, entry.getKey(), entry.getValue().getQuotedValue());
                 bufferedWriter.newLine();
             }
         }
@@ -97,6 +96,74 @@ public class TsFileActiveRecord extends FileActiveRecord {
         bufferedWriter.flush();
     }
 
+    /**
+     * Renders properties as an edit of the loaded file by {@link TsFileSplicer}. Imports are not edited, the file is
+     * generated again by {@link #save(Writer, String, String)} when they differ from the imports it would write.
+     */
+    @Override
+    public String patch(FileActiveRecord properties, String primaryPropFilePath) {
+        if (source == null) {
+            return null;
+        }
+        TypeScriptBabylonParserListener loadedFile = loadPrimaryFile(primaryPropFilePath);
+        if (!imports.equals(loadedFile.getImports())) {
+            return null;
+        }
+        // type imports are not among the parsed imports, those written by save have to be in the file as they are
+        for (String typeImport : getTypeImports(primaryPropFilePath, getPropertyListDefName(loadedFile, primaryPropFilePath))) {
+            if (!source.contains(typeImport)) {
+                return null;
+            }
+        }
+        return TsFileSplicer.splice(source, propertyOffsets, properties);
+    }
+
+    private static TypeScriptBabylonParserListener loadPrimaryFile(String primaryPropFilePath) {
+        TypeScriptBabylonParserListener loadedFile = TsMessageLoader.loadFile(primaryPropFilePath);
+        Assert.notNull(loadedFile, "Cannot load primary file on path:" + primaryPropFilePath);
+        return loadedFile;
+    }
+
+    private static String getPropertyListDefName(TypeScriptBabylonParserListener primaryFile, String primaryPropFilePath) {
+        String baseName = FilenameUtils.getBaseName(primaryPropFilePath);
+        baseName = baseName.contains(".") ? baseName.substring(0, baseName.indexOf(".")) : baseName;
+        Assert.isTrue(primaryFile.getPropertyListDefName().size() <= 1, "There has to be only one property list declaration name in file:" + primaryPropFilePath);
+        return primaryFile.getPropertyListDefName().stream().findFirst().orElse(baseName);
+    }
+
+    /**
+     * @return imports of the mutation file - imports of the primary file followed by {@link #getTypeImports(String, String)}
+     */
+    private static List<String> getImports(TypeScriptBabylonParserListener primaryFile, String primaryPropFilePath, String propertyListDefName) {
+        List<String> imports = new ArrayList<>(primaryFile.getImports());
+        imports.addAll(getTypeImports(primaryPropFilePath, propertyListDefName));
+        return imports;
+    }
+
+    /**
+     * @return imports of the type of the messages and of the primary file
+     */
+    private static List<String> getTypeImports(String primaryPropFilePath, String propertyListDefName) {
+        return Arrays.asList(
+                DEFAULT_LANG_DEF_IMPORT,
+                "import type " + propertyListDefName + " from './" + FilenameUtils.getBaseName(primaryPropFilePath) + "';"
+        );
+    }
+
+    /**
+     * Appends property definition without indentation and line separator, computed keys (e.g. [Foo.bar]) are written
+     * without quotes.
+     */
+    static void appendProperty(Appendable out, String key, String quotedValue) throws IOException {
+        boolean computed = key.length() > 1 && key.charAt(0) == '[' && key.charAt(key.length() - 1) == ']';
+        if (computed) {
+            out.append(key);
+        } else {
+            out.append('\'').append(key).append('\'');
+        }
+        out.append(": ").append(quotedValue).append(',');
+    }
+
     public static String firstLetterToUppercase(String input) {
         if (input == null || input.isEmpty()) {
             return input; // Handle edge cases
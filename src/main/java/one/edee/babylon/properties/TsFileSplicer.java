@@ -0,0 +1,163 @@
+package one.edee.babylon.properties;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes properties of a TypeScript message file as edits of its previous content, using offsets of the properties
+ * found when the file was parsed. Values that changed are replaced in place, lines of removed properties are deleted
+ * and added properties are inserted after the preceding property, the rest of the file - imports, declarations,
+ * comments and formatting - is copied unchanged.
+ *
+ * Edits are possible only when every property that is removed or that a property is inserted after occupies whole
+ * lines, otherwise the file has to be generated again.
+ */
+class TsFileSplicer {
+
+    private static final int PROPERTY_START = 0;
+    private static final int PROPERTY_STOP = 1;
+    private static final int VALUE_START = 2;
+    private static final int VALUE_STOP = 3;
+
+    private TsFileSplicer() {
+    }
+
+    /**
+     * @param source          previous content of the file
+     * @param propertyOffsets offsets of the properties in the previous content
+     * @param properties      properties to write
+     * @return new content of the file or null when the edits are not possible
+     */
+    static String splice(String source, Map<String, int[]> propertyOffsets, Map<String, AbstractProperty> properties) {
+        // parser offsets count code points, they match char indexes only without surrogate pairs
+        if (propertyOffsets.isEmpty() || propertyOffsets.containsValue(null)
+                || source.length() != source.codePointCount(0, source.length())) {
+            return null;
+        }
+        String lineSeparator = source.contains("\r\n") ? "\r\n" : "\n";
+        List<Edit> edits = new ArrayList<>();
+
+        for (Map.Entry<String, int[]> entry : propertyOffsets.entrySet()) {
+            if (!properties.containsKey(entry.getKey())) {
+                int[] line = line(source, entry.getValue());
+                if (line == null) {
+                    return null;
+                }
+                edits.add(new Edit(line[0], line[1], ""));
+            }
+        }
+
+        int[] first = propertyOffsets.values().stream().min(Comparator.comparingInt(offsets -> offsets[PROPERTY_START])).get();
+        int[] previous = null;
+        for (Map.Entry<String, AbstractProperty> entry : properties.entrySet()) {
+            String value = entry.getValue().getQuotedValue();
+            int[] offsets = propertyOffsets.get(entry.getKey());
+            if (offsets != null) {
+                int length = offsets[VALUE_STOP] + 1 - offsets[VALUE_START];
+                if (length != value.length() || !source.regionMatches(offsets[VALUE_START], value, 0, length)) {
+                    edits.add(new Edit(offsets[VALUE_START], offsets[VALUE_STOP] + 1, value));
+                }
+                previous = offsets;
+            } else {
+                // inserted after the previous kept property or before the first one, with the same indentation
+                int[] anchor = previous == null ? first : previous;
+                int[] line = line(source, anchor);
+                if (line == null || (previous != null && line[2] == 0)) {
+                    return null;
+                }
+                StringBuilder inserted = new StringBuilder(source.substring(line[0], anchor[PROPERTY_START]));
+                appendProperty(inserted, entry.getKey(), value);
+                inserted.append(lineSeparator);
+                int at = previous == null ? line[0] : line[1];
+                edits.add(new Edit(at, at, inserted.toString()));
+            }
+        }
+
+        // stable sort keeps insertions at the same offset in the order of the properties
+        edits.sort(Comparator.comparingInt((Edit edit) -> edit.start).thenComparingInt(edit -> edit.end));
+        int extraLength = 0;
+        for (Edit edit : edits) {
+            extraLength += edit.replacement.length();
+        }
+        StringBuilder result = new StringBuilder(source.length() + extraLength);
+        int copied = 0;
+        for (Edit edit : edits) {
+            if (edit.start < copied) {
+                return null;
+            }
+            result.append(source, copied, edit.start).append(edit.replacement);
+            copied = edit.end;
+        }
+        return result.append(source, copied, source.length()).toString();
+    }
+
+    /**
+     * @return {start, end, comma} of the lines the property occupies - end is after the line separator and comma is 1
+     * when the property is followed by a comma, null when there is something else on the lines
+     */
+    private static int[] line(String source, int[] offsets) {
+        int start = offsets[PROPERTY_START];
+        while (start > 0 && isBlank(source.charAt(start - 1))) {
+            start--;
+        }
+        if (start > 0 && source.charAt(start - 1) != '\n') {
+            return null;
+        }
+        int end = skipBlanks(source, offsets[PROPERTY_STOP] + 1);
+        int comma = 0;
+        if (end < source.length() && source.charAt(end) == ',') {
+            comma = 1;
+            end = skipBlanks(source, end + 1);
+        }
+        if (end < source.length() && source.charAt(end) == '\r') {
+            end++;
+        }
+        if (end < source.length()) {
+            if (source.charAt(end) != '\n') {
+                return null;
+            }
+            end++;
+        }
+        return new int[]{start, end, comma};
+    }
+
+    private static int skipBlanks(String source, int index) {
+        while (index < source.length() && isBlank(source.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static boolean isBlank(char c) {
+        return c == ' ' || c == '\t';
+    }
+
+    private static void appendProperty(StringBuilder out, String key, String quotedValue) {
+        try {
+            TsFileActiveRecord.appendProperty(out, key, quotedValue);
+        } catch (IOException e) {
+            // StringBuilder does not throw
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Replacement of source characters from start (inclusive) to end (exclusive).
+     */
+    private static class Edit {
+        private final int start;
+        private final int end;
+        private final String replacement;
+
+        Edit(int start, int end, String replacement) {
+            this.start = start;
+            this.end = end;
+            this.replacement = replacement;
+        }
+    }
+
+}
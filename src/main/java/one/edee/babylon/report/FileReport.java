@@ -0,0 +1,57 @@
+package one.edee.babylon.report;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import one.edee.babylon.export.stats.MessageFileExportStats;
+import one.edee.babylon.statistics.ImportFileStatistic;
+
+/**
+ * Part of the {@link RunReport} describing a single message file. Values not relevant for the action are left out.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FileReport {
+
+    private String path;
+    private String sheetName;
+    private Integer keyCount;
+    private Integer newCount;
+    private Integer changedCount;
+    private Integer missingCount;
+    private Integer sheetRows;
+    private Integer updatedCount;
+    private Integer notFoundInPrimaryFileCount;
+    private Long bytesRead;
+    private Long bytesWritten;
+    private Double parseTimeMillis;
+    private Long apiCalls;
+
+    public static FileReport of(MessageFileExportStats stats) {
+        FileReport report = new FileReport();
+        report.setPath(stats.getMessageFilePath());
+        report.setSheetName(stats.getSheetName());
+        report.setKeyCount(stats.getKeyCount());
+        report.setNewCount(stats.getNewPrimaryMsgKeyCount());
+        report.setChangedCount(stats.getChangedPrimaryMsgKeyCount());
+        report.setMissingCount(stats.getMissingTranslationMsgKeyCount());
+        report.setSheetRows(stats.getSheetDataRows());
+        report.setBytesRead(stats.getBytesRead());
+        report.setParseTimeMillis(stats.getParseTimeMillis());
+        report.setApiCalls(stats.getApiCalls());
+        return report;
+    }
+
+    public static FileReport of(String path, ImportFileStatistic stats) {
+        FileReport report = new FileReport();
+        report.setPath(path);
+        report.setKeyCount(stats.getKeyCount());
+        report.setUpdatedCount(stats.getUpdatedCnt());
+        report.setNotFoundInPrimaryFileCount(stats.getNotFoundInPrimaryFile());
+        report.setBytesRead(stats.getBytesRead());
+        report.setBytesWritten(stats.getBytesWritten());
+        report.setParseTimeMillis(stats.getParseTimeMillis());
+        // sheets of all message files are downloaded together, no API calls belong to a single file
+        return report;
+    }
+
+}
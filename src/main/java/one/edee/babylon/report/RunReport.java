@@ -0,0 +1,65 @@
+package one.edee.babylon.report;
+
+import lombok.Data;
+import lombok.extern.apachecommons.CommonsLog;
+import one.edee.babylon.enums.Action;
+import one.edee.babylon.export.stats.MessageFileExportStats;
+import one.edee.babylon.metrics.RunMetrics;
+import one.edee.babylon.statistics.TranslationStatisticsOfImport;
+import one.edee.babylon.util.JsonUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Machine-readable summary of one export or import run, written as JSON so that performance of the runs
+ * can be trended by CI.
+ */
+@Data
+@CommonsLog
+public class RunReport {
+
+    private Action action;
+    private String spreadsheetId;
+    private String startedAt;
+    private long durationMillis;
+    private long apiCalls;
+    private long apiRetries;
+    /** Duration of the individual phases in milliseconds, in order of their execution. */
+    private Map<String, Double> phases = new LinkedHashMap<>();
+    private List<FileReport> files = new ArrayList<>();
+
+    public static RunReport ofExport(List<MessageFileExportStats> stats) {
+        RunReport report = new RunReport();
+        report.setAction(Action.EXPORT);
+        stats.forEach(fileStats -> report.getFiles().add(FileReport.of(fileStats)));
+        return report;
+    }
+
+    public static RunReport ofImport(TranslationStatisticsOfImport statistics) {
+        RunReport report = new RunReport();
+        report.setAction(Action.IMPORT);
+        statistics.getFileStatistics().forEach((path, fileStats) -> report.getFiles().add(FileReport.of(path, fileStats)));
+        return report;
+    }
+
+    /**
+     * Fills in run wide values measured by {@link RunMetrics}.
+     */
+    public RunReport withMetrics(RunMetrics metrics) {
+        this.phases = metrics.getPhaseDurations();
+        this.apiCalls = metrics.getApiCallCount();
+        this.apiRetries = metrics.getApiRetryCount();
+        return this;
+    }
+
+    public void writeTo(Path file) throws IOException {
+        JsonUtils.objToJsonFile(file.toFile(), this, true);
+        log.info("Run report written to '" + file + "'.");
+    }
+
+}
@@ -13,4 +13,7 @@ public class SheetConstants {
 
     public static final String EMPTY_VAL = "";
 
+    /** Title of the sheet left in a spreadsheet that received no sheets by the export, it is not imported. */
+    public static final String EMPTY_SHEET_TITLE = "EMPTY";
+
 }
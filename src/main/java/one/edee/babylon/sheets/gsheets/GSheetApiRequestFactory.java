@@ -1,12 +1,10 @@
 package one.edee.babylon.sheets.gsheets;
 
 import com.google.api.services.sheets.v4.model.*;
+import one.edee.babylon.export.dto.ChangedCells;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-
-import static java.util.Collections.singletonList;
 
 /**
  * Helps create requests for the Google Sheets API client library.
@@ -156,51 +154,109 @@ public class GSheetApiRequestFactory {
                 .setSheetId(sheetId);
     }
 
-    public List<Request> changeCellColor(Integer sheetId, String sheetTitle, Map<String, List<String>> changed) {
-        List<String> changes = changed.get(sheetTitle);
-        List<Request> reqs = new LinkedList<>();
-        if (changes != null && !changes.isEmpty()) {
-            for (String change : changes) {
-                String[] s = change.split("_");
-                int row = Integer.parseInt(s[0]);
-                int column = Integer.parseInt(s[1]);
-
-                reqs.add(
-                        new Request()
-                                .setUpdateCells(
-                                        new UpdateCellsRequest()
-                                                .setRange(
-                                                        new GridRange()
-                                                                .setSheetId(sheetId)
-                                                                .setStartColumnIndex(column)
-                                                                .setEndColumnIndex(column + 1)
-                                                                .setStartRowIndex(row)
-                                                                .setEndRowIndex(row + 1)
-                                                )
-                                                .setRows(
-                                                        singletonList(
-                                                                new RowData()
-                                                                        .setValues(
-                                                                                singletonList(
-                                                                                        new CellData()
-                                                                                                .setUserEnteredFormat(
-                                                                                                        new CellFormat()
-                                                                                                                .setBackgroundColor(
-                                                                                                                        new Color()
-                                                                                                                                .setRed(1f)
-                                                                                                                                .setGreen(0.8f)
-                                                                                                                                .setBlue(0.61f)
-                                                                                                                )
-                                                                                                )
-                                                                                )
-                                                                        )
-                                                        )
-                                                )
-                                                .setFields("userEnteredFormat.backgroundColor")
-                                )
-                );
-            }
+    /**
+     * Changes title of given sheet.
+     */
+    public Request renameSheet(Integer sheetId, String sheetTitle) {
+        return new Request()
+                .setUpdateSheetProperties(new UpdateSheetPropertiesRequest()
+                        .setProperties(new SheetProperties()
+                                .setSheetId(sheetId)
+                                .setTitle(sheetTitle))
+                        .setFields("title"));
+    }
+
+    /**
+     * Deletes rows [startIndex, endIndex) of given sheet.
+     */
+    public Request deleteRows(Integer sheetId, int startIndex, int endIndex) {
+        return new Request()
+                .setDeleteDimension(new DeleteDimensionRequest()
+                        .setRange(rows(sheetId, startIndex, endIndex)));
+    }
+
+    /**
+     * Inserts empty rows [startIndex, endIndex) into given sheet, inheriting format of the row above.
+     */
+    public Request insertRows(Integer sheetId, int startIndex, int endIndex) {
+        return new Request()
+                .setInsertDimension(new InsertDimensionRequest()
+                        .setRange(rows(sheetId, startIndex, endIndex))
+                        .setInheritFromBefore(startIndex > 0));
+    }
+
+    private static final String DIMENSION_RANGE__DIMENSION__ROWS = "ROWS";
+
+    private DimensionRange rows(Integer sheetId, int startIndex, int endIndex) {
+        return new DimensionRange()
+                .setSheetId(sheetId)
+                .setDimension(DIMENSION_RANGE__DIMENSION__ROWS)
+                .setStartIndex(startIndex)
+                .setEndIndex(endIndex);
+    }
+
+    /**
+     * Highlights background of given cells, one request per rectangle of adjacent cells.
+     *
+     * @param sheetId      id of the sheet
+     * @param changedCells cells to highlight
+     * @return API requests
+     */
+    public List<Request> changeCellColor(Integer sheetId, ChangedCells changedCells) {
+        List<Request> reqs = new ArrayList<>();
+        for (ChangedCells.CellRange range : changedCells.toRanges()) {
+            reqs.add(
+                    new Request()
+                            .setRepeatCell(
+                                    new RepeatCellRequest()
+                                            .setRange(
+                                                    new GridRange()
+                                                            .setSheetId(sheetId)
+                                                            .setStartColumnIndex(range.getStartColumn())
+                                                            .setEndColumnIndex(range.getEndColumn())
+                                                            .setStartRowIndex(range.getStartRow())
+                                                            .setEndRowIndex(range.getEndRow())
+                                            )
+                                            .setCell(
+                                                    new CellData()
+                                                            .setUserEnteredFormat(
+                                                                    new CellFormat()
+                                                                            .setBackgroundColor(
+                                                                                    new Color()
+                                                                                            .setRed(1f)
+                                                                                            .setGreen(0.8f)
+                                                                                            .setBlue(0.61f)
+                                                                            )
+                                                            )
+                                            )
+                                            .setFields("userEnteredFormat.backgroundColor")
+                            )
+            );
         }
         return reqs;
     }
+
+    /**
+     * Clears background of whole rows, so that rewritten and inserted rows do not keep highlight of previous content
+     * or of the row they were inserted after.
+     *
+     * @param sheetId    id of the sheet
+     * @param startIndex first row, inclusive
+     * @param endIndex   last row, exclusive
+     * @return API request
+     */
+    public Request resetCellColor(Integer sheetId, int startIndex, int endIndex) {
+        return new Request()
+                .setRepeatCell(
+                        new RepeatCellRequest()
+                                .setRange(
+                                        new GridRange()
+                                                .setSheetId(sheetId)
+                                                .setStartRowIndex(startIndex)
+                                                .setEndRowIndex(endIndex)
+                                )
+                                .setCell(new CellData().setUserEnteredFormat(new CellFormat()))
+                                .setFields("userEnteredFormat.backgroundColor")
+                );
+    }
 }
@@ -1,7 +1,12 @@
 package one.edee.babylon.sheets.gsheets;
 
+import one.edee.babylon.export.dto.ChangedCells;
+import one.edee.babylon.export.dto.ColumnarRows;
+import one.edee.babylon.metrics.RunMetrics;
+import one.edee.babylon.sheets.gsheets.executor.RateLimitingRequestExecutor;
 import one.edee.babylon.sheets.gsheets.executor.SpreadsheetUpdateRQE;
 import one.edee.babylon.sheets.gsheets.executor.SpreadsheetValuesUpdateRQE;
+import com.google.api.client.json.GenericJson;
 import com.google.api.services.sheets.v4.Sheets;
 import com.google.api.services.sheets.v4.model.*;
 import lombok.extern.apachecommons.CommonsLog;
@@ -20,12 +25,25 @@ public class LightGSheetService {
 
     private final GSheetApiRequestFactory gSheetsRequestFactory;
     private final GSheetsClient gsClient;
+    private final RunMetrics metrics;
 
     private static final Integer COLUMN_WIDTH = 350;
+    /** Default limit of values in a single write request, the API rejects request bodies over 10 MB and slows down well before. */
+    private static final int MAX_CHARACTERS_PER_REQUEST = 2_000_000;
 
-    public LightGSheetService(GSheetApiRequestFactory gSheetApiRequestFactory, GSheetsClient gsClient) {
+    private int maxCharactersPerRequest = MAX_CHARACTERS_PER_REQUEST;
+
+    public LightGSheetService(GSheetApiRequestFactory gSheetApiRequestFactory, GSheetsClient gsClient, RunMetrics metrics) {
         this.gSheetsRequestFactory = gSheetApiRequestFactory;
         this.gsClient = gsClient;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Overrides limit of estimated size of values written by a single request.
+     */
+    void setMaxCharactersPerRequest(int maxCharactersPerRequest) {
+        this.maxCharactersPerRequest = maxCharactersPerRequest;
     }
 
     /**
@@ -36,7 +54,7 @@ public class LightGSheetService {
      */
     public List<Sheet> listSheetsLazily(final String spreadsheetId) throws GeneralSecurityException, IOException {
         Sheets.Spreadsheets.Get listRequest = getSheetsClient().spreadsheets().get(spreadsheetId);
-        Spreadsheet spreadSheet = listRequest.execute();
+        Spreadsheet spreadSheet = metrics.recordApiCall("get", listRequest::execute);
         return spreadSheet.getSheets();
     }
 
@@ -48,7 +66,7 @@ public class LightGSheetService {
      */
     public List<Sheet> listSheetsEagerly(final String spreadsheetId) throws GeneralSecurityException, IOException {
         Sheets.Spreadsheets.Get listRequest = getSheetsClient().spreadsheets().get(spreadsheetId).setIncludeGridData(true);
-        Spreadsheet spreadSheet = listRequest.execute();
+        Spreadsheet spreadSheet = metrics.recordApiCall("getWithGridData", listRequest::execute);
         return spreadSheet.getSheets();
     }
 
@@ -63,7 +81,7 @@ public class LightGSheetService {
      */
     public Sheet loadSheet(String spreadsheetId, String sheetTitle) throws GeneralSecurityException, IOException {
         Sheets.Spreadsheets.Get loadRequest = getSheetsClient().spreadsheets().get(spreadsheetId);
-        Spreadsheet spreadSheet = loadRequest.execute();
+        Spreadsheet spreadSheet = metrics.recordApiCall("get", loadRequest::execute);
         return spreadSheet.getSheets()
                 .stream()
                 .filter(sheet -> sheet.getProperties().getTitle().equals(sheetTitle))
@@ -71,6 +89,87 @@ public class LightGSheetService {
     }
 
 
+    /**
+     * Loads formatted values of all cells of given sheet.
+     *
+     * @param spreadsheetId id of spreadsheet
+     * @param sheetTitle    title of sheet to load
+     * @return rows of the sheet, trailing empty rows and cells are omitted
+     */
+    public List<List<String>> loadSheetValues(String spreadsheetId, String sheetTitle) throws GeneralSecurityException, IOException {
+        Sheets.Spreadsheets.Values.BatchGet getRequest = getSheetsClient().spreadsheets().values()
+                .batchGet(spreadsheetId)
+                .setRanges(Collections.singletonList(quoteSheetTitle(sheetTitle)));
+        BatchGetValuesResponse response = metrics.recordApiCall("values.batchGet", getRequest::execute);
+        List<List<String>> rows = new ArrayList<>();
+        if (response.getValueRanges() != null && !response.getValueRanges().isEmpty()
+                && response.getValueRanges().get(0).getValues() != null) {
+            for (List<Object> row : response.getValueRanges().get(0).getValues()) {
+                rows.add(row.stream().map(cell -> cell == null ? "" : cell.toString()).collect(Collectors.toList()));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Applies row level difference to an existing sheet - deletes and inserts rows and clears background of changed
+     * rows in one request and writes values of changed rows in another one.
+     *
+     * @param spreadsheetId id of spreadsheet
+     * @param sheetTitle    title of the sheet
+     * @param sheetId       id of the sheet
+     * @param diff          difference to apply
+     */
+    public void applySheetDiff(String spreadsheetId, String sheetTitle, Integer sheetId, SheetDiff diff) throws GeneralSecurityException, IOException {
+        List<Request> requests = new ArrayList<>();
+        for (int[] range : diff.getDeletedRanges()) {
+            requests.add(gSheetsRequestFactory.deleteRows(sheetId, range[0], range[1]));
+        }
+        for (int[] range : diff.getInsertedRanges()) {
+            requests.add(gSheetsRequestFactory.insertRows(sheetId, range[0], range[1]));
+        }
+        // highlight of machine translation is set again by highlightCells only where it still applies
+        for (int[] range : SheetDiff.toRanges(diff.getUpdatedRows().keySet())) {
+            requests.add(gSheetsRequestFactory.resetCellColor(sheetId, range[0], range[1]));
+        }
+        if (!requests.isEmpty()) {
+            executeRequests(spreadsheetId, requests.toArray(new Request[0]));
+        }
+
+        List<ValueRange> valueRanges = new ArrayList<>();
+        for (int[] range : SheetDiff.toRanges(diff.getUpdatedRows().keySet())) {
+            List<List<String>> rows = new ArrayList<>(diff.getUpdatedRows().subMap(range[0], range[1]).values());
+            valueRanges.add(new ValueRange()
+                    .setRange(quoteSheetTitle(sheetTitle) + "!A" + (range[0] + 1))
+                    .setValues((List) rows));
+        }
+        if (!valueRanges.isEmpty()) {
+            BatchUpdateValuesResponse result = executeRequest(spreadsheetId, new BatchUpdateValuesRequest()
+                    .setValueInputOption("RAW")
+                    .setData(valueRanges));
+            log.info(String.format("%d cells written.", result.getTotalUpdatedCells()));
+            metrics.count(RunMetrics.SHEETS_CELLS_WRITTEN, result.getTotalUpdatedCells());
+        }
+    }
+
+    /**
+     * Highlights cells filled by machine translation.
+     *
+     * @param spreadsheetId id of spreadsheet
+     * @param sheetId       id of the sheet
+     * @param changedCells  cells to highlight
+     */
+    public void highlightCells(String spreadsheetId, Integer sheetId, ChangedCells changedCells) throws GeneralSecurityException, IOException {
+        List<Request> requests = gSheetsRequestFactory.changeCellColor(sheetId, changedCells);
+        if (!requests.isEmpty()) {
+            executeRequests(spreadsheetId, requests.toArray(new Request[0]));
+        }
+    }
+
+    private static String quoteSheetTitle(String sheetTitle) {
+        return "'" + sheetTitle.replace("'", "''") + "'";
+    }
+
     /**
      * Stores data in a new sheet in given spreadsheet.
      *
@@ -107,26 +206,83 @@ public class LightGSheetService {
         writeDataToGoogleSheet(spreadsheetId, sheetTitle, sheetRows);
     }
 
-    private void writeDataToGoogleSheet(String spreadsheetId, String range, List<? extends List<? extends Object>> values) throws GeneralSecurityException, IOException {
-        // casting to List<List<Object>> is safe here, the Sheets API could have accepted List<? extends List<? extends Object>> in setValues()
-        // convert nulls to empty strings, GSheet API skips null values
-        List<List<Object>> convertedValues = convertNullsToEmptyString((List) values);
+    private void writeDataToGoogleSheet(String spreadsheetId, String sheetTitle, List<? extends List<? extends Object>> values) throws GeneralSecurityException, IOException {
+        // large sheets are written by consecutive ranges, so that no request exceeds the API payload limit
+        int cellsWritten = 0;
+        List<List<Object>> sheetValues = toSheetValues(values);
+        for (int[] chunk : chunkRows(values, maxCharactersPerRequest)) {
+            ValueRange valueRange = new ValueRange()
+                    .setValues(sheetValues.subList(chunk[0], chunk[1]))
+                    .setRange(quoteSheetTitle(sheetTitle) + "!A" + (chunk[0] + 1));
+            BatchUpdateValuesRequest update = new BatchUpdateValuesRequest()
+                    .setValueInputOption("RAW")
+                    .setData(Collections.singletonList(valueRange));
 
-        ValueRange valueRange = new ValueRange()
-                .setValues(convertedValues)
-                .setRange(range);
-        BatchUpdateValuesRequest update = new BatchUpdateValuesRequest()
-                .setValueInputOption("RAW")
-                .setData(Collections.singletonList(valueRange));
+            BatchUpdateValuesResponse result = executeRequest(spreadsheetId, update);
+            metrics.count(RunMetrics.SHEETS_CELLS_WRITTEN, result.getTotalUpdatedCells());
+            cellsWritten += result.getTotalUpdatedCells();
+        }
+        log.info(String.format("%d cells written.", cellsWritten));
+    }
 
-        BatchUpdateValuesResponse result = executeRequest(spreadsheetId, update);
-        log.info(String.format("%d cells written.", result.getTotalUpdatedCells()));
+    /**
+     * Splits rows into consecutive [start, end) ranges whose estimated JSON size does not exceed {@code maxCharacters},
+     * a range always contains at least one row.
+     */
+    static List<int[]> chunkRows(List<? extends List<? extends Object>> rows, int maxCharacters) {
+        List<int[]> chunks = new ArrayList<>();
+        int start = 0;
+        int characters = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            int rowCharacters = 2;
+            for (Object cell : rows.get(i)) {
+                // quotes, separator and the value itself
+                rowCharacters += 3 + (cell == null ? 0 : cell.toString().length());
+            }
+            if (i > start && characters + rowCharacters > maxCharacters) {
+                chunks.add(new int[]{start, i});
+                start = i;
+                characters = 0;
+            }
+            characters += rowCharacters;
+        }
+        if (start < rows.size()) {
+            chunks.add(new int[]{start, rows.size()});
+        }
+        return chunks;
     }
 
-    private List<? extends List<? extends Object>> convertNullsToEmptyString(List<? extends List<? extends Object>> values) {
-        return values.stream().map(row ->
-                row.stream().map(cell -> (cell == null) ? "" : cell).collect(Collectors.toList())
-        ).collect(Collectors.toList());
+    /**
+     * Views rows as values of the Sheets API without copying them, nulls are returned as empty strings because
+     * the API skips null values.
+     */
+    static List<List<Object>> toSheetValues(List<? extends List<? extends Object>> values) {
+        if (values instanceof ColumnarRows) {
+            return ((ColumnarRows) values).asSheetValues();
+        }
+        return new AbstractList<List<Object>>() {
+            @Override
+            public List<Object> get(int index) {
+                List<? extends Object> row = values.get(index);
+                return new AbstractList<Object>() {
+                    @Override
+                    public Object get(int col) {
+                        Object cell = row.get(col);
+                        return cell == null ? "" : cell;
+                    }
+
+                    @Override
+                    public int size() {
+                        return row.size();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return values.size();
+            }
+        };
     }
 
     /**
@@ -137,23 +293,40 @@ public class LightGSheetService {
      * @param sheetTitle
      * @param sheetId           id of sheet to update
      * @param lockedCellEditors list of account emails to receive edit permissions on locked cells
-     * @param changed
+     * @param changed           cells filled by machine translation by sheet title
      * @throws GeneralSecurityException
      * @throws IOException
      */
-    public void updateSheetStyle(String spreadsheetId, String sheetTitle, Integer sheetId, List<String> lockedCellEditors, Map<String, List<String>> changed) throws GeneralSecurityException, IOException {
+    public void updateSheetStyle(String spreadsheetId, String sheetTitle, Integer sheetId, List<String> lockedCellEditors, Map<String, ChangedCells> changed) throws GeneralSecurityException, IOException {
         List<Request> requests = new LinkedList<>();
         requests.add(gSheetsRequestFactory.setWrapWrappingStrategyForAllCells(sheetId));
         requests.add(gSheetsRequestFactory.resizeAllColumns(sheetId, COLUMN_WIDTH));
         if (!lockedCellEditors.isEmpty())
             requests.add(gSheetsRequestFactory.protectCellsInFirstTwoColumns(sheetId, lockedCellEditors));
         requests.add(gSheetsRequestFactory.hideFirstColumn(sheetId));
-        requests.addAll(gSheetsRequestFactory.changeCellColor(sheetId, sheetTitle, changed));
+        ChangedCells changedCells = changed.get(sheetTitle);
+        if (changedCells != null) {
+            requests.addAll(gSheetsRequestFactory.changeCellColor(sheetId, changedCells));
+        }
 
         executeRequests(spreadsheetId, requests.toArray(new Request[0]));
 
     }
 
+    /**
+     * Deletes the sheet and gives its title to the sheet replacing it, both in one request.
+     *
+     * @param spreadsheetId id of spreadsheet
+     * @param sheetId       id of the sheet to delete
+     * @param replacementId id of the sheet replacing it
+     * @param sheetTitle    title of the deleted sheet
+     */
+    public void replaceSheet(String spreadsheetId, Integer sheetId, Integer replacementId, String sheetTitle) throws GeneralSecurityException, IOException {
+        executeRequests(spreadsheetId,
+                gSheetsRequestFactory.deleteSheet(sheetId),
+                gSheetsRequestFactory.renameSheet(replacementId, sheetTitle));
+    }
+
     public void deleteSheets(String spreadsheetId, Collection<Integer> sheetIds) throws GeneralSecurityException, IOException {
         Request[] deleteSheetRequests = sheetIds.stream()
                 .map(gSheetsRequestFactory::deleteSheet)
@@ -164,7 +337,7 @@ public class LightGSheetService {
 
     private BatchUpdateValuesResponse executeRequest(String spreadsheetId, BatchUpdateValuesRequest request) throws GeneralSecurityException, IOException {
         SpreadsheetValuesUpdateRQE requestQueueExecutor = new SpreadsheetValuesUpdateRQE(gsClient, spreadsheetId, request);
-        return requestQueueExecutor.executeRequest();
+        return execute(requestQueueExecutor, "values.batchUpdate");
     }
 
     private BatchUpdateSpreadsheetResponse executeRequests(String spreadsheetId, Request... requests) throws GeneralSecurityException, IOException {
@@ -173,7 +346,17 @@ public class LightGSheetService {
                 .setIncludeSpreadsheetInResponse(false);
 
         SpreadsheetUpdateRQE requestQueueExecutor = new SpreadsheetUpdateRQE(gsClient, spreadsheetId, req);
-        return requestQueueExecutor.executeRequest();
+        return execute(requestQueueExecutor, "batchUpdate");
+    }
+
+    private <U extends GenericJson> U execute(RateLimitingRequestExecutor<?, U> requestQueueExecutor, String operation) throws GeneralSecurityException, IOException {
+        long start = System.nanoTime();
+        try {
+            return requestQueueExecutor.executeRequest();
+        } finally {
+            metrics.recordApiCallTime(operation, System.nanoTime() - start);
+            metrics.count(RunMetrics.SHEETS_API_RETRIES, requestQueueExecutor.getRateLimitedRetries(), "operation", operation);
+        }
     }
 
     private Sheets getSheetsClient() throws GeneralSecurityException, IOException {
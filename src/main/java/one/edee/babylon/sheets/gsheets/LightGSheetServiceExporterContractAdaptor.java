@@ -1,14 +1,17 @@
 package one.edee.babylon.sheets.gsheets;
 
 import one.edee.babylon.export.Exporter;
+import one.edee.babylon.export.dto.ChangedCells;
 import one.edee.babylon.sheets.gsheets.model.ASheet;
 import one.edee.babylon.sheets.gsheets.model.SheetAdaptor;
 import one.edee.babylon.sheets.SheetsException;
 import com.google.api.services.sheets.v4.model.Sheet;
+import lombok.extern.apachecommons.CommonsLog;
 
 import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -16,8 +19,14 @@ import java.util.stream.Collectors;
 /**
  * Implements contract for translation export using {@link LightGSheetService} without exposing its details.
  */
+@CommonsLog
 public class LightGSheetServiceExporterContractAdaptor implements Exporter.SheetContract {
 
+    /**
+     * Appended to the title of a sheet while its replacement is being created.
+     */
+    private static final String REPLACEMENT_TITLE_SUFFIX = " (new)";
+
     private final LightGSheetService lightGSheetService;
 
     public LightGSheetServiceExporterContractAdaptor(LightGSheetService lightGSheetService) {
@@ -46,20 +55,73 @@ public class LightGSheetServiceExporterContractAdaptor implements Exporter.Sheet
     }
 
     @Override
-    public void createSheet(String spreadsheetId, String sheetTitle, List<List<String>> sheetRows, List<String> lockedCellEditors, Map<String, List<String>> changed) throws SheetsException {
+    public void createSheet(String spreadsheetId, String sheetTitle, List<List<String>> sheetRows, List<String> lockedCellEditors, Map<String, ChangedCells> changed) throws SheetsException {
         try {
             Sheet existingSheet = lightGSheetService.loadSheet(spreadsheetId, sheetTitle);
             if (existingSheet != null) {
                 throw new SheetsException("Sheet '" + sheetTitle + "' already exists.");
             }
-            lightGSheetService.uploadDataToGoogleSheet(spreadsheetId, sheetTitle, sheetRows);
-            Sheet sheet = lightGSheetService.loadSheet(spreadsheetId, sheetTitle);
-            Integer sheetId = sheet.getProperties().getSheetId();
-            lightGSheetService.updateSheetStyle(spreadsheetId, sheetTitle, sheetId, lockedCellEditors, changed);
+            create(spreadsheetId, sheetTitle, sheetRows, lockedCellEditors, changed);
         } catch (IOException | GeneralSecurityException e) {
             String errMsg = "Error when creating sheet '" + sheetTitle + "' in spreadsheet '" + spreadsheetId + "'";
             throw new SheetsException(errMsg, e);
         }
     }
 
+    @Override
+    public void replaceSheet(String spreadsheetId, ASheet sheet, List<List<String>> sheetRows, List<String> lockedCellEditors, Map<String, ChangedCells> changed) throws SheetsException {
+        String sheetTitle = sheet.getTitle();
+        String replacementTitle = sheetTitle + REPLACEMENT_TITLE_SUFFIX;
+        try {
+            Sheet leftover = lightGSheetService.loadSheet(spreadsheetId, replacementTitle);
+            if (leftover != null) {
+                // replacement created by a run that failed before it was finished
+                lightGSheetService.deleteSheets(spreadsheetId, Collections.singletonList(leftover.getProperties().getSheetId()));
+            }
+            ChangedCells changedCells = changed.get(sheetTitle);
+            Integer replacementId = create(spreadsheetId, replacementTitle, sheetRows, lockedCellEditors,
+                    changedCells == null ? Collections.emptyMap() : Collections.singletonMap(replacementTitle, changedCells));
+            lightGSheetService.replaceSheet(spreadsheetId, sheet.getId(), replacementId, sheetTitle);
+        } catch (IOException | GeneralSecurityException e) {
+            String errMsg = "Error when replacing sheet '" + sheetTitle + "' in spreadsheet '" + spreadsheetId + "'";
+            throw new SheetsException(errMsg, e);
+        }
+    }
+
+    /**
+     * @return id of the new sheet
+     */
+    private Integer create(String spreadsheetId, String sheetTitle, List<List<String>> sheetRows, List<String> lockedCellEditors, Map<String, ChangedCells> changed) throws GeneralSecurityException, IOException {
+        lightGSheetService.uploadDataToGoogleSheet(spreadsheetId, sheetTitle, sheetRows);
+        Sheet sheet = lightGSheetService.loadSheet(spreadsheetId, sheetTitle);
+        Integer sheetId = sheet.getProperties().getSheetId();
+        lightGSheetService.updateSheetStyle(spreadsheetId, sheetTitle, sheetId, lockedCellEditors, changed);
+        return sheetId;
+    }
+
+    @Override
+    public void updateSheet(String spreadsheetId, ASheet sheet, List<List<String>> sheetRows, List<String> lockedCellEditors, Map<String, ChangedCells> changed) throws SheetsException {
+        String sheetTitle = sheet.getTitle();
+        try {
+            ChangedCells generatedCells = changed.getOrDefault(sheetTitle, new ChangedCells());
+            SheetDiff diff = SheetDiff.compute(lightGSheetService.loadSheetValues(spreadsheetId, sheetTitle), sheetRows, generatedCells);
+            if (!diff.isCompatible()) {
+                log.info("Sheet '" + sheetTitle + "' cannot be updated row by row, creating it again.");
+                replaceSheet(spreadsheetId, sheet, sheetRows, lockedCellEditors, changed);
+                return;
+            }
+            if (diff.isEmpty()) {
+                log.info("Sheet '" + sheetTitle + "' is up to date.");
+                return;
+            }
+            log.info("Updating sheet '" + sheetTitle + "': " + diff.getDeletedRanges().size() + " deleted, "
+                    + diff.getInsertedRanges().size() + " inserted row ranges, " + diff.getUpdatedRows().size() + " rows written.");
+            lightGSheetService.applySheetDiff(spreadsheetId, sheetTitle, sheet.getId(), diff);
+            lightGSheetService.highlightCells(spreadsheetId, sheet.getId(), diff.getHighlightedCells());
+        } catch (IOException | GeneralSecurityException e) {
+            String errMsg = "Error when updating sheet '" + sheetTitle + "' in spreadsheet '" + spreadsheetId + "'";
+            throw new SheetsException(errMsg, e);
+        }
+    }
+
 }
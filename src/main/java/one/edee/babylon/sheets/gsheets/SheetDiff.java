@@ -0,0 +1,137 @@
+package one.edee.babylon.sheets.gsheets;
+
+import lombok.Data;
+import one.edee.babylon.export.dto.ChangedCells;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+
+/**
+ * Row level difference between the current content of a translation sheet and the rows it should contain.
+ *
+ * Rows are matched by the message key in the first column. Rows whose key is no longer present (or is out of order)
+ * are deleted, rows with new keys are inserted and the remaining rows are written only when their values differ.
+ * Translations already typed into the sheet are kept as long as the primary message in the second column did not
+ * change, so re-exporting does not throw away work of translators that was not imported yet.
+ */
+@Data
+public class SheetDiff {
+
+    /**
+     * False when rows cannot be matched (different header or duplicate keys), the sheet has to be recreated then.
+     */
+    private final boolean compatible;
+    /** Ranges of rows to delete, [start, end) indexes of the current sheet rows, in descending order. */
+    private final List<int[]> deletedRanges = new ArrayList<>();
+    /** Ranges of rows to insert after the deletion, [start, end) indexes of the target rows, in ascending order. */
+    private final List<int[]> insertedRanges = new ArrayList<>();
+    /** Rows to write after the deletion and insertion, keyed by index of the target row. */
+    private final SortedMap<Integer, List<String>> updatedRows = new TreeMap<>();
+    /** Cells filled by machine translation that are written by the diff, indexes of the target rows. */
+    private final ChangedCells highlightedCells = new ChangedCells();
+
+    /**
+     * Computes the difference.
+     *
+     * @param currentRows         rows currently present in the sheet, header included, trailing empty cells may be missing
+     * @param targetRows          rows the sheet should contain, header included
+     * @param generatedCells      cells of {@code targetRows} filled by machine translation, these never overwrite
+     *                            translations present in the sheet and are left out of
+     *                            {@link #getHighlightedCells()} when the present translation is kept
+     * @return difference between {@code currentRows} and {@code targetRows}
+     */
+    public static SheetDiff compute(List<List<String>> currentRows, List<List<String>> targetRows, ChangedCells generatedCells) {
+        if (currentRows.isEmpty() || targetRows.isEmpty() || currentRows.get(0).size() > targetRows.get(0).size()
+                || !pad(currentRows.get(0), targetRows.get(0).size()).equals(pad(targetRows.get(0), targetRows.get(0).size()))) {
+            return new SheetDiff(false);
+        }
+        Map<String, Integer> targetIndexByKey = new HashMap<>();
+        for (int i = 1; i < targetRows.size(); i++) {
+            if (targetIndexByKey.put(cell(targetRows.get(i), 0), i) != null) {
+                return new SheetDiff(false);
+            }
+        }
+
+        SheetDiff diff = new SheetDiff(true);
+        diff.highlightedCells.addAll(generatedCells);
+        int columns = targetRows.get(0).size();
+        // current rows kept in place, keyed by target index, their target indexes increase with their current index
+        Map<Integer, List<String>> keptRows = new HashMap<>();
+        List<Integer> deletedRows = new ArrayList<>();
+        int lastTargetIndex = 0;
+        for (int i = 1; i < currentRows.size(); i++) {
+            Integer targetIndex = targetIndexByKey.get(cell(currentRows.get(i), 0));
+            if (targetIndex == null || targetIndex <= lastTargetIndex) {
+                deletedRows.add(i);
+            } else {
+                keptRows.put(targetIndex, pad(currentRows.get(i), columns));
+                lastTargetIndex = targetIndex;
+            }
+        }
+        for (int[] range : toRanges(deletedRows)) {
+            diff.deletedRanges.add(0, range);
+        }
+
+        List<Integer> insertedRows = new ArrayList<>();
+        for (int i = 1; i < targetRows.size(); i++) {
+            List<String> target = pad(targetRows.get(i), columns);
+            List<String> current = keptRows.get(i);
+            if (current == null) {
+                insertedRows.add(i);
+                diff.updatedRows.put(i, target);
+                continue;
+            }
+            List<String> merged = new ArrayList<>(target);
+            boolean primaryUnchanged = Objects.equals(current.get(1), target.get(1));
+            for (int col = 2; col < columns; col++) {
+                if (primaryUnchanged && StringUtils.hasText(current.get(col))
+                        && (StringUtils.isEmpty(target.get(col)) || generatedCells.contains(i, col))) {
+                    merged.set(col, current.get(col));
+                    diff.highlightedCells.remove(i, col);
+                }
+            }
+            if (!merged.equals(current)) {
+                diff.updatedRows.put(i, merged);
+            }
+        }
+        diff.insertedRanges.addAll(toRanges(insertedRows));
+        return diff;
+    }
+
+    /**
+     * @return true if the sheet already contains the target rows
+     */
+    public boolean isEmpty() {
+        return deletedRanges.isEmpty() && insertedRanges.isEmpty() && updatedRows.isEmpty();
+    }
+
+    /**
+     * Groups ascending indexes into [start, end) ranges of consecutive indexes.
+     */
+    static List<int[]> toRanges(Collection<Integer> ascendingIndexes) {
+        List<int[]> ranges = new ArrayList<>();
+        int[] range = null;
+        for (int index : ascendingIndexes) {
+            if (range != null && range[1] == index) {
+                range[1]++;
+            } else {
+                range = new int[]{index, index + 1};
+                ranges.add(range);
+            }
+        }
+        return ranges;
+    }
+
+    private static String cell(List<String> row, int column) {
+        return column < row.size() && row.get(column) != null ? row.get(column) : "";
+    }
+
+    private static List<String> pad(List<String> row, int columns) {
+        List<String> padded = new ArrayList<>(columns);
+        for (int i = 0; i < columns; i++) {
+            padded.add(cell(row, i));
+        }
+        return padded;
+    }
+
+}
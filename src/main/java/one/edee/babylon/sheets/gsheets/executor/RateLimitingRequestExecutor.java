@@ -32,6 +32,8 @@ public abstract class RateLimitingRequestExecutor<T extends GenericJson, U exten
     @Nullable
     private T request;
 
+    private int rateLimitedRetries;
+
     public RateLimitingRequestExecutor(GSheetsClient gsClient,
                                        String spreadsheetId,
                                        @Nullable T request) {
@@ -63,6 +65,7 @@ public abstract class RateLimitingRequestExecutor<T extends GenericJson, U exten
                     backoffTime *= 2;
                     backoffTime = Math.min(backoffTime, MAX_BACKOFF_TIME_SEC);
                     retries++;
+                    rateLimitedRetries++;
                 }else {
                     log.warn(gjre.getDetails());
                     retries = MAX_RETRIES;
@@ -72,6 +75,13 @@ public abstract class RateLimitingRequestExecutor<T extends GenericJson, U exten
         return result;
     }
 
+    /**
+     * @return number of times the request was repeated because of API rate limiting
+     */
+    public int getRateLimitedRetries() {
+        return rateLimitedRetries;
+    }
+
     /**
      * Executes the request. This should be implemented using the knowledge of request type in a subclass.
      *
@@ -5,15 +5,16 @@ import com.google.api.client.extensions.java6.auth.oauth2.AuthorizationCodeInsta
 import com.google.api.client.extensions.jetty.auth.oauth2.LocalServerReceiver;
 import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeFlow;
 import com.google.api.client.googleapis.auth.oauth2.GoogleClientSecrets;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
 import com.google.api.client.http.HttpRequestInitializer;
-import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.http.HttpTransport;
 import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.jackson2.JacksonFactory;
 import com.google.api.client.util.store.FileDataStoreFactory;
 import com.google.api.services.sheets.v4.Sheets;
 import com.google.api.services.sheets.v4.SheetsScopes;
 import lombok.extern.apachecommons.CommonsLog;
+import one.edee.babylon.config.HttpConfiguration;
+import one.edee.babylon.http.SharedHttpClient;
 import one.edee.babylon.sheets.gsheets.GSheetsClient;
 import org.apache.commons.lang3.SystemUtils;
 import org.springframework.lang.NonNull;
@@ -40,23 +41,31 @@ public class AuthorizedGSheetsClient implements GSheetsClient {
     private static final List<String> SCOPES = singletonList(SheetsScopes.SPREADSHEETS);
     private static final String TOKENS_DIRECTORY_PATH = "tokens";
     private static final String GOOGLE_CREDENTIALS_JSON = "credentials.json";
-    private static final int TIMEOUT_MS = 60000;
 
-    /** Use only by cached and null safe access by {@link #getCredentials(NetHttpTransport)} method. */
+    private final SharedHttpClient httpClient;
+    /** Use only by cached and null safe access by {@link #getCredentials(HttpTransport)} method. */
     private Credential credential;
     /** Use only by cached and null safe access by {@link #getSheetService()} method */
     private Sheets sheetService;
 
     /**
-     * Get cached or build a new authorized API client service.
+     * @param httpClient client whose pooled connections are used for all requests to Google Sheets
+     */
+    public AuthorizedGSheetsClient(SharedHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * Get cached or build a new authorized API client service. Synchronized, so that spreadsheets accessed
+     * in parallel share one client and the user is asked for authorization only once.
      * @return {@link Sheets} service for access to google sheets.
      * @throws GeneralSecurityException when access to google sheet failed due to security reasons.
      * @throws IOException some exception derived from {@link IOException}
     */
     @NonNull
-    public Sheets getSheetService() throws GeneralSecurityException, IOException {
+    public synchronized Sheets getSheetService() throws GeneralSecurityException, IOException {
         if (sheetService == null) {
-            final NetHttpTransport HTTP_TRANSPORT = GoogleNetHttpTransport.newTrustedTransport();
+            final HttpTransport HTTP_TRANSPORT = httpClient.getTransport();
 
             sheetService = new Sheets.Builder(HTTP_TRANSPORT, JSON_FACTORY, createHttpRequestInitializer(getCredentials(HTTP_TRANSPORT)))
                     .setApplicationName(APPLICATION_NAME)
@@ -69,10 +78,11 @@ public class AuthorizedGSheetsClient implements GSheetsClient {
      * Add custom timeouts.
      */
     private HttpRequestInitializer createHttpRequestInitializer(final HttpRequestInitializer requestInitializer) {
+        HttpConfiguration configuration = httpClient.getConfiguration();
         return httpRequest -> {
             requestInitializer.initialize(httpRequest);
-            httpRequest.setConnectTimeout(3 * 60000); // 3 minutes connect timeout
-            httpRequest.setReadTimeout(3 * 60000); // 3 minutes read timeout
+            httpRequest.setConnectTimeout(configuration.getConnectTimeoutSeconds() * 1000);
+            httpRequest.setReadTimeout(configuration.getReadTimeoutSeconds() * 1000);
         };
     }
 
@@ -83,7 +93,7 @@ public class AuthorizedGSheetsClient implements GSheetsClient {
      * @throws IOException If the credentials.json file cannot be found.
      */
     @NonNull
-    private Credential getCredentials(final NetHttpTransport httpTransport) throws IOException {
+    private Credential getCredentials(final HttpTransport httpTransport) throws IOException {
         if (credential == null) {
             // Load client secrets, first try to use file from current directory
             File credentialsFile = new File(GOOGLE_CREDENTIALS_JSON);
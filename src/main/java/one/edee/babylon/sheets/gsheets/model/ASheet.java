@@ -8,4 +8,6 @@ public interface ASheet {
 
     Integer getId();
 
+    String getTitle();
+
 }
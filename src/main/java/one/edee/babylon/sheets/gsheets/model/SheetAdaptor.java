@@ -16,4 +16,9 @@ public class SheetAdaptor implements ASheet {
         return sheet.getProperties().getSheetId();
     }
 
+    @Override
+    public String getTitle() {
+        return sheet.getProperties().getTitle();
+    }
+
 }
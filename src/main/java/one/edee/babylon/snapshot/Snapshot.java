@@ -2,6 +2,7 @@ package one.edee.babylon.snapshot;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
@@ -10,7 +11,9 @@ import one.edee.babylon.entity.MessageFileContent;
 
 import java.io.File;
 import java.io.Serializable;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 /**
@@ -42,17 +45,64 @@ public class Snapshot implements Serializable {
     @JsonIgnore
     private Map<Integer, MessageFileContent> dataPropFilesById = new LinkedHashMap<>();
 
+    /**
+     * First id of the range ids of new message files are taken from by path of the message file, all ids belong to
+     * a single range when null. Set when the snapshot is assembled from shards that are not all loaded, so that ids of
+     * new message files do not collide with ids in the other shards.
+     */
+    @JsonIgnore
+    private transient ToIntFunction<String> firstIdOfPath;
+
+    /**
+     * Next id of a new message file by the first id of its range, built by {@link #getNextUniqueId(String)} when
+     * missing and kept up to date by puts of message files with a known path.
+     */
+    @JsonIgnore
+    private transient Map<Integer, Integer> nextIdByFirstId;
+
+    /**
+     * Message files as they are stored in the snapshot files this snapshot was read from or written to, by absolute
+     * path of the file. Lets a write find the changes without reading the files again.
+     */
+    @JsonIgnore
+    private transient Map<Path, JsonNode> storedFiles;
+
     public MessageFileContent putPropFile(String fileName, MessageFileContent messageFileContent) {
         MessageFileContent propFile = dataPropFiles.put(clearPath(fileName), messageFileContent);
         // Create unique id of filename and store same dataPropFile instance under this hash code as key into map.
         // Id is also stored into DataPropFile#id field.
-        Integer fileNameId = getNextUniqueId();
+        Integer fileNameId = getNextUniqueId(fileName);
         messageFileContent.setId(fileNameId);
-        putDataPropFileById(fileNameId, messageFileContent);
+        dataPropFilesById.put(fileNameId, messageFileContent);
+        registerId(fileName, fileNameId);
         return propFile;
     }
 
+    /**
+     * Puts message file keeping its id, used when the snapshot is assembled from several files.
+     * @param fileName relative path to properties file.
+     * @param messageFileContent content with id already assigned
+     */
+    public void putLoadedPropFile(String fileName, MessageFileContent messageFileContent) {
+        dataPropFiles.put(clearPath(fileName), messageFileContent);
+        if (messageFileContent.getId() != null) {
+            dataPropFilesById.put(messageFileContent.getId(), messageFileContent);
+            registerId(fileName, messageFileContent.getId());
+        }
+    }
+
+    /**
+     * Splits ids of new message files into ranges.
+     * @param firstIdOfPath gives first id of the range of the message file by its path
+     */
+    public void setFirstIdOfPath(ToIntFunction<String> firstIdOfPath) {
+        this.firstIdOfPath = firstIdOfPath;
+        this.nextIdByFirstId = null;
+    }
+
     public MessageFileContent putDataPropFileById(Integer fileNameId, MessageFileContent messageFileContent) {
+        // path of the message file is not known, next ids are found again when needed
+        nextIdByFirstId = null;
         return dataPropFilesById.put(fileNameId, messageFileContent);
     }
 
@@ -98,17 +148,67 @@ public class Snapshot implements Serializable {
         return dataPropFiles.entrySet().stream().collect(Collectors.toMap(i -> normalizePath(i.getKey()), Map.Entry::getValue));
     }
 
+    /**
+     * @param file snapshot file
+     * @return Json tree of message files stored in the file, null when the snapshot was not read from or written to it
+     */
+    public JsonNode getStoredFiles(Path file) {
+        return storedFiles == null ? null : storedFiles.get(file.toAbsolutePath().normalize());
+    }
+
+    /**
+     * @param file        snapshot file
+     * @param storedFiles Json tree of message files stored in the file, must not be changed afterwards, null when not known
+     */
+    public void setStoredFiles(Path file, JsonNode storedFiles) {
+        if (this.storedFiles == null) {
+            this.storedFiles = new HashMap<>();
+        }
+        if (storedFiles == null) {
+            this.storedFiles.remove(file.toAbsolutePath().normalize());
+        } else {
+            this.storedFiles.put(file.toAbsolutePath().normalize(), storedFiles);
+        }
+    }
+
     /**
      * Gets next unique ID for identification of one properties bundle in translation.
+     * @param fileName relative path to properties file the ID is for
      * @return Get unique ID
      */
-    private Integer getNextUniqueId() {
-        Set<Integer> ids = dataPropFilesById.keySet();
-        if (ids.isEmpty()) {
-            return 0;
+    private Integer getNextUniqueId(String fileName) {
+        if (nextIdByFirstId == null) {
+            nextIdByFirstId = new HashMap<>();
+            if (firstIdOfPath == null) {
+                dataPropFilesById.keySet().forEach(id -> nextIdByFirstId.merge(0, id + 1, Integer::max));
+            } else {
+                dataPropFiles.forEach((path, content) -> {
+                    if (content.getId() != null) {
+                        registerId(path, content.getId());
+                    }
+                });
+            }
+        }
+        int firstId = getFirstId(fileName);
+        return nextIdByFirstId.getOrDefault(firstId, firstId);
+    }
+
+    /**
+     * Ids below the range of the message file were assigned before the snapshot was split, they do not move the next
+     * id of the range.
+     */
+    private void registerId(String fileName, int id) {
+        if (nextIdByFirstId == null) {
+            return;
+        }
+        int firstId = getFirstId(fileName);
+        if (id >= firstId) {
+            nextIdByFirstId.merge(firstId, id + 1, Integer::max);
         }
-        Optional<Integer> maxId = ids.stream().reduce(Integer::max);
-        return maxId.get() + 1;
+    }
+
+    private int getFirstId(String fileName) {
+        return firstIdOfPath == null ? 0 : firstIdOfPath.applyAsInt(normalizePath(fileName));
     }
 
     private static String clearPath(String fileName) {
@@ -4,6 +4,8 @@ import one.edee.babylon.SpringBootConsoleApplication;
 import one.edee.babylon.config.TranslationConfiguration;
 import one.edee.babylon.config.TranslationConfigurationReader;
 import one.edee.babylon.db.SnapshotManager;
+import one.edee.babylon.http.SharedHttpClient;
+import one.edee.babylon.metrics.RunMetrics;
 import one.edee.babylon.sheets.gsheets.GSheetApiRequestFactory;
 import one.edee.babylon.sheets.gsheets.GSheetsClient;
 import one.edee.babylon.sheets.gsheets.LightGSheetService;
@@ -25,7 +27,7 @@ public class CommonConfiguration {
 
     @Bean
     public SnapshotManager snapshotManager(TranslationConfiguration configuration) throws IOException {
-        return new SnapshotManager(configuration.getSnapshotPath());
+        return new SnapshotManager(configuration);
     }
 
     @Bean
@@ -34,8 +36,13 @@ public class CommonConfiguration {
     }
 
     @Bean
-    public LightGSheetService lightGSheetService(GSheetApiRequestFactory gSheetApiRequestFactory, GSheetsClient gSheetsClient) {
-        return new LightGSheetService(gSheetApiRequestFactory, gSheetsClient);
+    public LightGSheetService lightGSheetService(GSheetApiRequestFactory gSheetApiRequestFactory, GSheetsClient gSheetsClient, RunMetrics runMetrics) {
+        return new LightGSheetService(gSheetApiRequestFactory, gSheetsClient, runMetrics);
+    }
+
+    @Bean
+    public RunMetrics runMetrics() {
+        return new RunMetrics();
     }
 
     @Bean
@@ -44,8 +51,13 @@ public class CommonConfiguration {
     }
 
     @Bean
-    public GSheetsClient gSheetsClient() {
-        return new AuthorizedGSheetsClient();
+    public SharedHttpClient sharedHttpClient(TranslationConfiguration configuration) {
+        return new SharedHttpClient(configuration.getHttp());
+    }
+
+    @Bean
+    public GSheetsClient gSheetsClient(SharedHttpClient sharedHttpClient) {
+        return new AuthorizedGSheetsClient(sharedHttpClient);
     }
 
     @Bean
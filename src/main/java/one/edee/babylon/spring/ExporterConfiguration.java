@@ -2,13 +2,14 @@ package one.edee.babylon.spring;
 
 import one.edee.babylon.db.SnapshotManager;
 import one.edee.babylon.export.*;
+import one.edee.babylon.export.translator.Translator;
+import one.edee.babylon.metrics.RunMetrics;
 import one.edee.babylon.sheets.gsheets.LightGSheetService;
 import one.edee.babylon.sheets.gsheets.LightGSheetServiceExporterContractAdaptor;
 import one.edee.babylon.snapshot.SnapshotAdapter;
 import one.edee.babylon.snapshot.TranslationSnapshotReadContract;
 import one.edee.babylon.snapshot.TranslationSnapshotWriteContract;
 import one.edee.babylon.util.AntPathResourceLoader;
-import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
@@ -21,20 +22,27 @@ import java.util.List;
 public class ExporterConfiguration {
 
     @Bean
-    public Exporter exporter(ApplicationContext applicationContext,
+    public Exporter exporter(List<Translator> translators,
                              TranslationCollector translationCollector,
                              TranslationSnapshotWriteContract snapshot,
                              Exporter.SheetContract sheetContract,
-                             AntPathResourceLoader resourceLoader) {
-        return new Exporter(applicationContext, translationCollector, snapshot, sheetContract, resourceLoader);
+                             AntPathResourceLoader resourceLoader,
+                             RunMetrics runMetrics) {
+        return new Exporter(translators, translationCollector, snapshot, sheetContract, resourceLoader, runMetrics);
+    }
+
+    @Bean
+    public ExportWatcher exportWatcher(Exporter exporter, AntPathResourceLoader resourceLoader) {
+        return new ExportWatcher(exporter, resourceLoader);
     }
 
     @Bean
     public TranslationCollector translationCollector(List<MessageLoader> messageLoaders,
                                                      MessageFileProcessor messageFileProcessor,
                                                      TranslationSnapshotReadContract snapshotReadContract,
-                                                     TranslationSnapshotWriteContract snapshotWriteContract) {
-        return new TranslationCollector(messageLoaders, messageFileProcessor, snapshotReadContract, snapshotWriteContract);
+                                                     TranslationSnapshotWriteContract snapshotWriteContract,
+                                                     RunMetrics runMetrics) {
+        return new TranslationCollector(messageLoaders, messageFileProcessor, snapshotReadContract, snapshotWriteContract, runMetrics);
     }
 
     @Bean
@@ -3,6 +3,7 @@ package one.edee.babylon.spring;
 import one.edee.babylon.db.SnapshotManager;
 import one.edee.babylon.config.TranslationConfiguration;
 import one.edee.babylon.imp0rt.ImportProcessor;
+import one.edee.babylon.metrics.RunMetrics;
 import one.edee.babylon.properties.FileLoader;
 import one.edee.babylon.properties.PropertyFileLoader;
 import one.edee.babylon.properties.TsFileLoader;
@@ -19,8 +20,9 @@ public class ImporterConfiguration {
     public ImportProcessor importProcessor(LightGSheetService lightGSheetService,
                                     SnapshotManager snapshotManager,
                                     List<FileLoader> propertyFileLoaders,
-                                    TranslationConfiguration configuration) {
-        return new ImportProcessor(lightGSheetService, snapshotManager, propertyFileLoaders, configuration);
+                                    TranslationConfiguration configuration,
+                                    RunMetrics runMetrics) {
+        return new ImportProcessor(lightGSheetService, snapshotManager, propertyFileLoaders, configuration, runMetrics);
     }
 
     @Bean
@@ -16,6 +16,18 @@ public class ImportFileStatistic {
     @StatisticsField("Count of keys not found in primary file")
     private int notFoundInPrimaryFile;
 
+    @StatisticsField("Count of keys in saved file")
+    private int keyCount;
+
+    @StatisticsField("Bytes read")
+    private long bytesRead;
+
+    @StatisticsField("Bytes written")
+    private long bytesWritten;
+
+    @StatisticsField("Parse time (ms)")
+    private double parseTimeMillis;
+
     public void incUpdatedCnt() {
         updatedCnt++;
     }
@@ -0,0 +1,60 @@
+package one.edee.babylon.util;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Arrays;
+
+/**
+ * Writes new content of a file only when it differs from the current content. The content is written into a temporary
+ * file next to the file, which then replaces it atomically, so that readers never see a partially written file.
+ */
+public class AtomicFileWriter {
+
+    private AtomicFileWriter() {
+    }
+
+    /**
+     * Replaces content of the file by given content.
+     *
+     * @param file    file to write, created when it does not exist
+     * @param content new content of the file
+     * @return false when the file already had the content and was left untouched
+     * @throws IOException when the file cannot be read or written
+     */
+    public static boolean write(Path file, byte[] content) throws IOException {
+        if (!Files.exists(file)) {
+            Files.write(file, content);
+            return true;
+        }
+        if (Arrays.equals(Files.readAllBytes(file), content)) {
+            return false;
+        }
+
+        Path dir = file.toAbsolutePath().getParent();
+        Path tempFile = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            copyPermissions(file, tempFile);
+            Files.write(tempFile, content);
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        return true;
+    }
+
+    /**
+     * Temporary files are readable by the owner only, the replaced file keeps permissions of the original one.
+     */
+    private static void copyPermissions(Path from, Path to) throws IOException {
+        try {
+            Files.setPosixFilePermissions(to, Files.getPosixFilePermissions(from));
+        } catch (UnsupportedOperationException e) {
+            // not a POSIX file system, default permissions of new files apply
+        }
+    }
+
+}
@@ -1,6 +1,7 @@
 package one.edee.babylon.util;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ser.FilterProvider;
 import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
@@ -96,4 +97,32 @@ public class JsonUtils {
             return OBJECT_MAPPER.writeValueAsString(value);
         }
     }
+
+    /**
+     * Deserialization of File to Json tree.
+     * @param file {@link File} for deserialization
+     * @return root node of the Json document
+     */
+    public static JsonNode jsonTreeFromFile(File file) throws IOException {
+        return OBJECT_MAPPER.readTree(file);
+    }
+
+    /**
+     * Conversion of Json tree to object.
+     * @param node root node of the object
+     * @param valueType type of the object
+     * @return object read from the tree
+     */
+    public static <T> T jsonObjFromTree(JsonNode node, Class<T> valueType) throws JsonProcessingException {
+        return OBJECT_MAPPER.treeToValue(node, valueType);
+    }
+
+    /**
+     * Conversion of object to Json tree, the same as serialization to Json string and reading it back as tree.
+     * @param value object for serialization
+     * @return root node of the Json representation of object
+     */
+    public static <T extends JsonNode> T objToJsonTree(Object value) {
+        return OBJECT_MAPPER.valueToTree(value);
+    }
 }
@@ -0,0 +1,278 @@
+package one.edee.babylon.util;
+
+import lombok.Data;
+import lombok.extern.apachecommons.CommonsLog;
+import org.springframework.core.io.Resource;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.ResourceUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Expands message file paths with Ant-style patterns (see {@link AntPathMatcher}) into paths of existing files.
+ *
+ * Unlike expanding the patterns one by one with {@link PathUtils#expandPath(String, AntPathResourceLoader)}, all
+ * patterns are matched during a single walk of the file tree. Directories that cannot contain a match of any pattern
+ * are not entered at all and existence of the matched files is taken from the same walk.
+ *
+ * The resulting paths are the same as {@link PathUtils#expandPath(String, AntPathResourceLoader)} returns for each
+ * pattern - relative to the current directory when located in it, matches of a single pattern ordered as if
+ * the directories were traversed depth first in alphabetical order and patterns keeping their order.
+ */
+@CommonsLog
+public class MessageFileDiscovery {
+
+    private static final Pattern SEPARATOR = Pattern.compile(Pattern.quote(File.separator));
+
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final AntPathResourceLoader resourceLoader;
+
+    /**
+     * @param resourceLoader used for patterns with other URL prefix than {@code file:}, e.g. {@code classpath:}
+     */
+    public MessageFileDiscovery(AntPathResourceLoader resourceLoader) {
+        this.resourceLoader = resourceLoader;
+    }
+
+    /**
+     * Expands given patterns into unique file paths.
+     *
+     * @param patternPaths paths that may contain Ant-style patterns
+     * @return found files together with literal paths that do not exist
+     */
+    public DiscoveryResult discover(List<String> patternPaths) throws IOException {
+        List<CompiledPattern> patterns = new ArrayList<>(patternPaths.size());
+        for (String patternPath : patternPaths) {
+            patterns.add(compile(patternPath));
+        }
+
+        DiscoveryResult result = new DiscoveryResult();
+        walk(patterns, result);
+
+        String currentDir = System.getProperty("user.dir");
+        Set<String> uniquePaths = new LinkedHashSet<>();
+        Set<String> missingPaths = new LinkedHashSet<>();
+        for (CompiledPattern pattern : patterns) {
+            if (pattern.resourcePattern) {
+                for (Resource resource : resourceLoader.getResources(pattern.source)) {
+                    uniquePaths.add(relativize(resource.getFile().getPath(), currentDir));
+                }
+            } else if (pattern.wildcard) {
+                pattern.matches.sort(MessageFileDiscovery::compareAsTraversed);
+                for (String match : pattern.matches) {
+                    uniquePaths.add(relativize(match, currentDir));
+                }
+            } else {
+                String path = relativize(pattern.literalPath, currentDir);
+                if (pattern.matches.isEmpty()) {
+                    missingPaths.add(path);
+                } else {
+                    uniquePaths.add(path);
+                }
+            }
+        }
+        result.getPaths().addAll(uniquePaths);
+        result.getMissingPaths().addAll(missingPaths);
+        return result;
+    }
+
+    private CompiledPattern compile(String patternPath) {
+        String path = patternPath;
+        if (path.startsWith(ResourceUtils.FILE_URL_PREFIX)) {
+            path = path.substring(ResourceUtils.FILE_URL_PREFIX.length());
+        } else if (ResourceUtils.isUrl(path)) {
+            return CompiledPattern.resource(patternPath);
+        }
+        String normalized = path.replace(File.separatorChar, '/');
+        int rootEnd = determineRootDirEnd(normalized);
+        if (rootEnd == normalized.length()) {
+            File literal = new File(path);
+            Path absolute = literal.getAbsoluteFile().toPath().normalize();
+            Path parent = absolute.getParent() == null ? absolute : absolute.getParent();
+            return CompiledPattern.literal(patternPath, literal.getPath(), parent, toPatternString(absolute));
+        }
+        String rootDir = normalized.substring(0, rootEnd);
+        File displayRoot = new File(rootDir).getAbsoluteFile();
+        Path walkRoot = displayRoot.toPath().normalize();
+        String matchPattern = withTrailingSlash(toPatternString(walkRoot)) + normalized.substring(rootEnd);
+        return CompiledPattern.wildcard(patternPath, displayRoot, walkRoot, matchPattern);
+    }
+
+    /**
+     * Finds end of the leading part of the pattern without wildcards, e.g. "/WEB-INF/" for "/WEB-INF/*.xml".
+     */
+    private int determineRootDirEnd(String pattern) {
+        int rootDirEnd = pattern.length();
+        while (rootDirEnd > 0 && matcher.isPattern(pattern.substring(0, rootDirEnd))) {
+            rootDirEnd = pattern.lastIndexOf('/', rootDirEnd - 2) + 1;
+        }
+        return rootDirEnd;
+    }
+
+    private void walk(List<CompiledPattern> patterns, DiscoveryResult result) throws IOException {
+        // walk every root only once, roots nested in another root are covered by the walk of the outer one
+        SortedMap<String, Path> roots = new TreeMap<>();
+        for (CompiledPattern pattern : patterns) {
+            if (!pattern.resourcePattern) {
+                roots.put(pattern.walkRootString, pattern.walkRoot);
+            }
+        }
+        String lastTopRoot = null;
+        for (Map.Entry<String, Path> root : roots.entrySet()) {
+            if (lastTopRoot != null && root.getKey().startsWith(lastTopRoot)) {
+                continue;
+            }
+            lastTopRoot = root.getKey();
+            if (!Files.isDirectory(root.getValue())) {
+                continue;
+            }
+            List<CompiledPattern> rootPatterns = new ArrayList<>();
+            for (CompiledPattern pattern : patterns) {
+                if (!pattern.resourcePattern && pattern.walkRootString.startsWith(lastTopRoot)) {
+                    rootPatterns.add(pattern);
+                }
+            }
+            walkRoot(root.getValue(), rootPatterns, result);
+        }
+    }
+
+    private void walkRoot(Path root, List<CompiledPattern> rootPatterns, DiscoveryResult result) throws IOException {
+        Files.walkFileTree(root, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                String dirPath = withTrailingSlash(toPatternString(dir));
+                for (CompiledPattern pattern : rootPatterns) {
+                    if (pattern.walkRootString.startsWith(dirPath)
+                            || (pattern.wildcard && dirPath.startsWith(pattern.walkRootString) && matcher.matchStart(pattern.matchPattern, dirPath))) {
+                        result.visitedDirectoryCount++;
+                        return FileVisitResult.CONTINUE;
+                    }
+                }
+                return FileVisitResult.SKIP_SUBTREE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (!attrs.isRegularFile()) {
+                    return FileVisitResult.CONTINUE;
+                }
+                String filePath = toPatternString(file);
+                for (CompiledPattern pattern : rootPatterns) {
+                    if (pattern.wildcard) {
+                        if (filePath.startsWith(pattern.walkRootString) && matcher.match(pattern.matchPattern, filePath)) {
+                            String relativePath = pattern.walkRoot.relativize(file).toString();
+                            pattern.matches.add(new File(pattern.displayRoot, relativePath).getPath());
+                        }
+                    } else if (pattern.matchPattern.equals(filePath)) {
+                        pattern.matches.add(pattern.literalPath);
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                log.warn("Unable to visit '" + file + "': " + exc.getMessage());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static String toPatternString(Path path) {
+        return path.toString().replace(File.separatorChar, '/');
+    }
+
+    private static String withTrailingSlash(String path) {
+        return path.endsWith("/") ? path : path + "/";
+    }
+
+    private static String relativize(String path, String currentDir) {
+        // If is it absolute path then parse relative path to current directory.
+        if (path.startsWith(currentDir + File.separator)) {
+            return path.substring(currentDir.length() + 1);
+        }
+        return path;
+    }
+
+    /**
+     * Orders paths the way depth first traversal with alphabetically sorted directory entries visits them.
+     */
+    private static int compareAsTraversed(String first, String second) {
+        String[] firstParts = SEPARATOR.split(first);
+        String[] secondParts = SEPARATOR.split(second);
+        for (int i = 0; i < Math.min(firstParts.length, secondParts.length); i++) {
+            int cmp = firstParts[i].compareTo(secondParts[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(firstParts.length, secondParts.length);
+    }
+
+    private static class CompiledPattern {
+        private final String source;
+        private final boolean resourcePattern;
+        private final boolean wildcard;
+        /** Path of a literal (non-pattern) file as it should appear in the result. */
+        private String literalPath;
+        /** Directory that prefixes paths of matched files in the result. */
+        private File displayRoot;
+        /** Normalized absolute directory where matching starts. */
+        private Path walkRoot;
+        private String walkRootString;
+        /** Absolute normalized pattern (or literal path) using '/' as separator. */
+        private String matchPattern;
+        /** Paths of matched files as they should appear in the result. */
+        private final List<String> matches = new ArrayList<>();
+
+        private CompiledPattern(String source, boolean resourcePattern, boolean wildcard) {
+            this.source = source;
+            this.resourcePattern = resourcePattern;
+            this.wildcard = wildcard;
+        }
+
+        static CompiledPattern resource(String source) {
+            return new CompiledPattern(source, true, true);
+        }
+
+        static CompiledPattern literal(String source, String literalPath, Path parent, String matchPattern) {
+            CompiledPattern pattern = new CompiledPattern(source, false, false);
+            pattern.literalPath = literalPath;
+            pattern.setWalkRoot(parent);
+            pattern.matchPattern = matchPattern;
+            return pattern;
+        }
+
+        static CompiledPattern wildcard(String source, File displayRoot, Path walkRoot, String matchPattern) {
+            CompiledPattern pattern = new CompiledPattern(source, false, true);
+            pattern.displayRoot = displayRoot;
+            pattern.setWalkRoot(walkRoot);
+            pattern.matchPattern = matchPattern;
+            return pattern;
+        }
+
+        private void setWalkRoot(Path walkRoot) {
+            this.walkRoot = walkRoot;
+            this.walkRootString = withTrailingSlash(toPatternString(walkRoot));
+        }
+    }
+
+    /**
+     * Result of {@link #discover(List)}.
+     */
+    @Data
+    public static class DiscoveryResult {
+        /** Unique paths of existing files in order of patterns. */
+        private final List<String> paths = new ArrayList<>();
+        /** Literal (non-pattern) paths that do not exist. */
+        private final List<String> missingPaths = new ArrayList<>();
+        /** Number of directories entered by the walk. */
+        private int visitedDirectoryCount;
+    }
+
+}
@@ -0,0 +1,84 @@
+package one.edee.babylon.util;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the same action for several keys (e.g. spreadsheets) in parallel.
+ */
+public class ParallelUtils {
+
+    private ParallelUtils() {
+    }
+
+    /**
+     * Runs {@code action} for every key, each key in its own thread. Single key is processed in the calling thread.
+     *
+     * @param keys   keys to process
+     * @param action action to run for each key
+     * @return results of the action in order of the keys
+     * @throws E first exception thrown by the action, processing of the remaining keys is interrupted then
+     */
+    public static <K, V, E extends Exception> Map<K, V> mapInParallel(Collection<K> keys, KeyAction<K, V, E> action) throws E {
+        return mapInParallel(keys, keys.size(), action);
+    }
+
+    /**
+     * Runs {@code action} for every key using at most {@code threads} threads. With single key or thread the keys
+     * are processed in the calling thread.
+     *
+     * @param keys    keys to process
+     * @param threads maximal number of keys processed at once
+     * @param action  action to run for each key
+     * @return results of the action in order of the keys
+     * @throws E first exception thrown by the action, processing of the remaining keys is interrupted then
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V, E extends Exception> Map<K, V> mapInParallel(Collection<K> keys, int threads, KeyAction<K, V, E> action) throws E {
+        Map<K, V> results = new LinkedHashMap<>();
+        if (keys.size() <= 1 || threads <= 1) {
+            for (K key : keys) {
+                results.put(key, action.run(key));
+            }
+            return results;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(keys.size(), threads));
+        try {
+            Map<K, Future<V>> futures = new LinkedHashMap<>();
+            for (K key : keys) {
+                futures.put(key, executor.submit(() -> action.run(key)));
+            }
+            for (Map.Entry<K, Future<V>> future : futures.entrySet()) {
+                try {
+                    results.put(future.getKey(), future.getValue().get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    } else if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw (E) cause;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for " + future.getKey(), e);
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Action run by {@link #mapInParallel(Collection, KeyAction)}.
+     */
+    @FunctionalInterface
+    public interface KeyAction<K, V, E extends Exception> {
+        V run(K key) throws E;
+    }
+
+}
@@ -0,0 +1,141 @@
+package one.edee.babylon.db;
+
+import one.edee.babylon.config.TranslationConfiguration;
+import one.edee.babylon.snapshot.Snapshot;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class ShardedSnapshotStoreTest {
+
+    private static final String MODULE_A_FILE = "module-a/src/a.properties";
+    private static final String MODULE_B_FILE = "module-b/src/b.properties";
+    private static final String OTHER_FILE = "common/c.properties";
+
+    private Path directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory(ShardedSnapshotStoreTest.class.getSimpleName());
+    }
+
+    @After
+    public void deleteDirectory() {
+        FileUtils.deleteQuietly(directory.toFile());
+    }
+
+    @Test
+    public void when_snapshot_is_written__then_message_files_are_split_by_prefixes() throws IOException {
+        writeAllFiles();
+
+        assertThat(SnapshotUtils.readSnapshot(directory.resolve("db.0.json")).getPaths(), contains(OTHER_FILE));
+        assertThat(SnapshotUtils.readSnapshot(directory.resolve("db.1.json")).getPaths(), contains(MODULE_A_FILE));
+        assertThat(SnapshotUtils.readSnapshot(directory.resolve("db.2.json")).getPaths(), contains(MODULE_B_FILE));
+        Snapshot all = new ShardedSnapshotStore(configuration("**/*.properties")).read();
+        assertThat(all.getPaths(), containsInAnyOrder(MODULE_A_FILE, MODULE_B_FILE, OTHER_FILE));
+        assertThat(all.getPropFileByFileName(MODULE_B_FILE).getPropertyValue("key"), is("b"));
+    }
+
+    @Test
+    public void when_paths_are_in_one_module__then_only_its_shard_is_read_and_written() throws IOException {
+        writeAllFiles();
+        File moduleB = directory.resolve("db.2.json").toFile();
+        assertThat(moduleB.setLastModified(1000L), is(true));
+
+        ShardedSnapshotStore store = new ShardedSnapshotStore(configuration("module-a/src/*.properties"));
+        Snapshot snapshot = store.read();
+        assertThat(snapshot.getPaths(), contains(MODULE_A_FILE));
+        snapshot.getPropFileByFileName(MODULE_A_FILE).putProperty("key", "changed");
+        store.write(snapshot);
+
+        assertThat(moduleB.lastModified(), is(1000L));
+        Snapshot moduleA = SnapshotUtils.readSnapshot(directory.resolve("db.1.json"));
+        assertThat(moduleA.getPropFileByFileName(MODULE_A_FILE).getPropertyValue("key"), is("changed"));
+    }
+
+    @Test
+    public void when_shards_are_read_separately__then_ids_of_new_message_files_do_not_collide() throws IOException {
+        ShardedSnapshotStore moduleA = new ShardedSnapshotStore(configuration("module-a/**/*.properties"));
+        Snapshot snapshotA = moduleA.read();
+        Integer idA = snapshotA.getOrPutNewPropFileByFileName(MODULE_A_FILE).getId();
+        moduleA.write(snapshotA);
+
+        ShardedSnapshotStore moduleB = new ShardedSnapshotStore(configuration("module-b/**/*.properties"));
+        Snapshot snapshotB = moduleB.read();
+        assertThat(snapshotB.getPaths(), is(empty()));
+        Integer idB = snapshotB.getOrPutNewPropFileByFileName(MODULE_B_FILE).getId();
+        Integer nextIdB = snapshotB.getOrPutNewPropFileByFileName("module-b/src/b2.properties").getId();
+        moduleB.write(snapshotB);
+
+        assertThat(idB, not(equalTo(idA)));
+        assertThat(nextIdB, is(idB + 1));
+        Snapshot all = new ShardedSnapshotStore(configuration("**/*.properties")).read();
+        assertThat(all.getPropFileById(idA), is(sameInstance(all.getPropFileByFileName(MODULE_A_FILE))));
+        assertThat(all.getPropFileById(idB), is(sameInstance(all.getPropFileByFileName(MODULE_B_FILE))));
+    }
+
+    @Test
+    public void when_shard_is_read_again__then_new_message_files_continue_after_its_highest_id() throws IOException {
+        writeAllFiles();
+        ShardedSnapshotStore store = new ShardedSnapshotStore(configuration("**/*.properties"));
+        Snapshot snapshot = store.read();
+        Integer idA = snapshot.getPropFileByFileName(MODULE_A_FILE).getId();
+
+        Integer newIdA = snapshot.getOrPutNewPropFileByFileName("module-a/src/new.properties").getId();
+        Integer nextIdA = snapshot.getOrPutNewPropFileByFileName("module-a/src/next.properties").getId();
+        Integer newIdB = snapshot.getOrPutNewPropFileByFileName("module-b/src/new.properties").getId();
+
+        assertThat(newIdA, is(idA + 1));
+        assertThat(nextIdA, is(idA + 2));
+        assertThat(newIdB, is(snapshot.getPropFileByFileName(MODULE_B_FILE).getId() + 1));
+    }
+
+    @Test
+    public void when_snapshot_is_in_single_file__then_it_is_split_keeping_ids() throws IOException {
+        Snapshot single = new Snapshot();
+        single.getOrPutNewPropFileByFileName(MODULE_A_FILE);
+        single.getOrPutNewPropFileByFileName(MODULE_B_FILE);
+        SnapshotUtils.writeSnapshot(single, directory.resolve("db.json"));
+
+        ShardedSnapshotStore store = new ShardedSnapshotStore(configuration("module-a/**/*.properties"));
+        Snapshot snapshot = store.read();
+        assertThat(snapshot.getPaths(), contains(MODULE_A_FILE, MODULE_B_FILE));
+        Integer newId = snapshot.getOrPutNewPropFileByFileName("module-a/src/new.properties").getId();
+        store.write(snapshot);
+
+        assertThat(newId, is(greaterThan(1)));
+        Snapshot moduleB = new ShardedSnapshotStore(configuration("module-b/**/*.properties")).read();
+        assertThat(moduleB.getPaths(), contains(MODULE_B_FILE));
+        assertThat(moduleB.getPropFileByFileName(MODULE_B_FILE).getId(), is(1));
+        assertThat(SnapshotUtils.readSnapshot(directory.resolve("db.1.json")).getPropFileByFileName(MODULE_A_FILE).getId(), is(0));
+    }
+
+    private void writeAllFiles() throws IOException {
+        ShardedSnapshotStore store = new ShardedSnapshotStore(configuration("**/*.properties"));
+        Snapshot snapshot = store.read();
+        for (String file : Arrays.asList(OTHER_FILE, MODULE_A_FILE, MODULE_B_FILE)) {
+            snapshot.getOrPutNewPropFileByFileName(file).putProperty("key", file.substring(file.lastIndexOf('/') + 1, file.lastIndexOf('.')));
+        }
+        store.write(snapshot);
+    }
+
+    private TranslationConfiguration configuration(String path) {
+        TranslationConfiguration configuration = new TranslationConfiguration();
+        configuration.setDataFileName(directory.resolve("db.json").toString());
+        configuration.setSnapshotShards(Arrays.asList("module-a/", "module-b/"));
+        configuration.setPath(Collections.singletonList(path));
+        return configuration;
+    }
+
+}
@@ -0,0 +1,131 @@
+package one.edee.babylon.db;
+
+import one.edee.babylon.config.TranslationConfiguration;
+import one.edee.babylon.snapshot.Snapshot;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class SnapshotJournalTest {
+
+    private Path directory;
+    private Path snapshotFile;
+    private TranslationConfiguration configuration;
+
+    @Before
+    public void createSnapshot() throws IOException {
+        directory = Files.createTempDirectory(SnapshotJournalTest.class.getSimpleName());
+        snapshotFile = directory.resolve("db.json");
+        configuration = new TranslationConfiguration();
+        configuration.setDataFileName(snapshotFile.toString());
+        configuration.setSnapshotJournal(true);
+
+        Snapshot snapshot = new Snapshot();
+        for (int i = 0; i < 20; i++) {
+            snapshot.getOrPutNewPropFileByFileName("src/messages" + i + ".properties").putProperty("key", "Value of message " + i);
+        }
+        SnapshotUtils.writeSnapshot(snapshot, configuration);
+    }
+
+    @After
+    public void deleteDirectory() {
+        FileUtils.deleteQuietly(directory.toFile());
+    }
+
+    @Test
+    public void when_snapshot_changes__then_only_changes_are_appended_and_replayed() throws IOException {
+        byte[] base = Files.readAllBytes(snapshotFile);
+        Snapshot snapshot = SnapshotUtils.readSnapshot(snapshotFile);
+        snapshot.getPropFileByFileName("src/messages1.properties").putProperty("key", "Changed\nmultiline");
+        snapshot.getPropFileByFileName("src/messages1.properties").putProperty("added", "New");
+        snapshot.removePaths(Collections.singletonList("src/messages2.properties"));
+        Integer newId = snapshot.getOrPutNewPropFileByFileName("src/new.properties").getId();
+        SnapshotUtils.writeSnapshot(snapshot, configuration);
+
+        assertThat(Files.readAllBytes(snapshotFile), is(base));
+        // paths are stored with backslashes
+        List<String> records = Files.readAllLines(SnapshotJournal.getJournalFile(snapshotFile), StandardCharsets.UTF_8);
+        assertThat(records, contains(
+                "[\"removeFile\",\"src\\\\messages2.properties\"]",
+                "[\"put\",\"src\\\\messages1.properties\",{\"key\":\"Changed\\r\\nmultiline\",\"added\":\"New\"}]",
+                "[\"file\",\"src\\\\new.properties\"," + newId + "]"));
+
+        Snapshot replayed = SnapshotUtils.readSnapshot(snapshotFile);
+        assertThat(replayed.getPaths(), hasSize(20));
+        assertThat(replayed.getPaths(), not(hasItem("src/messages2.properties")));
+        assertThat(replayed.getPropFileByFileName("src/messages1.properties").getPropertyValue("key"), is("Changed\r\nmultiline"));
+        assertThat(replayed.getPropFileByFileName("src/messages1.properties").getPropertyValue("added"), is("New"));
+        assertThat(replayed.getPropFileByFileName("src/new.properties").getId(), is(newId));
+    }
+
+    @Test
+    public void when_snapshot_was_read__then_changes_are_found_against_the_content_read() throws IOException {
+        Snapshot snapshot = SnapshotUtils.readSnapshot(snapshotFile);
+        // written by another run after the snapshot was read
+        Snapshot other = SnapshotUtils.readSnapshot(snapshotFile);
+        other.getPropFileByFileName("src/messages5.properties").putProperty("key", "Changed by other run");
+        SnapshotJournal.compact(other, snapshotFile);
+
+        snapshot.getPropFileByFileName("src/messages1.properties").putProperty("key", "Changed");
+        SnapshotUtils.writeSnapshot(snapshot, configuration);
+        snapshot.getPropFileByFileName("src/messages1.properties").putProperty("added", "New");
+        SnapshotUtils.writeSnapshot(snapshot, configuration);
+
+        assertThat(Files.readAllLines(SnapshotJournal.getJournalFile(snapshotFile), StandardCharsets.UTF_8), contains(
+                "[\"put\",\"src\\\\messages1.properties\",{\"key\":\"Changed\"}]",
+                "[\"put\",\"src\\\\messages1.properties\",{\"added\":\"New\"}]"));
+        Snapshot replayed = SnapshotUtils.readSnapshot(snapshotFile);
+        assertThat(replayed.getPropFileByFileName("src/messages5.properties").getPropertyValue("key"), is("Changed by other run"));
+        assertThat(replayed.getPropFileByFileName("src/messages1.properties").getPropertyValue("added"), is("New"));
+    }
+
+    @Test
+    public void when_snapshot_does_not_change__then_nothing_is_written() throws IOException {
+        SnapshotUtils.writeSnapshot(SnapshotUtils.readSnapshot(snapshotFile), configuration);
+
+        assertThat(Files.exists(SnapshotJournal.getJournalFile(snapshotFile)), is(false));
+    }
+
+    @Test
+    public void when_journal_is_larger_than_snapshot__then_it_is_compacted() throws IOException {
+        Snapshot snapshot = SnapshotUtils.readSnapshot(snapshotFile);
+        for (int i = 0; i < 20; i++) {
+            for (int key = 0; key < 5; key++) {
+                snapshot.getPropFileByFileName("src/messages" + i + ".properties").putProperty("key" + key, "Another message of the file " + i);
+            }
+        }
+        SnapshotUtils.writeSnapshot(snapshot, configuration);
+
+        assertThat(Files.exists(SnapshotJournal.getJournalFile(snapshotFile)), is(false));
+        Snapshot compacted = SnapshotUtils.readSnapshot(snapshotFile);
+        assertThat(compacted.getPropFileByFileName("src/messages19.properties").getPropertyValue("key4"), is("Another message of the file 19"));
+    }
+
+    @Test
+    public void when_last_record_is_incomplete__then_it_is_ignored_and_next_records_are_read() throws IOException {
+        Path journalFile = SnapshotJournal.getJournalFile(snapshotFile);
+        Files.write(journalFile, "[\"put\",\"src\\\\messages1.properties\",{\"key\":\"Lo".getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE);
+        assertThat(SnapshotUtils.readSnapshot(snapshotFile).getPropFileByFileName("src/messages1.properties").getPropertyValue("key"), is("Value of message 1"));
+
+        Snapshot snapshot = SnapshotUtils.readSnapshot(snapshotFile);
+        snapshot.getPropFileByFileName("src/messages3.properties").putProperty("key", "Changed");
+        SnapshotUtils.writeSnapshot(snapshot, configuration);
+
+        Snapshot replayed = SnapshotUtils.readSnapshot(snapshotFile);
+        assertThat(replayed.getPropFileByFileName("src/messages1.properties").getPropertyValue("key"), is("Value of message 1"));
+        assertThat(replayed.getPropFileByFileName("src/messages3.properties").getPropertyValue("key"), is("Changed"));
+    }
+
+}
@@ -1,6 +1,7 @@
 package one.edee.babylon.export;
 
 import lombok.Data;
+import one.edee.babylon.export.dto.ChangedCells;
 import one.edee.babylon.sheets.gsheets.model.ASheet;
 
 import java.util.*;
@@ -34,10 +35,32 @@ public class FakeExporterSheetContractImpl implements Exporter.SheetContract {
             String sheetTitle,
             List<List<String>> sheetRows,
             List<String> lockedCellEditors,
-            Map<String, List<String>> changed) {
+            Map<String, ChangedCells> changed) {
 
         List<ASheet> currentSheets = new ArrayList<>(sheets.getOrDefault(spreadsheetId, new ArrayList<>()));
-        currentSheets.add(new FakeSheet(getAndIncId()));
+        currentSheets.add(new FakeSheet(getAndIncId(), sheetTitle));
+        sheets.put(spreadsheetId, currentSheets);
+    }
+
+    @Override
+    public void updateSheet(
+            String spreadsheetId,
+            ASheet sheet,
+            List<List<String>> sheetRows,
+            List<String> lockedCellEditors,
+            Map<String, ChangedCells> changed) {
+        // sheet keeps its id, contents are not tracked
+    }
+
+    @Override
+    public void replaceSheet(
+            String spreadsheetId,
+            ASheet sheet,
+            List<List<String>> sheetRows,
+            List<String> lockedCellEditors,
+            Map<String, ChangedCells> changed) {
+        List<ASheet> currentSheets = new ArrayList<>(sheets.getOrDefault(spreadsheetId, new ArrayList<>()));
+        currentSheets.replaceAll(existing -> existing.getId().equals(sheet.getId()) ? new FakeSheet(getAndIncId(), sheet.getTitle()) : existing);
         sheets.put(spreadsheetId, currentSheets);
     }
 
@@ -48,14 +71,21 @@ public class FakeExporterSheetContractImpl implements Exporter.SheetContract {
     // Inner class for fake sheet
     public static class FakeSheet implements ASheet {
         private final int sheetId;
+        private final String title;
 
-        public FakeSheet(int sheetId) {
+        public FakeSheet(int sheetId, String title) {
             this.sheetId = sheetId;
+            this.title = title;
         }
 
         @Override
         public Integer getId() {
             return sheetId;
         }
+
+        @Override
+        public String getTitle() {
+            return title;
+        }
     }
 }
\ No newline at end of file
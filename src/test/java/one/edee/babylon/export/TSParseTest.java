@@ -16,6 +16,9 @@ import org.junit.Test;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.regex.Matcher;
@@ -45,6 +48,24 @@ public class TSParseTest {
 
     }
 
+    @Test
+    public void testParseWithoutTreeEqualsTreeWalk() throws IOException {
+        for (String filePath : new String[]{"src/test/resources/META-INF/09_mail_form/messages.ts", "src/test/resources/META-INF/addresses/addresses.ts"}) {
+            TypeScriptParser parser = new TypeScriptParser(new CommonTokenStream(new TypeScriptLexer(CharStreams.fromFileName(filePath))));
+            TypeScriptBabylonParserListener treeListener = new TypeScriptBabylonParserListener();
+            new ParseTreeWalker().walk(treeListener, parser.program());
+
+            TypeScriptBabylonParserListener listener;
+            try (BufferedReader reader = Files.newBufferedReader(Paths.get(filePath))) {
+                listener = TsMessageLoader.readTsFile(reader);
+            }
+
+            Assert.assertEquals(treeListener.getImports(), listener.getImports());
+            Assert.assertEquals(treeListener.getPropertyListDefName(), listener.getPropertyListDefName());
+            Assert.assertEquals(new ArrayList<>(treeListener.getPropertyDefinitions().entrySet()), new ArrayList<>(listener.getPropertyDefinitions().entrySet()));
+        }
+    }
+
     @Test
     public void testRename(){
         String filePath = "some.cs.i18n.ts";
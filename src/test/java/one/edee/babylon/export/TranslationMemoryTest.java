@@ -0,0 +1,53 @@
+package one.edee.babylon.export;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class TranslationMemoryTest {
+
+    private final TranslationMemory memory = new TranslationMemory(Arrays.asList("de", "cs"));
+
+    @Test
+    public void when_text_is_translated__then_translation_is_found_by_the_text() {
+        memory.add("Hello", "de", "Hallo");
+        memory.add("Hello", "de", "Hallo");
+        memory.add("Hello", "cs", "Ahoj");
+
+        assertThat(memory.find("Hello", "de"), equalTo("Hallo"));
+        assertThat(memory.find("Hello", "cs"), equalTo("Ahoj"));
+        assertThat(memory.find("hello", "de"), is(nullValue()));
+        assertThat(memory.find("Hello", "fr"), is(nullValue()));
+        assertThat(memory.size(), equalTo(1));
+    }
+
+    @Test
+    public void when_text_is_translated_differently__then_no_translation_is_offered() {
+        memory.add("Bank", "de", "Bank");
+        memory.add("Bank", "de", "Ufer");
+        memory.add("Bank", "de", "Bank");
+        memory.add("Bank", "cs", "Banka");
+
+        assertThat(memory.find("Bank", "de"), is(nullValue()));
+        assertThat(memory.find("Bank", "cs"), equalTo("Banka"));
+    }
+
+    @Test
+    public void when_translation_is_empty__then_it_is_ignored() {
+        memory.add("Hello", "de", "");
+        memory.add("", "de", "Hallo");
+
+        assertThat(memory.find("Hello", "de"), is(nullValue()));
+        assertThat(memory.size(), equalTo(0));
+    }
+
+    @Test
+    public void when_texts_differ_in_any_character__then_hashes_differ() {
+        assertThat(TranslationMemory.hash("Příliš žluťoučký kůň"), not(equalTo(TranslationMemory.hash("Příliš žluťoučký kůn"))));
+        assertThat(TranslationMemory.hash("ab"), not(equalTo(TranslationMemory.hash("ba"))));
+    }
+
+}
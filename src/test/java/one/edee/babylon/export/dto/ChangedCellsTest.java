@@ -0,0 +1,44 @@
+package one.edee.babylon.export.dto;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class ChangedCellsTest {
+
+    @Test
+    public void when_cells_are_adjacent__then_they_are_merged_into_rectangles() {
+        ChangedCells cells = new ChangedCells();
+        for (int row = 1; row <= 100; row++) {
+            cells.add(row, 2);
+            cells.add(row, 3);
+        }
+        cells.add(5, 4);
+        cells.add(7, 4);
+        cells.remove(50, 2);
+        cells.remove(50, 3);
+        cells.remove(60, 3);
+
+        List<ChangedCells.CellRange> ranges = cells.toRanges();
+
+        assertThat(ranges, contains(
+                range(1, 50, 2, 4),
+                range(51, 101, 2, 3),
+                range(51, 60, 3, 4),
+                range(61, 101, 3, 4),
+                range(5, 6, 4, 5),
+                range(7, 8, 4, 5)
+        ));
+        assertThat(cells.size(), equalTo(199));
+    }
+
+    private static ChangedCells.CellRange range(int startRow, int endRow, int startColumn, int endColumn) {
+        ChangedCells.CellRange range = new ChangedCells.CellRange(startRow, endRow, startColumn);
+        range.setEndColumn(endColumn);
+        return range;
+    }
+
+}
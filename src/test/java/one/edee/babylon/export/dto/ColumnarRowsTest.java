@@ -0,0 +1,53 @@
+package one.edee.babylon.export.dto;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class ColumnarRowsTest {
+
+    private final ColumnarRows rows = ColumnarRows.of(Arrays.asList("key", "primary", "de", "cs"), Arrays.asList(
+            Arrays.asList("greeting", "Hello", "Hallo", null),
+            Arrays.asList("farewell", "Bye")));
+
+    @Test
+    public void when_rows_are_moved_to_columns__then_rows_keep_their_cells() {
+        assertThat(rows, contains(
+                contains("key", "primary", "de", "cs"),
+                contains(equalTo("greeting"), equalTo("Hello"), equalTo("Hallo"), nullValue()),
+                contains("farewell", "Bye")));
+    }
+
+    @Test
+    public void when_cell_of_row_view_is_set__then_the_column_is_changed() {
+        List<String> row = rows.get(1);
+        row.set(3, "Ahoj");
+
+        assertThat(rows.get(1), contains("greeting", "Hello", "Hallo", "Ahoj"));
+    }
+
+    @Test
+    public void when_rows_are_viewed_as_sheet_values__then_nulls_are_empty_strings() {
+        assertThat(rows.asSheetValues().get(1), contains("greeting", "Hello", "Hallo", ""));
+        assertThat(rows.asSheetValues().subList(2, 3), contains(contains("farewell", "Bye")));
+    }
+
+    @Test
+    public void when_row_is_resized__then_added_cells_are_empty_and_removed_cells_are_cleared() {
+        rows.resizeRow(2, 4).set(2, "Tschüss");
+        rows.resizeRow(1, 2);
+
+        assertThat(rows.get(2), contains(equalTo("farewell"), equalTo("Bye"), equalTo("Tschüss"), nullValue()));
+        assertThat(rows.resizeRow(1, 3), contains(equalTo("greeting"), equalTo("Hello"), nullValue()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void when_row_is_wider_than_header__then_it_is_rejected() {
+        ColumnarRows.of(Arrays.asList("key", "primary"), Arrays.asList(Arrays.asList("a", "b", "c")));
+    }
+
+}
@@ -0,0 +1,58 @@
+package one.edee.babylon.export.dto;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class RowStoreTest {
+
+    private final RowStore store = new RowStore(null);
+
+    @After
+    public void tearDown() {
+        store.close();
+    }
+
+    @Test
+    public void when_rows_are_written__then_they_are_read_back_including_null_and_unicode_cells() {
+        RowStore.Segment first = store.write(Arrays.asList(
+                Arrays.asList("key", "primary", "cs"),
+                Arrays.asList("greeting", "Hello", "Příliš žluťoučký kůň"),
+                Arrays.asList("empty", "", null)));
+        RowStore.Segment second = store.write(Collections.singletonList(Collections.singletonList("other")));
+
+        assertThat(store.read(first), contains(
+                contains("key", "primary", "cs"),
+                contains("greeting", "Hello", "Příliš žluťoučký kůň"),
+                contains(equalTo("empty"), equalTo(""), nullValue())));
+        assertThat(store.read(second), contains(contains("other")));
+        assertThat(second.getOffset(), equalTo(first.getLength()));
+    }
+
+    @Test
+    public void when_spilled_sheet_is_changed__then_changes_are_kept_only_after_set_rows() {
+        List<List<String>> rows = new ArrayList<>();
+        rows.add(Arrays.asList("key", "primary", "de"));
+        rows.add(Arrays.asList("greeting", "Hello", ""));
+        TranslationSheet sheet = new TranslationSheet("bundle#0", rows);
+
+        sheet.spillTo(store);
+        List<List<String>> loaded = sheet.getRows();
+        loaded.get(1).set(2, "Hallo");
+        assertThat(sheet.getRows().get(1).get(2), equalTo(""));
+
+        sheet.setRows(loaded);
+        assertThat(sheet.isSpilled(), is(true));
+        assertThat(sheet.getDataRowCount(), equalTo(1));
+        assertThat(sheet.getColumnCount(), equalTo(3));
+        assertThat(sheet.getDataRows(), contains(contains("greeting", "Hello", "Hallo")));
+    }
+
+}
@@ -0,0 +1,175 @@
+package one.edee.babylon.export.translator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import one.edee.babylon.config.HttpConfiguration;
+import one.edee.babylon.http.SharedHttpClient;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class LocalTranslatorTest {
+
+    private static final List<String> PROPERTIES = Arrays.asList(
+            "babylon.local.url", "babylon.local.api", "babylon.local.batchSize", "babylon.local.concurrency");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<JsonNode> requests = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> authorizations = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    /** Number of following chat completions answered by a single merged translation. */
+    private final AtomicInteger mergedAnswers = new AtomicInteger();
+    private final SharedHttpClient httpClient = new SharedHttpClient(new HttpConfiguration());
+    private HttpServer server;
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/translate", exchange -> handle(exchange, this::libreTranslate));
+        server.createContext("/v1/chat/completions", exchange -> handle(exchange, this::chatCompletion));
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        System.setProperty("babylon.local.url", "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/");
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+        httpClient.close();
+        PROPERTIES.forEach(System::clearProperty);
+    }
+
+    @Test
+    public void when_texts_exceed_batch_size__then_batches_are_sent_in_parallel_and_order_is_kept() {
+        System.setProperty("babylon.local.batchSize", "3");
+        System.setProperty("babylon.local.concurrency", "2");
+        LocalTranslator translator = new LocalTranslator(httpClient);
+        translator.init("secret");
+
+        List<String> translated = translator.translate("en", texts(8), "de");
+
+        assertThat(translated, contains("de:text0", "de:text1", "de:text2", "de:text3", "de:text4", "de:text5", "de:text6", "de:text7"));
+        assertThat(requests, hasSize(3));
+        assertThat(maxRunning.get(), lessThanOrEqualTo(2));
+        for (JsonNode request : requests) {
+            assertThat(request.path("api_key").asText(), equalTo("secret"));
+            assertThat(request.path("source").asText(), equalTo("en"));
+            assertThat(request.path("q").size(), lessThanOrEqualTo(3));
+        }
+    }
+
+    @Test
+    public void when_openai_api_is_used__then_batch_is_sent_as_json_array() {
+        System.setProperty("babylon.local.api", "openai");
+        System.setProperty("babylon.local.batchSize", "4");
+        LocalTranslator translator = new LocalTranslator(httpClient);
+        translator.init("-");
+
+        List<String> translated = translator.translate("en", Arrays.asList("a", "b \"quoted\"", "c"), "cs");
+
+        assertThat(translated, contains("cs:a", "cs:b \"quoted\"", "cs:c"));
+        assertThat(requests, hasSize(1));
+        assertThat(authorizations, contains(""));
+    }
+
+    @Test
+    public void when_model_merges_texts__then_they_are_translated_one_by_one() {
+        System.setProperty("babylon.local.api", "openai");
+        mergedAnswers.set(1);
+        LocalTranslator translator = new LocalTranslator(httpClient);
+        translator.init("key");
+
+        List<String> translated = translator.translate("en", texts(3), "de");
+
+        assertThat(translated, contains("de:text0", "de:text1", "de:text2"));
+        assertThat(requests, hasSize(4));
+        assertThat(authorizations, everyItem(equalTo("Bearer key")));
+    }
+
+    @Test(expected = TranslatorException.class)
+    public void when_server_fails__then_exception_is_thrown() {
+        System.setProperty("babylon.local.url", "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/missing");
+        LocalTranslator translator = new LocalTranslator(httpClient);
+        translator.init("-");
+
+        translator.translate("en", texts(2), "de");
+    }
+
+    private static List<String> texts(int count) {
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            texts.add("text" + i);
+        }
+        return texts;
+    }
+
+    private JsonNode libreTranslate(JsonNode request) {
+        ObjectNode response = objectMapper.createObjectNode();
+        ArrayNode translated = response.putArray("translatedText");
+        request.path("q").forEach(text -> translated.add(request.path("target").asText() + ":" + text.asText()));
+        return response;
+    }
+
+    private JsonNode chatCompletion(JsonNode request) throws IOException {
+        String system = request.path("messages").path(0).path("content").asText();
+        String lang = system.substring(system.indexOf(" to ") + 4, system.indexOf('.'));
+        JsonNode texts = objectMapper.readTree(request.path("messages").path(1).path("content").asText());
+        ArrayNode translated = objectMapper.createArrayNode();
+        if (texts.size() > 1 && mergedAnswers.getAndDecrement() > 0) {
+            translated.add(lang + ":merged");
+        } else {
+            texts.forEach(text -> translated.add(lang + ":" + text.asText()));
+        }
+        ObjectNode response = objectMapper.createObjectNode();
+        response.putArray("choices").addObject().putObject("message")
+                .put("role", "assistant")
+                .put("content", "Here are the translations:\n" + objectMapper.writeValueAsString(translated));
+        return response;
+    }
+
+    private void handle(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        int now = running.incrementAndGet();
+        maxRunning.accumulateAndGet(now, Math::max);
+        try {
+            JsonNode request = objectMapper.readTree(IOUtils.toByteArray(exchange.getRequestBody()));
+            requests.add(request);
+            authorizations.add(Optional.ofNullable(exchange.getRequestHeaders().getFirst("Authorization")).orElse(""));
+            // let the other batches arrive meanwhile
+            Thread.sleep(50);
+            byte[] body = objectMapper.writeValueAsBytes(endpoint.respond(request));
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.sendResponseHeaders(500, -1);
+        } finally {
+            running.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private interface Endpoint {
+        JsonNode respond(JsonNode request) throws IOException;
+    }
+
+}
@@ -0,0 +1,144 @@
+package one.edee.babylon.export.translator;
+
+import one.edee.babylon.config.SupportedTranslators;
+import one.edee.babylon.config.TranslatorResilienceConfiguration;
+import one.edee.babylon.metrics.RunMetrics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class ResilientTranslatorTest {
+
+    private final TranslatorResilienceConfiguration configuration = new TranslatorResilienceConfiguration();
+    private final RunMetrics metrics = new RunMetrics();
+    private final List<Long> sleeps = new ArrayList<>();
+    private final ScriptedTranslator delegate = new ScriptedTranslator();
+    private long now;
+    private ResilientTranslator translator;
+
+    @Before
+    public void setUp() {
+        configuration.setMaxAttempts(4);
+        configuration.setInitialBackoffMillis(100);
+        configuration.setMaxBackoffMillis(10_000);
+        configuration.setCircuitBreakerThreshold(2);
+        configuration.setCircuitBreakerOpenSeconds(60);
+        translator = new ResilientTranslator(delegate, configuration, metrics, millis -> {
+            sleeps.add(millis);
+            now += millis;
+        }, () -> now);
+    }
+
+    @Test
+    public void when_service_throttles__then_call_is_retried_after_requested_delay() {
+        delegate.failures.add(TranslatorException.ofStatus("slow down", 429, "3", null));
+        delegate.failures.add(TranslatorException.ofStatus("unavailable", 503, null, null));
+
+        List<String> translated = translator.translate("en", Arrays.asList("a", "b"), "de");
+
+        assertThat(translated, contains("de:a", "de:b"));
+        assertThat(delegate.calls, equalTo(3));
+        assertThat(sleeps, hasSize(2));
+        assertThat(sleeps.get(0), equalTo(3000L));
+        // second retry waits 100 * 2 ms with jitter
+        assertThat(sleeps.get(1), allOf(greaterThanOrEqualTo(100L), lessThanOrEqualTo(200L)));
+        assertThat(metrics.getRegistry().counter(RunMetrics.TRANSLATOR_RETRIES, "translator", "LOCAL").count(), equalTo(2.0));
+    }
+
+    @Test
+    public void when_failure_is_not_retryable__then_texts_are_left_untranslated_without_retry() {
+        delegate.failures.add(TranslatorException.ofStatus("forbidden", 403, null, null));
+
+        List<String> translated = translator.translate("en", Arrays.asList("a", "b"), "de");
+
+        assertThat(translated, is(nullValue()));
+        assertThat(delegate.calls, equalTo(1));
+        assertThat(sleeps, is(empty()));
+        assertThat(metrics.getRegistry().counter(RunMetrics.TRANSLATOR_UNTRANSLATED, "translator", "LOCAL").count(), equalTo(2.0));
+    }
+
+    @Test
+    public void when_translator_returns_wrong_number_of_texts__then_they_are_left_untranslated() {
+        delegate.dropLast = true;
+
+        assertThat(translator.translate("en", Arrays.asList("a", "b"), "de"), is(nullValue()));
+        assertThat(delegate.calls, equalTo(1));
+    }
+
+    @Test
+    public void when_calls_fail_repeatedly__then_circuit_opens_and_trial_call_closes_it() {
+        for (int i = 0; i < 2 * configuration.getMaxAttempts(); i++) {
+            delegate.failures.add(new IllegalStateException("connection reset"));
+        }
+        assertThat(translator.translate("en", Collections.singletonList("a"), "de"), is(nullValue()));
+        assertThat(translator.translate("en", Collections.singletonList("a"), "cs"), is(nullValue()));
+        int callsWhenOpened = delegate.calls;
+        assertThat(callsWhenOpened, equalTo(2 * configuration.getMaxAttempts()));
+
+        // open circuit does not call the translator and does not wait
+        int sleepCount = sleeps.size();
+        assertThat(translator.translate("en", Collections.singletonList("a"), "fr"), is(nullValue()));
+        assertThat(delegate.calls, equalTo(callsWhenOpened));
+        assertThat(sleeps, hasSize(sleepCount));
+
+        now += Duration.ofSeconds(configuration.getCircuitBreakerOpenSeconds()).toMillis();
+        assertThat(translator.translate("en", Collections.singletonList("a"), "fr"), contains("fr:a"));
+        assertThat(translator.translate("en", Collections.singletonList("b"), "fr"), contains("fr:b"));
+    }
+
+    @Test
+    public void when_service_throttles__then_concurrency_limit_is_halved_and_recovers() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8);
+
+        limiter.onThrottled();
+        limiter.onThrottled();
+        assertThat(limiter.getLimit(), equalTo(2));
+
+        // additive increase - the limit grows by one after as many successes as it is
+        for (int i = 0; i < 6; i++) {
+            limiter.onSuccess();
+        }
+        assertThat(limiter.getLimit(), equalTo(4));
+    }
+
+    @Test
+    public void when_retry_after_is_http_date__then_it_is_parsed() {
+        assertThat(TranslatorException.parseRetryAfter("120"), equalTo(Duration.ofSeconds(120)));
+        assertThat(TranslatorException.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT"), equalTo(Duration.ZERO));
+        assertThat(TranslatorException.parseRetryAfter("soon"), is(nullValue()));
+    }
+
+    private static class ScriptedTranslator implements Translator {
+        private final Deque<RuntimeException> failures = new ArrayDeque<>();
+        private boolean dropLast;
+        private int calls;
+
+        @Override
+        public void init(@NotNull String apiKey) {
+        }
+
+        @Override
+        public List<String> translate(@Nullable String defaultLang, @NotNull List<String> originals, @NotNull String lang) {
+            calls++;
+            if (!failures.isEmpty()) {
+                throw failures.poll();
+            }
+            List<String> result = originals.stream().map(text -> lang + ":" + text).collect(Collectors.toList());
+            return dropLast ? result.subList(0, result.size() - 1) : result;
+        }
+
+        @Override
+        public SupportedTranslators getSupportedTranslator() {
+            return SupportedTranslators.LOCAL;
+        }
+    }
+
+}
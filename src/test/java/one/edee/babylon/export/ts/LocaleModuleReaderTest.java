@@ -0,0 +1,70 @@
+package one.edee.babylon.export.ts;
+
+import one.edee.babylon.export.ts.gen.TypeScriptLexer;
+import one.edee.babylon.export.ts.gen.TypeScriptParser;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.tree.ParseTreeWalker;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+public class LocaleModuleReaderTest {
+
+    private static final String MUTATION = "import type { LangDef } from '@edeeone/juan-core/i18n/LangDef';\n" +
+            "import type messages from './messages';\n" +
+            "\n" +
+            "const messagesEn: LangDef<typeof messages> = {\n" +
+            "  'first': 'It\\'s',\n" +
+            "  second: \"Two\", // comment\n" +
+            "  [Keys.third]: `Multi\n" +
+            "line ${count}`,\n" +
+            "  default: 'Keyword',\n" +
+            "  1: 'Number',\n" +
+            "  'first': 'Again',\n" +
+            "};\n" +
+            "export default messagesEn;";
+
+    @Test
+    public void when_file_is_locale_module__then_definitions_are_the_same_as_by_full_grammar() throws IOException {
+        assertSameDefinitions(MUTATION);
+        assertSameDefinitions("/* header */\nimport { AddressType, Other } from '../graphql/types.codegen'\nexport default {\n  a: 'x'\n}");
+        assertSameDefinitions("const empty = {};");
+        for (String file : new String[]{"09_mail_form/messages.ts", "addresses/addresses.ts", "goPayGate/Listing.cs.i18n.ts"}) {
+            assertSameDefinitions(new String(java.nio.file.Files.readAllBytes(Paths.get("src/test/resources/META-INF", file)), "UTF-8"));
+        }
+    }
+
+    @Test
+    public void when_file_has_other_shape__then_it_is_not_read() {
+        assertThat(LocaleModuleReader.read(CharStreams.fromString("const m = { a: 'x' + 'y' };")), is(nullValue()));
+        assertThat(LocaleModuleReader.read(CharStreams.fromString("const m = { a };")), is(nullValue()));
+        assertThat(LocaleModuleReader.read(CharStreams.fromString("const m = { [`a${ b }`]: 'x' };")), is(nullValue()));
+        assertThat(LocaleModuleReader.read(CharStreams.fromString("const m = { [a]: 'x:y' };")), is(nullValue()));
+        assertThat(LocaleModuleReader.read(CharStreams.fromString("const m = { a: 'x' };\nconst n = { b: 'y' };")), is(nullValue()));
+    }
+
+    private static void assertSameDefinitions(String file) {
+        TypeScriptBabylonParserListener localeModule = LocaleModuleReader.read(CharStreams.fromString(file));
+        assertThat(localeModule, is(notNullValue()));
+
+        TypeScriptParser parser = new TypeScriptParser(new CommonTokenStream(new TypeScriptLexer(CharStreams.fromString(file))));
+        TypeScriptBabylonParserListener full = new TypeScriptBabylonParserListener();
+        new ParseTreeWalker().walk(full, parser.program());
+
+        assertThat(localeModule.getImports(), is(full.getImports()));
+        assertThat(localeModule.getPropertyListDefName(), is(full.getPropertyListDefName()));
+        assertThat(new ArrayList<>(localeModule.getPropertyDefinitions().entrySet()), is(new ArrayList<>(full.getPropertyDefinitions().entrySet())));
+        assertThat(localeModule.getPropertyOffsets().keySet(), is(full.getPropertyOffsets().keySet()));
+        full.getPropertyOffsets().forEach((key, offsets) -> assertArrayEquals(key, offsets, localeModule.getPropertyOffsets().get(key)));
+    }
+
+}
@@ -0,0 +1,55 @@
+package one.edee.babylon.http;
+
+import one.edee.babylon.config.HttpConfiguration;
+import one.edee.babylon.metrics.RunMetrics;
+import one.edee.babylon.sheets.gsheets.FakeGSheetsClient;
+import one.edee.babylon.sheets.gsheets.FakeSheetsApiServer;
+import one.edee.babylon.sheets.gsheets.GSheetApiRequestFactory;
+import one.edee.babylon.sheets.gsheets.LightGSheetService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class SharedHttpClientTest {
+
+    private FakeSheetsApiServer server;
+    private SharedHttpClient httpClient;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new FakeSheetsApiServer();
+        server.createSpreadsheet("spreadsheet");
+        httpClient = new SharedHttpClient(new HttpConfiguration());
+    }
+
+    @After
+    public void tearDown() {
+        httpClient.close();
+        server.close();
+    }
+
+    @Test
+    public void when_sheets_are_accessed_through_shared_transport__then_data_round_trip_over_one_pooled_connection() throws Exception {
+        LightGSheetService service = new LightGSheetService(new GSheetApiRequestFactory(),
+                new FakeGSheetsClient(server, httpClient.getTransport()), new RunMetrics());
+        List<List<String>> rows = Arrays.asList(
+                Arrays.asList("key", "primary", "de"),
+                Arrays.asList("k1", "Hello", "Hallo"),
+                Arrays.asList("k2", "Žluťoučký kůň", ""));
+
+        service.uploadDataToGoogleSheet("spreadsheet", "bundle#0", rows);
+        List<List<String>> loaded = service.loadSheetValues("spreadsheet", "bundle#0");
+
+        assertThat(loaded.get(1), equalTo(rows.get(1)));
+        assertThat(loaded.get(2).subList(0, 2), equalTo(rows.get(2).subList(0, 2)));
+        assertThat(server.getTotalRequestCount() > 2, equalTo(true));
+        assertThat(httpClient.getClient().connectionPool().connectionCount(), equalTo(1));
+    }
+
+}
@@ -0,0 +1,53 @@
+package one.edee.babylon.imp0rt;
+
+import com.google.api.services.sheets.v4.model.CellData;
+import com.google.api.services.sheets.v4.model.RowData;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class GridDecoderTest {
+
+    private final List<String> stored = new ArrayList<>();
+    private final MessageWriter messageWriter = new MessageWriter() {
+        @Override
+        public void storePrimaryMessage(String msgKey, String msgValue) {
+            stored.add(msgKey + "=" + msgValue);
+        }
+
+        @Override
+        public void storeTranslation(String language, String msgKey, String msgValue) {
+            stored.add(language + ":" + msgKey + "=" + msgValue);
+        }
+    };
+
+    @Test
+    public void when_grid_is_decoded__then_cells_are_stored_by_language_of_their_column_and_empty_rows_are_skipped() {
+        List<RowData> rows = Arrays.asList(
+                row("key", "primary", "de", "cs"),
+                row("greeting", "Hello", "Hallo", null),
+                row(null, "null", null),
+                new RowData(),
+                row("farewell", "Bye", "Tschüss", "Ahoj", "extra"));
+
+        new GridDecoder(rows.get(0)).decode(rows, messageWriter);
+
+        assertThat(stored, contains(
+                "greeting=Hello", "de:greeting=Hallo", "cs:greeting=null",
+                "farewell=Bye", "de:farewell=Tschüss", "cs:farewell=Ahoj", "null:farewell=extra"));
+    }
+
+    private static RowData row(String... values) {
+        List<CellData> cells = new ArrayList<>();
+        for (String value : values) {
+            cells.add(new CellData().setFormattedValue(value));
+        }
+        return new RowData().setValues(cells);
+    }
+
+}
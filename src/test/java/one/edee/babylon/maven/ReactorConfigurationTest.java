@@ -0,0 +1,66 @@
+package one.edee.babylon.maven;
+
+import one.edee.babylon.config.TranslationConfiguration;
+import one.edee.babylon.config.TranslationConfigurationReader;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ReactorConfigurationTest {
+
+    private Path root;
+
+    @Before
+    public void createReactor() throws IOException {
+        root = Files.createTempDirectory(ReactorConfigurationTest.class.getSimpleName()).toRealPath();
+        writeConfiguration(root, "\"root/*.properties\"");
+        writeConfiguration(root.resolve("module-a"), "\"src/**/*.properties\", \"file:other.ts\", \"classpath:META-INF/*.properties\", \"root/*.properties\"");
+        writeConfiguration(root.resolve("module-b"), "\"root/*.properties\"");
+        Files.createDirectories(root.resolve("module-c"));
+    }
+
+    @After
+    public void deleteReactor() {
+        FileUtils.deleteQuietly(root.toFile());
+    }
+
+    @Test
+    public void when_modules_have_configuration__then_their_paths_are_added_relative_to_the_module() throws IOException {
+        String configFileName = root.resolve("babylon.json").toString();
+        TranslationConfiguration configuration = new TranslationConfigurationReader().readAndCheckConfiguration(configFileName);
+
+        ReactorConfiguration.merge(configuration, configFileName, Arrays.asList(
+                root.toFile(), root.resolve("module-a").toFile(), root.resolve("module-b").toFile(), root.resolve("module-c").toFile()));
+
+        File moduleA = root.resolve("module-a").toFile();
+        File moduleB = root.resolve("module-b").toFile();
+        assertThat(configuration.getPath(), contains(
+                "root/*.properties",
+                new File(moduleA, "src/**/*.properties").getPath(),
+                new File(moduleA, "other.ts").getPath(),
+                "classpath:META-INF/*.properties",
+                new File(moduleA, "root/*.properties").getPath(),
+                new File(moduleB, "root/*.properties").getPath()));
+        assertThat(configuration.getDataFileName(), is("root.json"));
+    }
+
+    private void writeConfiguration(Path directory, String paths) throws IOException {
+        Files.createDirectories(directory);
+        String json = "{\"path\": [" + paths + "], \"dataFileName\": \"" + (directory.equals(root) ? "root" : directory.getFileName()) + ".json\", " +
+                "\"mutations\": [\"en\"], \"defaultLang\": \"cs\"}";
+        Files.write(directory.resolve("babylon.json"), json.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,118 @@
+package one.edee.babylon.properties;
+
+import one.edee.babylon.enums.PropertyType;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class PropertyFileSplicerTest {
+
+    @Test
+    public void when_values_change__then_only_values_are_replaced() throws IOException {
+        PropertyFileActiveRecord record = load(
+                "# kept as it is\n" +
+                "first = One\n" +
+                "\n" +
+                "  second:x=Two  \n");
+        PropertyFileActiveRecord properties = copy(record);
+        properties.get("first").setValue("First");
+
+        assertThat(record.patch(properties, null), is(
+                "# kept as it is\n" +
+                "first = First\n" +
+                "\n" +
+                "  second:x=Two  \n"));
+    }
+
+    @Test
+    public void when_nothing_changes__then_content_is_the_same() throws IOException {
+        String content = "first=One\r\n" +
+                "multi=a\\\r\n" +
+                "    b\\\r\n" +
+                "    c\r\n" +
+                "last = Last";
+        PropertyFileActiveRecord record = load(content);
+
+        assertThat(record.patch(copy(record), null), is(content));
+    }
+
+    @Test
+    public void when_keys_are_added_and_removed__then_lines_are_inserted_and_deleted() throws IOException {
+        PropertyFileActiveRecord record = load(
+                "first=One\n" +
+                "second=Two\n" +
+                "# comment\n" +
+                "third=Three\n");
+        PropertyFileActiveRecord properties = new PropertyFileActiveRecord();
+        properties.put("zero", new Property(PropertyType.VALUE, "Zero"));
+        properties.put("first", record.get("first"));
+        properties.put("between", new Property(PropertyType.VALUE, "Between"));
+        properties.put("3", new Property(PropertyType.COMMENT, "# not written"));
+        properties.put("third", record.get("third"));
+
+        assertThat(record.patch(properties, null), is(
+                "zero=Zero\n" +
+                "first=One\n" +
+                "between=Between\n" +
+                "# comment\n" +
+                "third=Three\n"));
+    }
+
+    @Test
+    public void when_last_line_has_no_separator__then_it_is_added_to_inserted_and_removed_lines() throws IOException {
+        PropertyFileActiveRecord record = load(
+                "first=One\n" +
+                "second=Two");
+        PropertyFileActiveRecord removed = new PropertyFileActiveRecord();
+        removed.put("first", record.get("first"));
+        PropertyFileActiveRecord added = copy(record);
+        added.put("third", new Property(PropertyType.VALUE, "Three"));
+
+        assertThat(record.patch(removed, null), is("first=One"));
+        assertThat(record.patch(added, null), is(
+                "first=One\n" +
+                "second=Two\n" +
+                "third=Three"));
+    }
+
+    @Test
+    public void when_multiline_value_changes__then_its_lines_are_replaced() throws IOException {
+        PropertyFileActiveRecord record = load(
+                "multi = a\\\n" +
+                "  b\n" +
+                "next=Next\n");
+        PropertyFileActiveRecord properties = copy(record);
+        properties.put("multi", new Property(PropertyType.VALUE, "ab"));
+
+        assertThat(record.patch(properties, null), is(
+                "multi = ab\n" +
+                "next=Next\n"));
+    }
+
+    @Test
+    public void when_key_repeats_or_file_was_not_loaded__then_file_has_to_be_saved() throws IOException {
+        PropertyFileActiveRecord record = load(
+                "first=One\n" +
+                "first=Two\n");
+
+        assertThat(record.patch(copy(record), null), is(nullValue()));
+        assertThat(new PropertyFileActiveRecord().patch(record, null), is(nullValue()));
+    }
+
+    private static PropertyFileActiveRecord load(String content) throws IOException {
+        PropertyFileActiveRecord record = new PropertyFileActiveRecord();
+        record.load(new StringReader(content));
+        return record;
+    }
+
+    private static PropertyFileActiveRecord copy(PropertyFileActiveRecord record) {
+        PropertyFileActiveRecord copy = new PropertyFileActiveRecord();
+        copy.putAll(record);
+        return copy;
+    }
+
+}
@@ -0,0 +1,132 @@
+package one.edee.babylon.properties;
+
+import one.edee.babylon.enums.PropertyType;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class TsFileSplicerTest {
+
+    private static final String HEADER = "import type { LangDef } from '@edeeone/juan-core/i18n/LangDef';\n" +
+            "import type messages from './messages';\n" +
+            "\n" +
+            "// kept as it is\n" +
+            "const messagesEn: LangDef<typeof messages> = {\n";
+    private static final String FOOTER = "};\n" +
+            "export default messagesEn;";
+
+    private Path directory;
+    private String primaryFile;
+
+    @Before
+    public void writePrimaryFile() throws IOException {
+        directory = Files.createTempDirectory(TsFileSplicerTest.class.getSimpleName());
+        primaryFile = directory.resolve("messages.ts").toString();
+        writePrimaryFile("");
+    }
+
+    @After
+    public void deleteDirectory() {
+        FileUtils.deleteQuietly(directory.toFile());
+    }
+
+    @Test
+    public void when_values_change__then_only_values_are_replaced() throws IOException {
+        TsFileActiveRecord record = load(
+                "    'first': 'One',\n" +
+                "    [Keys.second]: 'Two', // comment\n");
+        TsFileActiveRecord properties = copy(record);
+        properties.get("first").setValue("First");
+
+        assertThat(record.patch(properties, primaryFile), is(HEADER +
+                "    'first': 'First',\n" +
+                "    [Keys.second]: 'Two', // comment\n" +
+                FOOTER));
+    }
+
+    @Test
+    public void when_keys_are_added_and_removed__then_lines_are_inserted_and_deleted() throws IOException {
+        TsFileActiveRecord record = load(
+                "    'first': 'One',\n" +
+                "    'second': 'Two',\n" +
+                "    'third': 'Three',\n");
+        TsFileActiveRecord properties = new TsFileActiveRecord();
+        properties.put("zero", new TsAttribute(PropertyType.VALUE, "Zero"));
+        properties.put("first", record.get("first"));
+        properties.put("between", new TsAttribute(PropertyType.VALUE, "It's"));
+        properties.put("[Keys.computed]", new TsAttribute(PropertyType.VALUE, "Computed"));
+        properties.put("third", record.get("third"));
+
+        assertThat(record.patch(properties, primaryFile), is(HEADER +
+                "    'zero': 'Zero',\n" +
+                "    'first': 'One',\n" +
+                "    'between': 'It\\'s',\n" +
+                "    [Keys.computed]: 'Computed',\n" +
+                "    'third': 'Three',\n" +
+                FOOTER));
+    }
+
+    @Test
+    public void when_property_does_not_occupy_whole_line__then_file_cannot_be_patched() throws IOException {
+        TsFileActiveRecord record = load("    'first': 'One', 'second': 'Two',\n");
+        TsFileActiveRecord properties = new TsFileActiveRecord();
+        properties.put("first", record.get("first"));
+
+        assertThat(record.patch(properties, primaryFile), is(nullValue()));
+    }
+
+    @Test
+    public void when_record_was_not_loaded__then_file_cannot_be_patched() {
+        TsFileActiveRecord properties = new TsFileActiveRecord();
+        properties.put("first", new TsAttribute(PropertyType.VALUE, "One"));
+
+        assertThat(new TsFileActiveRecord().patch(properties, primaryFile), is(nullValue()));
+    }
+
+    @Test
+    public void when_primary_file_has_other_imports__then_file_is_generated_again() throws IOException {
+        TsFileActiveRecord record = load("    'first': 'One',\n");
+        writePrimaryFile("import { AddressType } from './AddressType';\n");
+        TsFileActiveRecord properties = copy(record);
+        properties.put("[`Addresses.${AddressType.BILLING}Addresses`]", new TsAttribute(PropertyType.VALUE, "Billing"));
+
+        assertThat(record.patch(properties, primaryFile), is(nullValue()));
+        StringWriter writer = new StringWriter();
+        properties.save(writer, primaryFile, "en");
+        assertThat(writer.toString(), startsWith("import {AddressType}from'./AddressType';"));
+        assertThat(writer.toString(), containsString("[`Addresses.${AddressType.BILLING}Addresses`]: 'Billing',"));
+    }
+
+    private void writePrimaryFile(String imports) throws IOException {
+        String content = imports +
+                "const messages = {\n" +
+                "    'first': 'One',\n" +
+                "};\n" +
+                "export default messages;";
+        Files.write(directory.resolve("messages.ts"), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static TsFileActiveRecord load(String properties) throws IOException {
+        TsFileActiveRecord record = new TsFileActiveRecord();
+        record.load(new StringReader(HEADER + properties + FOOTER));
+        return record;
+    }
+
+    private static TsFileActiveRecord copy(TsFileActiveRecord record) {
+        TsFileActiveRecord copy = new TsFileActiveRecord();
+        record.forEach((key, property) -> copy.put(key, new TsAttribute(property.getType(), property.getValue())));
+        return copy;
+    }
+
+}
@@ -0,0 +1,512 @@
+package one.edee.babylon.sheets.gsheets;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.apachecommons.CommonsLog;
+import one.edee.babylon.config.ShardConfiguration;
+import one.edee.babylon.config.ShardStrategy;
+import one.edee.babylon.config.TranslationConfiguration;
+import one.edee.babylon.db.SnapshotManager;
+import one.edee.babylon.export.*;
+import one.edee.babylon.imp0rt.ImportProcessor;
+import one.edee.babylon.export.stats.MessageFileExportStats;
+import one.edee.babylon.metrics.RunMetrics;
+import one.edee.babylon.properties.FileActiveRecord;
+import one.edee.babylon.properties.FileLoader;
+import one.edee.babylon.properties.PropertyFileLoader;
+import one.edee.babylon.properties.TsFileLoader;
+import one.edee.babylon.report.RunReport;
+import one.edee.babylon.sheets.SheetConstants;
+import one.edee.babylon.snapshot.SnapshotAdapter;
+import one.edee.babylon.util.spring.SpringResourceLoader;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs full export and import cycles against {@link FakeSheetsApiServer} and reports number of round trips and wall time.
+ *
+ * Size of the generated project can be tuned by system properties, e.g. for 1k sheet spreadsheet with simulated network:
+ * {@code mvn test -Dtest=ExportImportRoundTripTest -Dbabylon.harness.sheets=1000 -Dbabylon.harness.latency=20}
+ */
+@CommonsLog
+public class ExportImportRoundTripTest {
+
+    private static final String SPREADSHEET_ID = "harness-spreadsheet";
+    private static final String LANG = "de";
+
+    private final int sheetCount = Integer.getInteger("babylon.harness.sheets", 20);
+    private final int keyCount = Integer.getInteger("babylon.harness.keys", 20);
+    private final long latency = Long.getLong("babylon.harness.latency", 0L);
+
+    private FakeSheetsApiServer server;
+    private RunMetrics metrics;
+    private LightGSheetService lightGSheetService;
+    private Path testDir;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new FakeSheetsApiServer().withLatency(latency);
+        server.createSpreadsheet(SPREADSHEET_ID);
+        metrics = new RunMetrics();
+        lightGSheetService = new LightGSheetService(new GSheetApiRequestFactory(), new FakeGSheetsClient(server), metrics);
+        testDir = Files.createTempDirectory(ExportImportRoundTripTest.class.getSimpleName());
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+        FileUtils.deleteQuietly(testDir.toFile());
+    }
+
+    @Test
+    public void when_project_is_exported_translated_and_imported__then_translations_are_written_to_message_files() throws Exception {
+        TranslationConfiguration configuration = createConfiguration(generateMessageFiles(sheetCount, keyCount));
+
+        long start = System.currentTimeMillis();
+        RunReport exportReport = RunReport.ofExport(export(configuration)).withMetrics(metrics);
+        long exportTime = System.currentTimeMillis() - start;
+        report("export", exportTime);
+        assertThat("Every API round trip is measured",
+                metrics.getRegistry().find(RunMetrics.SHEETS_API_CALLS).timers().stream().mapToLong(Timer::count).sum(),
+                equalTo((long) server.getTotalRequestCount()));
+        assertThat("Run report contains every exported file", exportReport.getFiles(), hasSize(sheetCount));
+        assertThat("...with API calls attributed to the file", exportReport.getFiles().get(0).getApiCalls(), greaterThan(0L));
+        assertThat("...and the phase breakdown", exportReport.getPhases().keySet(), hasItems("export.collect", "export.upload"));
+
+        List<FakeSheetsApiServer.FakeSheet> sheets = server.getSpreadsheet(SPREADSHEET_ID).getSheets();
+        assertThat("Every message file should have its own sheet and the default sheet should be deleted", sheets, hasSize(sheetCount));
+        assertThat("Sheet contains header and the keys missing translation", sheets.get(0).getValues(), hasSize(keyCount / 2 + 1));
+        translateInSheets(sheets);
+
+        server.resetCounters();
+        start = System.currentTimeMillis();
+        new ImportProcessor(lightGSheetService, new SnapshotManager(configuration.getSnapshotPath()), fileLoaders(), configuration, metrics, path -> {})
+                .doImport(SPREADSHEET_ID);
+        long importTime = System.currentTimeMillis() - start;
+        report("import", importTime);
+
+        PropertyFileLoader loader = new PropertyFileLoader();
+        for (int i = 0; i < sheetCount; i++) {
+            FileActiveRecord translated = loader.loadPropertiesFromFile(testDir.resolve("bundle" + i + "_" + LANG + ".properties").toString());
+            for (int j = 0; j < keyCount; j++) {
+                String expected = j % 2 == 0 ? "Existing " + i + " " + j : "Translated Text " + i + " " + j;
+                assertThat(translated.get("key." + j).getValue(), equalTo(expected));
+            }
+        }
+    }
+
+    @Test
+    public void when_sheets_are_imported_in_parallel__then_bad_sheet_does_not_stop_import_of_the_others() throws Exception {
+        TranslationConfiguration configuration = createConfiguration(generateMessageFiles(6, 4));
+        configuration.setImportThreads(4);
+        export(configuration);
+        List<FakeSheetsApiServer.FakeSheet> sheets = server.getSpreadsheet(SPREADSHEET_ID).getSheets();
+        translateInSheets(sheets);
+        server.getSpreadsheet(SPREADSHEET_ID).addSheet("notes", 1, 1).setValue(0, 0, "key");
+
+        try {
+            new ImportProcessor(lightGSheetService, new SnapshotManager(configuration.getSnapshotPath()), fileLoaders(), configuration, metrics, path -> {})
+                    .doImport(SPREADSHEET_ID);
+            fail("Import should report the sheet that could not be imported");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), containsString("Import of 1 of 7 sheets failed"));
+            assertThat(e.getMessage(), containsString("\"notes\""));
+        }
+
+        PropertyFileLoader loader = new PropertyFileLoader();
+        for (int i = 0; i < 6; i++) {
+            FileActiveRecord translated = loader.loadPropertiesFromFile(testDir.resolve("bundle" + i + "_" + LANG + ".properties").toString());
+            assertThat(translated.get("key.1").getValue(), equalTo("Translated Text " + i + " 1"));
+            assertThat(translated.get("key.2").getValue(), equalTo("Existing " + i + " 2"));
+        }
+    }
+
+    @Test
+    public void when_sheets_are_spilled_to_disk__then_the_same_rows_are_uploaded() throws Exception {
+        TranslationConfiguration configuration = createConfiguration(generateMessageFiles(4, 6));
+        configuration.setSpillSheets(true);
+        configuration.setSpillDirectory(testDir.toString());
+
+        export(configuration);
+
+        List<FakeSheetsApiServer.FakeSheet> sheets = server.getSpreadsheet(SPREADSHEET_ID).getSheets();
+        assertThat(sheets, hasSize(4));
+        assertThat(sheets.get(0).getValues(), containsInAnyOrder(
+                contains("key", "primary", LANG),
+                contains("key.1", "Text 0 1"),
+                contains("key.3", "Text 0 3"),
+                contains("key.5", "Text 0 5")
+        ));
+        try (Stream<Path> files = Files.list(testDir)) {
+            assertThat("Spill file is deleted after the export", files.filter(file -> file.toString().endsWith(".bin")).count(), equalTo(0L));
+        }
+    }
+
+    @Test
+    public void when_export_is_sharded__then_sheets_are_split_among_spreadsheets_and_imported_from_all_of_them() throws Exception {
+        String shardId = "harness-shard";
+        server.createSpreadsheet(shardId);
+        TranslationConfiguration configuration = createConfiguration(generateMessageFiles(6, 4));
+        ShardConfiguration shard = new ShardConfiguration();
+        shard.setSpreadsheetId(shardId);
+        configuration.setShards(Collections.singletonList(shard));
+        configuration.setShardStrategy(ShardStrategy.SIZE);
+
+        export(configuration);
+
+        List<FakeSheetsApiServer.FakeSheet> mainSheets = server.getSpreadsheet(SPREADSHEET_ID).getSheets();
+        List<FakeSheetsApiServer.FakeSheet> shardSheets = server.getSpreadsheet(shardId).getSheets();
+        assertThat(mainSheets, hasSize(3));
+        assertThat(shardSheets, hasSize(3));
+        translateInSheets(mainSheets);
+        translateInSheets(shardSheets);
+
+        new ImportProcessor(lightGSheetService, new SnapshotManager(configuration.getSnapshotPath()), fileLoaders(), configuration, metrics, path -> {})
+                .doImport(SPREADSHEET_ID);
+
+        PropertyFileLoader loader = new PropertyFileLoader();
+        for (int i = 0; i < 6; i++) {
+            FileActiveRecord translated = loader.loadPropertiesFromFile(testDir.resolve("bundle" + i + "_" + LANG + ".properties").toString());
+            assertThat(translated.get("key.1").getValue(), equalTo("Translated Text " + i + " 1"));
+        }
+    }
+
+    @Test
+    public void when_sizes_of_sharded_sheets_change__then_sheets_stay_in_their_spreadsheets() throws Exception {
+        String shardId = "harness-shard";
+        server.createSpreadsheet(shardId);
+        TranslationConfiguration configuration = createConfiguration(generateMessageFiles(4, 4));
+        configuration.setShards(Collections.singletonList(shardConfiguration(shardId)));
+        configuration.setShardStrategy(ShardStrategy.SIZE);
+        configuration.setSyncSheets(true);
+        export(configuration);
+        Map<String, String> spreadsheetBySheet = spreadsheetBySheet(SPREADSHEET_ID, shardId);
+        StringBuilder grown = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            grown.append("key.").append(i).append("=Grown ").append(i).append('\n');
+        }
+        Files.write(testDir.resolve("bundle0.properties"), grown.toString().getBytes(StandardCharsets.UTF_8));
+
+        export(configuration);
+
+        assertThat(spreadsheetBySheet(SPREADSHEET_ID, shardId), equalTo(spreadsheetBySheet));
+    }
+
+    @Test
+    public void when_shard_receives_no_sheets__then_its_old_sheets_are_not_imported() throws Exception {
+        String shardId = "harness-shard";
+        server.createSpreadsheet(shardId);
+        List<String> paths = generateMessageFiles(2, 4);
+        TranslationConfiguration configuration = createConfiguration(paths);
+        configuration.setShards(Collections.singletonList(shardConfiguration(shardId)));
+        configuration.setShardStrategy(ShardStrategy.SIZE);
+        configuration.setSyncSheets(true);
+        export(configuration);
+        assertThat(server.getSpreadsheet(shardId).getSheets(), hasSize(1));
+        // message file of the shard is no longer exported, the translator still works on its sheet
+        translateInSheets(server.getSpreadsheet(shardId).getSheets());
+        configuration.setPath(Collections.singletonList(paths.get(0)));
+
+        export(configuration);
+
+        List<FakeSheetsApiServer.FakeSheet> shardSheets = server.getSpreadsheet(shardId).getSheets();
+        assertThat(shardSheets, hasSize(1));
+        assertThat(shardSheets.get(0).getTitle(), equalTo(SheetConstants.EMPTY_SHEET_TITLE));
+        new ImportProcessor(lightGSheetService, new SnapshotManager(configuration.getSnapshotPath()), fileLoaders(), configuration, metrics, path -> {})
+                .doImport(SPREADSHEET_ID);
+        FileActiveRecord notImported = new PropertyFileLoader().loadPropertiesFromFile(testDir.resolve("bundle1_" + LANG + ".properties").toString());
+        assertThat(notImported.get("key.1"), is(nullValue()));
+    }
+
+    @Test
+    public void when_api_responds_with_too_many_requests__then_export_is_retried_and_finishes() throws Exception {
+        TranslationConfiguration configuration = createConfiguration(generateMessageFiles(2, 3));
+        server.failNextWrites(1);
+
+        export(configuration);
+
+        assertThat(server.getThrottledCount(), equalTo(1));
+        assertThat(metrics.getRegistry().find(RunMetrics.SHEETS_API_RETRIES).counters().stream().mapToDouble(Counter::count).sum(), equalTo(1.0));
+        assertThat(server.getSpreadsheet(SPREADSHEET_ID).getSheets(), hasSize(2));
+    }
+
+    @Test
+    public void when_sheets_are_combined__then_combined_sheet_is_written_in_bounded_chunks() throws Exception {
+        TranslationConfiguration configuration = createConfiguration(generateMessageFiles(5, 10));
+        lightGSheetService.setMaxCharactersPerRequest(200);
+
+        createExporter(configuration).walkPathsAndWriteSheets(configuration, SPREADSHEET_ID, true);
+
+        List<FakeSheetsApiServer.FakeSheet> sheets = server.getSpreadsheet(SPREADSHEET_ID).getSheets();
+        assertThat(sheets, hasSize(1));
+        assertThat(sheets.get(0).getTitle(), equalTo("ALL"));
+        assertThat("Header and rows missing translation of every file", sheets.get(0).getValues(), hasSize(1 + 5 * 5));
+        assertThat("Sheets keep their order", sheets.get(0).getValue(25, 1), startsWith("Text 4 "));
+        assertThat(server.getRequestCounts().get("values.batchUpdate"), greaterThan(1));
+    }
+
+    @Test
+    public void when_export_runs_in_sync_mode__then_existing_sheets_are_updated_in_place() throws Exception {
+        TranslationConfiguration configuration = createConfiguration(generateMessageFiles(3, 4));
+        configuration.setSyncSheets(true);
+        export(configuration);
+        Set<Integer> exportedSheetIds = sheetIds();
+        // translator works on the first sheet, the work is not imported yet
+        FakeSheetsApiServer.FakeSheet firstSheet = server.getSpreadsheet(SPREADSHEET_ID).getSheets().get(0);
+        firstSheet.setValue(1, 2, "In progress");
+        Files.write(testDir.resolve("bundle0.properties"), "key.1=Text 0 1\nkey.3=Text 0 3\nkey.new=New text\n".getBytes(StandardCharsets.UTF_8));
+
+        server.resetCounters();
+        export(configuration);
+
+        assertThat("Sheets are not created again", sheetIds(), equalTo(exportedSheetIds));
+        assertThat(firstSheet.getValues(), containsInAnyOrder(
+                contains("key", "primary", LANG),
+                contains("key.1", "Text 0 1", "In progress"),
+                contains("key.3", "Text 0 3"),
+                contains("key.new", "New text", "")
+        ));
+        assertThat("Unchanged sheets are only read", server.getRequestCounts().get("values.batchUpdate"), equalTo(1));
+    }
+
+    @Test
+    public void when_sheet_is_synced__then_rewritten_and_inserted_rows_are_not_highlighted() throws Exception {
+        TranslationConfiguration configuration = createConfiguration(generateMessageFiles(1, 4));
+        configuration.setSyncSheets(true);
+        export(configuration);
+        // translations of both rows were filled by machine translation
+        FakeSheetsApiServer.FakeSheet sheet = server.getSpreadsheet(SPREADSHEET_ID).getSheets().get(0);
+        sheet.setHighlighted(1, 3, 2, 3, true);
+        Files.write(testDir.resolve("bundle0.properties"), "key.1=Text 0 1\nkey.new=New text\nkey.3=Changed text\n".getBytes(StandardCharsets.UTF_8));
+
+        export(configuration);
+
+        assertThat(sheet.isHighlighted(rowOf(sheet, "key.1"), 2), is(true));
+        assertThat("Inserted row does not inherit the highlight", sheet.isHighlighted(rowOf(sheet, "key.new"), 2), is(false));
+        assertThat("Highlight of the rewritten row is cleared", sheet.isHighlighted(rowOf(sheet, "key.3"), 2), is(false));
+    }
+
+    @Test
+    public void when_only_sheet_is_exported_again__then_it_is_replaced() throws Exception {
+        List<String> paths = generateMessageFiles(1, 4);
+        TranslationConfiguration configuration = createConfiguration(paths);
+        Exporter exporter = createExporter(configuration);
+        exporter.walkPathsAndWriteSheets(configuration, SPREADSHEET_ID, false);
+        Set<Integer> exportedSheetIds = sheetIds();
+        Files.write(testDir.resolve("bundle0.properties"), "key.1=Text 0 1\nkey.new=New text\n".getBytes(StandardCharsets.UTF_8));
+
+        exporter.exportMessageFiles(configuration, SPREADSHEET_ID, paths);
+
+        List<FakeSheetsApiServer.FakeSheet> sheets = server.getSpreadsheet(SPREADSHEET_ID).getSheets();
+        assertThat(sheets, hasSize(1));
+        assertThat(sheetIds(), not(equalTo(exportedSheetIds)));
+        assertThat(containsKey("key.new"), is(true));
+    }
+
+    @Test
+    public void when_only_sheet_cannot_be_synced__then_it_is_replaced() throws Exception {
+        TranslationConfiguration configuration = createConfiguration(generateMessageFiles(1, 4));
+        configuration.setSyncSheets(true);
+        export(configuration);
+        String title = server.getSpreadsheet(SPREADSHEET_ID).getSheets().get(0).getTitle();
+        // another language changes the header, so the rows cannot be matched
+        configuration.setMutations(Arrays.asList(LANG, "fr"));
+
+        export(configuration);
+
+        List<FakeSheetsApiServer.FakeSheet> sheets = server.getSpreadsheet(SPREADSHEET_ID).getSheets();
+        assertThat(sheets, hasSize(1));
+        assertThat(sheets.get(0).getTitle(), equalTo(title));
+        assertThat(sheets.get(0).getValues().get(0), contains("key", "primary", LANG, "fr"));
+    }
+
+    @Test
+    public void when_translations_are_reused__then_same_message_in_other_file_is_prefilled() throws Exception {
+        Files.write(testDir.resolve("bundle0.properties"), "greeting=Hello\nfarewell=Bye\n".getBytes(StandardCharsets.UTF_8));
+        Files.write(testDir.resolve("bundle0_de.properties"), "greeting=Hallo\nfarewell=Tschüss\n".getBytes(StandardCharsets.UTF_8));
+        Files.write(testDir.resolve("bundle1.properties"), "welcome=Hello\nother=Bye\nnew=Unknown\n".getBytes(StandardCharsets.UTF_8));
+        Files.write(testDir.resolve("bundle1_de.properties"), "other=Andere\n".getBytes(StandardCharsets.UTF_8));
+        TranslationConfiguration configuration = createConfiguration(Arrays.asList(
+                testDir.resolve("bundle0.properties").toAbsolutePath().toString(),
+                testDir.resolve("bundle1.properties").toAbsolutePath().toString()));
+        configuration.setReuseTranslations(true);
+
+        List<MessageFileExportStats> stats = export(configuration);
+
+        FakeSheetsApiServer.FakeSheet sheet = server.getSpreadsheet(SPREADSHEET_ID).getSheets().stream()
+                .filter(s -> s.getTitle().startsWith("bundle1"))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+        assertThat(sheet.getValues(), containsInAnyOrder(
+                contains("key", "primary", LANG),
+                contains("welcome", "Hello", "Hallo"),
+                contains("new", "Unknown")
+        ));
+        assertThat(stats.get(1).getReusedTranslationCount(), equalTo(1));
+    }
+
+    @Test
+    public void when_message_file_changes_in_watch_mode__then_only_its_sheet_is_replaced() throws Exception {
+        TranslationConfiguration configuration = createConfiguration(generateMessageFiles(3, 2));
+        Exporter exporter = createExporter(configuration);
+        exporter.walkPathsAndWriteSheets(configuration, SPREADSHEET_ID, false);
+        Set<Integer> exportedSheetIds = sheetIds();
+
+        Thread watcher = new Thread(() -> {
+            try {
+                new ExportWatcher(exporter, new SpringResourceLoader()).watch(configuration, SPREADSHEET_ID);
+            } catch (InterruptedException | IOException e) {
+                log.info("Watching stopped: " + e);
+            }
+        });
+        watcher.start();
+        try {
+            // the watcher registers its directories asynchronously, so the change is repeated until it is noticed
+            long deadline = System.currentTimeMillis() + 10_000;
+            for (int attempt = 0; !containsKey("key.new") && System.currentTimeMillis() < deadline; attempt++) {
+                Files.write(testDir.resolve("bundle1.properties"), ("key.new=New text " + attempt + "\n").getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+                Thread.sleep(500);
+            }
+        } finally {
+            watcher.interrupt();
+            watcher.join(5_000);
+        }
+
+        Set<Integer> currentSheetIds = sheetIds();
+        assertThat(currentSheetIds, hasSize(3));
+        currentSheetIds.retainAll(exportedSheetIds);
+        assertThat("Sheets of unchanged message files are kept", currentSheetIds, hasSize(2));
+        assertThat(containsKey("key.new"), is(true));
+    }
+
+    private static ShardConfiguration shardConfiguration(String spreadsheetId) {
+        ShardConfiguration shard = new ShardConfiguration();
+        shard.setSpreadsheetId(spreadsheetId);
+        return shard;
+    }
+
+    private Map<String, String> spreadsheetBySheet(String... spreadsheetIds) {
+        Map<String, String> result = new HashMap<>();
+        for (String spreadsheetId : spreadsheetIds) {
+            server.getSpreadsheet(spreadsheetId).getSheets().forEach(sheet -> result.put(sheet.getTitle(), spreadsheetId));
+        }
+        return result;
+    }
+
+    private Set<Integer> sheetIds() {
+        Set<Integer> ids = new HashSet<>();
+        server.getSpreadsheet(SPREADSHEET_ID).getSheets().forEach(sheet -> ids.add(sheet.getSheetId()));
+        return ids;
+    }
+
+    private static int rowOf(FakeSheetsApiServer.FakeSheet sheet, String key) {
+        List<List<String>> values = sheet.getValues();
+        for (int i = 0; i < values.size(); i++) {
+            if (!values.get(i).isEmpty() && key.equals(values.get(i).get(0))) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Key " + key + " is not in the sheet.");
+    }
+
+    private boolean containsKey(String key) {
+        for (FakeSheetsApiServer.FakeSheet sheet : server.getSpreadsheet(SPREADSHEET_ID).getSheets()) {
+            for (List<String> row : sheet.getValues()) {
+                if (!row.isEmpty() && key.equals(row.get(0))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private List<MessageFileExportStats> export(TranslationConfiguration configuration) throws IOException {
+        return createExporter(configuration).walkPathsAndWriteSheets(configuration, SPREADSHEET_ID, false);
+    }
+
+    private Exporter createExporter(TranslationConfiguration configuration) throws IOException {
+        SnapshotManager snapshotManager = new SnapshotManager(configuration.getSnapshotPath());
+        SnapshotAdapter snapshotAdapter = new SnapshotAdapter(snapshotManager.getOrCreateDataFile());
+        TranslationCollector translationCollector = new TranslationCollector(
+                Arrays.asList(new ApronMessageLoader(), new TsMessageLoader()),
+                new MessageFileProcessor(snapshotAdapter),
+                snapshotAdapter,
+                snapshotAdapter,
+                metrics
+        );
+        return new Exporter(Collections.emptyList(), translationCollector, snapshotAdapter,
+                new LightGSheetServiceExporterContractAdaptor(lightGSheetService), new SpringResourceLoader(), metrics);
+    }
+
+    private List<String> generateMessageFiles(int files, int keys) throws IOException {
+        List<String> paths = new ArrayList<>(files);
+        for (int i = 0; i < files; i++) {
+            StringBuilder primary = new StringBuilder();
+            StringBuilder translation = new StringBuilder();
+            for (int j = 0; j < keys; j++) {
+                primary.append("key.").append(j).append("=Text ").append(i).append(' ').append(j).append('\n');
+                if (j % 2 == 0) {
+                    translation.append("key.").append(j).append("=Existing ").append(i).append(' ').append(j).append('\n');
+                }
+            }
+            Path primaryFile = testDir.resolve("bundle" + i + ".properties");
+            Files.write(primaryFile, primary.toString().getBytes(StandardCharsets.UTF_8));
+            Files.write(testDir.resolve("bundle" + i + "_" + LANG + ".properties"), translation.toString().getBytes(StandardCharsets.UTF_8));
+            paths.add(primaryFile.toAbsolutePath().toString());
+        }
+        return paths;
+    }
+
+    private TranslationConfiguration createConfiguration(List<String> paths) {
+        TranslationConfiguration configuration = new TranslationConfiguration();
+        configuration.setPath(paths);
+        configuration.setMutations(Collections.singletonList(LANG));
+        configuration.setDefaultLang("en");
+        configuration.setDataFileName(testDir.resolve("translation-db.json").toAbsolutePath().toString());
+        return configuration;
+    }
+
+    /**
+     * Plays the role of translation agency - fills all empty translation cells.
+     */
+    private void translateInSheets(List<FakeSheetsApiServer.FakeSheet> sheets) {
+        for (FakeSheetsApiServer.FakeSheet sheet : sheets) {
+            List<List<String>> rows = sheet.getValues();
+            for (int row = 1; row < rows.size(); row++) {
+                for (int col = 2; col < rows.get(0).size(); col++) {
+                    String value = sheet.getValue(row, col);
+                    if (value == null || value.isEmpty()) {
+                        sheet.setValue(row, col, "Translated " + rows.get(row).get(1));
+                    }
+                }
+            }
+        }
+    }
+
+    private List<FileLoader> fileLoaders() {
+        return Arrays.asList(new PropertyFileLoader(), new TsFileLoader());
+    }
+
+    private void report(String phase, long wallTime) {
+        log.info(String.format(
+                "Round trip harness [%s]: %d sheets x %d keys, latency %d ms, wall time %d ms, %d requests %s, %d throttled, %d B sent, %d B received.",
+                phase, sheetCount, keyCount, latency, wallTime, server.getTotalRequestCount(), server.getRequestCounts(),
+                server.getThrottledCount(), server.getBytesReceived(), server.getBytesSent()
+        ));
+    }
+
+}
@@ -0,0 +1,31 @@
+package one.edee.babylon.sheets.gsheets;
+
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.services.sheets.v4.Sheets;
+
+/**
+ * {@link GSheetsClient} talking to {@link FakeSheetsApiServer} instead of Google servers, no authorization is used.
+ */
+public class FakeGSheetsClient implements GSheetsClient {
+
+    private final Sheets sheets;
+
+    public FakeGSheetsClient(FakeSheetsApiServer server) {
+        this(server, new NetHttpTransport());
+    }
+
+    public FakeGSheetsClient(FakeSheetsApiServer server, HttpTransport transport) {
+        this.sheets = new Sheets.Builder(transport, JacksonFactory.getDefaultInstance(), null)
+                .setRootUrl(server.getRootUrl())
+                .setApplicationName("babylon-test")
+                .build();
+    }
+
+    @Override
+    public Sheets getSheetService() {
+        return sheets;
+    }
+
+}
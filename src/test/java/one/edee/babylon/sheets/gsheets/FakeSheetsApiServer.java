@@ -0,0 +1,722 @@
+package one.edee.babylon.sheets.gsheets;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.apachecommons.CommonsLog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * In-process stand-in of the Google Sheets v4 REST endpoints used by Babylon. Keeps spreadsheets in memory, so that
+ * {@link LightGSheetService} (and everything above it) can be exercised end to end without network.
+ *
+ * Supported endpoints:
+ * <ul>
+ *     <li>{@code GET v4/spreadsheets/{id}} (optionally with {@code includeGridData=true})</li>
+ *     <li>{@code POST v4/spreadsheets/{id}:batchUpdate} - sheet and dimension requests are applied, formatting requests are accepted and ignored</li>
+ *     <li>{@code POST v4/spreadsheets/{id}/values:batchUpdate}</li>
+ *     <li>{@code GET v4/spreadsheets/{id}/values:batchGet}</li>
+ * </ul>
+ *
+ * Every request can be delayed by a configurable latency and write requests can be answered by HTTP 429 either
+ * on demand ({@link #failNextWrites(int)}) or when the configured per-window write quota is exceeded.
+ */
+@CommonsLog
+public class FakeSheetsApiServer implements AutoCloseable {
+
+    private static final String SPREADSHEETS_PREFIX = "/v4/spreadsheets/";
+    private static final Pattern A1_CELL = Pattern.compile("([A-Za-z]*)(\\d*)");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, FakeSpreadsheet> spreadsheets = new HashMap<>();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private final Map<String, AtomicInteger> requestCounts = new TreeMap<>();
+    private final AtomicInteger throttledCount = new AtomicInteger();
+    private final AtomicLong bytesReceived = new AtomicLong();
+    private final AtomicLong bytesSent = new AtomicLong();
+
+    private volatile long latencyMillis;
+    private volatile int writeQuota;
+    private volatile long writeQuotaWindowMillis;
+    private final AtomicInteger writesToFail = new AtomicInteger();
+    private final Deque<Long> writeTimestamps = new ArrayDeque<>();
+
+    public FakeSheetsApiServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * @return root url to be passed to {@code Sheets.Builder#setRootUrl}
+     */
+    public String getRootUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+    }
+
+    /**
+     * Delays every request by given time, roughly simulating network round trip.
+     */
+    public FakeSheetsApiServer withLatency(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+        return this;
+    }
+
+    /**
+     * Answers write requests by HTTP 429 whenever more than {@code requests} writes arrived within {@code windowMillis}.
+     */
+    public FakeSheetsApiServer withWriteQuota(int requests, long windowMillis) {
+        this.writeQuota = requests;
+        this.writeQuotaWindowMillis = windowMillis;
+        return this;
+    }
+
+    /**
+     * Answers next {@code count} write requests by HTTP 429 regardless of quota.
+     */
+    public FakeSheetsApiServer failNextWrites(int count) {
+        writesToFail.set(count);
+        return this;
+    }
+
+    /**
+     * Creates spreadsheet containing the single default sheet, the same way Google Sheets UI does.
+     */
+    public synchronized FakeSpreadsheet createSpreadsheet(String spreadsheetId) {
+        return spreadsheets.computeIfAbsent(spreadsheetId, id -> {
+            FakeSpreadsheet spreadsheet = new FakeSpreadsheet(id);
+            spreadsheet.addSheet("Sheet1", 1000, 26);
+            return spreadsheet;
+        });
+    }
+
+    public synchronized FakeSpreadsheet getSpreadsheet(String spreadsheetId) {
+        return spreadsheets.get(spreadsheetId);
+    }
+
+    /**
+     * @return number of handled requests per endpoint, throttled requests excluded
+     */
+    public synchronized Map<String, Integer> getRequestCounts() {
+        Map<String, Integer> counts = new TreeMap<>();
+        requestCounts.forEach((k, v) -> counts.put(k, v.get()));
+        return counts;
+    }
+
+    public synchronized int getTotalRequestCount() {
+        return requestCounts.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+
+    public int getThrottledCount() {
+        return throttledCount.get();
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived.get();
+    }
+
+    public long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    public synchronized void resetCounters() {
+        requestCounts.clear();
+        throttledCount.set(0);
+        bytesReceived.set(0);
+        bytesSent.set(0);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            byte[] body = readBody(exchange);
+            bytesReceived.addAndGet(body.length);
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            String path = exchange.getRequestURI().getPath();
+            if (!path.startsWith(SPREADSHEETS_PREFIX)) {
+                sendError(exchange, 404, "NOT_FOUND", "Unknown path " + path);
+                return;
+            }
+            String rest = path.substring(SPREADSHEETS_PREFIX.length());
+            String method = exchange.getRequestMethod();
+            Map<String, List<String>> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+            if ("GET".equals(method) && rest.endsWith("/values:batchGet")) {
+                String id = rest.substring(0, rest.length() - "/values:batchGet".length());
+                respond(exchange, "values.batchGet", id, false, s -> valuesBatchGet(s, query));
+            } else if ("POST".equals(method) && rest.endsWith("/values:batchUpdate")) {
+                String id = rest.substring(0, rest.length() - "/values:batchUpdate".length());
+                JsonNode request = objectMapper.readTree(body);
+                respond(exchange, "values.batchUpdate", id, true, s -> valuesBatchUpdate(s, request));
+            } else if ("POST".equals(method) && rest.endsWith(":batchUpdate")) {
+                String id = rest.substring(0, rest.length() - ":batchUpdate".length());
+                JsonNode request = objectMapper.readTree(body);
+                respond(exchange, "batchUpdate", id, true, s -> batchUpdate(s, request));
+            } else if ("GET".equals(method) && !rest.contains("/")) {
+                boolean includeGridData = query.getOrDefault("includeGridData", Collections.emptyList()).contains("true");
+                respond(exchange, "get", rest, false, s -> get(s, includeGridData));
+            } else {
+                sendError(exchange, 404, "NOT_FOUND", "Unsupported endpoint " + method + " " + path);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendError(exchange, 500, "INTERNAL", e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Fake Sheets API failed to handle request.", e);
+            sendError(exchange, 500, "INTERNAL", String.valueOf(e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void respond(HttpExchange exchange, String endpoint, String spreadsheetId, boolean write, SpreadsheetAction action) throws IOException {
+        if (write && shouldThrottle()) {
+            throttledCount.incrementAndGet();
+            sendError(exchange, 429, "RESOURCE_EXHAUSTED", "Quota exceeded for quota metric 'Write requests'.");
+            return;
+        }
+        synchronized (this) {
+            requestCounts.computeIfAbsent(endpoint, k -> new AtomicInteger()).incrementAndGet();
+        }
+        FakeSpreadsheet spreadsheet = getSpreadsheet(spreadsheetId);
+        if (spreadsheet == null) {
+            sendError(exchange, 404, "NOT_FOUND", "Requested entity was not found.");
+            return;
+        }
+        JsonNode response;
+        synchronized (spreadsheet) {
+            try {
+                response = action.apply(spreadsheet);
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, "INVALID_ARGUMENT", e.getMessage());
+                return;
+            }
+        }
+        send(exchange, 200, response);
+    }
+
+    private synchronized boolean shouldThrottle() {
+        if (writesToFail.get() > 0 && writesToFail.getAndDecrement() > 0) {
+            return true;
+        }
+        if (writeQuota <= 0) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        while (!writeTimestamps.isEmpty() && writeTimestamps.peekFirst() <= now - writeQuotaWindowMillis) {
+            writeTimestamps.pollFirst();
+        }
+        if (writeTimestamps.size() >= writeQuota) {
+            return true;
+        }
+        writeTimestamps.addLast(now);
+        return false;
+    }
+
+    private JsonNode get(FakeSpreadsheet spreadsheet, boolean includeGridData) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("spreadsheetId", spreadsheet.getId());
+        ArrayNode sheets = response.putArray("sheets");
+        for (FakeSheet sheet : spreadsheet.getSheets()) {
+            ObjectNode sheetNode = sheets.addObject();
+            sheetNode.set("properties", sheetProperties(spreadsheet, sheet));
+            if (includeGridData) {
+                ObjectNode gridData = sheetNode.putArray("data").addObject();
+                ArrayNode rowData = gridData.putArray("rowData");
+                for (List<String> row : sheet.getValues()) {
+                    ObjectNode rowNode = rowData.addObject();
+                    int lastNonEmpty = lastNonEmpty(row);
+                    if (lastNonEmpty < 0) {
+                        continue;
+                    }
+                    ArrayNode values = rowNode.putArray("values");
+                    for (int i = 0; i <= lastNonEmpty; i++) {
+                        ObjectNode cell = values.addObject();
+                        String value = row.get(i);
+                        if (value != null && !value.isEmpty()) {
+                            cell.putObject("userEnteredValue").put("stringValue", value);
+                            cell.putObject("effectiveValue").put("stringValue", value);
+                            cell.put("formattedValue", value);
+                        }
+                    }
+                }
+            }
+        }
+        return response;
+    }
+
+    private ObjectNode sheetProperties(FakeSpreadsheet spreadsheet, FakeSheet sheet) {
+        ObjectNode properties = objectMapper.createObjectNode();
+        properties.put("sheetId", sheet.getSheetId());
+        properties.put("title", sheet.getTitle());
+        properties.put("index", spreadsheet.getSheets().indexOf(sheet));
+        properties.put("sheetType", "GRID");
+        ObjectNode gridProperties = properties.putObject("gridProperties");
+        gridProperties.put("rowCount", sheet.getRowCount());
+        gridProperties.put("columnCount", sheet.getColumnCount());
+        return properties;
+    }
+
+    private JsonNode batchUpdate(FakeSpreadsheet spreadsheet, JsonNode request) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("spreadsheetId", spreadsheet.getId());
+        ArrayNode replies = response.putArray("replies");
+        for (JsonNode item : request.path("requests")) {
+            ObjectNode reply = replies.addObject();
+            if (item.has("addSheet")) {
+                JsonNode properties = item.path("addSheet").path("properties");
+                JsonNode grid = properties.path("gridProperties");
+                FakeSheet sheet = spreadsheet.addSheet(
+                        properties.path("title").asText(),
+                        grid.path("rowCount").asInt(1000),
+                        grid.path("columnCount").asInt(26)
+                );
+                reply.putObject("addSheet").set("properties", sheetProperties(spreadsheet, sheet));
+            } else if (item.has("updateSheetProperties")) {
+                JsonNode properties = item.path("updateSheetProperties").path("properties");
+                if (item.path("updateSheetProperties").path("fields").asText().contains("title")) {
+                    spreadsheet.renameSheet(properties.path("sheetId").asInt(), properties.path("title").asText());
+                }
+            } else if (item.has("deleteSheet")) {
+                spreadsheet.deleteSheet(item.path("deleteSheet").path("sheetId").asInt());
+            } else if (item.has("insertDimension")) {
+                JsonNode range = item.path("insertDimension").path("range");
+                FakeSheet sheet = spreadsheet.getSheet(range.path("sheetId").asInt());
+                if ("ROWS".equals(range.path("dimension").asText())) {
+                    sheet.insertRows(range.path("startIndex").asInt(), range.path("endIndex").asInt(),
+                            item.path("insertDimension").path("inheritFromBefore").asBoolean());
+                }
+            } else if (item.has("deleteDimension")) {
+                JsonNode range = item.path("deleteDimension").path("range");
+                FakeSheet sheet = spreadsheet.getSheet(range.path("sheetId").asInt());
+                if ("ROWS".equals(range.path("dimension").asText())) {
+                    sheet.deleteRows(range.path("startIndex").asInt(), range.path("endIndex").asInt());
+                }
+            } else if (item.has("appendDimension")) {
+                JsonNode append = item.path("appendDimension");
+                FakeSheet sheet = spreadsheet.getSheet(append.path("sheetId").asInt());
+                if ("ROWS".equals(append.path("dimension").asText())) {
+                    sheet.insertRows(sheet.getRowCount(), sheet.getRowCount() + append.path("length").asInt(), false);
+                }
+            } else if (item.has("repeatCell") && item.path("repeatCell").path("fields").asText().contains("backgroundColor")) {
+                JsonNode repeatCell = item.path("repeatCell");
+                JsonNode range = repeatCell.path("range");
+                FakeSheet sheet = spreadsheet.getSheet(range.path("sheetId").asInt());
+                sheet.setHighlighted(
+                        range.path("startRowIndex").asInt(0),
+                        range.path("endRowIndex").asInt(sheet.getRowCount()),
+                        range.path("startColumnIndex").asInt(0),
+                        range.path("endColumnIndex").asInt(sheet.getColumnCount()),
+                        repeatCell.path("cell").path("userEnteredFormat").has("backgroundColor")
+                );
+            }
+            // other formatting, protection and similar requests do not change stored values
+        }
+        return response;
+    }
+
+    private JsonNode valuesBatchUpdate(FakeSpreadsheet spreadsheet, JsonNode request) {
+        int totalCells = 0;
+        int totalRows = 0;
+        Set<String> updatedSheets = new HashSet<>();
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("spreadsheetId", spreadsheet.getId());
+        ArrayNode responses = response.putArray("responses");
+        for (JsonNode valueRange : request.path("data")) {
+            A1Range range = parseRange(valueRange.path("range").asText());
+            FakeSheet sheet = spreadsheet.getSheet(range.sheetTitle);
+            int rowIndex = range.startRow;
+            int cells = 0;
+            int maxColumns = 0;
+            for (JsonNode row : valueRange.path("values")) {
+                int colIndex = range.startColumn;
+                for (JsonNode cell : row) {
+                    sheet.setValue(rowIndex, colIndex++, cell.isNull() ? null : cell.asText());
+                    cells++;
+                }
+                maxColumns = Math.max(maxColumns, row.size());
+                rowIndex++;
+            }
+            int rows = rowIndex - range.startRow;
+            responses.addObject()
+                    .put("spreadsheetId", spreadsheet.getId())
+                    .put("updatedRange", valueRange.path("range").asText())
+                    .put("updatedRows", rows)
+                    .put("updatedColumns", maxColumns)
+                    .put("updatedCells", cells);
+            totalCells += cells;
+            totalRows += rows;
+            updatedSheets.add(range.sheetTitle);
+        }
+        response.put("totalUpdatedRows", totalRows);
+        response.put("totalUpdatedCells", totalCells);
+        response.put("totalUpdatedSheets", updatedSheets.size());
+        return response;
+    }
+
+    private JsonNode valuesBatchGet(FakeSpreadsheet spreadsheet, Map<String, List<String>> query) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("spreadsheetId", spreadsheet.getId());
+        ArrayNode valueRanges = response.putArray("valueRanges");
+        for (String rangeText : query.getOrDefault("ranges", Collections.emptyList())) {
+            A1Range range = parseRange(rangeText);
+            FakeSheet sheet = spreadsheet.getSheet(range.sheetTitle);
+            ObjectNode valueRange = valueRanges.addObject();
+            valueRange.put("range", rangeText);
+            valueRange.put("majorDimension", "ROWS");
+            List<List<String>> rows = sheet.getValues();
+            int endRow = Math.min(rows.size(), range.endRow);
+            int lastRow = -1;
+            for (int i = range.startRow; i < endRow; i++) {
+                if (lastNonEmpty(rows.get(i)) >= range.startColumn) {
+                    lastRow = i;
+                }
+            }
+            if (lastRow < 0) {
+                continue;
+            }
+            ArrayNode values = valueRange.putArray("values");
+            for (int i = range.startRow; i <= lastRow; i++) {
+                ArrayNode rowNode = values.addArray();
+                List<String> row = rows.get(i);
+                int lastColumn = Math.min(lastNonEmpty(row), range.endColumn - 1);
+                for (int j = range.startColumn; j <= lastColumn; j++) {
+                    String value = row.get(j);
+                    rowNode.add(value == null ? "" : value);
+                }
+            }
+        }
+        return response;
+    }
+
+    private static int lastNonEmpty(List<String> row) {
+        for (int i = row.size() - 1; i >= 0; i--) {
+            String value = row.get(i);
+            if (value != null && !value.isEmpty()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parses A1 notation like {@code Sheet}, {@code 'My sheet'!A2}, {@code Sheet!B3:D10} or {@code Sheet!A:C}.
+     */
+    static A1Range parseRange(String range) {
+        String sheetPart = range;
+        String cellPart = "";
+        int excl = range.lastIndexOf('!');
+        if (excl >= 0 && (range.charAt(0) != '\'' || range.lastIndexOf('\'') < excl)) {
+            sheetPart = range.substring(0, excl);
+            cellPart = range.substring(excl + 1);
+        }
+        if (sheetPart.length() > 1 && sheetPart.startsWith("'") && sheetPart.endsWith("'")) {
+            sheetPart = sheetPart.substring(1, sheetPart.length() - 1).replace("''", "'");
+        }
+        A1Range result = new A1Range(sheetPart);
+        if (!cellPart.isEmpty()) {
+            String[] bounds = cellPart.split(":");
+            int[] start = parseCell(bounds[0], 0);
+            result.startColumn = start[0];
+            result.startRow = start[1];
+            if (bounds.length > 1) {
+                int[] end = parseCell(bounds[1], Integer.MAX_VALUE - 1);
+                result.endColumn = end[0] + 1;
+                result.endRow = end[1] + 1;
+            }
+        }
+        return result;
+    }
+
+    private static int[] parseCell(String cell, int defaultIndex) {
+        Matcher matcher = A1_CELL.matcher(cell);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Unable to parse range: " + cell);
+        }
+        int column = defaultIndex;
+        if (!matcher.group(1).isEmpty()) {
+            column = 0;
+            for (char c : matcher.group(1).toUpperCase().toCharArray()) {
+                column = column * 26 + (c - 'A' + 1);
+            }
+            column--;
+        }
+        int row = matcher.group(2).isEmpty() ? defaultIndex : Integer.parseInt(matcher.group(2)) - 1;
+        return new int[]{column, row};
+    }
+
+    private byte[] readBody(HttpExchange exchange) throws IOException {
+        InputStream in = exchange.getRequestBody();
+        if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+            in = new GZIPInputStream(in);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static Map<String, List<String>> parseQuery(String rawQuery) throws UnsupportedEncodingException {
+        Map<String, List<String>> result = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return result;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), "UTF-8");
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), "UTF-8");
+            result.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+        }
+        return result;
+    }
+
+    private void sendError(HttpExchange exchange, int code, String status, String message) throws IOException {
+        ObjectNode response = objectMapper.createObjectNode();
+        ObjectNode error = response.putObject("error");
+        error.put("code", code);
+        error.put("message", message);
+        error.put("status", status);
+        error.putArray("errors").addObject()
+                .put("message", message)
+                .put("domain", "global")
+                .put("reason", code == 429 ? "rateLimitExceeded" : "badRequest");
+        send(exchange, code, response);
+    }
+
+    private void send(HttpExchange exchange, int code, JsonNode response) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(response);
+        bytesSent.addAndGet(bytes.length);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SpreadsheetAction {
+        JsonNode apply(FakeSpreadsheet spreadsheet) throws IOException;
+    }
+
+    static class A1Range {
+        final String sheetTitle;
+        int startRow = 0;
+        int startColumn = 0;
+        int endRow = Integer.MAX_VALUE;
+        int endColumn = Integer.MAX_VALUE;
+
+        A1Range(String sheetTitle) {
+            this.sheetTitle = sheetTitle;
+        }
+    }
+
+    /**
+     * In-memory spreadsheet, sheets are kept in the order of their creation.
+     */
+    public static class FakeSpreadsheet {
+        private final String id;
+        private final List<FakeSheet> sheets = new ArrayList<>();
+        private int nextSheetId = 1;
+
+        FakeSpreadsheet(String id) {
+            this.id = id;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public synchronized List<FakeSheet> getSheets() {
+            return new ArrayList<>(sheets);
+        }
+
+        public synchronized FakeSheet getSheet(String title) {
+            return sheets.stream()
+                    .filter(s -> s.getTitle().equals(title))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unable to parse range: " + title));
+        }
+
+        public synchronized FakeSheet getSheet(int sheetId) {
+            return sheets.stream()
+                    .filter(s -> s.getSheetId() == sheetId)
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("No grid with id: " + sheetId));
+        }
+
+        synchronized FakeSheet addSheet(String title, int rowCount, int columnCount) {
+            if (sheets.stream().anyMatch(s -> s.getTitle().equals(title))) {
+                throw new IllegalArgumentException("A sheet with the name \"" + title + "\" already exists. Please enter another name.");
+            }
+            FakeSheet sheet = new FakeSheet(nextSheetId++, title, rowCount, columnCount);
+            sheets.add(sheet);
+            return sheet;
+        }
+
+        synchronized void renameSheet(int sheetId, String title) {
+            if (sheets.stream().anyMatch(s -> s.getTitle().equals(title) && s.getSheetId() != sheetId)) {
+                throw new IllegalArgumentException("A sheet with the name \"" + title + "\" already exists. Please enter another name.");
+            }
+            getSheet(sheetId).title = title;
+        }
+
+        /**
+         * Rejects deleting the last sheet as the API does.
+         */
+        synchronized void deleteSheet(int sheetId) {
+            FakeSheet sheet = getSheet(sheetId);
+            if (sheets.size() == 1) {
+                throw new IllegalArgumentException("Invalid requests[0].deleteSheet: You can't remove all the sheets in a document.");
+            }
+            sheets.remove(sheet);
+        }
+    }
+
+    /**
+     * In-memory sheet, cell values are stored as strings, empty cell is either null or empty string.
+     */
+    public static class FakeSheet {
+        private final int sheetId;
+        private volatile String title;
+        private final List<List<String>> values = new ArrayList<>();
+        /**
+         * Columns with background color by rows.
+         */
+        private final List<BitSet> highlights = new ArrayList<>();
+        private int rowCount;
+        private int columnCount;
+
+        FakeSheet(int sheetId, String title, int rowCount, int columnCount) {
+            this.sheetId = sheetId;
+            this.title = title;
+            this.rowCount = Math.max(rowCount, 1);
+            this.columnCount = Math.max(columnCount, 1);
+        }
+
+        public int getSheetId() {
+            return sheetId;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public synchronized int getRowCount() {
+            return rowCount;
+        }
+
+        public synchronized int getColumnCount() {
+            return columnCount;
+        }
+
+        /**
+         * @return copy of stored rows, trailing empty rows may be omitted
+         */
+        public synchronized List<List<String>> getValues() {
+            List<List<String>> copy = new ArrayList<>(values.size());
+            values.forEach(row -> copy.add(new ArrayList<>(row)));
+            return copy;
+        }
+
+        public synchronized String getValue(int row, int column) {
+            if (row >= values.size() || column >= values.get(row).size()) {
+                return null;
+            }
+            return values.get(row).get(column);
+        }
+
+        /**
+         * Sets cell value, the sheet grows when writing out of its current grid.
+         */
+        public synchronized void setValue(int row, int column, String value) {
+            while (values.size() <= row) {
+                values.add(new ArrayList<>());
+            }
+            List<String> rowValues = values.get(row);
+            while (rowValues.size() <= column) {
+                rowValues.add(null);
+            }
+            rowValues.set(column, value);
+            rowCount = Math.max(rowCount, row + 1);
+            columnCount = Math.max(columnCount, column + 1);
+        }
+
+        public synchronized boolean isHighlighted(int row, int column) {
+            return row < highlights.size() && highlights.get(row).get(column);
+        }
+
+        /**
+         * Sets or clears background color of the cells, the range is end exclusive.
+         */
+        public synchronized void setHighlighted(int startRow, int endRow, int startColumn, int endColumn, boolean highlighted) {
+            while (highlights.size() < endRow) {
+                highlights.add(new BitSet());
+            }
+            for (int i = startRow; i < endRow; i++) {
+                highlights.get(i).set(startColumn, endColumn, highlighted);
+            }
+        }
+
+        /**
+         * Inserted rows copy background of the row before them when they inherit its format.
+         */
+        synchronized void insertRows(int startIndex, int endIndex, boolean inheritFromBefore) {
+            for (int i = startIndex; i < endIndex; i++) {
+                if (i <= values.size()) {
+                    values.add(i, new ArrayList<>());
+                }
+                if (i <= highlights.size()) {
+                    BitSet before = inheritFromBefore && i > 0 && i - 1 < highlights.size() ? highlights.get(i - 1) : new BitSet();
+                    highlights.add(i, (BitSet) before.clone());
+                }
+            }
+            rowCount += endIndex - startIndex;
+        }
+
+        synchronized void deleteRows(int startIndex, int endIndex) {
+            for (int i = endIndex - 1; i >= startIndex; i--) {
+                if (i < values.size()) {
+                    values.remove(i);
+                }
+                if (i < highlights.size()) {
+                    highlights.remove(i);
+                }
+            }
+            rowCount = Math.max(1, rowCount - (endIndex - startIndex));
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+package one.edee.babylon.sheets.gsheets;
+
+import one.edee.babylon.export.dto.ChangedCells;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class SheetDiffTest {
+
+    private static final List<String> HEADER = Arrays.asList("key", "en", "de");
+
+    @Test
+    public void when_rows_are_added_and_removed__then_only_these_rows_are_deleted_and_inserted() {
+        SheetDiff diff = SheetDiff.compute(
+                Arrays.asList(HEADER, row("a", "A", ""), row("b", "B", ""), row("c", "C", ""), row("d", "D", "")),
+                Arrays.asList(HEADER, row("a", "A", ""), row("x", "X", ""), row("c", "C", ""), row("y", "Y", ""), row("z", "Z", "")),
+                new ChangedCells());
+
+        assertThat(diff.isCompatible(), is(true));
+        assertThat(diff.getDeletedRanges(), contains(new int[]{4, 5}, new int[]{2, 3}));
+        assertThat(diff.getInsertedRanges(), contains(new int[]{2, 3}, new int[]{4, 6}));
+        assertThat(diff.getUpdatedRows().keySet(), contains(2, 4, 5));
+    }
+
+    @Test
+    public void when_translator_filled_cell_in_sheet__then_it_is_kept_unless_primary_message_changed() {
+        ChangedCells machineTranslated = new ChangedCells();
+        machineTranslated.add(3, 2);
+        machineTranslated.add(1, 2);
+        SheetDiff diff = SheetDiff.compute(
+                Arrays.asList(HEADER, row("a", "A", "Ah"), row("b", "B", "Bh"), row("c", "C")),
+                Arrays.asList(HEADER, row("a", "A", "machine"), row("b", "B changed", ""), row("c", "C", "machine")),
+                machineTranslated);
+
+        assertThat(diff.getDeletedRanges(), is(empty()));
+        assertThat(diff.getInsertedRanges(), is(empty()));
+        assertThat("Row with kept translation is not written at all", diff.getUpdatedRows().keySet(), contains(2, 3));
+        assertThat(diff.getUpdatedRows().get(2), contains("b", "B changed", ""));
+        assertThat(diff.getUpdatedRows().get(3), contains("c", "C", "machine"));
+        assertThat("Kept translation is not highlighted", diff.getHighlightedCells().contains(1, 2), is(false));
+        assertThat(diff.getHighlightedCells().contains(3, 2), is(true));
+        assertThat("Cells of the caller are left untouched", machineTranslated.contains(1, 2), is(true));
+    }
+
+    @Test
+    public void when_header_differs__then_diff_is_not_compatible() {
+        SheetDiff diff = SheetDiff.compute(
+                Arrays.asList(HEADER, row("a", "A", "")),
+                Arrays.asList(Arrays.asList("key", "en", "de", "fr"), row("a", "A", "", "")),
+                new ChangedCells());
+
+        assertThat(diff.isCompatible(), is(false));
+    }
+
+    private static List<String> row(String... cells) {
+        return Arrays.asList(cells);
+    }
+
+}
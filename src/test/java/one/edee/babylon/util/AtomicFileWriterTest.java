@@ -0,0 +1,67 @@
+package one.edee.babylon.util;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class AtomicFileWriterTest {
+
+    private Path dir;
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory(AtomicFileWriterTest.class.getSimpleName());
+        file = dir.resolve("messages_de.properties");
+    }
+
+    @After
+    public void tearDown() {
+        FileUtils.deleteQuietly(dir.toFile());
+    }
+
+    @Test
+    public void when_content_is_the_same__then_file_is_not_written() throws IOException {
+        Files.write(file, bytes("# comment\nkey=Wert\n"));
+        FileTime modified = FileTime.fromMillis(1_000_000L);
+        Files.setLastModifiedTime(file, modified);
+
+        assertThat(AtomicFileWriter.write(file, bytes("# comment\nkey=Wert\n")), is(false));
+        assertThat(Files.getLastModifiedTime(file), equalTo(modified));
+    }
+
+    @Test
+    public void when_content_changes__then_file_is_replaced() throws IOException {
+        String content = "# comment\r\n\r\na=Eins\r\nb=Neu\r\nc=Drei\r\nd=Vier";
+        Files.write(file, bytes("# comment\r\n\r\na=Eins\r\nb=Zwei\r\nc=Drei\r\nobsolete=Alt"));
+
+        assertThat(AtomicFileWriter.write(file, bytes(content)), is(true));
+
+        assertThat(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), equalTo(content));
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat("Temporary file is removed", files.count(), equalTo(1L));
+        }
+    }
+
+    @Test
+    public void when_file_does_not_exist__then_it_is_created() throws IOException {
+        assertThat(AtomicFileWriter.write(file, bytes("key=Wert")), is(true));
+        assertThat(Files.readAllBytes(file), equalTo(bytes("key=Wert")));
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,96 @@
+package one.edee.babylon.util;
+
+import one.edee.babylon.util.spring.SpringResourceLoader;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class MessageFileDiscoveryTest {
+
+    private final AntPathResourceLoader resourceLoader = new SpringResourceLoader();
+    private Path root;
+
+    @Before
+    public void createTree() throws IOException {
+        root = Files.createTempDirectory(MessageFileDiscoveryTest.class.getSimpleName()).toRealPath();
+        for (String file : Arrays.asList(
+                "a/x.properties", "a/x_de.properties", "a/sub/y.properties", "a/sub/deep/z.properties", "a/sub.properties",
+                "a-b/q.properties", "b/w.properties", "b/ignored.txt",
+                "node_modules/lib/huge/n.properties")) {
+            Path path = root.resolve(file);
+            Files.createDirectories(path.getParent());
+            Files.write(path, new byte[]{'k', '=', 'v'});
+        }
+    }
+
+    @After
+    public void deleteTree() {
+        FileUtils.deleteQuietly(root.toFile());
+    }
+
+    @Test
+    public void when_patterns_are_discovered__then_result_equals_to_expanding_patterns_one_by_one() throws IOException {
+        List<String> patterns = Arrays.asList(
+                root + "/a/**/*.properties",
+                root + "/b/*.properties",
+                root + "/a-b/q.properties",
+                root + "/a/sub/y.properties"
+        );
+
+        MessageFileDiscovery.DiscoveryResult result = new MessageFileDiscovery(resourceLoader).discover(patterns);
+
+        assertThat(result.getPaths(), contains(expandOneByOne(patterns).toArray()));
+        assertThat(result.getMissingPaths(), is(empty()));
+    }
+
+    @Test
+    public void when_literal_path_does_not_exist__then_it_is_reported_as_missing() throws IOException {
+        List<String> patterns = Arrays.asList(
+                root + "/b/*.properties",
+                root + "/b/missing.properties",
+                root + "/nonexistent/dir/other.properties"
+        );
+
+        MessageFileDiscovery.DiscoveryResult result = new MessageFileDiscovery(resourceLoader).discover(patterns);
+
+        assertThat(result.getPaths(), contains(root + "/b/w.properties"));
+        assertThat(result.getMissingPaths(), contains(root + "/b/missing.properties", root + "/nonexistent/dir/other.properties"));
+    }
+
+    @Test
+    public void when_directory_cannot_contain_match__then_it_is_not_entered() throws IOException {
+        List<String> patterns = Arrays.asList(
+                root + "/*/sub/**/*.properties",
+                root + "/b/*.properties"
+        );
+
+        MessageFileDiscovery.DiscoveryResult result = new MessageFileDiscovery(resourceLoader).discover(patterns);
+
+        assertThat(result.getPaths(), contains(expandOneByOne(patterns).toArray()));
+        // root, a, a-b, b, node_modules, a/sub and a/sub/deep - node_modules/lib cannot contain "sub" on the second level
+        assertThat(result.getVisitedDirectoryCount(), equalTo(7));
+    }
+
+    private List<String> expandOneByOne(List<String> patterns) throws IOException {
+        PathUtils pathUtils = new PathUtils();
+        Set<String> paths = new LinkedHashSet<>();
+        for (String pattern : patterns) {
+            paths.addAll(pathUtils.expandPath(pattern, resourceLoader));
+        }
+        return new ArrayList<>(paths);
+    }
+
+}